@@ -1,5 +1,7 @@
 package de.tum.in.www1.artemis.aop.logging;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import io.github.jhipster.config.JHipsterConstants;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -7,26 +9,65 @@ import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.env.Environment;
+import org.springframework.util.ClassUtils;
 
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Aspect for logging execution of service and repository Spring components.
  *
- * By default, it only runs with the "dev" profile.
+ * By default, it only runs with the "dev" profile. Besides the debug log lines, it can record the durations of a sample of
+ * the calls into a timer per method. The sample rate is configured per package, class or method, e.g.
+ * "de.tum.in.www1.artemis.repository=0.01,de.tum.in.www1.artemis.service.CompassService.getNextOptimalModel=1",
+ * the longest matching prefix wins. Without sampling and with debug logging off, calls are passed through directly.
  */
 @Aspect
 public class LoggingAspect {
 
+    private static final String REPOSITORY_PACKAGE = "de.tum.in.www1.artemis.repository.";
+
     private final Logger log = LoggerFactory.getLogger(this.getClass());
 
     private final Environment env;
 
-    public LoggingAspect(Environment env) {
+    private final MetricRegistry metricRegistry;
+
+    private final double defaultSampleRate;
+
+    private final Map<String, Double> sampleRates;
+
+    private final boolean samplingEnabled;
+
+    private final Map<Class<?>, Map<Method, MethodTrace>> methodTraces = new ConcurrentHashMap<>();
+
+    /**
+     * @param env the environment of the application
+     * @param metricRegistry the registry of the timers of the sampled methods
+     * @param defaultSampleRate the fraction of the calls whose duration is recorded, if no sample rate matches the method
+     * @param sampleRates sample rates of packages, classes or methods in the format "prefix=rate"
+     */
+    public LoggingAspect(Environment env, MetricRegistry metricRegistry, double defaultSampleRate, String[] sampleRates) {
         this.env = env;
+        this.metricRegistry = metricRegistry;
+        this.defaultSampleRate = defaultSampleRate;
+        this.sampleRates = new HashMap<>();
+        for (String sampleRate : sampleRates) {
+            int separator = sampleRate.lastIndexOf('=');
+            if (separator > 0) {
+                this.sampleRates.put(sampleRate.substring(0, separator).trim(), Double.valueOf(sampleRate.substring(separator + 1).trim()));
+            }
+        }
+        this.samplingEnabled = metricRegistry != null && (defaultSampleRate > 0 || this.sampleRates.values().stream().anyMatch(rate -> rate > 0));
     }
 
     /**
@@ -49,13 +90,26 @@ public class LoggingAspect {
         // Method is empty as this is just a Pointcut, the implementations are in the advices.
     }
 
+    /**
+     * Pointcut that matches the quiz scheduler and the statistics, which are called for every submission at the end of a
+     * quiz. They are never intercepted by this aspect, i.e. their calls are neither logged nor timed (their beans can still
+     * be proxied for other reasons, e.g. @Transactional).
+     */
+    @Pointcut("within(de.tum.in.www1.artemis.service.QuizScheduleService)" +
+        " || within(de.tum.in.www1.artemis.service.*QuizStateStore)" +
+        " || within(de.tum.in.www1.artemis.service.StatisticService)" +
+        " || within(de.tum.in.www1.artemis.repository.*Statistic*Repository)")
+    public void quizHotPathPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
     /**
      * Advice that logs methods throwing exceptions.
      *
      * @param joinPoint join point for advice
      * @param e exception
      */
-    @AfterThrowing(pointcut = "applicationPackagePointcut() && springBeanPointcut()", throwing = "e")
+    @AfterThrowing(pointcut = "applicationPackagePointcut() && springBeanPointcut() && !quizHotPathPointcut()", throwing = "e")
     public void logAfterThrowing(JoinPoint joinPoint, Throwable e) {
         if (env.acceptsProfiles(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)) {
             log.error("Exception in {}.{}() with cause = \'{}\' and exception = \'{}\'", joinPoint.getSignature().getDeclaringTypeName(),
@@ -68,21 +122,38 @@ public class LoggingAspect {
     }
 
     /**
-     * Advice that logs when a method is entered and exited.
+     * Advice that logs when a method is entered and exited and records the duration of sampled calls.
      *
      * @param joinPoint join point for advice
      * @return result
      * @throws Throwable throws IllegalArgumentException
      */
-    @Around("applicationPackagePointcut() && springBeanPointcut()")
+    @Around("applicationPackagePointcut() && springBeanPointcut() && !quizHotPathPointcut()")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        if (log.isDebugEnabled()) {
+        boolean debugEnabled = log.isDebugEnabled();
+        if (!samplingEnabled && !debugEnabled) {
+            return joinPoint.proceed();
+        }
+        Timer timer = samplingEnabled ? sampledTimer(joinPoint) : null;
+        if (timer == null) {
+            return logAndProceed(joinPoint, debugEnabled);
+        }
+        long start = System.nanoTime();
+        try {
+            return logAndProceed(joinPoint, debugEnabled);
+        } finally {
+            timer.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Object logAndProceed(ProceedingJoinPoint joinPoint, boolean debugEnabled) throws Throwable {
+        if (debugEnabled) {
             log.debug("Enter: {}.{}() with argument[s] = {}", joinPoint.getSignature().getDeclaringTypeName(),
                 joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
         }
         try {
             Object result = joinPoint.proceed();
-            if (log.isDebugEnabled()) {
+            if (debugEnabled) {
                 log.debug("Exit: {}.{}() with result = {}", joinPoint.getSignature().getDeclaringTypeName(),
                     joinPoint.getSignature().getName(), result);
             }
@@ -94,4 +165,69 @@ public class LoggingAspect {
             throw e;
         }
     }
+
+    /**
+     * @param joinPoint join point of the call
+     * @return the timer of the called method if this call is sampled, null otherwise
+     */
+    private Timer sampledTimer(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Class<?> targetClass = joinPoint.getTarget() != null ? joinPoint.getTarget().getClass() : method.getDeclaringClass();
+        Map<Method, MethodTrace> targetTraces = methodTraces.get(targetClass);
+        if (targetTraces == null) {
+            targetTraces = methodTraces.computeIfAbsent(targetClass, key -> new ConcurrentHashMap<>());
+        }
+        MethodTrace methodTrace = targetTraces.get(method);
+        if (methodTrace == null) {
+            methodTrace = targetTraces.computeIfAbsent(method, key -> createMethodTrace(targetClass, key));
+        }
+        double sampleRate = methodTrace.sampleRate;
+        if (sampleRate <= 0 || (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return null;
+        }
+        return methodTrace.timer;
+    }
+
+    private MethodTrace createMethodTrace(Class<?> targetClass, Method method) {
+        String name = componentName(targetClass) + "." + method.getName();
+        double sampleRate = defaultSampleRate;
+        int matchedLength = -1;
+        for (Map.Entry<String, Double> entry : sampleRates.entrySet()) {
+            String prefix = entry.getKey();
+            if (prefix.length() > matchedLength && (name.equals(prefix) || name.startsWith(prefix + "."))) {
+                sampleRate = entry.getValue();
+                matchedLength = prefix.length();
+            }
+        }
+        Timer timer = sampleRate > 0 ? metricRegistry.timer(MetricRegistry.name("sampled", name)) : null;
+        return new MethodTrace(sampleRate, timer);
+    }
+
+    /**
+     * Methods inherited from CrudRepository or JpaRepository are declared there, so the repositories are named after
+     * the repository interface implemented by the target (a Spring Data proxy) instead of the declaring class.
+     *
+     * @param targetClass the class of the called bean
+     * @return the name of the repository interface of the bean, or the name of its user class for all other beans
+     */
+    static String componentName(Class<?> targetClass) {
+        for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(targetClass)) {
+            if (type.getName().startsWith(REPOSITORY_PACKAGE)) {
+                return type.getName();
+            }
+        }
+        return ClassUtils.getUserClass(targetClass).getName();
+    }
+
+    private static final class MethodTrace {
+
+        private final double sampleRate;
+
+        private final Timer timer;
+
+        private MethodTrace(double sampleRate, Timer timer) {
+            this.sampleRate = sampleRate;
+            this.timer = timer;
+        }
+    }
 }
@@ -0,0 +1,66 @@
+package de.tum.in.www1.artemis.config;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.NetworkConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Embedded Hazelcast member for running multiple ArTEMiS nodes behind a load balancer (profile "cluster").
+ *
+ * The members find each other via TCP/IP, e.g. artemis.cluster.members: 127.0.0.1:5701,127.0.0.1:5702 to run two
+ * nodes on one machine.
+ */
+@Configuration
+@Profile("cluster")
+public class ClusterConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(ClusterConfiguration.class);
+
+    @Value("${artemis.cluster.name:artemis}")
+    private String CLUSTER_NAME;
+
+    @Value("${artemis.cluster.port:5701}")
+    private int CLUSTER_PORT;
+
+    @Value("${artemis.cluster.members:127.0.0.1}")
+    private String[] CLUSTER_MEMBERS;
+
+    @Value("${artemis.cluster.backup-count:1}")
+    private int BACKUP_COUNT;
+
+    @Bean(destroyMethod = "shutdown")
+    public HazelcastInstance hazelcastInstance() {
+        Config config = new Config();
+        config.setInstanceName(CLUSTER_NAME);
+        config.getGroupConfig().setName(CLUSTER_NAME);
+        config.setProperty("hazelcast.logging.type", "slf4j");
+
+        NetworkConfig networkConfig = config.getNetworkConfig();
+        networkConfig.setPort(CLUSTER_PORT);
+        networkConfig.setPortAutoIncrement(true);
+
+        JoinConfig joinConfig = networkConfig.getJoin();
+        joinConfig.getMulticastConfig().setEnabled(false);
+        joinConfig.getAwsConfig().setEnabled(false);
+        joinConfig.getTcpIpConfig().setEnabled(true);
+        for (String member : CLUSTER_MEMBERS) {
+            joinConfig.getTcpIpConfig().addMember(member.trim());
+        }
+
+        // the state of running quizzes must survive the loss of a node
+        config.addMapConfig(new MapConfig("quiz-*").setBackupCount(BACKUP_COUNT));
+        config.getMultiMapConfig("quiz-results").setBackupCount(BACKUP_COUNT);
+
+        log.info("Starting Hazelcast member {} on port {} with members {}", CLUSTER_NAME, CLUSTER_PORT, String.join(",", CLUSTER_MEMBERS));
+        return Hazelcast.newHazelcastInstance(config);
+    }
+}
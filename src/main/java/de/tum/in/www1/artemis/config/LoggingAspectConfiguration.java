@@ -1,7 +1,10 @@
 package de.tum.in.www1.artemis.config;
 
+import com.codahale.metrics.MetricRegistry;
 import de.tum.in.www1.artemis.aop.logging.LoggingAspect;
 import io.github.jhipster.config.JHipsterConstants;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
@@ -12,9 +15,31 @@ import org.springframework.core.env.Environment;
 @EnableAspectJAutoProxy
 public class LoggingAspectConfiguration {
 
+    /**
+     * fraction of the intercepted calls whose duration is recorded, if no sample rate below matches the method
+     */
+    @Value("${artemis.logging-aspect.sample-rate:0}")
+    private double SAMPLE_RATE;
+
+    /**
+     * sample rates per package, class or method, e.g. "de.tum.in.www1.artemis.repository=0.01"
+     */
+    @Value("${artemis.logging-aspect.sample-rates:}")
+    private String[] SAMPLE_RATES;
+
     @Bean
     @Profile(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)
-    public LoggingAspect loggingAspect(Environment env) {
-        return new LoggingAspect(env);
+    public LoggingAspect loggingAspect(Environment env, MetricRegistry metricRegistry) {
+        return new LoggingAspect(env, metricRegistry, SAMPLE_RATE, SAMPLE_RATES);
+    }
+
+    /**
+     * Sampled tracing on other profiles, e.g. in production: artemis.logging-aspect.enabled=true
+     */
+    @Bean
+    @Profile("!" + JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)
+    @ConditionalOnProperty(name = "artemis.logging-aspect.enabled")
+    public LoggingAspect samplingLoggingAspect(Environment env, MetricRegistry metricRegistry) {
+        return new LoggingAspect(env, metricRegistry, SAMPLE_RATE, SAMPLE_RATES);
     }
 }
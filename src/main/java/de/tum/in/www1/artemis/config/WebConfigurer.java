@@ -7,6 +7,8 @@ import io.github.jhipster.config.JHipsterConstants;
 import io.github.jhipster.config.JHipsterProperties;
 import io.github.jhipster.web.filter.CachingHttpHeadersFilter;
 import io.undertow.UndertowOptions;
+import io.undertow.websockets.extensions.PerMessageDeflateHandshake;
+import io.undertow.websockets.jsr.WebSocketDeploymentInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -89,6 +91,26 @@ public class WebConfigurer implements ServletContextInitializer, EmbeddedServlet
                 .addBuilderCustomizers(builder ->
                     builder.setServerOption(UndertowOptions.ENABLE_HTTP2, true));
         }
+
+        /*
+         * Compress websocket messages with permessage-deflate (RFC 7692) for clients that support it. The JSON messages
+         * of quizzes and statistics compress well, which matters when they are sent to thousands of students at once.
+         */
+        if (env.getProperty("artemis.websocket.compression", Boolean.class, true) &&
+            container instanceof UndertowEmbeddedServletContainerFactory) {
+
+            int compressionLevel = env.getProperty("artemis.websocket.compression-level", Integer.class, 6);
+            ((UndertowEmbeddedServletContainerFactory) container)
+                .addDeploymentInfoCustomizers(deploymentInfo -> {
+                    WebSocketDeploymentInfo webSocketDeploymentInfo =
+                        (WebSocketDeploymentInfo) deploymentInfo.getServletContextAttributes().get(WebSocketDeploymentInfo.ATTRIBUTE_NAME);
+                    if (webSocketDeploymentInfo == null) {
+                        webSocketDeploymentInfo = new WebSocketDeploymentInfo();
+                        deploymentInfo.addServletContextAttribute(WebSocketDeploymentInfo.ATTRIBUTE_NAME, webSocketDeploymentInfo);
+                    }
+                    webSocketDeploymentInfo.addExtension(new PerMessageDeflateHandshake(false, compressionLevel));
+                });
+        }
     }
 
     private void setLocationForStaticAssets(ConfigurableEmbeddedServletContainer container) {
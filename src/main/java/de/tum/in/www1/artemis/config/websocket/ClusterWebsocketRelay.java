@@ -0,0 +1,92 @@
+package de.tum.in.www1.artemis.config.websocket;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import com.hazelcast.core.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptorAdapter;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeType;
+
+import java.io.Serializable;
+import java.util.function.Supplier;
+
+/**
+ * Relays the messages that are sent to the broker of this node to the brokers of all other nodes of the cluster.
+ *
+ * Every node only knows the websocket sessions connected to it, so e.g. the quiz statistics sent by the node that
+ * processes a quiz have to be delivered by the other nodes as well. Messages to user destinations are relayed before
+ * they are resolved, each node then resolves them against its own sessions.
+ */
+public class ClusterWebsocketRelay extends ChannelInterceptorAdapter {
+
+    private final Logger log = LoggerFactory.getLogger(ClusterWebsocketRelay.class);
+
+    private static final String RELAYED_HEADER = "artemisRelayed";
+
+    /**
+     * a message sent to the broker, as published to the other nodes
+     */
+    static class RelayedMessage implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String destination;
+        private final String contentType;
+        private final byte[] payload;
+
+        RelayedMessage(String destination, String contentType, byte[] payload) {
+            this.destination = destination;
+            this.contentType = contentType;
+            this.payload = payload;
+        }
+    }
+
+    private final ITopic<RelayedMessage> topic;
+    private final Supplier<MessageChannel> brokerChannel;
+
+    public ClusterWebsocketRelay(HazelcastInstance hazelcastInstance, Supplier<MessageChannel> brokerChannel) {
+        this.topic = hazelcastInstance.getTopic("websocket-relay");
+        this.brokerChannel = brokerChannel;
+        this.topic.addMessageListener(this::onRelayedMessage);
+    }
+
+    @Override
+    public org.springframework.messaging.Message<?> preSend(org.springframework.messaging.Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE || destination == null
+            || !(message.getPayload() instanceof byte[])
+            // the message was relayed from another node, or it is a user destination that was already resolved
+            || headers.containsKey(RELAYED_HEADER) || SimpMessageHeaderAccessor.getFirstNativeHeader(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION, headers) != null) {
+            return message;
+        }
+        try {
+            Object contentType = headers.get(MessageHeaders.CONTENT_TYPE);
+            topic.publish(new RelayedMessage(destination, contentType != null ? contentType.toString() : null, (byte[]) message.getPayload()));
+        } catch (Exception e) {
+            log.error("Could not relay websocket message to {}: {}", destination, e.getMessage());
+        }
+        return message;
+    }
+
+    private void onRelayedMessage(Message<RelayedMessage> message) {
+        if (message.getPublishingMember().localMember()) {
+            // the message has already been sent on this node
+            return;
+        }
+        RelayedMessage relayedMessage = message.getMessageObject();
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(relayedMessage.destination);
+        if (relayedMessage.contentType != null) {
+            accessor.setContentType(MimeType.valueOf(relayedMessage.contentType));
+        }
+        accessor.setHeader(RELAYED_HEADER, true);
+        brokerChannel.get().send(MessageBuilder.createMessage(relayedMessage.payload, accessor.getMessageHeaders()));
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.SubscribableChannel;
 import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.messaging.SubProtocolHandler;
 import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
@@ -22,10 +23,12 @@ public class CustomSubProtocolWebSocketHandler extends SubProtocolWebSocketHandl
         super(clientInboundChannel, clientOutboundChannel);
     }
 
+    /**
+     * Called by afterConnectionEstablished, the decorated session is used for all outbound messages
+     */
     @Override
-    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
-        customWebsocketSessionHandler.register(session);
-        super.afterConnectionEstablished(session);
+    protected WebSocketSession decorateSession(WebSocketSession session) {
+        return customWebsocketSessionHandler.register(session, getSendTimeLimit(), getSendBufferSizeLimit());
     }
 
     @Override
@@ -34,24 +37,14 @@ public class CustomSubProtocolWebSocketHandler extends SubProtocolWebSocketHandl
         super.afterConnectionClosed(session, closeStatus);
     }
 
-//    /**
-//     * Handle an outbound Spring Message to a WebSocket client.
-//     */
-//    @Override
-//    public void handleMessage(Message<?> message) throws MessagingException {
-//        String sessionId = resolveSessionId(message);
-//        customWebsocketSessionHandler.handleOutboundMessage(sessionId, message);
-//        super.handleMessage(message);
-//    }
-//
-//    /**
-//     * Handle an inbound message from a WebSocket client.
-//     */
-//    @Override
-//    public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
-//        customWebsocketSessionHandler.handleInboundMessage(session, message);
-//        super.handleMessage(session, message);
-//    }
+    /**
+     * Handle an inbound message from a WebSocket client.
+     */
+    @Override
+    public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
+        customWebsocketSessionHandler.handleInboundMessage(session);
+        super.handleMessage(session, message);
+    }
 
     private String resolveSessionId(Message<?> message) {
         for (SubProtocolHandler handler : getProtocolHandlers()) {
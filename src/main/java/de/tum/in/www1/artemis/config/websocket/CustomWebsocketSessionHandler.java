@@ -1,62 +1,85 @@
 package de.tum.in.www1.artemis.config.websocket;
 
+import com.codahale.metrics.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.WebSocketSession;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Keeps track of the open websocket sessions.
+ *
+ * Every few seconds the sessions are checked: sessions that are stuck in sending a message for longer than the send
+ * time limit (slow clients) and sessions without any inbound message (including heartbeats) for longer than the
+ * session timeout (dead clients) are closed, so that they don't hold an outbound thread or buffered messages.
+ */
 @Service
 public class CustomWebsocketSessionHandler {
     private final Logger log = LoggerFactory.getLogger(CustomWebsocketSessionHandler.class);
     private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
 
     private final Map<String, CustomWebsocketSessionHolder> sessionMap = new ConcurrentHashMap<>();
-    private static final int SESSION_TIMEOUT = 60 * 1000;
-
-
-    public CustomWebsocketSessionHandler() {
-        scheduler.scheduleAtFixedRate(new Runnable() {
-            @Override
-            public void run() {
-                //DEACTIVATED AT THE MOMENT because we don't receive the Heart Beats and it is not necessary because the websockets work reliably
-//                long currentTime = System.currentTimeMillis();
-////                log.info("Try to close old websocket sessions");
-//                sessionMap.keySet().forEach(sessionId -> {
-////                    try {
-//                        CustomWebsocketSessionHolder sessionHolder = sessionMap.get(sessionId);
-//                        long timeSinceLastMessage = currentTime - sessionHolder.getLastMessageTime();
-//                        log.debug("Session " + sessionId + ": time since last message: " + timeSinceLastMessage);
-//                        WebSocketSession session = sessionHolder.getSession();
-//                        if (session.isOpen()) {
-//                            if (timeSinceLastMessage > SESSION_TIMEOUT) {
-////                                log.info("Try to close websocket session " + sessionId + " for user " + session.getPrincipal().getName());
-//
-////                                session.close();
-////                                sessionMap.remove(sessionId);
-//                            }
-//                        }
-//                        else {
-//                            sessionMap.remove(sessionId);
-//                        }
-////                    } catch (IOException e) {
-////                        log.error("Error while closing websocket session: {}", e.getMessage());
-////                    }
-//                });
-                log.info("There are " + sessionMap.size() + " websocket sessions open!");
-            }
-        }, 60, 60, TimeUnit.SECONDS);
+
+    /**
+     * 0 disables closing sessions without inbound messages (e.g. if the clients don't send heartbeats)
+     */
+    @Value("${artemis.websocket.session-timeout-ms:60000}")
+    private long SESSION_TIMEOUT;
+
+    @Value("${artemis.websocket.session-check-interval-ms:5000}")
+    private long SESSION_CHECK_INTERVAL;
+
+    private final Histogram queueLength;
+    private final Histogram bufferedBytes;
+    private final Counter droppedMessages;
+    private final Counter droppedBytes;
+    private final Meter evictedSessions;
+
+    public CustomWebsocketSessionHandler(MetricRegistry metricRegistry) {
+        this.queueLength = metricRegistry.histogram(MetricRegistry.name(CustomWebsocketSessionHandler.class, "sessionQueueLength"));
+        this.bufferedBytes = metricRegistry.histogram(MetricRegistry.name(CustomWebsocketSessionHandler.class, "sessionBufferedBytes"));
+        this.droppedMessages = metricRegistry.counter(MetricRegistry.name(CustomWebsocketSessionHandler.class, "droppedMessages"));
+        this.droppedBytes = metricRegistry.counter(MetricRegistry.name(CustomWebsocketSessionHandler.class, "droppedBytes"));
+        this.evictedSessions = metricRegistry.meter(MetricRegistry.name(CustomWebsocketSessionHandler.class, "evictedSessions"));
+        metricRegistry.register(MetricRegistry.name(CustomWebsocketSessionHandler.class, "sessions"), (Gauge<Integer>) sessionMap::size);
+    }
+
+    @PostConstruct
+    public void init() {
+        scheduler.scheduleAtFixedRate(() -> log.info("There are " + sessionMap.size() + " websocket sessions open!"), 60, 60, TimeUnit.SECONDS);
+        scheduler.scheduleWithFixedDelay(this::checkSessions, SESSION_CHECK_INTERVAL, SESSION_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdownNow();
     }
 
-    public void register(WebSocketSession session) {
+    /**
+     * Decorate the given session so that outbound messages are buffered while the client is slow and register it
+     *
+     * @param session         the new session
+     * @param sendTimeLimit   the maximum time in ms a single send to the client may take
+     * @param bufferSizeLimit the maximum number of bytes that are buffered for the client
+     * @return the decorated session
+     */
+    public WebSocketSession register(WebSocketSession session, int sendTimeLimit, int bufferSizeLimit) {
+        WebSocketSession decoratedSession = new MeteredWebSocketSessionDecorator(session, sendTimeLimit, bufferSizeLimit, droppedMessages, droppedBytes, evictedSessions);
         int count = sessionMap.size();
         log.debug("New websocket session #" + (count+1) + ": " + session.getId() + " was established for user " + session.getPrincipal().getName());
-        sessionMap.put(session.getId(), new CustomWebsocketSessionHolder(session));
+        sessionMap.put(session.getId(), new CustomWebsocketSessionHolder(decoratedSession, sendTimeLimit));
+        return decoratedSession;
     }
 
     public void deregister(WebSocketSession session) {
@@ -64,32 +87,59 @@ public class CustomWebsocketSessionHandler {
         sessionMap.remove(session.getId());
     }
 
-//    public void handleOutboundMessage(String sessionId, Message<?> message) {
-//        if (sessionId != null) {
-//            CustomWebsocketSessionHolder sessionHolder = sessionMap.get(sessionId);
-//            if (sessionHolder != null) {
-//                WebSocketSession session = sessionHolder.getSession();
-//                if (session != null) {
-//                    String user = "unknown";
-//                    if (session.getPrincipal() != null) {
-//                        user = session.getPrincipal().getName();
-//                    }
-//                    log.debug("Websocket outbound message was handled for session " + sessionId + " for user " + user);
-//                    sessionHolder.setLastMessageTime(System.currentTimeMillis());
-//                }
-//            }
-//        }
-//    }
-//
-//    public void handleInboundMessage(WebSocketSession session, WebSocketMessage<?> message) {
-//        CustomWebsocketSessionHolder sessionHolder = sessionMap.get(session.getId());
-//        if (sessionHolder != null) {
-//            String user = "unknown";
-//            if (session.getPrincipal() != null) {
-//                user = session.getPrincipal().getName();
-//            }
-//            log.debug("Websocket inbound message was handled for session " + session.getId() + " for user " + user);
-//            sessionHolder.setLastMessageTime(System.currentTimeMillis());
-//        }
-//    }
+    /**
+     * Remember that the client of the given session is alive
+     *
+     * @param session the session that received a message (or heartbeat)
+     */
+    public void handleInboundMessage(WebSocketSession session) {
+        CustomWebsocketSessionHolder sessionHolder = sessionMap.get(session.getId());
+        if (sessionHolder != null) {
+            sessionHolder.setLastMessageTime(System.currentTimeMillis());
+        }
+    }
+
+    private void checkSessions() {
+        try {
+            long currentTime = System.currentTimeMillis();
+            for (CustomWebsocketSessionHolder sessionHolder : sessionMap.values()) {
+                WebSocketSession session = sessionHolder.getSession();
+                if (!session.isOpen()) {
+                    sessionMap.remove(session.getId());
+                    continue;
+                }
+
+                if (session instanceof MeteredWebSocketSessionDecorator) {
+                    MeteredWebSocketSessionDecorator decorator = (MeteredWebSocketSessionDecorator) session;
+                    queueLength.update(decorator.getQueueLength());
+                    bufferedBytes.update(decorator.getBufferSize());
+                    // the limits are only checked by the decorator when the next message is sent, a client that stopped reading would block a thread until then
+                    if (decorator.getTimeSinceSendStarted() > sessionHolder.getSendTimeLimit()) {
+                        log.info("Closing websocket session {} because sending to the client takes {} ms", session.getId(), decorator.getTimeSinceSendStarted());
+                        decorator.dropQueuedMessages();
+                        close(session);
+                        continue;
+                    }
+                }
+
+                long timeSinceLastMessage = currentTime - sessionHolder.getLastMessageTime();
+                if (SESSION_TIMEOUT > 0 && timeSinceLastMessage > SESSION_TIMEOUT) {
+                    log.info("Closing websocket session {} because the client did not send anything for {} ms", session.getId(), timeSinceLastMessage);
+                    close(session);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error while checking websocket sessions: {}", e.getMessage());
+        }
+    }
+
+    private void close(WebSocketSession session) {
+        evictedSessions.mark();
+        sessionMap.remove(session.getId());
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            log.error("Error while closing websocket session: {}", e.getMessage());
+        }
+    }
 }
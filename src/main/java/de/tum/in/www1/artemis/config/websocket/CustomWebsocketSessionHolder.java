@@ -6,10 +6,12 @@ public class CustomWebsocketSessionHolder {
 
     private WebSocketSession session;
     private final long createTime;
-    private long lastMessageTime;
+    private final int sendTimeLimit;
+    private volatile long lastMessageTime;
 
-    public CustomWebsocketSessionHolder(WebSocketSession session) {
+    public CustomWebsocketSessionHolder(WebSocketSession session, int sendTimeLimit) {
         this.session = session;
+        this.sendTimeLimit = sendTimeLimit;
         this.createTime = System.currentTimeMillis();
         this.lastMessageTime = this.createTime;
     }
@@ -22,6 +24,10 @@ public class CustomWebsocketSessionHolder {
         this.session = session;
     }
 
+    public int getSendTimeLimit() {
+        return sendTimeLimit;
+    }
+
     public long getLastMessageTime() {
         return lastMessageTime;
     }
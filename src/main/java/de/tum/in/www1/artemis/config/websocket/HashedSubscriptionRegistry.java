@@ -0,0 +1,179 @@
+package de.tum.in.www1.artemis.config.websocket;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.broker.AbstractSubscriptionRegistry;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.PathMatcher;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Subscription registry of the simple broker that finds the subscribers of a destination with a hash lookup.
+ *
+ * Spring's DefaultSubscriptionRegistry matches every destination against all subscriptions (and caches the result),
+ * which gets expensive when thousands of students subscribe to their own topics during a quiz. Here, subscriptions to
+ * concrete destinations are kept in a map by destination. Only subscriptions with patterns (e.g. /topic/**) are matched
+ * against the destination. The subscribers of each destination are a concurrent map that is changed in place, so that
+ * (un)subscribing costs the same no matter how many students subscribed to the destination, and sending never waits
+ * for (un)subscriptions.
+ */
+public class HashedSubscriptionRegistry extends AbstractSubscriptionRegistry {
+
+    private static final MultiValueMap<String, String> NO_SUBSCRIPTIONS = new LinkedMultiValueMap<>();
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    /**
+     * subscription ids by session id for each concrete destination
+     */
+    private final Map<String, DestinationSubscriptions> subscriptionsByDestination = new ConcurrentHashMap<>();
+
+    /**
+     * subscription ids by session id for each destination pattern
+     */
+    private final Map<String, DestinationSubscriptions> subscriptionsByPattern = new ConcurrentHashMap<>();
+
+    /**
+     * destination (or pattern) by subscription id for each session
+     */
+    private final Map<String, Map<String, String>> destinationsBySession = new ConcurrentHashMap<>();
+
+    @Override
+    protected void addSubscriptionInternal(String sessionId, String subsId, String destination, Message<?> message) {
+        destinationsBySession.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>()).put(subsId, destination);
+        // compute locks the destination, so that the subscriptions cannot be removed from the registry while adding to them
+        getSubscriptions(destination).compute(destination, (key, subscriptions) -> {
+            if (subscriptions == null) {
+                subscriptions = new DestinationSubscriptions();
+            }
+            subscriptions.add(sessionId, subsId);
+            return subscriptions;
+        });
+    }
+
+    @Override
+    protected void removeSubscriptionInternal(String sessionId, String subsId, Message<?> message) {
+        Map<String, String> destinations = destinationsBySession.get(sessionId);
+        if (destinations == null) {
+            return;
+        }
+        String destination = destinations.remove(subsId);
+        if (destination != null) {
+            removeSubscription(sessionId, subsId, destination);
+        }
+    }
+
+    @Override
+    public void unregisterAllSubscriptions(String sessionId) {
+        Map<String, String> destinations = destinationsBySession.remove(sessionId);
+        if (destinations == null) {
+            return;
+        }
+        for (Map.Entry<String, String> entry : destinations.entrySet()) {
+            removeSubscription(sessionId, entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    protected MultiValueMap<String, String> findSubscriptionsInternal(String destination, Message<?> message) {
+        MultiValueMap<String, String> subscriptions = subscriptionsByDestination.get(destination);
+        if (subscriptions == null) {
+            subscriptions = NO_SUBSCRIPTIONS;
+        }
+        if (subscriptionsByPattern.isEmpty()) {
+            return subscriptions;
+        }
+        LinkedMultiValueMap<String, String> result = null;
+        for (Map.Entry<String, DestinationSubscriptions> entry : subscriptionsByPattern.entrySet()) {
+            if (pathMatcher.match(entry.getKey(), destination)) {
+                if (result == null) {
+                    // the subscriptions of the registry must not be changed, so they are copied into the result
+                    result = new LinkedMultiValueMap<>();
+                    addAll(result, subscriptions);
+                }
+                addAll(result, entry.getValue());
+            }
+        }
+        return result != null ? result : subscriptions;
+    }
+
+    private void removeSubscription(String sessionId, String subsId, String destination) {
+        getSubscriptions(destination).computeIfPresent(destination, (key, subscriptions) -> {
+            subscriptions.removeSubscription(sessionId, subsId);
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+    }
+
+    private Map<String, DestinationSubscriptions> getSubscriptions(String destination) {
+        return pathMatcher.isPattern(destination) ? subscriptionsByPattern : subscriptionsByDestination;
+    }
+
+    private static void addAll(MultiValueMap<String, String> target, MultiValueMap<String, String> subscriptions) {
+        for (Map.Entry<String, List<String>> sessionSubscriptions : subscriptions.entrySet()) {
+            for (String subsId : sessionSubscriptions.getValue()) {
+                target.add(sessionSubscriptions.getKey(), subsId);
+            }
+        }
+    }
+
+    /**
+     * Subscription ids by session id of one destination. A session usually has only one subscription per destination,
+     * so its subscription ids are copied on write, while the sessions of the destination are changed in place.
+     */
+    private static final class DestinationSubscriptions extends ConcurrentHashMap<String, List<String>> implements MultiValueMap<String, String> {
+
+        @Override
+        public String getFirst(String sessionId) {
+            List<String> subsIds = get(sessionId);
+            return subsIds != null && !subsIds.isEmpty() ? subsIds.get(0) : null;
+        }
+
+        @Override
+        public void add(String sessionId, String subsId) {
+            // compute locks the session, so that its subscription ids cannot be removed from the map while adding to them
+            compute(sessionId, (id, subsIds) -> {
+                if (subsIds == null) {
+                    subsIds = new CopyOnWriteArrayList<>();
+                }
+                subsIds.add(subsId);
+                return subsIds;
+            });
+        }
+
+        @Override
+        public void set(String sessionId, String subsId) {
+            List<String> subsIds = new CopyOnWriteArrayList<>();
+            subsIds.add(subsId);
+            put(sessionId, subsIds);
+        }
+
+        @Override
+        public void setAll(Map<String, String> values) {
+            values.forEach(this::set);
+        }
+
+        @Override
+        public Map<String, String> toSingleValueMap() {
+            Map<String, String> singleValueMap = new LinkedHashMap<>(size());
+            forEach((sessionId, subsIds) -> {
+                if (!subsIds.isEmpty()) {
+                    singleValueMap.put(sessionId, subsIds.get(0));
+                }
+            });
+            return singleValueMap;
+        }
+
+        private void removeSubscription(String sessionId, String subsId) {
+            computeIfPresent(sessionId, (id, subsIds) -> {
+                subsIds.remove(subsId);
+                return subsIds.isEmpty() ? null : subsIds;
+            });
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package de.tum.in.www1.artemis.config.websocket;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Session decorator that buffers outbound messages while the client is slow (like Spring's default decorator) and
+ * counts the messages (and bytes) that are lost when the session exceeds the send time or buffer size limit and is closed.
+ *
+ * The decorated session counts the messages that were actually sent to the client, so the number of queued messages is
+ * the number of accepted messages minus the number of sent messages.
+ */
+public class MeteredWebSocketSessionDecorator extends ConcurrentWebSocketSessionDecorator {
+
+    private final SentMessageCounter sentMessageCounter;
+    private final AtomicLong acceptedMessages = new AtomicLong();
+    private volatile boolean dropping = false;
+
+    private final Counter droppedMessages;
+    private final Counter droppedBytes;
+    private final Meter evictedSessions;
+
+    public MeteredWebSocketSessionDecorator(WebSocketSession delegate, int sendTimeLimit, int bufferSizeLimit,
+                                            Counter droppedMessages, Counter droppedBytes, Meter evictedSessions) {
+        this(new SentMessageCounter(delegate), sendTimeLimit, bufferSizeLimit, droppedMessages, droppedBytes, evictedSessions);
+    }
+
+    private MeteredWebSocketSessionDecorator(SentMessageCounter delegate, int sendTimeLimit, int bufferSizeLimit,
+                                             Counter droppedMessages, Counter droppedBytes, Meter evictedSessions) {
+        super(delegate, sendTimeLimit, bufferSizeLimit);
+        this.sentMessageCounter = delegate;
+        this.droppedMessages = droppedMessages;
+        this.droppedBytes = droppedBytes;
+        this.evictedSessions = evictedSessions;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (dropping) {
+            // the session exceeded its limits or is being closed, the message is not sent anymore
+            droppedMessages.inc();
+            return;
+        }
+        acceptedMessages.incrementAndGet();
+        try {
+            super.sendMessage(message);
+        } catch (SessionLimitExceededException e) {
+            // the session will be closed by the SubProtocolWebSocketHandler, the buffered messages are lost
+            // (the buffer already includes the message that exceeded the limit)
+            dropQueuedMessages();
+            evictedSessions.mark();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        dropping = true;
+        super.close(status);
+    }
+
+    /**
+     * @return the number of messages that were accepted but not sent to the client yet
+     */
+    public long getQueueLength() {
+        return Math.max(0, acceptedMessages.get() - sentMessageCounter.getSentMessages());
+    }
+
+    /**
+     * Count the queued messages as dropped, must be called when the session is closed because of a slow client
+     */
+    public void dropQueuedMessages() {
+        dropping = true;
+        droppedMessages.inc(getQueueLength());
+        droppedBytes.inc(getBufferSize());
+    }
+
+    /**
+     * Counts the messages that were sent to the client
+     */
+    private static final class SentMessageCounter extends WebSocketSessionDecorator {
+
+        private final AtomicLong sentMessages = new AtomicLong();
+
+        private SentMessageCounter(WebSocketSession delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            super.sendMessage(message);
+            sentMessages.incrementAndGet();
+        }
+
+        private long getSentMessages() {
+            return sentMessages.get();
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package de.tum.in.www1.artemis.config.websocket;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.core.HazelcastInstance;
 import de.tum.in.www1.artemis.security.AuthoritiesConstants;
 import io.github.jhipster.config.JHipsterProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
@@ -15,6 +18,9 @@ import org.springframework.messaging.converter.CompositeMessageConverter;
 import org.springframework.messaging.converter.DefaultContentTypeResolver;
 import org.springframework.messaging.converter.MappingJackson2MessageConverter;
 import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -22,6 +28,7 @@ import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurationSupport;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 import org.springframework.web.socket.server.HandshakeInterceptor;
 import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
 
@@ -36,18 +43,127 @@ public class WebsocketConfiguration extends WebSocketMessageBrokerConfigurationS
 
     public static final String IP_ADDRESS = "IP_ADDRESS";
 
+    private static final int DEFAULT_CHANNEL_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    /**
+     * "simple" (in-process broker) or "relay" (external STOMP broker, e.g. ActiveMQ Artemis or RabbitMQ)
+     */
+    @Value("${artemis.websocket.broker:simple}")
+    private String BROKER;
+
+    @Value("${artemis.websocket.relay.host:localhost}")
+    private String RELAY_HOST;
+
+    @Value("${artemis.websocket.relay.port:61613}")
+    private int RELAY_PORT;
+
+    @Value("${artemis.websocket.relay.login:guest}")
+    private String RELAY_LOGIN;
+
+    @Value("${artemis.websocket.relay.passcode:guest}")
+    private String RELAY_PASSCODE;
+
+    @Value("${artemis.websocket.inbound-threads:0}")
+    private int INBOUND_THREADS;
+
+    @Value("${artemis.websocket.outbound-threads:0}")
+    private int OUTBOUND_THREADS;
+
+    /**
+     * 0 means that the broker sends on the thread of the sender, which keeps the order of the messages and slows
+     * down senders of large broadcasts instead of queueing them
+     */
+    @Value("${artemis.websocket.broker-threads:0}")
+    private int BROKER_THREADS;
+
+    /**
+     * sessions that need longer to send a message are closed (the client is too slow)
+     */
+    @Value("${artemis.websocket.send-time-limit-ms:5000}")
+    private int SEND_TIME_LIMIT;
+
+    /**
+     * sessions that buffer more outbound bytes are closed (the client is too slow)
+     */
+    @Value("${artemis.websocket.send-buffer-size-limit:524288}")
+    private int SEND_BUFFER_SIZE_LIMIT;
+
+    /**
+     * interval in ms of the heartbeats the server sends and expects from the clients (0 disables heartbeats)
+     */
+    @Value("${artemis.websocket.heartbeat-ms:10000}")
+    private long HEARTBEAT;
+
     private final JHipsterProperties jHipsterProperties;
     private final ObjectMapper objectMapper;
+    private final ObjectProvider<HazelcastInstance> hazelcastInstance;
 
     public WebsocketConfiguration(JHipsterProperties jHipsterProperties,
-                                  MappingJackson2HttpMessageConverter springMvcJacksonConverter) {
+                                  MappingJackson2HttpMessageConverter springMvcJacksonConverter,
+                                  ObjectProvider<HazelcastInstance> hazelcastInstance) {
         this.jHipsterProperties = jHipsterProperties;
         this.objectMapper = springMvcJacksonConverter.getObjectMapper();
+        this.hazelcastInstance = hazelcastInstance;
     }
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        if ("relay".equals(BROKER)) {
+            log.info("Relaying websocket messages to the STOMP broker at {}:{}", RELAY_HOST, RELAY_PORT);
+            // all nodes share the external broker, the user destinations are resolved by the node the user is connected to
+            config.enableStompBrokerRelay("/topic")
+                .setRelayHost(RELAY_HOST)
+                .setRelayPort(RELAY_PORT)
+                .setClientLogin(RELAY_LOGIN)
+                .setClientPasscode(RELAY_PASSCODE)
+                .setSystemLogin(RELAY_LOGIN)
+                .setSystemPasscode(RELAY_PASSCODE)
+                .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                .setUserRegistryBroadcast("/topic/simp-user-registry");
+        } else {
+            config.enableSimpleBroker("/topic")
+                .setHeartbeatValue(new long[] {HEARTBEAT, HEARTBEAT})
+                .setTaskScheduler(messageBrokerTaskScheduler());
+
+            // only available with the profile "cluster"
+            HazelcastInstance hazelcast = hazelcastInstance.getIfAvailable();
+            if (hazelcast != null) {
+                log.info("Relaying websocket messages to all nodes of the cluster");
+                config.configureBrokerChannel().interceptors(new ClusterWebsocketRelay(hazelcast, this::brokerChannel));
+            }
+        }
+
+        if (BROKER_THREADS > 0) {
+            config.configureBrokerChannel().taskExecutor().corePoolSize(BROKER_THREADS).maxPoolSize(BROKER_THREADS);
+        }
+    }
+
+    @Override
+    protected void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(SEND_TIME_LIMIT).setSendBufferSizeLimit(SEND_BUFFER_SIZE_LIMIT);
+    }
+
+    @Override
+    protected void configureClientInboundChannel(ChannelRegistration registration) {
+        int threads = INBOUND_THREADS > 0 ? INBOUND_THREADS : DEFAULT_CHANNEL_THREADS;
+        registration.taskExecutor().corePoolSize(threads).maxPoolSize(threads).keepAliveSeconds(60);
+    }
+
+    @Override
+    protected void configureClientOutboundChannel(ChannelRegistration registration) {
+        int threads = OUTBOUND_THREADS > 0 ? OUTBOUND_THREADS : DEFAULT_CHANNEL_THREADS;
+        registration.taskExecutor().corePoolSize(threads).maxPoolSize(threads).keepAliveSeconds(60);
+    }
+
+    @Bean
+    @Override
+    public AbstractBrokerMessageHandler simpleBrokerMessageHandler() {
+        AbstractBrokerMessageHandler handler = super.simpleBrokerMessageHandler();
+        if (handler instanceof SimpleBrokerMessageHandler) {
+            // find the subscribers of a destination with a hash lookup instead of matching all subscriptions
+            ((SimpleBrokerMessageHandler) handler).setSubscriptionRegistry(new HashedSubscriptionRegistry());
+        }
+        return handler;
     }
 
     @Override
@@ -227,21 +227,44 @@ public abstract class Exercise implements Serializable {
     }
 
     /**
-     * Get the latest relevant result from the given participation
-     * (relevancy depends on Exercise type => this should be overridden by subclasses if necessary)
+     * Get the latest relevant result from the loaded results of the given participation
+     * (relevancy depends on Exercise type, see findLatestRelevantResult(Result, Result))
      *
      * @param participation the participation whose results we are considering
      * @return the latest relevant result in the given participation, or null, if none exist
      */
     public Result findLatestRelevantResult(Participation participation) {
-        // for most types of exercises => return latest result (all results are relevant)
-        Result latestResult = null;
+        Result latestRatedResult = null;
+        Result latestUnratedResult = null;
         for (Result result : participation.getResults()) {
-            if (latestResult == null || latestResult.getCompletionDate().isBefore(result.getCompletionDate())) {
-                latestResult = result;
+            if (Boolean.TRUE.equals(result.isRated())) {
+                if (latestRatedResult == null || latestRatedResult.getCompletionDate().isBefore(result.getCompletionDate())) {
+                    latestRatedResult = result;
+                }
+            } else if (latestUnratedResult == null || latestUnratedResult.getCompletionDate().isBefore(result.getCompletionDate())) {
+                latestUnratedResult = result;
             }
         }
-        return latestResult;
+        return findLatestRelevantResult(latestRatedResult, latestUnratedResult);
+    }
+
+    /**
+     * Get the latest relevant result from the latest rated and the latest unrated result of a participation
+     * (relevancy depends on Exercise type => this should be overridden by subclasses if necessary)
+     *
+     * @param latestRatedResult   the latest rated result of the participation, or null
+     * @param latestUnratedResult the latest unrated result of the participation, or null
+     * @return the latest relevant result, or null, if none exist
+     */
+    public Result findLatestRelevantResult(Result latestRatedResult, Result latestUnratedResult) {
+        // for most types of exercises => return latest result (all results are relevant)
+        if (latestRatedResult == null) {
+            return latestUnratedResult;
+        }
+        if (latestUnratedResult == null || !latestRatedResult.getCompletionDate().isBefore(latestUnratedResult.getCompletionDate())) {
+            return latestRatedResult;
+        }
+        return latestUnratedResult;
     }
 
     @Override
@@ -0,0 +1,85 @@
+package de.tum.in.www1.artemis.domain;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * The ids of the latest rated and the latest unrated result (by completion date) of a participation, maintained by the
+ * LatestResultService in the transaction that saves or deletes a result.
+ *
+ * They are kept apart from the participation and are not in the second level cache, so that neither a participation
+ * saved from a stale instance (e.g. a request body) can reset them, nor an update of them evicts the cached participations.
+ */
+@Entity
+@Table(name = "participation_latest_result")
+public class ParticipationLatestResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "participation_id")
+    private Long participationId;
+
+    @Column(name = "latest_rated_result_id")
+    private Long latestRatedResultId;
+
+    @Column(name = "latest_unrated_result_id")
+    private Long latestUnratedResultId;
+
+    public ParticipationLatestResult() {
+    }
+
+    public ParticipationLatestResult(Long participationId) {
+        this.participationId = participationId;
+    }
+
+    public Long getParticipationId() {
+        return participationId;
+    }
+
+    public Long getLatestRatedResultId() {
+        return latestRatedResultId;
+    }
+
+    public void setLatestRatedResultId(Long latestRatedResultId) {
+        this.latestRatedResultId = latestRatedResultId;
+    }
+
+    public Long getLatestUnratedResultId() {
+        return latestUnratedResultId;
+    }
+
+    public void setLatestUnratedResultId(Long latestUnratedResultId) {
+        this.latestUnratedResultId = latestUnratedResultId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ParticipationLatestResult latestResult = (ParticipationLatestResult) o;
+        return participationId != null && Objects.equals(participationId, latestResult.participationId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(participationId);
+    }
+
+    @Override
+    public String toString() {
+        return "ParticipationLatestResult{" +
+            "participationId=" + participationId +
+            ", latestRatedResultId=" + latestRatedResultId +
+            ", latestUnratedResultId=" + latestUnratedResultId +
+            "}";
+    }
+}
@@ -482,18 +482,12 @@ public class QuizExercise extends Exercise implements Serializable {
     }
 
     @Override
-    public Result findLatestRelevantResult(Participation participation) {
+    public Result findLatestRelevantResult(Result latestRatedResult, Result latestUnratedResult) {
         if (shouldFilterForStudents()) {
             // results are never relevant before quiz has ended => return null
             return null;
         } else {
             // only rated results are considered relevant
-            Result latestRatedResult = null;
-            for (Result result : participation.getResults()) {
-                if (result.isRated() && (latestRatedResult == null || latestRatedResult.getCompletionDate().isBefore(result.getCompletionDate()))) {
-                    latestRatedResult = result;
-                }
-            }
             return latestRatedResult;
         }
     }
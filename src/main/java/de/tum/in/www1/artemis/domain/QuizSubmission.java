@@ -1,6 +1,7 @@
 package de.tum.in.www1.artemis.domain;
 
 import com.fasterxml.jackson.annotation.JsonView;
+import de.tum.in.www1.artemis.domain.scoring.CompiledQuiz;
 import de.tum.in.www1.artemis.domain.view.QuizView;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
@@ -102,6 +103,16 @@ public class QuizSubmission extends Submission implements Serializable {
         setScoreInPoints(quizExercise.getScoreInPointsForSubmission(this));
     }
 
+    /**
+     * calculates the scores for this submission and all its submitted answers and saves them in scoreInPoints
+     * using the precompiled representation of the quiz (preferred when scoring many submissions of the same quiz)
+     *
+     * @param compiledQuiz the compiled quiz this submission belongs to
+     */
+    public void calculateAndUpdateScores(CompiledQuiz compiledQuiz) {
+        compiledQuiz.calculateAndUpdateScores(this);
+    }
+
     /**
      * Remove all values for scoreInPoints in this submission and all its submitted answers
      */
@@ -293,14 +293,28 @@ public class Result implements Serializable {
      */
     public void evaluateSubmission() {
         if (submission instanceof QuizSubmission) {
-            QuizSubmission quizSubmission = (QuizSubmission) submission;
             // get the exercise this result belongs to
-            QuizExercise quizExercise = (QuizExercise) getParticipation().getExercise();
-            // update score
-            setScore(quizExercise.getScoreForSubmission(quizSubmission));
+            evaluateSubmission((QuizExercise) getParticipation().getExercise());
+        }
+    }
+
+    /**
+     * Updates the attributes "score" and "successful" by evaluating its submission with the given quiz exercise
+     * (instead of the exercise of the participation)
+     *
+     * @param quizExercise the quiz exercise the submission belongs to
+     */
+    public void evaluateSubmission(QuizExercise quizExercise) {
+        if (submission instanceof QuizSubmission) {
+            QuizSubmission quizSubmission = (QuizSubmission) submission;
+            // use the score calculated by calculateAndUpdateScores() if possible to avoid scoring the submission again
+            double scoreInPoints = quizSubmission.getScoreInPoints() != null ? quizSubmission.getScoreInPoints() : quizExercise.getScoreInPointsForSubmission(quizSubmission);
+            int maxScore = quizExercise.getMaxTotalScore();
+            // update score (mapped to the 0 to 100 scale)
+            setScore(Math.round(100.0 * scoreInPoints / maxScore));
             // update result string
             DecimalFormat formatter = new DecimalFormat("#.##"); // limit decimal places to 2
-            setResultString(formatter.format(quizExercise.getScoreInPointsForSubmission(quizSubmission)) + " of " + formatter.format(quizExercise.getMaxTotalScore()) + " points");
+            setResultString(formatter.format(scoreInPoints) + " of " + formatter.format(maxScore) + " points");
             // update successful
             setSuccessful(score == 100L);
         }
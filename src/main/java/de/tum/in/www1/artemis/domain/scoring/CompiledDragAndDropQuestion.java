@@ -0,0 +1,198 @@
+package de.tum.in.www1.artemis.domain.scoring;
+
+import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.enumeration.ScoringType;
+
+import java.util.*;
+
+/**
+ * Compiled drag and drop question: drop locations and drag items are numbered by their position in the question,
+ * the correct mappings are stored as an array of drag item indices per drop location.
+ * Implements the same rules as {@link ScoringStrategyDragAndDropAllOrNothing} and {@link ScoringStrategyDragAndDropProportionalWithPenalty}
+ */
+class CompiledDragAndDropQuestion extends CompiledQuestion {
+
+    /**
+     * the mapped drop locations of an answer are tracked in a single long, which limits the number of drop locations
+     */
+    static final int MAX_DROP_LOCATIONS = Long.SIZE;
+
+    /**
+     * drag item index for selected drag items that do not belong to this question
+     */
+    private static final int UNKNOWN_DRAG_ITEM = -1;
+
+    /**
+     * drag item index for correct drag items that do not belong to this question (never equal to a selected drag item)
+     */
+    private static final int UNKNOWN_CORRECT_DRAG_ITEM = -2;
+
+    private final boolean allOrNothing;
+
+    private final int numberOfDropLocations;
+
+    /**
+     * drop location id -> position of the drop location in the question
+     */
+    private final Map<Long, Integer> dropLocationIndices;
+
+    /**
+     * drag item id -> position of the drag item in the question
+     */
+    private final Map<Long, Integer> dragItemIndices;
+
+    /**
+     * for every drop location: the indices of the drag items that may be dropped onto it
+     */
+    private final int[][] correctDragItems;
+
+    private final BitSet invalidDropLocations = new BitSet();
+
+    private final BitSet invalidDragItems = new BitSet();
+
+    /**
+     * number of drop locations that were meant to not stay empty
+     */
+    private final int numberOfMappedDropLocations;
+
+    CompiledDragAndDropQuestion(DragAndDropQuestion question) {
+        super(question);
+        this.allOrNothing = question.getScoringType() == ScoringType.ALL_OR_NOTHING;
+
+        List<DropLocation> dropLocations = question.getDropLocations();
+        this.numberOfDropLocations = dropLocations.size();
+        this.dropLocationIndices = new HashMap<>(numberOfDropLocations * 2);
+        for (int i = 0; i < numberOfDropLocations; i++) {
+            dropLocationIndices.put(dropLocations.get(i).getId(), i);
+            invalidDropLocations.set(i, Boolean.TRUE.equals(dropLocations.get(i).isInvalid()));
+        }
+
+        List<DragItem> dragItems = question.getDragItems();
+        this.dragItemIndices = new HashMap<>(dragItems.size() * 2);
+        for (int i = 0; i < dragItems.size(); i++) {
+            dragItemIndices.put(dragItems.get(i).getId(), i);
+            invalidDragItems.set(i, Boolean.TRUE.equals(dragItems.get(i).isInvalid()));
+        }
+
+        this.correctDragItems = new int[numberOfDropLocations][];
+        int mappedDropLocations = 0;
+        for (int i = 0; i < numberOfDropLocations; i++) {
+            Set<DragItem> correctItems = question.getCorrectDragItemsForDropLocation(dropLocations.get(i));
+            int[] indices = new int[correctItems.size()];
+            int j = 0;
+            for (DragItem dragItem : correctItems) {
+                Integer index = dragItemIndices.get(dragItem.getId());
+                indices[j++] = index != null ? index : UNKNOWN_CORRECT_DRAG_ITEM;
+            }
+            correctDragItems[i] = indices;
+            if (indices.length > 0) {
+                mappedDropLocations++;
+            }
+        }
+        this.numberOfMappedDropLocations = mappedDropLocations;
+    }
+
+    /**
+     * Check if the given question can be compiled, i.e. if all drop locations and drag items have an id
+     * and the number of drop locations does not exceed {@link #MAX_DROP_LOCATIONS}
+     *
+     * @param question the question to check
+     * @return true, if the question can be compiled, false otherwise
+     */
+    static boolean isCompilable(DragAndDropQuestion question) {
+        if (question.getDropLocations().size() > MAX_DROP_LOCATIONS) {
+            return false;
+        }
+        for (DropLocation dropLocation : question.getDropLocations()) {
+            if (dropLocation.getId() == null) {
+                return false;
+            }
+        }
+        for (DragItem dragItem : question.getDragItems()) {
+            if (dragItem.getId() == null) {
+                return false;
+            }
+        }
+        for (DragAndDropMapping mapping : question.getCorrectMappings()) {
+            if (mapping.getDragItem() == null || mapping.getDropLocation() == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    double calculateScore(SubmittedAnswer submittedAnswer) {
+        if (invalid) {
+            return maxScore;
+        }
+        if (!(submittedAnswer instanceof DragAndDropSubmittedAnswer)) {
+            // the submitted answer's type doesn't fit the question's type => it cannot be correct
+            return 0.0;
+        }
+
+        int correctMappings = 0;
+        int incorrectMappings = 0;
+        long visitedDropLocations = 0L;
+
+        // first evaluate all drop locations the user dropped something onto
+        for (DragAndDropMapping mapping : ((DragAndDropSubmittedAnswer) submittedAnswer).getMappings()) {
+            if (mapping.getDropLocation() == null || mapping.getDragItem() == null) {
+                continue;
+            }
+            Integer dropLocationIndex = dropLocationIndices.get(mapping.getDropLocation().getId());
+            if (dropLocationIndex == null || (visitedDropLocations & (1L << dropLocationIndex)) != 0) {
+                // mappings for foreign drop locations are ignored, for each drop location only the first mapping counts
+                continue;
+            }
+            visitedDropLocations |= 1L << dropLocationIndex;
+
+            Integer dragItemIndex = dragItemIndices.get(mapping.getDragItem().getId());
+            int selectedDragItem = dragItemIndex != null ? dragItemIndex : UNKNOWN_DRAG_ITEM;
+            boolean isCorrect = contains(correctDragItems[dropLocationIndex], selectedDragItem);
+            boolean isInvalid = invalidDropLocations.get(dropLocationIndex)
+                || (selectedDragItem != UNKNOWN_DRAG_ITEM && invalidDragItems.get(selectedDragItem));
+
+            if (isInvalid || isCorrect) {
+                // points are only given for drop locations that were meant to not stay empty
+                if (correctDragItems[dropLocationIndex].length > 0) {
+                    correctMappings++;
+                }
+            } else {
+                incorrectMappings++;
+            }
+        }
+
+        // then evaluate all drop locations that were left empty
+        for (int i = 0; i < numberOfDropLocations; i++) {
+            if ((visitedDropLocations & (1L << i)) != 0 || correctDragItems[i].length == 0) {
+                // empty drop locations that were meant to stay empty don't influence the score
+                continue;
+            }
+            if (invalidDropLocations.get(i)) {
+                correctMappings++;
+            } else {
+                incorrectMappings++;
+            }
+        }
+
+        if (allOrNothing) {
+            return incorrectMappings == 0 ? maxScore : 0.0;
+        }
+
+        // every correct mapping increases fraction by 1/mappedDropLocations,
+        // every incorrect mapping decreases fraction by 1/mappedDropLocations
+        double mappedDropLocations = numberOfMappedDropLocations;
+        double fraction = ((correctMappings / mappedDropLocations) - (incorrectMappings / mappedDropLocations));
+        return Math.max(0, maxScore * fraction);
+    }
+
+    private static boolean contains(int[] dragItems, int dragItem) {
+        for (int item : dragItems) {
+            if (item == dragItem) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
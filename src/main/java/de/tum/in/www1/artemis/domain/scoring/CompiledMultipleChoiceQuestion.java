@@ -0,0 +1,114 @@
+package de.tum.in.www1.artemis.domain.scoring;
+
+import de.tum.in.www1.artemis.domain.AnswerOption;
+import de.tum.in.www1.artemis.domain.MultipleChoiceQuestion;
+import de.tum.in.www1.artemis.domain.MultipleChoiceSubmittedAnswer;
+import de.tum.in.www1.artemis.domain.SubmittedAnswer;
+import de.tum.in.www1.artemis.domain.enumeration.ScoringType;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled multiple choice question: the answer options are numbered by their position in the question
+ * and their correctness and validity are stored as bitsets.
+ * Implements the same rules as {@link ScoringStrategyMultipleChoiceAllOrNothing} and {@link ScoringStrategyMultipleChoiceProportionalWithPenalty}
+ */
+class CompiledMultipleChoiceQuestion extends CompiledQuestion {
+
+    private final boolean allOrNothing;
+
+    private final int numberOfOptions;
+
+    /**
+     * answer option id -> position of the answer option in the question
+     */
+    private final Map<Long, Integer> optionIndices;
+
+    private final BitSet correctOptions = new BitSet();
+
+    private final BitSet invalidOptions = new BitSet();
+
+    /**
+     * number of valid answer options that have to be selected
+     */
+    private final int numberOfValidCorrectOptions;
+
+    CompiledMultipleChoiceQuestion(MultipleChoiceQuestion question) {
+        super(question);
+        this.allOrNothing = question.getScoringType() == ScoringType.ALL_OR_NOTHING;
+
+        List<AnswerOption> answerOptions = question.getAnswerOptions();
+        this.numberOfOptions = answerOptions.size();
+        this.optionIndices = new HashMap<>(numberOfOptions * 2);
+        int validCorrect = 0;
+        for (int i = 0; i < numberOfOptions; i++) {
+            AnswerOption answerOption = answerOptions.get(i);
+            optionIndices.put(answerOption.getId(), i);
+            boolean isCorrect = Boolean.TRUE.equals(answerOption.isIsCorrect());
+            boolean isInvalid = Boolean.TRUE.equals(answerOption.isInvalid());
+            correctOptions.set(i, isCorrect);
+            invalidOptions.set(i, isInvalid);
+            if (isCorrect && !isInvalid) {
+                validCorrect++;
+            }
+        }
+        this.numberOfValidCorrectOptions = validCorrect;
+    }
+
+    /**
+     * Check if the given question can be compiled, i.e. if all of its answer options have an id
+     *
+     * @param question the question to check
+     * @return true, if the question can be compiled, false otherwise
+     */
+    static boolean isCompilable(MultipleChoiceQuestion question) {
+        for (AnswerOption answerOption : question.getAnswerOptions()) {
+            if (answerOption.getId() == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    double calculateScore(SubmittedAnswer submittedAnswer) {
+        if (invalid) {
+            return maxScore;
+        }
+        if (!(submittedAnswer instanceof MultipleChoiceSubmittedAnswer)) {
+            // the submitted answer's type doesn't fit the question's type => it cannot be correct
+            return 0.0;
+        }
+
+        // count the valid answer options the user was wrong about
+        // (either a correct option that is not selected, or an incorrect option that is selected)
+        int selectedValidCorrectOptions = 0;
+        int selectedValidIncorrectOptions = 0;
+        for (AnswerOption selectedOption : ((MultipleChoiceSubmittedAnswer) submittedAnswer).getSelectedOptions()) {
+            Integer index = optionIndices.get(selectedOption.getId());
+            if (index == null || invalidOptions.get(index)) {
+                // options of other questions and invalid options are ignored
+                continue;
+            }
+            if (correctOptions.get(index)) {
+                selectedValidCorrectOptions++;
+            } else {
+                selectedValidIncorrectOptions++;
+            }
+        }
+        int incorrectSelections = selectedValidIncorrectOptions + (numberOfValidCorrectOptions - selectedValidCorrectOptions);
+
+        if (allOrNothing) {
+            return incorrectSelections == 0 ? maxScore : 0.0;
+        }
+
+        // invalid answer options are treated as if they were answered correctly
+        double totalOptions = numberOfOptions;
+        double correctSelections = numberOfOptions - incorrectSelections;
+        double fraction = ((correctSelections / totalOptions) - (incorrectSelections / totalOptions));
+        return Math.max(0, maxScore * fraction);
+    }
+}
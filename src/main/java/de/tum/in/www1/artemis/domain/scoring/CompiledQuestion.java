@@ -0,0 +1,49 @@
+package de.tum.in.www1.artemis.domain.scoring;
+
+import de.tum.in.www1.artemis.domain.Question;
+import de.tum.in.www1.artemis.domain.SubmittedAnswer;
+
+/**
+ * Immutable, scoring-only representation of a question (see {@link CompiledQuiz})
+ */
+abstract class CompiledQuestion {
+
+    final double maxScore;
+
+    final boolean invalid;
+
+    CompiledQuestion(Question question) {
+        this.maxScore = question.getScore();
+        this.invalid = Boolean.TRUE.equals(question.isInvalid());
+    }
+
+    /**
+     * Calculate the score for the given answer to this question.
+     * This yields the same result as {@link Question#scoreForAnswer(SubmittedAnswer)} for the question this was compiled from
+     *
+     * @param submittedAnswer the answer to score
+     * @return the resulting score (usually between 0.0 and the max score of the question)
+     */
+    abstract double calculateScore(SubmittedAnswer submittedAnswer);
+
+    /**
+     * Fallback for questions that cannot be compiled (e.g. because they were not saved yet and have no ids)
+     */
+    static class Uncompiled extends CompiledQuestion {
+
+        private final Question question;
+
+        private final ScoringStrategy scoringStrategy;
+
+        Uncompiled(Question question) {
+            super(question);
+            this.question = question;
+            this.scoringStrategy = ScoringStrategyFactory.makeScoringStrategy(question);
+        }
+
+        @Override
+        double calculateScore(SubmittedAnswer submittedAnswer) {
+            return scoringStrategy.calculateScore(question, submittedAnswer);
+        }
+    }
+}
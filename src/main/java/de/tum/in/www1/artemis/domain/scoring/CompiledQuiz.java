@@ -0,0 +1,97 @@
+package de.tum.in.www1.artemis.domain.scoring;
+
+import de.tum.in.www1.artemis.domain.*;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, scoring-only representation of a quiz exercise.
+ *
+ * Compiling a quiz resolves the scoring strategy of every question once and stores the correct solution in flat
+ * structures (bitsets for answer options, index arrays for drag and drop mappings), so that scoring a submission
+ * is a single pass over its submitted answers without any entity comparisons.
+ * A compiled quiz must be rebuilt whenever the quiz is changed (see QuizScoringService).
+ */
+public class CompiledQuiz {
+
+    private final Long quizExerciseId;
+
+    private final int maxTotalScore;
+
+    /**
+     * question id -> compiled question
+     */
+    private final Map<Long, CompiledQuestion> questions;
+
+    private CompiledQuiz(QuizExercise quizExercise) {
+        this.quizExerciseId = quizExercise.getId();
+        this.maxTotalScore = quizExercise.getMaxTotalScore();
+        this.questions = new HashMap<>(quizExercise.getQuestions().size() * 2);
+        for (Question question : quizExercise.getQuestions()) {
+            questions.put(question.getId(), compileQuestion(question));
+        }
+    }
+
+    /**
+     * Compile the given quiz exercise. The questions of the quiz exercise have to be loaded
+     *
+     * @param quizExercise the quiz exercise to compile
+     * @return the compiled quiz
+     */
+    public static CompiledQuiz compile(QuizExercise quizExercise) {
+        return new CompiledQuiz(quizExercise);
+    }
+
+    private static CompiledQuestion compileQuestion(Question question) {
+        if (question instanceof MultipleChoiceQuestion && CompiledMultipleChoiceQuestion.isCompilable((MultipleChoiceQuestion) question)) {
+            return new CompiledMultipleChoiceQuestion((MultipleChoiceQuestion) question);
+        }
+        if (question instanceof DragAndDropQuestion && CompiledDragAndDropQuestion.isCompilable((DragAndDropQuestion) question)) {
+            return new CompiledDragAndDropQuestion((DragAndDropQuestion) question);
+        }
+        return new CompiledQuestion.Uncompiled(question);
+    }
+
+    public Long getQuizExerciseId() {
+        return quizExerciseId;
+    }
+
+    public int getMaxTotalScore() {
+        return maxTotalScore;
+    }
+
+    /**
+     * Calculate the scores for the given submission and all its submitted answers and save them in scoreInPoints.
+     * Yields the same result as {@link QuizSubmission#calculateAndUpdateScores(QuizExercise)} for the quiz exercise this
+     * was compiled from: like {@link QuizSubmission#getSubmittedAnswerForQuestion(Question)}, only the first submitted
+     * answer per question is scored.
+     *
+     * @param quizSubmission the submission to score
+     */
+    public void calculateAndUpdateScores(QuizSubmission quizSubmission) {
+        double score = 0.0;
+        Set<Long> scoredQuestionIds = new HashSet<>();
+        for (SubmittedAnswer submittedAnswer : quizSubmission.getSubmittedAnswers()) {
+            Question question = submittedAnswer.getQuestion();
+            if (question == null || question.getId() == null) {
+                continue;
+            }
+            CompiledQuestion compiledQuestion = questions.get(question.getId());
+            if (compiledQuestion == null) {
+                // answers to questions that are not part of this quiz are not scored
+                continue;
+            }
+            if (!scoredQuestionIds.add(question.getId())) {
+                // further answers to the same question (e.g. in a crafted submission) are ignored
+                continue;
+            }
+            double scoreForAnswer = compiledQuestion.calculateScore(submittedAnswer);
+            submittedAnswer.setScoreInPoints(scoreForAnswer);
+            score += scoreForAnswer;
+        }
+        quizSubmission.setScoreInPoints(score);
+    }
+}
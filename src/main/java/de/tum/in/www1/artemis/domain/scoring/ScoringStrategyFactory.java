@@ -6,24 +6,31 @@ import de.tum.in.www1.artemis.domain.Question;
 import de.tum.in.www1.artemis.domain.enumeration.ScoringType;
 
 public class ScoringStrategyFactory {
+
+    // the scoring strategies are stateless, so every question can share the same instance
+    private static final ScoringStrategy MULTIPLE_CHOICE_ALL_OR_NOTHING = new ScoringStrategyMultipleChoiceAllOrNothing();
+    private static final ScoringStrategy MULTIPLE_CHOICE_PROPORTIONAL_WITH_PENALTY = new ScoringStrategyMultipleChoiceProportionalWithPenalty();
+    private static final ScoringStrategy DRAG_AND_DROP_ALL_OR_NOTHING = new ScoringStrategyDragAndDropAllOrNothing();
+    private static final ScoringStrategy DRAG_AND_DROP_PROPORTIONAL_WITH_PENALTY = new ScoringStrategyDragAndDropProportionalWithPenalty();
+
     /**
-     * creates an instance of ScoringStrategy with the appropriate type for the given question
+     * returns the ScoringStrategy with the appropriate type for the given question
      *
      * @param question the question that needs the ScoringStrategy
-     * @return an instance of the appropriate implementation of ScoringStrategy
+     * @return the (shared) instance of the appropriate implementation of ScoringStrategy
      */
     public static ScoringStrategy makeScoringStrategy(Question question) {
         if (question instanceof MultipleChoiceQuestion) {
             if (question.getScoringType() == ScoringType.ALL_OR_NOTHING) {
-                return new ScoringStrategyMultipleChoiceAllOrNothing();
+                return MULTIPLE_CHOICE_ALL_OR_NOTHING;
             } else if (question.getScoringType() == ScoringType.PROPORTIONAL_WITH_PENALTY) {
-                return new ScoringStrategyMultipleChoiceProportionalWithPenalty();
+                return MULTIPLE_CHOICE_PROPORTIONAL_WITH_PENALTY;
             }
         } else if (question instanceof DragAndDropQuestion) {
             if (question.getScoringType() == ScoringType.ALL_OR_NOTHING) {
-                return new ScoringStrategyDragAndDropAllOrNothing();
+                return DRAG_AND_DROP_ALL_OR_NOTHING;
             } else if (question.getScoringType() == ScoringType.PROPORTIONAL_WITH_PENALTY) {
-                return new ScoringStrategyDragAndDropProportionalWithPenalty();
+                return DRAG_AND_DROP_PROPORTIONAL_WITH_PENALTY;
             }
         }
         throw new UnsupportedOperationException("Unknown ScoringType!");
@@ -2,8 +2,13 @@ package de.tum.in.www1.artemis.repository;
 
 import de.tum.in.www1.artemis.domain.DragAndDropMapping;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 
 /**
  * Spring Data JPA repository for the DragAndDropMapping entity.
@@ -12,4 +17,7 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface DragAndDropMappingRepository extends JpaRepository<DragAndDropMapping, Long> {
 
+    @Modifying
+    @Query("delete from DragAndDropMapping mapping where mapping.submittedAnswer.id in (select submittedAnswer.id from DragAndDropSubmittedAnswer submittedAnswer where submittedAnswer.submission.id in :submissionIds)")
+    int deleteBySubmittedAnswerSubmissionIdIn(@Param("submissionIds") List<Long> submissionIds);
 }
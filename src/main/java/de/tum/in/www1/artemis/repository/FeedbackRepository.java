@@ -3,6 +3,9 @@ package de.tum.in.www1.artemis.repository;
 import de.tum.in.www1.artemis.domain.Feedback;
 import de.tum.in.www1.artemis.domain.Result;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,4 +18,8 @@ import java.util.List;
 @Repository
 public interface FeedbackRepository extends JpaRepository<Feedback, Long> {
     List<Feedback> findByResult(Result result);
+
+    @Modifying
+    @Query("delete from Feedback feedback where feedback.result.id in (select result.id from Result result where result.participation.id in :participationIds)")
+    int deleteByResultParticipationIdIn(@Param("participationIds") List<Long> participationIds);
 }
@@ -2,6 +2,7 @@ package de.tum.in.www1.artemis.repository;
 
 import de.tum.in.www1.artemis.domain.MultipleChoiceSubmittedAnswer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -20,4 +21,15 @@ public interface MultipleChoiceSubmittedAnswerRepository extends JpaRepository<M
     @Query("select mc_submitted_answer from MultipleChoiceSubmittedAnswer mc_submitted_answer left join fetch mc_submitted_answer.selectedOptions where mc_submitted_answer.id =:id")
     MultipleChoiceSubmittedAnswer findOneWithEagerRelationships(@Param("id") Long id);
 
+    /**
+     * Delete the selected options of the multiple choice answers of the given submissions. The join table is not an
+     * entity, so this is a native query.
+     *
+     * @param submissionIds the ids of the quiz submissions
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Query(value = "delete from multiple_choice_submitted_answer_selected_options where multiple_choice_submitted_answers_id in (select id from submitted_answer where submission_id in :submissionIds)", nativeQuery = true)
+    int deleteSelectedOptionsBySubmissionIdIn(@Param("submissionIds") List<Long> submissionIds);
+
 }
@@ -0,0 +1,32 @@
+package de.tum.in.www1.artemis.repository;
+
+import de.tum.in.www1.artemis.domain.ParticipationLatestResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the ParticipationLatestResult entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface ParticipationLatestResultRepository extends JpaRepository<ParticipationLatestResult, Long> {
+
+    /**
+     * Load the latest results of the given participation and lock them until the end of the transaction, so that
+     * concurrent results of the participation update them one after another
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select latestResult from ParticipationLatestResult latestResult where latestResult.participationId = :participationId")
+    ParticipationLatestResult findOneForUpdate(@Param("participationId") Long participationId);
+
+    @Modifying
+    @Query("delete from ParticipationLatestResult latestResult where latestResult.participationId in :participationIds")
+    int deleteByParticipationIdIn(@Param("participationIds") List<Long> participationIds);
+}
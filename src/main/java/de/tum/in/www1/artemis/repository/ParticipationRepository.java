@@ -3,10 +3,12 @@ package de.tum.in.www1.artemis.repository;
 import de.tum.in.www1.artemis.domain.Participation;
 import de.tum.in.www1.artemis.domain.enumeration.ParticipationState;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -30,9 +32,51 @@ public interface ParticipationRepository extends JpaRepository<Participation, Lo
     @Query("select participation from Participation participation where participation.student.login = ?#{principal.username}")
     List<Participation> findByStudentIsCurrentUser();
 
+    List<Participation> findByStudentLogin(String username);
+
     @Query("select distinct participation from Participation participation left join fetch participation.results where participation.student.login = :#{#username}")
     List<Participation> findByStudentUsernameWithEagerResults(@Param("username") String username);
 
     @Query("select distinct participation from Participation participation left join fetch participation.results where participation.exercise.id = :#{#exerciseId}")
     List<Participation> findByExerciseIdWithEagerResults(@Param("exerciseId") Long exerciseId);
+
+    /**
+     * Get the ids, build plan ids and repository urls of the participations of the given exercise, without loading the entities
+     *
+     * @param exerciseId the id of the exercise
+     * @return list of object arrays with the participation id (index 0), build plan id (index 1) and repository url (index 2)
+     */
+    @Query("select participation.id, participation.buildPlanId, participation.repositoryUrl from Participation participation where participation.exercise.id = :exerciseId")
+    List<Object[]> findIdAndBuildPlanIdAndRepositoryUrlByExerciseId(@Param("exerciseId") Long exerciseId);
+
+    /**
+     * Get the logins of the students who have submitted in the given quiz exercise (i.e. have a result with a submitted submission)
+     *
+     * @param exerciseId the id of the quiz exercise
+     * @return the logins of the students
+     */
+    @Query("select distinct participation.student.login from Participation participation join participation.results result where participation.exercise.id = :exerciseId and result.submission.submitted = true")
+    List<String> findSubmittedStudentLoginsByExerciseId(@Param("exerciseId") Long exerciseId);
+
+    /**
+     * Get the ids, build plan ids, student logins and courses of the given participations that have a build plan, without
+     * loading the participations
+     *
+     * @param ids the ids of the participations
+     * @return list of object arrays with the participation id (index 0), build plan id (index 1), student login (index 2) and course (index 3)
+     */
+    @Query("select participation.id, participation.buildPlanId, participation.student.login, participation.exercise.course from Participation participation where participation.id in :ids and participation.buildPlanId is not null")
+    List<Object[]> findIdAndBuildPlanIdAndStudentLoginAndCourseByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from Participation participation where participation.id in :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("update Participation participation set participation.buildPlanId = null, participation.initializationState = :state where participation.id in :ids")
+    int removeBuildPlanIdByIdIn(@Param("ids") List<Long> ids, @Param("state") ParticipationState state);
+
+    @Modifying
+    @Query("update Participation participation set participation.repositoryUrl = null, participation.initializationState = :state where participation.id in :ids")
+    int removeRepositoryUrlByIdIn(@Param("ids") List<Long> ids, @Param("state") ParticipationState state);
 }
@@ -2,8 +2,13 @@ package de.tum.in.www1.artemis.repository;
 
 import de.tum.in.www1.artemis.domain.QuizSubmission;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 
 /**
  * Spring Data JPA repository for the QuizSubmission entity.
@@ -12,4 +17,7 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface QuizSubmissionRepository extends JpaRepository<QuizSubmission, Long> {
 
+    @Query("select distinct s from QuizSubmission s left join fetch s.submittedAnswers where s.id in :ids")
+    List<QuizSubmission> findWithSubmittedAnswersByIdIn(@Param("ids") Collection<Long> ids);
+
 }
@@ -1,11 +1,14 @@
 package de.tum.in.www1.artemis.repository;
 
 import de.tum.in.www1.artemis.domain.Result;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +26,19 @@ public interface ResultRepository extends JpaRepository<Result, Long> {
 
     List<Result> findByParticipationExerciseIdOrderByCompletionDateAsc(Long exerciseId);
 
+    long countByParticipationExerciseId(Long exerciseId);
+
+    /**
+     * Get the next chunk of results of the given exercise (ordered by id, i.e. keyset pagination), including their participations
+     *
+     * @param exerciseId the id of the exercise
+     * @param lastId     the id of the last result of the previous chunk (use 0 for the first chunk)
+     * @param pageable   the page request that limits the size of the chunk (the page number must be 0)
+     * @return the results with an id greater than lastId
+     */
+    @Query("select r from Result r join fetch r.participation p where p.exercise.id = :exerciseId and r.id > :lastId order by r.id asc")
+    List<Result> findChunkByExerciseIdWithParticipation(@Param("exerciseId") Long exerciseId, @Param("lastId") Long lastId, Pageable pageable);
+
     @Query("select r from Result r where r.completionDate = (select max(rr.completionDate) from Result rr where rr.participation.exercise.id = :exerciseId and rr.participation.student.id = r.participation.student.id) and r.participation.exercise.id = :exerciseId order by r.completionDate asc")
     List<Result> findLatestResultsForExercise(@Param("exerciseId") Long exerciseId);
 
@@ -48,5 +64,16 @@ public interface ResultRepository extends JpaRepository<Result, Long> {
 
     Optional<Result> findFirstByParticipationIdAndRatedOrderByCompletionDateDesc(Long participationId, boolean rated);
 
+    Optional<Result> findFirstByParticipationIdAndCompletionDateBeforeOrderByCompletionDateDesc(Long participationId, ZonedDateTime completionDate);
+
+    Optional<Result> findFirstByParticipationIdAndRatedAndCompletionDateBeforeOrderByCompletionDateDesc(Long participationId, boolean rated, ZonedDateTime completionDate);
+
     Optional<Result> findDistinctBySubmissionId(Long submissionId);
+
+    @Query("select result.submission.id from Result result where result.participation.id in :participationIds and result.submission is not null")
+    List<Long> findSubmissionIdsByParticipationIdIn(@Param("participationIds") List<Long> participationIds);
+
+    @Modifying
+    @Query("delete from Result result where result.participation.id in :participationIds")
+    int deleteByParticipationIdIn(@Param("participationIds") List<Long> participationIds);
 }
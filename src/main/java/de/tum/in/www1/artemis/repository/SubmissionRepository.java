@@ -2,8 +2,13 @@ package de.tum.in.www1.artemis.repository;
 
 import de.tum.in.www1.artemis.domain.Submission;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 
 /**
  * Spring Data JPA repository for the Submission entity.
@@ -12,4 +17,7 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface SubmissionRepository extends JpaRepository<Submission, Long> {
 
+    @Modifying
+    @Query("delete from Submission submission where submission.id in :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
 }
@@ -2,8 +2,13 @@ package de.tum.in.www1.artemis.repository;
 
 import de.tum.in.www1.artemis.domain.SubmittedAnswer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 
 /**
  * Spring Data JPA repository for the SubmittedAnswer entity.
@@ -12,4 +17,7 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface SubmittedAnswerRepository extends JpaRepository<SubmittedAnswer, Long> {
 
+    @Modifying
+    @Query("delete from SubmittedAnswer submittedAnswer where submittedAnswer.submission.id in :submissionIds")
+    int deleteBySubmissionIdIn(@Param("submissionIds") List<Long> submissionIds);
 }
@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,6 +40,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Cacheable(cacheNames = USERS_CACHE)
     Optional<User> findOneWithAuthoritiesByLogin(String login);
 
+    @EntityGraph(attributePaths = {"groups", "authorities"})
+    Optional<User> findOneWithGroupsAndAuthoritiesByLogin(String login);
+
+    @EntityGraph(attributePaths = {"groups", "authorities"})
+    List<User> findAllWithGroupsAndAuthoritiesByLoginIn(Collection<String> logins);
+
+    // the groups are filtered in a subquery, so that all groups of the users are fetched, not only the matching ones
+    @EntityGraph(attributePaths = {"groups", "authorities"})
+    @Query("SELECT user FROM User user WHERE user.id IN (SELECT groupMember.id FROM User groupMember JOIN groupMember.groups memberGroup WHERE memberGroup IN :#{#groups})")
+    List<User> findAllWithGroupsAndAuthoritiesByGroupsIn(@Param("groups") Collection<String> groups);
+
+    @Query("SELECT DISTINCT user.login FROM User user JOIN user.groups userGroup WHERE userGroup IN :#{#groups}")
+    List<String> findAllLoginsByGroupsIn(@Param("groups") Collection<String> groups);
+
     Page<User> findAllByLoginNot(Pageable pageable, String login);
 
     @Query("SELECT r.participation.student.id FROM Result r WHERE r.submission.id = :#{#submissionId}")
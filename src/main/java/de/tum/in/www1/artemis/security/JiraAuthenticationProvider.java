@@ -1,6 +1,7 @@
 package de.tum.in.www1.artemis.security;
 
 import de.tum.in.www1.artemis.domain.Authority;
+import de.tum.in.www1.artemis.domain.Course;
 import de.tum.in.www1.artemis.domain.User;
 import de.tum.in.www1.artemis.exception.ArtemisAuthenticationException;
 import de.tum.in.www1.artemis.repository.UserRepository;
@@ -13,6 +14,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.*;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.ProviderNotFoundException;
@@ -22,6 +24,7 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpStatusCodeException;
@@ -30,6 +33,8 @@ import org.springframework.web.client.RestTemplate;
 import java.net.URL;
 import java.security.Principal;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -54,10 +59,26 @@ public class JiraAuthenticationProvider implements ArtemisAuthenticationProvider
     @Value("${artemis.jira.password}")
     private String JIRA_PASSWORD;
 
+    /**
+     * how long a successful JIRA login is verified against the local hash of the password, 0 disables the cache
+     */
+    @Value("${artemis.jira.authentication-cache-ttl-seconds:900}")
+    private long AUTHENTICATION_CACHE_TTL_SECONDS;
+
+    @Value("${artemis.jira.group-sync-enabled:true}")
+    private boolean GROUP_SYNC_ENABLED;
+
+    private static final int GROUP_MEMBERS_PAGE_SIZE = 50;
+
     private final UserService userService;
     private final UserRepository userRepository;
     private final CourseService courseService;
 
+    private final Map<String, VerifiedCredentials> verifiedCredentials = new ConcurrentHashMap<>();
+
+    // salted hashes of the passwords of recent JIRA logins, never persisted
+    private final Pbkdf2PasswordEncoder credentialsEncoder = new Pbkdf2PasswordEncoder("", 10000, 256);
+
     public JiraAuthenticationProvider(UserService userService, UserRepository userRepository, CourseService courseService) {
         this.userService = userService;
         this.userRepository = userRepository;
@@ -85,6 +106,13 @@ public class JiraAuthenticationProvider implements ArtemisAuthenticationProvider
     public User getOrCreateUser(Authentication authentication, Boolean skipPasswordCheck) {
         String username = authentication.getName().toLowerCase();
         String password = authentication.getCredentials().toString();
+        if (!skipPasswordCheck && isVerifiedLocally(username, password)) {
+            // the groups are kept up to date by synchronizeGroups
+            Optional<User> user = userService.getUserWithAuthoritiesByLogin(username);
+            if (user.isPresent() && user.get().getActivated()) {
+                return user.get();
+            }
+        }
         HttpEntity<Principal> entity = new HttpEntity<>(!skipPasswordCheck ? HeaderUtil.createAuthorization(username, password) : HeaderUtil.createAuthorization(JIRA_USER, JIRA_PASSWORD));
         RestTemplate restTemplate = new RestTemplate();
         ResponseEntity<Map> authenticationResponse = null;
@@ -92,6 +120,7 @@ public class JiraAuthenticationProvider implements ArtemisAuthenticationProvider
             authenticationResponse = restTemplate.exchange(JIRA_URL + "/rest/api/2/user?username=" + username + "&expand=groups", HttpMethod.GET, entity, Map.class);
         } catch (HttpStatusCodeException e) {
             if (e.getStatusCode().value() == 401) {
+                verifiedCredentials.remove(username);
                 throw new BadCredentialsException("Wrong credentials");
             } else if (e.getStatusCode().is5xxServerError()) {
                 throw new ProviderNotFoundException("Could not authenticate via JIRA");
@@ -100,14 +129,16 @@ public class JiraAuthenticationProvider implements ArtemisAuthenticationProvider
 
         if (authenticationResponse != null) {
             Map content = authenticationResponse.getBody();
-            User user = userRepository.findOneByLogin((String) content.get("name")).orElseGet(() -> {
+            User user = userRepository.findOneWithGroupsAndAuthoritiesByLogin((String) content.get("name")).orElseGet(() -> {
                 return userService.createUser((String) content.get("name"), "",
                     (String) content.get("displayName"), "", (String) content.get("emailAddress"), null, "en");
             });
-            user.setGroups(getGroupStrings((ArrayList) ((Map) content.get("groups")).get("items")));
-            user.setAuthorities(buildAuthoritiesFromGroups(getGroupStrings((ArrayList) ((Map) content.get("groups")).get("items"))));
-            userRepository.save(user);
-
+            List<String> groups = getGroupStrings((ArrayList) ((Map) content.get("groups")).get("items"));
+            // only write the user if the groups in JIRA have changed since the last login
+            if (updateGroupsAndAuthorities(user, groups, courseService.getAllInstructorGroupNames(), courseService.getAllTeachingAssistantGroupNames())) {
+                userRepository.save(user);
+                userService.evictUserCaches(user.getLogin());
+            }
 
             if (!user.getActivated()) {
                 userService.activateRegistration(user.getActivationKey());
@@ -115,6 +146,9 @@ public class JiraAuthenticationProvider implements ArtemisAuthenticationProvider
 
             Optional<User> matchingUser = userService.getUserWithAuthoritiesByLogin(username);
             if (matchingUser.isPresent()) {
+                if (!skipPasswordCheck) {
+                    rememberVerifiedCredentials(username, password);
+                }
                 return matchingUser.get();
             } else {
                 throw new UsernameNotFoundException("User " + username + " was not found in the database");
@@ -139,12 +173,155 @@ public class JiraAuthenticationProvider implements ArtemisAuthenticationProvider
             .collect(Collectors.toList());
     }
 
+    /**
+     * Refreshes the groups of all users in the groups of the courses and the admin group from JIRA in bulk, so that
+     * logins verified against the local password hash see group changes without a JIRA call
+     */
+    @Scheduled(fixedDelayString = "${artemis.jira.group-sync-interval-ms:900000}", initialDelayString = "${artemis.jira.group-sync-interval-ms:900000}")
+    public void synchronizeGroups() {
+        if (!GROUP_SYNC_ENABLED) {
+            return;
+        }
+        Set<String> synchronizedGroups = new HashSet<>();
+        synchronizedGroups.add(ADMIN_GROUP_NAME);
+        for (Course course : courseService.findAll()) {
+            synchronizedGroups.add(course.getStudentGroupName());
+            synchronizedGroups.add(course.getTeachingAssistantGroupName());
+            synchronizedGroups.add(course.getInstructorGroupName());
+        }
+        synchronizedGroups.remove(null);
+
+        Map<String, Set<String>> groupsByLogin = new HashMap<>();
+        for (String group : synchronizedGroups) {
+            List<String> members;
+            try {
+                members = getGroupMembers(group);
+            } catch (HttpStatusCodeException | IllegalStateException e) {
+                // incomplete memberships would remove users from their groups, so nothing is written
+                log.warn("Could not get the members of JIRA group {}, skipping the group synchronization: {}", group, e.getMessage());
+                return;
+            }
+            for (String member : members) {
+                groupsByLogin.computeIfAbsent(member, login -> new HashSet<>()).add(group);
+            }
+        }
+
+        int updatedUsers = updateGroupsOfMembers(synchronizedGroups, groupsByLogin);
+        log.info("Synchronized {} JIRA groups, updated the groups of {} users", synchronizedGroups.size(), updatedUsers);
+    }
+
+    /**
+     * Replaces the synchronized groups of the current members of the groups in JIRA and of the users that are members of
+     * the groups in ArTEMiS with their memberships in JIRA, other groups of the users are kept. The changed users are
+     * saved in one transaction.
+     *
+     * @param synchronizedGroups the groups whose members were read from JIRA
+     * @param groupsByLogin the synchronized groups of each user in JIRA
+     * @return the number of changed users
+     */
+    int updateGroupsOfMembers(Set<String> synchronizedGroups, Map<String, Set<String>> groupsByLogin) {
+        Map<String, User> users = new HashMap<>();
+        if (!groupsByLogin.isEmpty()) {
+            userRepository.findAllWithGroupsAndAuthoritiesByLoginIn(groupsByLogin.keySet()).forEach(user -> users.put(user.getLogin(), user));
+        }
+        userRepository.findAllWithGroupsAndAuthoritiesByGroupsIn(synchronizedGroups).forEach(user -> users.put(user.getLogin(), user));
+
+        List<String> instructorGroups = courseService.getAllInstructorGroupNames();
+        List<String> teachingAssistantGroups = courseService.getAllTeachingAssistantGroupNames();
+        List<User> updatedUsers = new ArrayList<>();
+        for (User user : users.values()) {
+            List<String> groups = user.getGroups().stream()
+                .filter(group -> !synchronizedGroups.contains(group))
+                .collect(Collectors.toList());
+            groups.addAll(groupsByLogin.getOrDefault(user.getLogin(), Collections.emptySet()));
+            if (updateGroupsAndAuthorities(user, groups, instructorGroups, teachingAssistantGroups)) {
+                updatedUsers.add(user);
+            }
+        }
+        if (!updatedUsers.isEmpty()) {
+            userRepository.save(updatedUsers);
+            updatedUsers.forEach(user -> userService.evictUserCaches(user.getLogin()));
+        }
+        return updatedUsers.size();
+    }
+
+    /**
+     * @param group the JIRA group name
+     * @return the usernames of all members of the group
+     * @throws IllegalStateException if JIRA returns an unexpected response
+     */
+    private List<String> getGroupMembers(String group) {
+        HttpEntity<?> entity = new HttpEntity<>(HeaderUtil.createAuthorization(JIRA_USER, JIRA_PASSWORD));
+        RestTemplate restTemplate = new RestTemplate();
+        List<String> members = new ArrayList<>();
+        boolean isLast = false;
+        while (!isLast) {
+            ResponseEntity<Map> response = restTemplate.exchange(
+                JIRA_URL + "/rest/api/2/group/member?groupname={group}&startAt={startAt}&maxResults={maxResults}",
+                HttpMethod.GET,
+                entity,
+                Map.class,
+                group, members.size(), GROUP_MEMBERS_PAGE_SIZE);
+            Map body = response.getBody();
+            if (body == null || !(body.get("values") instanceof List)) {
+                throw new IllegalStateException("Unexpected response for the members of JIRA group " + group);
+            }
+            List<Map> values = (List<Map>) body.get("values");
+            for (Map value : values) {
+                members.add(((String) value.get("name")).toLowerCase());
+            }
+            isLast = values.isEmpty() || Boolean.TRUE.equals(body.get("isLast"));
+        }
+        return members;
+    }
+
+    /**
+     * Sets the groups and the authorities built from them, if they differ from the current ones of the user
+     *
+     * @return true, if the user has changed and needs to be saved
+     */
+    private boolean updateGroupsAndAuthorities(User user, List<String> groups, List<String> instructorGroups, List<String> teachingAssistantGroups) {
+        Set<Authority> authorities = buildAuthoritiesFromGroups(groups, instructorGroups, teachingAssistantGroups);
+        if (user.getGroups() != null && new HashSet<>(user.getGroups()).equals(new HashSet<>(groups))
+            && user.getAuthorities() != null && user.getAuthorities().equals(authorities)) {
+            return false;
+        }
+        user.setGroups(groups);
+        user.setAuthorities(authorities);
+        return true;
+    }
+
+    boolean isVerifiedLocally(String username, String password) {
+        VerifiedCredentials credentials = verifiedCredentials.get(username);
+        if (credentials == null) {
+            return false;
+        }
+        if (credentials.expiration <= System.currentTimeMillis()) {
+            verifiedCredentials.remove(username);
+            return false;
+        }
+        return credentialsEncoder.matches(password, credentials.passwordHash);
+    }
+
+    void rememberVerifiedCredentials(String username, String password) {
+        if (AUTHENTICATION_CACHE_TTL_SECONDS > 0) {
+            long expiration = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(AUTHENTICATION_CACHE_TTL_SECONDS);
+            verifiedCredentials.put(username, new VerifiedCredentials(credentialsEncoder.encode(password), expiration));
+        }
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void removeExpiredCredentials() {
+        long now = System.currentTimeMillis();
+        verifiedCredentials.values().removeIf(credentials -> credentials.expiration <= now);
+    }
+
     /**
      * Builds the authorities list from the groups:
      * group contains configured instructor group name -> instructor role
      * otherwise                                       -> student role
      */
-    private Set<Authority> buildAuthoritiesFromGroups(List<String> groups) {
+    private Set<Authority> buildAuthoritiesFromGroups(List<String> groups, List<String> instructorGroups, List<String> teachingAssistantGroups) {
         Set<Authority> authorities = new HashSet<>();
 
         // Check if user is admin
@@ -154,8 +331,6 @@ public class JiraAuthenticationProvider implements ArtemisAuthenticationProvider
             authorities.add(adminAuthority);
         }
 
-        List<String> instructorGroups = courseService.getAllInstructorGroupNames();
-
         // Check if user is an instructor in any course
         if (groups.stream().anyMatch(group -> instructorGroups.contains(group))) {
             Authority instructorAuthority = new Authority();
@@ -163,8 +338,6 @@ public class JiraAuthenticationProvider implements ArtemisAuthenticationProvider
             authorities.add(instructorAuthority);
         }
 
-        List<String> teachingAssistantGroups = courseService.getAllTeachingAssistantGroupNames();
-
         // Check if user is a tutor in any course
         if (groups.stream().anyMatch(group -> teachingAssistantGroups.contains(group))) {
             Authority taAuthority = new Authority();
@@ -242,4 +415,16 @@ public class JiraAuthenticationProvider implements ArtemisAuthenticationProvider
         }
 
     }
+
+    private static final class VerifiedCredentials {
+
+        private final String passwordHash;
+
+        private final long expiration;
+
+        private VerifiedCredentials(String passwordHash, long expiration) {
+            this.passwordHash = passwordHash;
+            this.expiration = expiration;
+        }
+    }
 }
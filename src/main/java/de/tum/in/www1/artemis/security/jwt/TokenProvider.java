@@ -1,9 +1,12 @@
 package de.tum.in.www1.artemis.security.jwt;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.github.jhipster.config.JHipsterProperties;
 import io.jsonwebtoken.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -12,9 +15,11 @@ import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.Date;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Component
@@ -30,6 +35,25 @@ public class TokenProvider {
 
     private long tokenValidityInMillisecondsForRememberMe;
 
+    /**
+     * maximum number of verified tokens whose principal is kept until the token expires, the least recently used
+     * tokens are evicted first
+     */
+    @Value("${artemis.jwt.verified-token-cache-size:10000}")
+    private int VERIFIED_TOKEN_CACHE_SIZE = 10000;
+
+    private Cache<String, VerifiedToken> verifiedTokens = createVerifiedTokenCache(VERIFIED_TOKEN_CACHE_SIZE);
+
+    private final Map<String, List<GrantedAuthority>> authoritiesByClaim = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
     private final JHipsterProperties jHipsterProperties;
 
     public TokenProvider(JHipsterProperties jHipsterProperties) {
@@ -45,6 +69,11 @@ public class TokenProvider {
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSeconds();
         this.tokenValidityInMillisecondsForRememberMe =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
+        this.verifiedTokens = createVerifiedTokenCache(VERIFIED_TOKEN_CACHE_SIZE);
+    }
+
+    private static Cache<String, VerifiedToken> createVerifiedTokenCache(int maximumSize) {
+        return CacheBuilder.newBuilder().maximumSize(maximumSize).build();
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
@@ -74,20 +103,70 @@ public class TokenProvider {
             .parseClaimsJws(token)
             .getBody();
 
-        Collection<? extends GrantedAuthority> authorities =
-            Arrays.stream(claims.get(AUTHORITIES_KEY).toString().split(","))
+        return createAuthentication(claims, token);
+    }
+
+    public boolean validateToken(String authToken) {
+        return parseValidClaims(authToken) != null;
+    }
+
+    /**
+     * Validates the token and creates its authentication with a single parse. The principal and the authorities of a
+     * verified token are cached (keyed by the SHA-256 hash of the token) until the token expires or is evicted, so that
+     * the signature of the token is not verified again on every request. Every request gets its own authentication
+     * without credentials.
+     *
+     * @param token the JWT of the request
+     * @return the authentication of the token, or null if the token is invalid or expired
+     */
+    public Authentication getValidatedAuthentication(String token) {
+        String tokenHash = hash(token);
+        VerifiedToken verifiedToken = verifiedTokens.getIfPresent(tokenHash);
+        if (verifiedToken != null) {
+            if (verifiedToken.expiration > System.currentTimeMillis()) {
+                return new UsernamePasswordAuthenticationToken(verifiedToken.principal, "", verifiedToken.principal.getAuthorities());
+            }
+            verifiedTokens.invalidate(tokenHash);
+        }
+        Claims claims = parseValidClaims(token);
+        if (claims == null) {
+            return null;
+        }
+        User principal = createPrincipal(claims);
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(tokenHash, new VerifiedToken(principal, claims.getExpiration().getTime()));
+        }
+        return new UsernamePasswordAuthenticationToken(principal, "", principal.getAuthorities());
+    }
+
+    private Authentication createAuthentication(Claims claims, String token) {
+        User principal = createPrincipal(claims);
+
+        return new UsernamePasswordAuthenticationToken(principal, token, principal.getAuthorities());
+    }
+
+    private User createPrincipal(Claims claims) {
+        // users share few combinations of authorities, so the lists are created once per claim
+        List<GrantedAuthority> authorities = authoritiesByClaim.computeIfAbsent(claims.get(AUTHORITIES_KEY).toString(),
+            authoritiesClaim -> Collections.unmodifiableList(Arrays.stream(authoritiesClaim.split(","))
                 .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList())));
 
-        User principal = new User(claims.getSubject(), "", authorities);
+        return new User(claims.getSubject(), "", authorities);
+    }
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    private static String hash(String token) {
+        byte[] digest = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(digest);
     }
 
-    public boolean validateToken(String authToken) {
+    /**
+     * @param authToken the JWT to parse
+     * @return the claims of the token, or null if the token is invalid
+     */
+    private Claims parseValidClaims(String authToken) {
         try {
-            Jwts.parser().setSigningKey(secretKey).parseClaimsJws(authToken);
-            return true;
+            return Jwts.parser().setSigningKey(secretKey).parseClaimsJws(authToken).getBody();
         } catch (SignatureException e) {
             log.info("Invalid JWT signature.");
             log.trace("Invalid JWT signature trace: {}", e);
@@ -104,6 +183,18 @@ public class TokenProvider {
             log.info("JWT token compact of handler are invalid.");
             log.trace("JWT token compact of handler are invalid trace: {}", e);
         }
-        return false;
+        return null;
+    }
+
+    private static final class VerifiedToken {
+
+        private final User principal;
+
+        private final long expiration;
+
+        private VerifiedToken(User principal, long expiration) {
+            this.principal = principal;
+            this.expiration = expiration;
+        }
     }
 }
@@ -15,11 +15,11 @@ public class AuthorizationCheckService {
 
     private final Logger log = LoggerFactory.getLogger(AuthorizationCheckService.class);
 
-    private final UserService userService;
+    private final PrincipalCacheService principalCacheService;
     private Authority adminAuthority;
 
-    public AuthorizationCheckService(UserService userService) {
-        this.userService = userService;
+    public AuthorizationCheckService(PrincipalCacheService principalCacheService) {
+        this.principalCacheService = principalCacheService;
         adminAuthority = new Authority();
         adminAuthority.setName("ROLE_ADMIN");
     }
@@ -32,7 +32,7 @@ public class AuthorizationCheckService {
      */
     public boolean isInstructorInCourse(Course course, User user) {
         if (user == null || user.getGroups() == null) {
-            user = userService.getUserWithGroupsAndAuthorities();
+            return (principalCacheService.getCourseRoles(course) & PrincipalCacheService.INSTRUCTOR) != 0;
         }
         return user.getGroups().contains(course.getInstructorGroupName());
     }
@@ -45,7 +45,7 @@ public class AuthorizationCheckService {
      */
     public boolean isTeachingAssistantInCourse(Course course, User user) {
         if (user == null || user.getGroups() == null) {
-            user = userService.getUserWithGroupsAndAuthorities();
+            return (principalCacheService.getCourseRoles(course) & PrincipalCacheService.TEACHING_ASSISTANT) != 0;
         }
         return user.getGroups().contains(course.getTeachingAssistantGroupName());
     }
@@ -58,11 +58,23 @@ public class AuthorizationCheckService {
      */
     public boolean isStudentInCourse(Course course, User user) {
         if (user == null || user.getGroups() == null) {
-            user = userService.getUserWithGroupsAndAuthorities();
+            return (principalCacheService.getCourseRoles(course) & PrincipalCacheService.STUDENT) != 0;
         }
         return user.getGroups().contains(course.getStudentGroupName());
     }
 
+    /**
+     * Method used to check whether the current logged in user is teaching assistant or instructor of this course or
+     * admin, without accessing the database if the roles of the user are cached
+     *
+     * @param course course to check the rights for
+     * @return true, if user is at least teaching assistant of this course, otherwise false
+     */
+    public boolean isAtLeastTeachingAssistantInCourse(Course course) {
+        int roles = principalCacheService.getCourseRoles(course);
+        return (roles & (PrincipalCacheService.TEACHING_ASSISTANT | PrincipalCacheService.INSTRUCTOR)) != 0 || isAdmin();
+    }
+
     /**
      * Method used to check whether the current logged in user is owner of this participation
      *
@@ -81,10 +93,12 @@ public class AuthorizationCheckService {
      */
     public boolean isAllowedToSeeExercise(Exercise exercise, User user) {
         if (isAdmin()) { return true; }
+        Course course = exercise.getCourse();
         if (user == null || user.getGroups() == null) {
-            user = userService.getUserWithGroupsAndAuthorities();
+            int roles = principalCacheService.getCourseRoles(course);
+            return (roles & (PrincipalCacheService.INSTRUCTOR | PrincipalCacheService.TEACHING_ASSISTANT)) != 0 ||
+                ((roles & PrincipalCacheService.STUDENT) != 0 && exercise.isVisibleToStudents());
         }
-        Course course = exercise.getCourse();
         return  isInstructorInCourse(course, user) ||
                 isTeachingAssistantInCourse(course, user) ||
                 (isStudentInCourse(course, user) && exercise.isVisibleToStudents());
@@ -0,0 +1,164 @@
+package de.tum.in.www1.artemis.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the long running background jobs of the services (e.g. resetting or cleaning up exercises) and owns the worker
+ * pools they fan out to, so that all of them are shut down together with the application context.
+ *
+ * The jobs of one kind run one after another on a single thread per job name. Every job has a key (e.g. the id of the
+ * exercise): a job whose key is already queued or running on this node is not started again.
+ */
+@Service
+public class BackgroundJobService {
+
+    private final Logger log = LoggerFactory.getLogger(BackgroundJobService.class);
+
+    /**
+     * A step of a job for a single key
+     */
+    @FunctionalInterface
+    public interface JobStep<K> {
+
+        void run(K key) throws Exception;
+    }
+
+    private final Map<String, ExecutorService> jobExecutors = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<Object>> runningKeys = new ConcurrentHashMap<>();
+
+    private final List<ExecutorService> workerPools = new CopyOnWriteArrayList<>();
+
+    private volatile boolean destroyed;
+
+    @PreDestroy
+    public void destroy() {
+        destroyed = true;
+        jobExecutors.values().forEach(ExecutorService::shutdownNow);
+        workerPools.forEach(ExecutorService::shutdownNow);
+    }
+
+    /**
+     * Create a worker pool with a fixed number of threads and an unbounded queue, which is shut down with this service
+     *
+     * @param threadNamePrefix the prefix of the thread names, followed by the number of the thread
+     * @param threads          the number of threads
+     * @return the worker pool
+     */
+    public ExecutorService newWorkerPool(String threadNamePrefix, int threads) {
+        ExecutorService workerPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), threadFactory(threadNamePrefix));
+        workerPools.add(workerPool);
+        return workerPool;
+    }
+
+    /**
+     * Create a worker pool with a fixed number of threads that can also run delayed tasks (e.g. retries), which is shut
+     * down with this service
+     *
+     * @param threadNamePrefix the prefix of the thread names, followed by the number of the thread
+     * @param threads          the number of threads
+     * @return the worker pool
+     */
+    public ScheduledExecutorService newScheduledWorkerPool(String threadNamePrefix, int threads) {
+        ScheduledExecutorService workerPool = new ScheduledThreadPoolExecutor(threads, threadFactory(threadNamePrefix));
+        workerPools.add(workerPool);
+        return workerPool;
+    }
+
+    /**
+     * Run the given job for the given key in the background, after the previous jobs with the same name
+     *
+     * @param jobName the name of the job, also the name of the thread
+     * @param key     the key of the job, e.g. the id of the exercise
+     * @param job     the job
+     * @return false if a job with the same name and key is already queued or running, true otherwise
+     * @throws RejectedExecutionException if the application is shutting down
+     */
+    public <K> boolean submitJob(String jobName, K key, JobStep<K> job) {
+        return !submitJobs(jobName, Collections.singletonList(key), job).isEmpty();
+    }
+
+    /**
+     * Run the given job for each of the given keys in the background, one after another and after the previous jobs
+     * with the same name. Keys whose job is already queued or running are skipped.
+     *
+     * @param jobName the name of the job, also the name of the thread
+     * @param keys    the keys of the jobs, e.g. the ids of the exercises
+     * @param job     the job
+     * @return the keys whose job was started
+     * @throws RejectedExecutionException if the application is shutting down
+     */
+    public <K> List<K> submitJobs(String jobName, Collection<K> keys, JobStep<K> job) {
+        List<K> startedKeys = new ArrayList<>();
+        for (K key : keys) {
+            if (tryStart(jobName, key)) {
+                startedKeys.add(key);
+            }
+        }
+        if (startedKeys.isEmpty()) {
+            return startedKeys;
+        }
+        try {
+            jobExecutor(jobName).execute(() -> {
+                for (K key : startedKeys) {
+                    try {
+                        job.run(key);
+                    } catch (Exception e) {
+                        log.error("Job {} for {} failed: {}", jobName, key, e.getMessage(), e);
+                    } finally {
+                        finish(jobName, key);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            startedKeys.forEach(key -> finish(jobName, key));
+            throw e;
+        }
+        return startedKeys;
+    }
+
+    /**
+     * Mark the job with the given name and key as running, for jobs that are not run by this service (e.g. chains of
+     * futures on worker pools). The caller has to call {@link #finish(String, Object)} once the job is done.
+     *
+     * @param jobName the name of the job
+     * @param key     the key of the job
+     * @return false if the job is already running, true otherwise
+     */
+    public boolean tryStart(String jobName, Object key) {
+        return runningKeys.computeIfAbsent(jobName, name -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+
+    /**
+     * Mark the job with the given name and key as done
+     *
+     * @param jobName the name of the job
+     * @param key     the key of the job
+     */
+    public void finish(String jobName, Object key) {
+        Set<Object> keys = runningKeys.get(jobName);
+        if (keys != null) {
+            keys.remove(key);
+        }
+    }
+
+    private ExecutorService jobExecutor(String jobName) {
+        if (destroyed) {
+            throw new RejectedExecutionException("The background jobs have been shut down");
+        }
+        return jobExecutors.computeIfAbsent(jobName, name -> Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, name)));
+    }
+
+    private static ThreadFactory threadFactory(String threadNamePrefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> new Thread(runnable, threadNamePrefix + threadCount.incrementAndGet());
+    }
+}
@@ -1,5 +1,7 @@
 package de.tum.in.www1.artemis.service;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import de.tum.in.www1.artemis.domain.BuildLogEntry;
 import de.tum.in.www1.artemis.domain.Feedback;
 import de.tum.in.www1.artemis.domain.Participation;
@@ -8,7 +10,6 @@ import de.tum.in.www1.artemis.domain.enumeration.FeedbackType;
 import de.tum.in.www1.artemis.exception.BambooException;
 import de.tum.in.www1.artemis.repository.FeedbackRepository;
 import de.tum.in.www1.artemis.repository.ParticipationRepository;
-import de.tum.in.www1.artemis.repository.ResultRepository;
 import de.tum.in.www1.artemis.web.rest.util.HeaderUtil;
 import org.hibernate.Hibernate;
 import org.slf4j.Logger;
@@ -71,18 +72,34 @@ public class BambooService implements ContinuousIntegrationService {
     @Value("${artemis.result-retrieval-delay}")
     private int RESULT_RETRIEVAL_DELAY = 10000;
 
+    @Value("${artemis.build-status.per-plan-lookup-threshold:5}")
+    private int PER_PLAN_LOOKUP_THRESHOLD = 5;
+
     private static String REPO_REFERRAL_NAME = "Assignment";
 
+    private static final int PROJECT_PLANS_PAGE_SIZE = 500;
+
     private final GitService gitService;
-    private final ResultRepository resultRepository;
     private final FeedbackRepository feedbackRepository;
     private final ParticipationRepository participationRepository;
+    private final RelevantParticipationService relevantParticipationService;
+    private final LatestResultService latestResultService;
+
+    private final Timer fetchBuildResultTimer;
+    private final Timer fetchBuildResultDetailsTimer;
+    private final Timer parseBuildResultDetailsTimer;
 
-    public BambooService(GitService gitService, ResultRepository resultRepository, FeedbackRepository feedbackRepository, ParticipationRepository participationRepository) {
+    public BambooService(GitService gitService, FeedbackRepository feedbackRepository, ParticipationRepository participationRepository,
+                         RelevantParticipationService relevantParticipationService, LatestResultService latestResultService,
+                         MetricRegistry metricRegistry) {
         this.gitService = gitService;
-        this.resultRepository = resultRepository;
         this.feedbackRepository = feedbackRepository;
         this.participationRepository = participationRepository;
+        this.relevantParticipationService = relevantParticipationService;
+        this.latestResultService = latestResultService;
+        this.fetchBuildResultTimer = metricRegistry.timer(MetricRegistry.name(BambooService.class, "fetchBuildResult"));
+        this.fetchBuildResultDetailsTimer = metricRegistry.timer(MetricRegistry.name(BambooService.class, "fetchBuildResultDetails"));
+        this.parseBuildResultDetailsTimer = metricRegistry.timer(MetricRegistry.name(BambooService.class, "parseBuildResultDetails"));
     }
 
     public BitbucketClient getBitbucketClient() {
@@ -151,10 +168,52 @@ public class BambooService implements ContinuousIntegrationService {
         if (status == null) {
             return BuildStatus.INACTIVE;
         }
-        if (status.get("isActive") && !status.get("isBuilding")) {
+        return toBuildStatus(status.get("isActive"), status.get("isBuilding"));
+    }
+
+    /**
+     * Retrieves the status of the given build plans with one paged request per Bamboo project (i.e. per exercise)
+     * instead of one request per build plan. If only a few plans of a project are requested (at most
+     * PER_PLAN_LOOKUP_THRESHOLD), they are retrieved one by one instead of all plans of the project.
+     *
+     * @param buildPlanIds unique identifiers for build plans on CI system
+     * @return map from build plan id to build status, build plans whose project could not be retrieved are missing
+     */
+    @Override
+    public Map<String, BuildStatus> getBuildStatuses(Collection<String> buildPlanIds) {
+        Map<String, Set<String>> buildPlanIdsByProjectKey = new HashMap<>();
+        for (String buildPlanId : buildPlanIds) {
+            buildPlanIdsByProjectKey.computeIfAbsent(getProjectKeyFromBuildPlanId(buildPlanId).toUpperCase(), projectKey -> new HashSet<>())
+                .add(buildPlanId.toUpperCase());
+        }
+        Map<String, BuildStatus> buildStatuses = new HashMap<>();
+        for (Map.Entry<String, Set<String>> project : buildPlanIdsByProjectKey.entrySet()) {
+            if (project.getValue().size() <= PER_PLAN_LOOKUP_THRESHOLD) {
+                for (String buildPlanId : project.getValue()) {
+                    Map<String, Boolean> status = retrieveBuildStatus(buildPlanId);
+                    if (status != null) {
+                        buildStatuses.put(buildPlanId, toBuildStatus(status.get("isActive"), status.get("isBuilding")));
+                    }
+                }
+                continue;
+            }
+            Map<String, BuildStatus> projectBuildStatuses = retrieveProjectBuildStatuses(project.getKey());
+            if (projectBuildStatuses == null) {
+                continue;
+            }
+            for (String buildPlanId : project.getValue()) {
+                // plans that do not exist anymore cannot build
+                buildStatuses.put(buildPlanId, projectBuildStatuses.getOrDefault(buildPlanId, BuildStatus.INACTIVE));
+            }
+        }
+        return buildStatuses;
+    }
+
+    private static BuildStatus toBuildStatus(boolean isActive, boolean isBuilding) {
+        if (isActive && !isBuilding) {
             return BuildStatus.QUEUED;
         }
-        else if (status.get("isActive") && status.get("isBuilding")) {
+        else if (isActive && isBuilding) {
             return BuildStatus.BUILDING;
         }
         else {
@@ -349,8 +408,14 @@ public class BambooService implements ContinuousIntegrationService {
                 feedbackRepository.delete(feedback);
             }
         }
-        addFeedbackToResult(result, buildResultDetails);
-        resultRepository.save(result);
+        final Timer.Context timerContext = parseBuildResultDetailsTimer.time();
+        try {
+            addFeedbackToResult(result, buildResultDetails);
+        } finally {
+            timerContext.stop();
+        }
+        latestResultService.saveNewResult(result);
+        relevantParticipationService.evict(participation);
         //The following was intended to prevent caching problems, but does not work properly due to lazy instantiation exceptions
 //        Hibernate.initialize(participation.getResults());
 //        participation.addResult(result);
@@ -447,6 +512,7 @@ public class BambooService implements ContinuousIntegrationService {
         HttpEntity<?> entity = new HttpEntity<>(headers);
         RestTemplate restTemplate = new RestTemplate();
         ResponseEntity<Map> response = null;
+        final Timer.Context timerContext = fetchBuildResultTimer.time();
         try {
             response = restTemplate.exchange(
                 BAMBOO_SERVER_URL + "/rest/api/latest/result/" + planKey.toUpperCase() + "/latest.json?expand=testResults,artifacts",
@@ -455,6 +521,8 @@ public class BambooService implements ContinuousIntegrationService {
                 Map.class);
         } catch (Exception e) {
             log.error("HttpError while retrieving results", e);
+        } finally {
+            timerContext.stop();
         }
         if (response != null) {
             Map<String, Object> result = new HashMap<>();
@@ -496,6 +564,7 @@ public class BambooService implements ContinuousIntegrationService {
         HttpEntity<?> entity = new HttpEntity<>(headers);
         RestTemplate restTemplate = new RestTemplate();
         ResponseEntity<Map> response = null;
+        final Timer.Context timerContext = fetchBuildResultDetailsTimer.time();
         try {
             // https://bamboobruegge.in.tum.de/rest/api/latest/result/EIST16W1-TESTEXERCISEAPP-JOB1/latest.json?expand=testResults.failedTests.testResult.errors
             response = restTemplate.exchange(
@@ -505,6 +574,8 @@ public class BambooService implements ContinuousIntegrationService {
                 Map.class);
         } catch (Exception e) {
             log.error("HttpError while retrieving build result details", e);
+        } finally {
+            timerContext.stop();
         }
         if (response != null) {
             Map<String, Object> result = new HashMap<>();
@@ -645,6 +716,46 @@ public class BambooService implements ContinuousIntegrationService {
         return null;
     }
 
+    /**
+     * Retrieves the current build status of all plans of the given project, page by page.
+     *
+     * @param projectKey the key of the project for which to retrieve the status of the plans
+     * @return map from plan key (i.e. build plan id) to build status, null if the project could not be retrieved
+     */
+    private Map<String, BuildStatus> retrieveProjectBuildStatuses(String projectKey) {
+        HttpHeaders headers = HeaderUtil.createAuthorization(BAMBOO_USER, BAMBOO_PASSWORD);
+        HttpEntity<?> entity = new HttpEntity<>(headers);
+        RestTemplate restTemplate = new RestTemplate();
+        Map<String, BuildStatus> result = new HashMap<>();
+        int startIndex = 0;
+        while (true) {
+            ResponseEntity<Map> response;
+            try {
+                response = restTemplate.exchange(
+                    BAMBOO_SERVER_URL + "/rest/api/latest/project/" + projectKey + ".json?expand=plans.plan&start-index=" + startIndex + "&max-result=" + PROJECT_PLANS_PAGE_SIZE,
+                    HttpMethod.GET,
+                    entity,
+                    Map.class);
+            } catch (Exception e) {
+                log.error("Bamboo HttpError '" + e.getMessage() + "' while retrieving build status for project " + projectKey, e);
+                return null;
+            }
+            Map plans = (Map) response.getBody().get("plans");
+            List<Map> planList = plans != null ? (List<Map>) plans.get("plan") : null;
+            if (planList == null || planList.isEmpty()) {
+                return result;
+            }
+            for (Map plan : planList) {
+                result.put(((String) plan.get("key")).toUpperCase(),
+                    toBuildStatus(Boolean.TRUE.equals(plan.get("isActive")), Boolean.TRUE.equals(plan.get("isBuilding"))));
+            }
+            startIndex += planList.size();
+            if (plans.get("size") instanceof Number && startIndex >= ((Number) plans.get("size")).intValue()) {
+                return result;
+            }
+        }
+    }
+
     /**
      * Check if the given build plan is valid and accessible on Bamboo.
      *
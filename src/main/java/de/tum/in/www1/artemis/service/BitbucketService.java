@@ -9,6 +9,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.*;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
@@ -16,9 +17,10 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Service
 @Profile("bitbucket")
@@ -38,10 +40,21 @@ public class BitbucketService implements VersionControlService {
     @Value("${artemis.lti.user-prefix}")
     private String USER_PREFIX = "";
 
+    @Value("${artemis.bitbucket.provisioning-cache.ttl-seconds:86400}")
+    private long PROVISIONING_CACHE_TTL_SECONDS;
+
     private final UserService userService;
+    private final PrincipalCacheService principalCacheService;
+
+    /**
+     * The users that are known to exist on Bitbucket, with the groups they are known to be a member of. A user is
+     * provisioned once per semester, the entries only expire so that e.g. a user deleted on Bitbucket is created again.
+     */
+    private final Map<String, ProvisionedUser> provisionedUsers = new ConcurrentHashMap<>();
 
-    public BitbucketService(UserService userService) {
+    public BitbucketService(UserService userService, PrincipalCacheService principalCacheService) {
         this.userService = userService;
+        this.principalCacheService = principalCacheService;
     }
 
 
@@ -58,34 +71,61 @@ public class BitbucketService implements VersionControlService {
 
     @Override
     public void configureRepository(URL repositoryUrl, String username) {
+        provisionUser(username);
+        giveWritePermission(getProjectKeyFromUrl(repositoryUrl), getRepositorySlugFromUrl(repositoryUrl), username);
+    }
 
+    @Override
+    public void provisionUser(String username) {
+        if (!username.startsWith(USER_PREFIX)) {
+            // only automatically created users are managed by Artemis
+            return;
+        }
+        PrincipalCacheService.CachedPrincipal principal = principalCacheService.getPrincipal(username);
+        if (principal == null) {
+            throw new BitbucketException("User " + username + " does not exist");
+        }
 
-        if(username.startsWith(USER_PREFIX)) {
-            // It is an automatically created user
-
-            User user = userService.getUserByLogin(username).get();
+        ProvisionedUser provisionedUser = provisionedUsers.get(username);
+        if (provisionedUser != null && provisionedUser.isExpired()) {
+            provisionedUser = null;
+        }
+        if (provisionedUser != null && provisionedUser.groups.containsAll(principal.getGroups())) {
+            log.debug("Bitbucket user {} is already provisioned", username);
+            return;
+        }
 
+        if (provisionedUser == null) {
             if (!userExists(username)) {
                 log.debug("Bitbucket user {} does not exist yet", username);
+                User user = userService.getUserByLogin(username).get();
                 String displayName = (user.getFirstName() + " " + user.getLastName()).trim();
-                createUser(username, userService.decryptPasswordByLogin(username).get(), user.getEmail(), displayName);
+                createUser(username, userService.encryptor().decrypt(user.getPassword()), user.getEmail(), displayName);
+            } else {
+                log.debug("Bitbucket user {} already exists", username);
+            }
+        }
 
-                try {
-                    addUserToGroups(username, user.getGroups());
-                } catch (BitbucketException e) {
+        Set<String> knownGroups = provisionedUser != null ? provisionedUser.groups : Collections.emptySet();
+        List<String> missingGroups = principal.getGroups().stream().filter(group -> !knownGroups.contains(group)).collect(Collectors.toList());
+        if (!missingGroups.isEmpty()) {
+            try {
+                addUserToGroups(username, missingGroups);
+            } catch (BitbucketException e) {
             /*
                 This might throw exceptions, for example if the group does not exist on Bitbucket.
                 We can safely ignore them.
             */
-                }
-
-            } else {
-                log.debug("Bitbucket user {} already exists", username);
             }
-
         }
+        provisionedUsers.put(username, new ProvisionedUser(principal.getGroups(), System.nanoTime() + TimeUnit.SECONDS.toNanos(PROVISIONING_CACHE_TTL_SECONDS)));
+    }
 
-        giveWritePermission(getProjectKeyFromUrl(repositoryUrl), getRepositorySlugFromUrl(repositoryUrl), username);
+    @Scheduled(fixedRate = 3600000)
+    public void removeExpiredProvisionedUsers() {
+        int size = provisionedUsers.size();
+        provisionedUsers.values().removeIf(ProvisionedUser::isExpired);
+        log.debug("Removed {} expired users from the provisioning cache", size - provisionedUsers.size());
     }
 
     @Override
@@ -338,4 +378,22 @@ public class BitbucketService implements VersionControlService {
         }
         return cloneUrl;
     }
+
+    /**
+     * A user that is known to exist on Bitbucket together with the groups the user is known to be a member of
+     */
+    private static final class ProvisionedUser {
+
+        private final Set<String> groups;
+        private final long expiresAt;
+
+        private ProvisionedUser(Set<String> groups, long expiresAt) {
+            this.groups = groups;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
 }
@@ -0,0 +1,293 @@
+package de.tum.in.www1.artemis.service;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.Participation;
+import de.tum.in.www1.artemis.repository.ParticipationRepository;
+import de.tum.in.www1.artemis.security.SecurityUtils;
+import de.tum.in.www1.artemis.service.ContinuousIntegrationService.BuildStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node-wide cache of the build status of the programming exercise participations, so that the clients polling the
+ * status of a participation do not cause one request to the CI system per participation and poll.
+ *
+ * A participation is watched once its status was requested and until it has not been requested for TTL_SECONDS. The
+ * status of all watched participations is refreshed periodically (artemis.build-status.refresh-interval-ms) with one
+ * request per CI project (i.e. per exercise), and set to INACTIVE when the CI system notifies about a new result. A
+ * requested status that is older than MAX_AGE_MS is retrieved again, so that a build that has just been queued shows
+ * up without waiting for the next refresh.
+ *
+ * Every change is pushed over websocket ("/topic/participation/{participationId}/buildStatus") and published to the
+ * other nodes of the cluster, which update their own entry without pushing it again (the websocket messages already
+ * reach the clients of all nodes).
+ */
+@Service
+public class BuildStatusCacheService {
+
+    private final Logger log = LoggerFactory.getLogger(BuildStatusCacheService.class);
+
+    @Value("${artemis.build-status.ttl-seconds:600}")
+    private long TTL_SECONDS;
+
+    @Value("${artemis.build-status.max-age-ms:5000}")
+    private long MAX_AGE_MS;
+
+    private static final String STATUS_TOPIC = "build-status";
+
+    private final ParticipationRepository participationRepository;
+    private final Optional<ContinuousIntegrationService> continuousIntegrationService;
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final AuthorizationCheckService authCheckService;
+    private final ClusterEventService clusterEventService;
+
+    private final Timer refreshBuildStatusesTimer;
+
+    private final Map<Long, CachedBuildStatus> buildStatuses = new ConcurrentHashMap<>();
+
+    public BuildStatusCacheService(ParticipationRepository participationRepository,
+                                   Optional<ContinuousIntegrationService> continuousIntegrationService,
+                                   SimpMessageSendingOperations messagingTemplate,
+                                   AuthorizationCheckService authCheckService,
+                                   ClusterEventService clusterEventService,
+                                   MetricRegistry metricRegistry) {
+        this.participationRepository = participationRepository;
+        this.continuousIntegrationService = continuousIntegrationService;
+        this.messagingTemplate = messagingTemplate;
+        this.authCheckService = authCheckService;
+        this.clusterEventService = clusterEventService;
+        this.refreshBuildStatusesTimer = metricRegistry.timer(MetricRegistry.name(BuildStatusCacheService.class, "refreshBuildStatuses"));
+        clusterEventService.<BuildStatusChange>addListener(STATUS_TOPIC, this::onBuildStatusChanged);
+    }
+
+    /**
+     * Get the build status of the given participation, retrieves it from the CI system if the participation is not
+     * watched yet or its status is older than MAX_AGE_MS
+     *
+     * @param participation the programming exercise participation
+     * @return the build status, null if the participation has no build plan
+     */
+    public BuildStatus getBuildStatus(Participation participation) {
+        if (participation.getBuildPlanId() == null || !continuousIntegrationService.isPresent()) {
+            return null;
+        }
+        CachedBuildStatus cached = buildStatuses.get(participation.getId());
+        if (cached != null && cached.buildPlanId.equalsIgnoreCase(participation.getBuildPlanId()) && !cached.isOlderThan(MAX_AGE_MS)) {
+            cached.touch(expiresAt());
+            return cached.status;
+        }
+        BuildStatus status = continuousIntegrationService.get().getBuildStatus(participation);
+        put(participation.getId(), participation.getBuildPlanId(), status);
+        return status;
+    }
+
+    /**
+     * Get the build status of the given participations, the participations that are not watched yet or whose status is
+     * older than MAX_AGE_MS are retrieved from the CI system with one request per CI project. Only the participations of the current user and the participations
+     * in courses in which the current user is a teaching assistant or instructor are considered (and watched).
+     *
+     * @param participationIds the ids of the participations
+     * @return map from participation id to build status, participations without build plan or that the current user is
+     * not allowed to see are missing
+     */
+    public Map<Long, BuildStatus> getBuildStatuses(Collection<Long> participationIds) {
+        Map<Long, BuildStatus> result = new HashMap<>();
+        if (participationIds.isEmpty() || !continuousIntegrationService.isPresent()) {
+            return result;
+        }
+        String currentUserLogin = SecurityUtils.getCurrentUserLogin();
+        Map<Long, Boolean> teachingAssistantInCourse = new HashMap<>();
+        Map<Long, String> missingBuildPlanIds = new HashMap<>();
+        Map<Long, BuildStatus> staleStatuses = new HashMap<>();
+        for (Object[] participation : participationRepository.findIdAndBuildPlanIdAndStudentLoginAndCourseByIdIn(participationIds)) {
+            Long participationId = (Long) participation[0];
+            String buildPlanId = (String) participation[1];
+            Course course = (Course) participation[3];
+            if (!Objects.equals(currentUserLogin, participation[2])
+                && !teachingAssistantInCourse.computeIfAbsent(course.getId(), courseId -> authCheckService.isAtLeastTeachingAssistantInCourse(course))) {
+                continue;
+            }
+            CachedBuildStatus cached = buildStatuses.get(participationId);
+            if (cached != null && cached.buildPlanId.equalsIgnoreCase(buildPlanId)) {
+                cached.touch(expiresAt());
+                if (!cached.isOlderThan(MAX_AGE_MS)) {
+                    result.put(participationId, cached.status);
+                    continue;
+                }
+                staleStatuses.put(participationId, cached.status);
+            }
+            missingBuildPlanIds.put(participationId, buildPlanId);
+        }
+        if (!missingBuildPlanIds.isEmpty()) {
+            Map<String, BuildStatus> retrieved = continuousIntegrationService.get().getBuildStatuses(missingBuildPlanIds.values());
+            for (Map.Entry<Long, String> participation : missingBuildPlanIds.entrySet()) {
+                BuildStatus status = retrieved.get(participation.getValue().toUpperCase());
+                if (status != null) {
+                    put(participation.getKey(), participation.getValue(), status);
+                    result.put(participation.getKey(), status);
+                }
+                else if (staleStatuses.containsKey(participation.getKey())) {
+                    // the last known status is better than none
+                    result.put(participation.getKey(), staleStatuses.get(participation.getKey()));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Update the build status of the given participation after the CI system notified about a new result, i.e. the
+     * build has completed. The notification reaches only one node, so it is published to the other nodes, even if
+     * the participation is not watched on this node.
+     *
+     * @param participation the participation for which a build has completed
+     */
+    public void onBuildCompleted(Participation participation) {
+        CachedBuildStatus cached = buildStatuses.get(participation.getId());
+        if (cached != null) {
+            apply(participation.getId(), cached, BuildStatus.INACTIVE);
+        }
+        clusterEventService.publish(STATUS_TOPIC, new BuildStatusChange(participation.getId(), participation.getBuildPlanId(), BuildStatus.INACTIVE));
+    }
+
+    /**
+     * Refresh the build status of all watched participations with one request per CI project and push the changes
+     */
+    @Scheduled(fixedDelayString = "${artemis.build-status.refresh-interval-ms:30000}", initialDelayString = "${artemis.build-status.refresh-interval-ms:30000}")
+    public void refreshBuildStatuses() {
+        buildStatuses.values().removeIf(CachedBuildStatus::isExpired);
+        if (buildStatuses.isEmpty() || !continuousIntegrationService.isPresent()) {
+            return;
+        }
+        Map<Long, CachedBuildStatus> watched = new HashMap<>(buildStatuses);
+        Set<String> buildPlanIds = new HashSet<>();
+        for (CachedBuildStatus cached : watched.values()) {
+            buildPlanIds.add(cached.buildPlanId);
+        }
+        Map<String, BuildStatus> retrieved;
+        try (Timer.Context ignored = refreshBuildStatusesTimer.time()) {
+            retrieved = continuousIntegrationService.get().getBuildStatuses(buildPlanIds);
+        } catch (Exception e) {
+            log.error("Could not refresh the build status of {} build plans: {}", buildPlanIds.size(), e.getMessage());
+            return;
+        }
+        for (Map.Entry<Long, CachedBuildStatus> participation : watched.entrySet()) {
+            BuildStatus status = retrieved.get(participation.getValue().buildPlanId.toUpperCase());
+            if (status != null) {
+                update(participation.getKey(), participation.getValue(), status);
+            }
+        }
+        log.debug("Refreshed the build status of {} participations with {} build plans", watched.size(), buildPlanIds.size());
+    }
+
+    /**
+     * Apply a change of the build status of a participation that was published by another node. The other node has
+     * already pushed it over websocket.
+     */
+    private void onBuildStatusChanged(BuildStatusChange change) {
+        CachedBuildStatus cached = buildStatuses.get(change.participationId);
+        if (cached != null && (change.buildPlanId == null || cached.buildPlanId.equalsIgnoreCase(change.buildPlanId))) {
+            cached.set(change.status);
+        }
+    }
+
+    private void put(Long participationId, String buildPlanId, BuildStatus status) {
+        CachedBuildStatus cached = buildStatuses.get(participationId);
+        if (cached != null && cached.buildPlanId.equalsIgnoreCase(buildPlanId)) {
+            update(participationId, cached, status);
+        }
+        else {
+            buildStatuses.put(participationId, new CachedBuildStatus(buildPlanId, status, expiresAt()));
+        }
+    }
+
+    private void update(Long participationId, CachedBuildStatus cached, BuildStatus status) {
+        if (apply(participationId, cached, status)) {
+            clusterEventService.publish(STATUS_TOPIC, new BuildStatusChange(participationId, cached.buildPlanId, status));
+        }
+    }
+
+    /**
+     * Set the build status of a watched participation and push it if it has changed
+     *
+     * @return true if the status has changed
+     */
+    private boolean apply(Long participationId, CachedBuildStatus cached, BuildStatus status) {
+        BuildStatus previous = cached.set(status);
+        if (previous != status) {
+            messagingTemplate.convertAndSend("/topic/participation/" + participationId + "/buildStatus", status);
+            return true;
+        }
+        return false;
+    }
+
+    private long expiresAt() {
+        return System.nanoTime() + TimeUnit.SECONDS.toNanos(TTL_SECONDS);
+    }
+
+    /**
+     * The last known build status of a participation, when it was retrieved and when the participation stops being watched
+     */
+    private static final class CachedBuildStatus {
+
+        private final String buildPlanId;
+        private volatile BuildStatus status;
+        private volatile long updatedAt;
+        private volatile long expiresAt;
+
+        private CachedBuildStatus(String buildPlanId, BuildStatus status, long expiresAt) {
+            this.buildPlanId = buildPlanId;
+            this.status = status;
+            this.updatedAt = System.nanoTime();
+            this.expiresAt = expiresAt;
+        }
+
+        private synchronized BuildStatus set(BuildStatus status) {
+            BuildStatus previous = this.status;
+            this.status = status;
+            this.updatedAt = System.nanoTime();
+            return previous;
+        }
+
+        private boolean isOlderThan(long maxAgeMs) {
+            return System.nanoTime() - updatedAt > TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+        }
+
+        private void touch(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
+
+    /**
+     * A change of the build status of a participation, published to the other nodes of the cluster
+     */
+    private static final class BuildStatusChange implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Long participationId;
+        private final String buildPlanId;
+        private final BuildStatus status;
+
+        private BuildStatusChange(Long participationId, String buildPlanId, BuildStatus status) {
+            this.participationId = participationId;
+            this.buildPlanId = buildPlanId;
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package de.tum.in.www1.artemis.service;
+
+import java.io.Serializable;
+import java.util.function.Consumer;
+
+/**
+ * Notifies the other nodes of the cluster about events, e.g. that a node-wide cache entry has become stale.
+ *
+ * Without the profile "cluster" there are no other nodes and publishing does nothing (LocalClusterEventService). With
+ * the profile "cluster", the events are published to a Hazelcast topic per event type (HazelcastClusterEventService).
+ */
+public interface ClusterEventService {
+
+    /**
+     * Publish the given event to all other nodes, the listeners of this node are not called
+     *
+     * @param topic the name of the event type
+     * @param event the event
+     */
+    <T extends Serializable> void publish(String topic, T event);
+
+    /**
+     * Register a listener that is called with the events of the given type published by other nodes
+     *
+     * @param topic    the name of the event type
+     * @param listener the listener
+     */
+    <T extends Serializable> void addListener(String topic, Consumer<T> listener);
+}
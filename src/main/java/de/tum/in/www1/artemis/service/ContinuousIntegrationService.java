@@ -7,7 +7,9 @@ import de.tum.in.www1.artemis.domain.Result;
 import org.springframework.http.ResponseEntity;
 
 import java.net.URL;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -64,6 +66,14 @@ public interface ContinuousIntegrationService {
      */
     public BuildStatus getBuildStatus(Participation participation);
 
+    /**
+     * Get the current status of the builds of the given build plans with as few requests to the CI system as possible.
+     *
+     * @param buildPlanIds unique identifiers for build plans on CI system
+     * @return map from build plan id to build status, build plans whose status could not be retrieved are missing
+     */
+    public Map<String, BuildStatus> getBuildStatuses(Collection<String> buildPlanIds);
+
     /**
      * Check if the given build plan ID is valid and accessible.
      *
@@ -2,6 +2,8 @@ package de.tum.in.www1.artemis.service;
 
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.repository.CourseRepository;
+import de.tum.in.www1.artemis.repository.ResultRepository;
+import de.tum.in.www1.artemis.service.LatestResultService.LatestResults;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -26,15 +28,24 @@ public class CourseService {
     private final UserService userService;
     private final ExerciseService exerciseService;
     private final AuthorizationCheckService authCheckService;
+    private final PrincipalCacheService principalCacheService;
+    private final ResultRepository resultRepository;
+    private final LatestResultService latestResultService;
 
     public CourseService(CourseRepository courseRepository,
                          UserService userService,
                          ExerciseService exerciseService,
-                         AuthorizationCheckService authCheckService) {
+                         AuthorizationCheckService authCheckService,
+                         PrincipalCacheService principalCacheService,
+                         ResultRepository resultRepository,
+                         LatestResultService latestResultService) {
         this.courseRepository = courseRepository;
         this.userService = userService;
         this.exerciseService = exerciseService;
         this.authCheckService = authCheckService;
+        this.principalCacheService = principalCacheService;
+        this.resultRepository = resultRepository;
+        this.latestResultService = latestResultService;
     }
 
     /**
@@ -45,7 +56,10 @@ public class CourseService {
      */
     public Course save(Course course) {
         log.debug("Request to save Course : {}", course);
-        return courseRepository.save(course);
+        Course result = courseRepository.save(course);
+        // the group names of the course might have changed
+        principalCacheService.evictAll();
+        return result;
     }
 
     /**
@@ -218,12 +232,15 @@ public class CourseService {
         for (Exercise exercise : exercisesOfCourse) {
             Set<Participation> participations = exercise.getParticipations();
             boolean exerciseHasDueDate = exercise.getDueDate() != null;
+            // the latest results of all participations of the exercise with one query
+            Map<Long, LatestResults> latestResults = latestResultService.findLatestResults(participations);
 
             for (Participation participation : participations) {
 
                 //id of user in the database to reference to the user
                 long userID = participation.getStudent().getId();
-                Result bestResult = choseResultInParticipation(participation, exerciseHasDueDate);
+                Result latestResult = LatestResultService.findLatestResult(participation, latestResults);
+                Result bestResult = choseResultInParticipation(participation, latestResult, exerciseHasDueDate);
 
                 //TODO: it might happen that there are two participations for one student and one exercise, e.g. a FINISHED one and an INITIALIZED one.
                 // Make sure to use only one of them
@@ -251,33 +268,28 @@ public class CourseService {
      * Find the best Result in a Participation
      *
      * @param participation the participation you want the best result from
+     * @param latestResult  the latest result of the participation, see LatestResultService
      * @param hasDueDate    if the participation has a duedate take last result before the due date if not take the overall last result
      * @return the best result a student had within the time of the exercise
      */
-    @Transactional(readOnly = true)
-    public Result choseResultInParticipation(Participation participation, boolean hasDueDate) {
-        List<Result> results = new ArrayList<>(participation.getResults());
-
+    private Result choseResultInParticipation(Participation participation, Result latestResult, boolean hasDueDate) {
         Result chosenResult;
         //edge case of no result submitted to a participation
-        if (results.size() <= 0) {
+        if (latestResult == null) {
             chosenResult = new Result();
             chosenResult.setScore((long) 0);
             chosenResult.setParticipation(participation);
             return chosenResult;
         }
 
-        //sorting in descending order to have the last result at the beginning
-        results.sort(Comparator.comparing(Result::getCompletionDate).reversed());
-
-        if (hasDueDate) {
-            //find the first result that is before the due date otherwise handles the case where all results were submitted after the due date,
-            chosenResult = results.stream()
-                .filter(x -> x.getCompletionDate().isBefore(participation.getExercise().getDueDate()))
-                .findFirst()
-                .orElse(new Result());
+        ZonedDateTime dueDate = participation.getExercise().getDueDate();
+        if (!hasDueDate || latestResult.getCompletionDate().isBefore(dueDate)) {
+            //no due date or the last result is before the due date: use last result
+            chosenResult = latestResult;
         } else {
-            chosenResult = results.remove(0); //no due date use last result
+            //find the last result that is before the due date otherwise handles the case where all results were submitted after the due date,
+            chosenResult = resultRepository.findFirstByParticipationIdAndCompletionDateBeforeOrderByCompletionDateDesc(participation.getId(), dueDate)
+                .orElse(new Result());
         }
 
         //edge case where the db has stored null for score
@@ -0,0 +1,206 @@
+package de.tum.in.www1.artemis.service;
+
+import com.google.common.util.concurrent.RateLimiter;
+import de.tum.in.www1.artemis.domain.enumeration.ParticipationState;
+import de.tum.in.www1.artemis.repository.ParticipationRepository;
+import de.tum.in.www1.artemis.service.dto.ExerciseCleanupProgressDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.net.URL;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Deletes the build plans and optionally the repositories of all participations of programming exercises, e.g. at the
+ * end of the semester.
+ *
+ * The deletions are fanned out to a worker pool with PARALLELISM threads, the requests to Bamboo and Bitbucket are
+ * limited to a configurable rate per second each. The participations are processed in batches of BATCH_SIZE: once all
+ * deletions of a batch are done, the batch is marked as INACTIVE (build plan deleted) or FINISHED (repository deleted)
+ * with one update statement. The participations themselves are the checkpoint: a cleanup that is started again after
+ * a restart only processes the participations that still have a build plan or repository.
+ */
+@Service
+public class ExerciseCleanupService {
+
+    private final Logger log = LoggerFactory.getLogger(ExerciseCleanupService.class);
+
+    @Value("${artemis.cleanup.parallelism:8}")
+    private int PARALLELISM;
+
+    @Value("${artemis.cleanup.batch-size:50}")
+    private int BATCH_SIZE;
+
+    @Value("${artemis.cleanup.continuous-integration-requests-per-second:5}")
+    private double CONTINUOUS_INTEGRATION_REQUESTS_PER_SECOND;
+
+    @Value("${artemis.cleanup.version-control-requests-per-second:5}")
+    private double VERSION_CONTROL_REQUESTS_PER_SECOND;
+
+    /**
+     * The outcome of the cleanup of one participation
+     */
+    private static final class ParticipationCleanup {
+
+        private final Long participationId;
+        private boolean buildPlanDeleted;
+        private boolean repositoryDeleted;
+        private boolean failed;
+
+        private ParticipationCleanup(Long participationId) {
+            this.participationId = participationId;
+        }
+    }
+
+    private final ParticipationRepository participationRepository;
+    private final Optional<ContinuousIntegrationService> continuousIntegrationService;
+    private final Optional<VersionControlService> versionControlService;
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final RelevantParticipationService relevantParticipationService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final BackgroundJobService backgroundJobService;
+
+    private ExecutorService cleanupExecutor;
+    private RateLimiter continuousIntegrationRateLimiter;
+    private RateLimiter versionControlRateLimiter;
+
+    public ExerciseCleanupService(ParticipationRepository participationRepository,
+                                  Optional<ContinuousIntegrationService> continuousIntegrationService,
+                                  Optional<VersionControlService> versionControlService,
+                                  SimpMessageSendingOperations messagingTemplate,
+                                  RelevantParticipationService relevantParticipationService,
+                                  PlatformTransactionManager transactionManager,
+                                  BackgroundJobService backgroundJobService) {
+        this.participationRepository = participationRepository;
+        this.continuousIntegrationService = continuousIntegrationService;
+        this.versionControlService = versionControlService;
+        this.messagingTemplate = messagingTemplate;
+        this.relevantParticipationService = relevantParticipationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backgroundJobService = backgroundJobService;
+    }
+
+    @PostConstruct
+    public void init() {
+        cleanupExecutor = backgroundJobService.newWorkerPool("exercise-cleanup-", PARALLELISM);
+        continuousIntegrationRateLimiter = RateLimiter.create(CONTINUOUS_INTEGRATION_REQUESTS_PER_SECOND);
+        versionControlRateLimiter = RateLimiter.create(VERSION_CONTROL_REQUESTS_PER_SECOND);
+    }
+
+    /**
+     * Clean up the given programming exercises in the background, one after another. Exercises whose cleanup is
+     * already running are skipped. The progress is sent to the given user over websocket ("/topic/exercise/{exerciseId}/cleanup").
+     *
+     * @param exerciseIds        the ids of the programming exercises
+     * @param deleteRepositories whether the repositories should be deleted as well
+     * @param username           the login of the user who started the cleanup
+     * @return the ids of the exercises whose cleanup was started
+     */
+    public List<Long> cleanupAsync(List<Long> exerciseIds, boolean deleteRepositories, String username) {
+        return backgroundJobService.submitJobs("exercise-cleanup-job", exerciseIds, exerciseId -> cleanup(exerciseId, deleteRepositories, username));
+    }
+
+    private void cleanup(Long exerciseId, boolean deleteRepositories, String username) throws InterruptedException, ExecutionException {
+        long start = System.currentTimeMillis();
+        // only the participations that have not been cleaned up yet, e.g. by an interrupted cleanup
+        List<Object[]> participations = new ArrayList<>();
+        for (Object[] participation : participationRepository.findIdAndBuildPlanIdAndRepositoryUrlByExerciseId(exerciseId)) {
+            if (participation[1] != null || (deleteRepositories && participation[2] != null)) {
+                participations.add(participation);
+            }
+        }
+        log.info("Cleanup of exercise {}: {} participations with build plans or repositories, delete repositories: {}", exerciseId, participations.size(), deleteRepositories);
+
+        ExerciseCleanupProgressDTO progress = new ExerciseCleanupProgressDTO();
+        progress.setExerciseId(exerciseId);
+        progress.setTotalParticipations(participations.size());
+
+        // all deletions are queued at once, so that the workers continue with the next batch while a batch is checkpointed
+        List<List<CompletableFuture<ParticipationCleanup>>> batches = new ArrayList<>();
+        for (int from = 0; from < participations.size(); from += BATCH_SIZE) {
+            List<CompletableFuture<ParticipationCleanup>> batch = new ArrayList<>();
+            for (Object[] participation : participations.subList(from, Math.min(from + BATCH_SIZE, participations.size()))) {
+                batch.add(CompletableFuture.supplyAsync(() -> cleanupParticipation((Long) participation[0], (String) participation[1],
+                    deleteRepositories ? (String) participation[2] : null), cleanupExecutor));
+            }
+            batches.add(batch);
+        }
+
+        for (List<CompletableFuture<ParticipationCleanup>> batch : batches) {
+            List<Long> deletedBuildPlans = new ArrayList<>();
+            List<Long> deletedRepositories = new ArrayList<>();
+            for (CompletableFuture<ParticipationCleanup> future : batch) {
+                ParticipationCleanup cleanup = future.get();
+                if (cleanup.buildPlanDeleted) {
+                    deletedBuildPlans.add(cleanup.participationId);
+                }
+                if (cleanup.repositoryDeleted) {
+                    deletedRepositories.add(cleanup.participationId);
+                }
+                if (cleanup.failed) {
+                    progress.setFailedParticipations(progress.getFailedParticipations() + 1);
+                }
+            }
+            transactionTemplate.execute(status -> {
+                if (!deletedBuildPlans.isEmpty()) {
+                    participationRepository.removeBuildPlanIdByIdIn(deletedBuildPlans, ParticipationState.INACTIVE);
+                }
+                if (!deletedRepositories.isEmpty()) {
+                    participationRepository.removeRepositoryUrlByIdIn(deletedRepositories, ParticipationState.FINISHED);
+                }
+                relevantParticipationService.evictAll();
+                return null;
+            });
+            progress.setProcessedParticipations(progress.getProcessedParticipations() + batch.size());
+            progress.setDeletedBuildPlans(progress.getDeletedBuildPlans() + deletedBuildPlans.size());
+            progress.setDeletedRepositories(progress.getDeletedRepositories() + deletedRepositories.size());
+            sendProgress(username, progress);
+        }
+
+        progress.setFinished(true);
+        sendProgress(username, progress);
+        log.info("Cleanup of exercise {} deleted {} build plans and {} repositories in {}ms, {} participations failed", exerciseId,
+            progress.getDeletedBuildPlans(), progress.getDeletedRepositories(), System.currentTimeMillis() - start, progress.getFailedParticipations());
+    }
+
+    private ParticipationCleanup cleanupParticipation(Long participationId, String buildPlanId, String repositoryUrl) {
+        ParticipationCleanup cleanup = new ParticipationCleanup(participationId);
+        if (buildPlanId != null && continuousIntegrationService.isPresent()) {
+            continuousIntegrationRateLimiter.acquire();
+            try {
+                continuousIntegrationService.get().deleteBuildPlan(buildPlanId);
+            } catch (Exception e) {
+                log.error("Could not delete build plan {}: {}", buildPlanId, e.getMessage());
+                cleanup.failed = true;
+            }
+            // like before, the participation becomes inactive even if the build plan could not be deleted
+            cleanup.buildPlanDeleted = true;
+        }
+        if (repositoryUrl != null && versionControlService.isPresent()) {
+            versionControlRateLimiter.acquire();
+            try {
+                versionControlService.get().deleteRepository(new URL(repositoryUrl));
+                cleanup.repositoryDeleted = true;
+            } catch (Exception e) {
+                // the repository url is kept, so that the next cleanup tries again
+                log.error("Could not delete repository {}: {}", repositoryUrl, e.getMessage());
+                cleanup.failed = true;
+            }
+        }
+        return cleanup;
+    }
+
+    private void sendProgress(String username, ExerciseCleanupProgressDTO progress) {
+        if (username != null) {
+            messagingTemplate.convertAndSendToUser(username, "/topic/exercise/" + progress.getExerciseId() + "/cleanup", progress);
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package de.tum.in.www1.artemis.service;
 
 import de.tum.in.www1.artemis.domain.*;
-import de.tum.in.www1.artemis.domain.enumeration.ParticipationState;
 import de.tum.in.www1.artemis.repository.ExerciseRepository;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.slf4j.Logger;
@@ -39,24 +38,24 @@ public class ExerciseService {
     private final ExerciseRepository exerciseRepository;
     private final UserService userService;
     private final ParticipationService participationService;
+    private final ParticipationDeletionService participationDeletionService;
+    private final ExerciseCleanupService exerciseCleanupService;
     private final AuthorizationCheckService authCheckService;
-    private final Optional<ContinuousIntegrationService> continuousIntegrationService;
-    private final Optional<VersionControlService> versionControlService;
     private final Optional<GitService> gitService;
 
     public ExerciseService(ExerciseRepository exerciseRepository,
                            UserService userService,
                            ParticipationService participationService,
+                           ParticipationDeletionService participationDeletionService,
+                           ExerciseCleanupService exerciseCleanupService,
                            AuthorizationCheckService authCheckService,
-                           Optional<ContinuousIntegrationService> continuousIntegrationService,
-                           Optional<VersionControlService> versionControlService,
                            Optional<GitService> gitService) {
         this.exerciseRepository = exerciseRepository;
         this.userService = userService;
         this.participationService = participationService;
+        this.participationDeletionService = participationDeletionService;
+        this.exerciseCleanupService = exerciseCleanupService;
         this.authCheckService = authCheckService;
-        this.continuousIntegrationService = continuousIntegrationService;
-        this.versionControlService = versionControlService;
         this.gitService = gitService;
     }
 
@@ -156,18 +155,29 @@ public class ExerciseService {
     }
 
     /**
-     * Resets an Exercise by deleting all its Participations
+     * Resets an Exercise by deleting all its Participations. The build plans and repositories are removed in the
+     * background after the transaction has been committed.
      *
      * @param exercise
      */
-    @Transactional(noRollbackFor={Throwable.class})
+    @Transactional
     public void reset(Exercise exercise) {
         log.debug("Request reset Exercise : {}", exercise.getId());
 
         // delete all participations for this exercise
-        for (Participation participation : exercise.getParticipations()) {
-            participationService.delete(participation.getId(), true, true);
-        }
+        participationService.deleteAllByExerciseId(exercise.getId(), true, true);
+    }
+
+    /**
+     * Resets an Exercise in the background by deleting all its Participations, the progress is sent to the given user over websocket
+     *
+     * @param exercise the exercise to reset
+     * @param username the login of the user who started the reset
+     * @return false if a reset of the exercise is already running, true otherwise
+     */
+    public boolean resetAsync(Exercise exercise, String username) {
+        log.debug("Request to reset Exercise {} in the background", exercise.getId());
+        return participationDeletionService.resetAsync(exercise.getId(), username);
     }
 
     /**
@@ -184,53 +194,40 @@ public class ExerciseService {
     }
 
     /**
-     * Delete build plans (except BASE) and optionally repositories of all exercise participations.
+     * Delete build plans (except BASE) and optionally repositories of all exercise participations in the background.
+     * The progress is sent to the given user over websocket ("/topic/exercise/{id}/cleanup").
      *
      * @param id id of the exercise for which build plans in respective participations are deleted
+     * @param deleteRepositories whether the repositories should be deleted as well
+     * @param username the login of the user who started the cleanup
+     * @return false if the exercise is not a programming exercise or its cleanup is already running, true otherwise
      */
-    @Transactional(noRollbackFor={Throwable.class})
-    public void cleanup(Long id, boolean deleteRepositories) throws IOException {
-        Exercise exercise = findOneLoadParticipations(id);
-        log.info("Request to cleanup all participations for Exercise : {}", exercise.getTitle());
-
-        if (Optional.ofNullable(exercise).isPresent() && exercise instanceof ProgrammingExercise) {
-            exercise.getParticipations().forEach(participation -> {
-                if (participation.getBuildPlanId() != null) {     //ignore participations without build plan id
-                    try {
-                        continuousIntegrationService.get().deleteBuildPlan(participation.getBuildPlanId());
-                    }
-                    catch(Exception ex) {
-                        log.error(ex.getMessage());
-                        if (ex.getCause() != null) {
-                            log.error(ex.getCause().getMessage());
-                        }
-                    }
-
-                    participation.setInitializationState(ParticipationState.INACTIVE);
-                    participation.setBuildPlanId(null);
-                    participationService.save(participation);
-                }
-            });
-
-            if (deleteRepositories == false) {
-                return ;    //in this case, we are done
-            }
-
-            exercise.getParticipations().forEach(participation -> {
-                if (participation.getRepositoryUrl() != null) {      //ignore participations without repository URL
-                    //delete the repository on the VC Server
-                    versionControlService.get().deleteRepository(participation.getRepositoryUrlAsUrl());
-                    participation.setRepositoryUrl(null);
-                    participation.setInitializationState(ParticipationState.FINISHED);
-                    participationService.save(participation);
-                }
-            });
-
-
-        } else {
+    public boolean cleanup(Long id, boolean deleteRepositories, String username) {
+        Exercise exercise = findOne(id);
+        if (!(exercise instanceof ProgrammingExercise)) {
             log.info("Exercise with id {} is not an instance of ProgrammingExercise. Ignoring the request to cleanup repositories and build plan", id);
-            return;
+            return false;
         }
+        log.info("Request to cleanup all participations for Exercise : {}", exercise.getTitle());
+        return !exerciseCleanupService.cleanupAsync(Collections.singletonList(id), deleteRepositories, username).isEmpty();
+    }
+
+    /**
+     * Delete build plans (except BASE) and optionally repositories of all programming exercises of the given course
+     * in the background, one exercise after another.
+     *
+     * @param courseId the id of the course
+     * @param deleteRepositories whether the repositories should be deleted as well
+     * @param username the login of the user who started the cleanup
+     * @return the ids of the exercises whose cleanup was started
+     */
+    public List<Long> cleanupCourse(Long courseId, boolean deleteRepositories, String username) {
+        List<Long> exerciseIds = exerciseRepository.findByCourseId(courseId).stream()
+            .filter(exercise -> exercise instanceof ProgrammingExercise)
+            .map(Exercise::getId)
+            .collect(Collectors.toList());
+        log.info("Request to cleanup {} programming exercises of Course : {}", exerciseIds.size(), courseId);
+        return exerciseCleanupService.cleanupAsync(exerciseIds, deleteRepositories, username);
     }
 
     //does not delete anything
@@ -1,5 +1,8 @@
 package de.tum.in.www1.artemis.service;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import de.tum.in.www1.artemis.domain.File;
 import de.tum.in.www1.artemis.domain.Participation;
 import de.tum.in.www1.artemis.domain.Repository;
@@ -48,6 +51,15 @@ public class GitService {
 
     private final HashMap<Path, Repository> cachedRepositories = new HashMap<>();
 
+    private final Timer cloneTimer;
+    private final Timer commitAndPushTimer;
+
+    public GitService(MetricRegistry metricRegistry) {
+        this.cloneTimer = metricRegistry.timer(MetricRegistry.name(GitService.class, "clone"));
+        this.commitAndPushTimer = metricRegistry.timer(MetricRegistry.name(GitService.class, "commitAndPush"));
+        metricRegistry.register(MetricRegistry.name(GitService.class, "cachedRepositories"), (Gauge<Integer>) cachedRepositories::size);
+    }
+
     /**
      * Get the local repository for a given participation.
      * If the local repo does not exist yet, it will be checked out.
@@ -86,12 +98,17 @@ public class GitService {
             // Repository is not yet available on the server
             // We need to check it out from the remote repository
             log.info("Cloning from " + repoUrl + " to " + localPath);
-            Git result = Git.cloneRepository()
-                .setURI(repoUrl.toString())
-                .setCredentialsProvider(new UsernamePasswordCredentialsProvider(GIT_USER, GIT_PASSWORD))
-                .setDirectory(localPath.toFile())
-                .call();
-            result.close();
+            final Timer.Context timerContext = cloneTimer.time();
+            try {
+                Git result = Git.cloneRepository()
+                    .setURI(repoUrl.toString())
+                    .setCredentialsProvider(new UsernamePasswordCredentialsProvider(GIT_USER, GIT_PASSWORD))
+                    .setDirectory(localPath.toFile())
+                    .call();
+                result.close();
+            } finally {
+                timerContext.stop();
+            }
         }
         else {
             log.info("Repository at " + localPath + " already exists");
@@ -124,10 +141,15 @@ public class GitService {
      * @throws GitAPIException
      */
     public void commitAndPush(Repository repo, String message) throws GitAPIException {
-        Git git = new Git(repo);
-        git.commit().setMessage(message).setAllowEmpty(true).setCommitter(GIT_NAME, GIT_EMAIL).call();
-        git.push().setCredentialsProvider(new UsernamePasswordCredentialsProvider(GIT_USER, GIT_PASSWORD)).call();
-        git.close();
+        final Timer.Context timerContext = commitAndPushTimer.time();
+        try {
+            Git git = new Git(repo);
+            git.commit().setMessage(message).setAllowEmpty(true).setCommitter(GIT_NAME, GIT_EMAIL).call();
+            git.push().setCredentialsProvider(new UsernamePasswordCredentialsProvider(GIT_USER, GIT_PASSWORD)).call();
+            git.close();
+        } finally {
+            timerContext.stop();
+        }
     }
 
     /**
@@ -0,0 +1,52 @@
+package de.tum.in.www1.artemis.service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.Serializable;
+import java.util.function.Consumer;
+
+/**
+ * Publishes the events to a Hazelcast topic per event type ("cluster-event-{topic}"), so that all nodes receive them
+ */
+@Service
+@Profile("cluster")
+public class HazelcastClusterEventService implements ClusterEventService {
+
+    private final Logger log = LoggerFactory.getLogger(HazelcastClusterEventService.class);
+
+    private final HazelcastInstance hazelcastInstance;
+
+    public HazelcastClusterEventService(HazelcastInstance hazelcastInstance) {
+        this.hazelcastInstance = hazelcastInstance;
+    }
+
+    @Override
+    public <T extends Serializable> void publish(String topic, T event) {
+        try {
+            getTopic(topic).publish(event);
+        } catch (Exception e) {
+            // the other nodes fall back to the expiry of their caches
+            log.error("Could not publish cluster event {} to {}: {}", event, topic, e.getMessage());
+        }
+    }
+
+    @Override
+    public <T extends Serializable> void addListener(String topic, Consumer<T> listener) {
+        ITopic<T> hazelcastTopic = getTopic(topic);
+        hazelcastTopic.addMessageListener(message -> {
+            // this node has already applied its own events
+            if (!message.getPublishingMember().localMember()) {
+                listener.accept(message.getMessageObject());
+            }
+        });
+    }
+
+    private <T> ITopic<T> getTopic(String topic) {
+        return hazelcastInstance.getTopic("cluster-event-" + topic);
+    }
+}
@@ -0,0 +1,268 @@
+package de.tum.in.www1.artemis.service;
+
+import com.hazelcast.core.*;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import de.tum.in.www1.artemis.domain.Participation;
+import de.tum.in.www1.artemis.domain.QuizSubmission;
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.service.dto.QuizParticipationDTO;
+import de.tum.in.www1.artemis.service.dto.QuizResultDTO;
+import de.tum.in.www1.artemis.service.dto.QuizSubmissionDTO;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the state of running quizzes in the Hazelcast cluster (profile "cluster").
+ *
+ * All entries are partitioned by quiz id, so all submissions, participations and results of a quiz live on the same
+ * node. The node that owns the partition of a quiz is responsible for processing it (see isOwner). If this node leaves
+ * the cluster, the backups are promoted and another node takes over.
+ *
+ * The entries are stored as DTOs (see QuizSubmissionDTO, QuizParticipationDTO and QuizResultDTO) that reference the
+ * quiz, its questions and the student by id, so that the quiz is not stored once per user and no entity graphs with
+ * Hibernate collections are deserialized on other nodes. The returned entities only contain these ids.
+ */
+@Service
+@Profile("cluster")
+public class HazelcastQuizStateStore implements QuizStateStore {
+
+    /**
+     * key of an entry of a user in a quiz, partitioned by quiz id
+     */
+    public static class QuizUserKey implements PartitionAware<Long>, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Long quizId;
+        private final String username;
+
+        QuizUserKey(Long quizId, String username) {
+            this.quizId = quizId;
+            this.username = username;
+        }
+
+        public Long getQuizId() {
+            return quizId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        @Override
+        public Long getPartitionKey() {
+            return quizId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            QuizUserKey that = (QuizUserKey) o;
+            return Objects.equals(quizId, that.quizId) && Objects.equals(username, that.username);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(quizId, username);
+        }
+    }
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final IMap<QuizUserKey, QuizSubmissionDTO> submissions;
+    private final IMap<QuizUserKey, QuizParticipationDTO> participations;
+    private final MultiMap<Long, QuizResultDTO> results;
+    private final IMap<Long, Boolean> quizzesWithSubmittedSubmissions;
+    /**
+     * replicated to all nodes, so that incoming submissions can be checked without a remote call
+     */
+    private final ReplicatedMap<QuizUserKey, Boolean> submittedUsers;
+    /**
+     * ids of the quizzes whose submitted users are complete in submittedUsers (replicated as well)
+     */
+    private final ReplicatedMap<Long, Boolean> quizzesWithSubmittedUsers;
+    private final ITopic<Long> quizChanges;
+
+    public HazelcastQuizStateStore(HazelcastInstance hazelcastInstance) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.submissions = hazelcastInstance.getMap("quiz-submissions");
+        this.participations = hazelcastInstance.getMap("quiz-participations");
+        this.results = hazelcastInstance.getMultiMap("quiz-results");
+        this.quizzesWithSubmittedSubmissions = hazelcastInstance.getMap("quiz-submitted");
+        this.submittedUsers = hazelcastInstance.getReplicatedMap("quiz-submitted-users");
+        this.quizzesWithSubmittedUsers = hazelcastInstance.getReplicatedMap("quiz-submitted-users-loaded");
+        this.quizChanges = hazelcastInstance.getTopic("quiz-changes");
+    }
+
+    @Override
+    public void putSubmission(Long quizId, String username, QuizSubmission quizSubmission) {
+        submissions.set(new QuizUserKey(quizId, username), QuizSubmissionDTO.of(quizSubmission));
+    }
+
+    @Override
+    public QuizSubmission getSubmission(Long quizId, String username) {
+        return toQuizSubmission(submissions.get(new QuizUserKey(quizId, username)));
+    }
+
+    @Override
+    public Map<String, QuizSubmission> getSubmissions(Long quizId) {
+        Map<String, QuizSubmission> result = new HashMap<>();
+        for (Map.Entry<QuizUserKey, QuizSubmissionDTO> entry : submissions.entrySet(byQuizId(quizId))) {
+            result.put(entry.getKey().getUsername(), entry.getValue().toQuizSubmission());
+        }
+        return result;
+    }
+
+    @Override
+    public QuizSubmission removeSubmission(Long quizId, String username) {
+        return toQuizSubmission(submissions.remove(new QuizUserKey(quizId, username)));
+    }
+
+    @Override
+    public Set<Long> getQuizIdsWithSubmissions() {
+        // the partition of a key is determined by the quiz id, so the local keys belong to the quizzes this node owns
+        return submissions.localKeySet().stream().map(QuizUserKey::getQuizId).collect(Collectors.toSet());
+    }
+
+    @Override
+    public void markSubmitted(Long quizId) {
+        quizzesWithSubmittedSubmissions.set(quizId, true);
+    }
+
+    @Override
+    public void unmarkSubmitted(Long quizId) {
+        quizzesWithSubmittedSubmissions.delete(quizId);
+    }
+
+    @Override
+    public Set<Long> getQuizIdsWithSubmittedSubmissions() {
+        return quizzesWithSubmittedSubmissions.localKeySet();
+    }
+
+    @Override
+    public void markUserSubmitted(Long quizId, String username) {
+        submittedUsers.put(new QuizUserKey(quizId, username), true);
+    }
+
+    @Override
+    public boolean hasUserSubmitted(Long quizId, String username) {
+        return submittedUsers.containsKey(new QuizUserKey(quizId, username));
+    }
+
+    @Override
+    public void putSubmittedUsers(Long quizId, Collection<String> usernames) {
+        Map<QuizUserKey, Boolean> entries = new HashMap<>();
+        for (String username : usernames) {
+            entries.put(new QuizUserKey(quizId, username), true);
+        }
+        submittedUsers.putAll(entries);
+        quizzesWithSubmittedUsers.put(quizId, true);
+    }
+
+    @Override
+    public boolean hasSubmittedUsers(Long quizId) {
+        return quizzesWithSubmittedUsers.containsKey(quizId);
+    }
+
+    @Override
+    public void removeSubmittedUsers(Long quizId) {
+        quizzesWithSubmittedUsers.remove(quizId);
+        // the replicated map has a local copy of all entries
+        for (QuizUserKey key : new ArrayList<>(submittedUsers.keySet())) {
+            if (quizId.equals(key.getQuizId())) {
+                submittedUsers.remove(key);
+            }
+        }
+    }
+
+    @Override
+    public void putParticipation(Long quizId, String username, Participation participation) {
+        participations.set(new QuizUserKey(quizId, username), QuizParticipationDTO.of(participation));
+    }
+
+    @Override
+    public Participation getParticipation(Long quizId, String username) {
+        QuizParticipationDTO participation = participations.get(new QuizUserKey(quizId, username));
+        return participation != null ? participation.toParticipation() : null;
+    }
+
+    @Override
+    public Map<String, Participation> removeParticipations(Long quizId) {
+        Map<String, Participation> result = new HashMap<>();
+        for (QuizUserKey key : participations.keySet(byQuizId(quizId))) {
+            QuizParticipationDTO participation = participations.remove(key);
+            if (participation != null) {
+                result.put(key.getUsername(), participation.toParticipation());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void addResult(Long quizId, Result result) {
+        results.put(quizId, QuizResultDTO.of(result));
+    }
+
+    @Override
+    public Set<Result> removeResults(Long quizId) {
+        return results.remove(quizId).stream().map(QuizResultDTO::toResult).collect(Collectors.toSet());
+    }
+
+    @Override
+    public Set<Long> getQuizIdsWithResults() {
+        return results.localKeySet();
+    }
+
+    @Override
+    public void clear(Long quizId) {
+        for (QuizUserKey key : submissions.keySet(byQuizId(quizId))) {
+            submissions.delete(key);
+        }
+        for (QuizUserKey key : participations.keySet(byQuizId(quizId))) {
+            participations.delete(key);
+        }
+        results.remove(quizId);
+        quizzesWithSubmittedSubmissions.delete(quizId);
+        removeSubmittedUsers(quizId);
+    }
+
+    @Override
+    public boolean isOwner(Long quizId) {
+        Member owner = hazelcastInstance.getPartitionService().getPartition(quizId).getOwner();
+        return owner != null && owner.localMember();
+    }
+
+    @Override
+    public void publishQuizChange(Long quizId) {
+        quizChanges.publish(quizId);
+    }
+
+    @Override
+    public void addQuizChangeListener(Consumer<Long> listener) {
+        quizChanges.addMessageListener(message -> {
+            // this node has already applied its own changes
+            if (!message.getPublishingMember().localMember()) {
+                listener.accept(message.getMessageObject());
+            }
+        });
+    }
+
+    private static QuizSubmission toQuizSubmission(QuizSubmissionDTO quizSubmission) {
+        return quizSubmission != null ? quizSubmission.toQuizSubmission() : null;
+    }
+
+    private static Predicate byQuizId(Long quizId) {
+        return Predicates.equal("__key.quizId", quizId);
+    }
+}
@@ -0,0 +1,296 @@
+package de.tum.in.www1.artemis.service;
+
+import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.domain.Participation;
+import de.tum.in.www1.artemis.domain.ParticipationLatestResult;
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.repository.ParticipationLatestResultRepository;
+import de.tum.in.www1.artemis.repository.ResultRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Maintains the latest rated and the latest unrated result of each participation (see ParticipationLatestResult), so
+ * that the latest (relevant) result of a participation can be looked up by id instead of loading and scanning all
+ * results of the participation. Results without completion date are ignored, results with the same completion date
+ * are ordered by id.
+ *
+ * A new result only moves the reference of its kind, if it is later than the current one. An updated or deleted
+ * result may have changed its kind or completion date, so both references are computed again from the results. The
+ * references of a participation are locked while they are updated, so that concurrent results are applied one after
+ * another. Results should be saved and deleted with saveNewResult, saveResult and deleteResult, so that the result and
+ * the references are committed together.
+ */
+@Service
+public class LatestResultService {
+
+    private final Logger log = LoggerFactory.getLogger(LatestResultService.class);
+
+    private final ParticipationLatestResultRepository participationLatestResultRepository;
+    private final ResultRepository resultRepository;
+
+    public LatestResultService(ParticipationLatestResultRepository participationLatestResultRepository, ResultRepository resultRepository) {
+        this.participationLatestResultRepository = participationLatestResultRepository;
+        this.resultRepository = resultRepository;
+    }
+
+    /**
+     * Save the given new result and update the latest result references of its participation in one transaction
+     *
+     * @param result the new result
+     * @return the saved result
+     */
+    @Transactional
+    public Result saveNewResult(Result result) {
+        Result savedResult = resultRepository.save(result);
+        onResultCreated(savedResult);
+        return savedResult;
+    }
+
+    /**
+     * Save the given (new or changed) result and compute the latest result references of its participation again in
+     * one transaction
+     *
+     * @param result the result
+     * @return the saved result
+     */
+    @Transactional
+    public Result saveResult(Result result) {
+        Result savedResult = resultRepository.save(result);
+        onResultUpdated(savedResult);
+        return savedResult;
+    }
+
+    /**
+     * Delete the given result and compute the latest result references of its participation again in one transaction
+     *
+     * @param result the result to delete
+     */
+    @Transactional
+    public void deleteResult(Result result) {
+        resultRepository.delete(result.getId());
+        if (result.getParticipation() != null) {
+            updateLatestResults(result.getParticipation().getId());
+        }
+    }
+
+    /**
+     * Update the latest result references of the participation of the given result after the result has been created
+     *
+     * @param result the new (saved) result
+     */
+    @Transactional
+    public void onResultCreated(Result result) {
+        if (result == null || result.getId() == null || result.getParticipation() == null || result.getParticipation().getId() == null) {
+            return;
+        }
+        ParticipationLatestResult latestResult = participationLatestResultRepository.findOneForUpdate(result.getParticipation().getId());
+        if (latestResult == null || result.getCompletionDate() == null) {
+            updateLatestResults(result.getParticipation().getId());
+        } else if (Boolean.TRUE.equals(result.isRated())) {
+            if (isLater(result, findOne(latestResult.getLatestRatedResultId()))) {
+                latestResult.setLatestRatedResultId(result.getId());
+            }
+        } else if (isLater(result, findOne(latestResult.getLatestUnratedResultId()))) {
+            latestResult.setLatestUnratedResultId(result.getId());
+        }
+    }
+
+    /**
+     * Update the latest result references of the participation of the given result after the result has been updated,
+     * e.g. after it was assessed and became rated
+     *
+     * @param result the updated (saved) result
+     */
+    @Transactional
+    public void onResultUpdated(Result result) {
+        if (result != null && result.getParticipation() != null) {
+            updateLatestResults(result.getParticipation().getId());
+        }
+    }
+
+    /**
+     * Compute the latest result references of the given participation again from its results, e.g. after a result was deleted
+     *
+     * @param participationId the id of the participation
+     */
+    @Transactional
+    public void updateLatestResults(Long participationId) {
+        if (participationId == null) {
+            return;
+        }
+        ParticipationLatestResult latestResult = participationLatestResultRepository.findOneForUpdate(participationId);
+        Result latestRatedResult = null;
+        Result latestUnratedResult = null;
+        for (Result result : resultRepository.findByParticipationIdOrderByCompletionDateDesc(participationId)) {
+            if (result.getCompletionDate() == null) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(result.isRated())) {
+                latestRatedResult = isLater(result, latestRatedResult) ? result : latestRatedResult;
+            } else {
+                latestUnratedResult = isLater(result, latestUnratedResult) ? result : latestUnratedResult;
+            }
+        }
+        if (latestResult == null) {
+            latestResult = new ParticipationLatestResult(participationId);
+        }
+        latestResult.setLatestRatedResultId(latestRatedResult != null ? latestRatedResult.getId() : null);
+        latestResult.setLatestUnratedResultId(latestUnratedResult != null ? latestUnratedResult.getId() : null);
+        participationLatestResultRepository.save(latestResult);
+        log.debug("Latest results of participation {}: rated {}, unrated {}", participationId,
+            latestResult.getLatestRatedResultId(), latestResult.getLatestUnratedResultId());
+    }
+
+    /**
+     * Find the latest result (rated or unrated) of the given participation
+     *
+     * @param participation the participation
+     * @return the latest result, or empty if the participation has no result
+     */
+    @Transactional(readOnly = true)
+    public Optional<Result> findLatestResult(Participation participation) {
+        ParticipationLatestResult latestResult = participation.getId() != null ? participationLatestResultRepository.findOne(participation.getId()) : null;
+        if (latestResult == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(later(findOne(latestResult.getLatestRatedResultId()), findOne(latestResult.getLatestUnratedResultId())));
+    }
+
+    /**
+     * Load the latest rated and latest unrated results of the given participations with two queries
+     *
+     * @param participations the participations
+     * @return the latest results by participation id, participations without results are missing
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, LatestResults> findLatestResults(Collection<Participation> participations) {
+        Set<Long> participationIds = new HashSet<>();
+        for (Participation participation : participations) {
+            if (participation.getId() != null) {
+                participationIds.add(participation.getId());
+            }
+        }
+        Map<Long, LatestResults> latestResultsByParticipationId = new HashMap<>();
+        if (participationIds.isEmpty()) {
+            return latestResultsByParticipationId;
+        }
+        List<ParticipationLatestResult> latestResults = participationLatestResultRepository.findAll(participationIds);
+        Set<Long> resultIds = new HashSet<>();
+        for (ParticipationLatestResult latestResult : latestResults) {
+            if (latestResult.getLatestRatedResultId() != null) {
+                resultIds.add(latestResult.getLatestRatedResultId());
+            }
+            if (latestResult.getLatestUnratedResultId() != null) {
+                resultIds.add(latestResult.getLatestUnratedResultId());
+            }
+        }
+        Map<Long, Result> resultsById = new HashMap<>();
+        if (!resultIds.isEmpty()) {
+            for (Result result : resultRepository.findAll(resultIds)) {
+                resultsById.put(result.getId(), result);
+            }
+        }
+        for (ParticipationLatestResult latestResult : latestResults) {
+            latestResultsByParticipationId.put(latestResult.getParticipationId(), new LatestResults(
+                get(resultsById, latestResult.getLatestRatedResultId()), get(resultsById, latestResult.getLatestUnratedResultId())));
+        }
+        return latestResultsByParticipationId;
+    }
+
+    /**
+     * Find the latest result (rated or unrated) of the given participation in the given results
+     *
+     * @param participation the participation
+     * @param latestResults the latest results by participation id, see findLatestResults
+     * @return the latest result, or null if the participation has no result
+     */
+    public static Result findLatestResult(Participation participation, Map<Long, LatestResults> latestResults) {
+        LatestResults participationResults = latestResults.get(participation.getId());
+        return participationResults != null ? participationResults.getLatestResult() : null;
+    }
+
+    /**
+     * Find the latest relevant result of the given participation in the given results (see Exercise.findLatestRelevantResult)
+     *
+     * @param exercise      the exercise of the participation
+     * @param participation the participation
+     * @param latestResults the latest results by participation id, see findLatestResults
+     * @return the latest relevant result, or null if there is none
+     */
+    public static Result findLatestRelevantResult(Exercise exercise, Participation participation, Map<Long, LatestResults> latestResults) {
+        LatestResults participationResults = latestResults.get(participation.getId());
+        return participationResults != null ? participationResults.getLatestRelevantResult(exercise) : null;
+    }
+
+    /**
+     * @return true if the given result is later than the other result (or the other result is null), results with the
+     * same completion date are ordered by id
+     */
+    static boolean isLater(Result result, Result other) {
+        if (other == null || other.getCompletionDate() == null) {
+            return true;
+        }
+        int comparison = result.getCompletionDate().compareTo(other.getCompletionDate());
+        return comparison > 0 || (comparison == 0 && result.getId() != null && other.getId() != null && result.getId() > other.getId());
+    }
+
+    private static Result get(Map<Long, Result> resultsById, Long resultId) {
+        return resultId != null ? resultsById.get(resultId) : null;
+    }
+
+    private static Result later(Result latestRatedResult, Result latestUnratedResult) {
+        if (latestRatedResult == null) {
+            return latestUnratedResult;
+        }
+        if (latestUnratedResult == null || !latestRatedResult.getCompletionDate().isBefore(latestUnratedResult.getCompletionDate())) {
+            return latestRatedResult;
+        }
+        return latestUnratedResult;
+    }
+
+    private Result findOne(Long resultId) {
+        return resultId != null ? resultRepository.findOne(resultId) : null;
+    }
+
+    /**
+     * The latest rated and the latest unrated result of a participation
+     */
+    public static final class LatestResults {
+
+        private final Result latestRatedResult;
+        private final Result latestUnratedResult;
+
+        public LatestResults(Result latestRatedResult, Result latestUnratedResult) {
+            this.latestRatedResult = latestRatedResult;
+            this.latestUnratedResult = latestUnratedResult;
+        }
+
+        public Result getLatestRatedResult() {
+            return latestRatedResult;
+        }
+
+        public Result getLatestUnratedResult() {
+            return latestUnratedResult;
+        }
+
+        /**
+         * @return the later of the latest rated and the latest unrated result, or null if there is none
+         */
+        public Result getLatestResult() {
+            return later(latestRatedResult, latestUnratedResult);
+        }
+
+        /**
+         * @param exercise the exercise of the participation
+         * @return the latest relevant result (see Exercise.findLatestRelevantResult), or null if there is none
+         */
+        public Result getLatestRelevantResult(Exercise exercise) {
+            return exercise.findLatestRelevantResult(latestRatedResult, latestUnratedResult);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package de.tum.in.www1.artemis.service;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.Serializable;
+import java.util.function.Consumer;
+
+/**
+ * Single node mode: there are no other nodes to notify
+ */
+@Service
+@Profile("!cluster")
+public class LocalClusterEventService implements ClusterEventService {
+
+    @Override
+    public <T extends Serializable> void publish(String topic, T event) {
+        // there are no other nodes
+    }
+
+    @Override
+    public <T extends Serializable> void addListener(String topic, Consumer<T> listener) {
+        // there are no other nodes that could publish events
+    }
+}
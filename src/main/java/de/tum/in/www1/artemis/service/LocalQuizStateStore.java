@@ -0,0 +1,173 @@
+package de.tum.in.www1.artemis.service;
+
+import de.tum.in.www1.artemis.domain.Participation;
+import de.tum.in.www1.artemis.domain.QuizSubmission;
+import de.tum.in.www1.artemis.domain.Result;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the state of running quizzes in the memory of this server (single node mode)
+ */
+@Service
+@Profile("!cluster")
+public class LocalQuizStateStore implements QuizStateStore {
+
+    private final Map<Long, Map<String, QuizSubmission>> submissionHashMap = new ConcurrentHashMap<>();
+    private final Map<Long, Map<String, Participation>> participationHashMap = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Result>> resultHashMap = new ConcurrentHashMap<>();
+    private final Set<Long> quizzesWithSubmittedSubmissions = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<String>> submittedUsers = new ConcurrentHashMap<>();
+    private final Set<Long> quizzesWithSubmittedUsers = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void putSubmission(Long quizId, String username, QuizSubmission quizSubmission) {
+        // NOTE: compute is atomic with removeSubmission, so a submission can never end up in an inner map that was just dropped
+        submissionHashMap.compute(quizId, (id, submissions) -> {
+            if (submissions == null) {
+                submissions = new ConcurrentHashMap<>();
+            }
+            submissions.put(username, quizSubmission);
+            return submissions;
+        });
+    }
+
+    @Override
+    public QuizSubmission getSubmission(Long quizId, String username) {
+        Map<String, QuizSubmission> submissions = submissionHashMap.get(quizId);
+        return submissions != null ? submissions.get(username) : null;
+    }
+
+    @Override
+    public Map<String, QuizSubmission> getSubmissions(Long quizId) {
+        Map<String, QuizSubmission> submissions = submissionHashMap.get(quizId);
+        return submissions != null ? new HashMap<>(submissions) : Collections.emptyMap();
+    }
+
+    @Override
+    public QuizSubmission removeSubmission(Long quizId, String username) {
+        QuizSubmission[] removedSubmission = new QuizSubmission[1];
+        // drop the inner map when the last submission of the quiz is removed
+        submissionHashMap.computeIfPresent(quizId, (id, submissions) -> {
+            removedSubmission[0] = submissions.remove(username);
+            return submissions.isEmpty() ? null : submissions;
+        });
+        return removedSubmission[0];
+    }
+
+    @Override
+    public Set<Long> getQuizIdsWithSubmissions() {
+        return submissionHashMap.keySet();
+    }
+
+    @Override
+    public void markSubmitted(Long quizId) {
+        quizzesWithSubmittedSubmissions.add(quizId);
+    }
+
+    @Override
+    public void unmarkSubmitted(Long quizId) {
+        quizzesWithSubmittedSubmissions.remove(quizId);
+    }
+
+    @Override
+    public Set<Long> getQuizIdsWithSubmittedSubmissions() {
+        return quizzesWithSubmittedSubmissions;
+    }
+
+    @Override
+    public void markUserSubmitted(Long quizId, String username) {
+        submittedUsers.computeIfAbsent(quizId, id -> ConcurrentHashMap.newKeySet()).add(username);
+    }
+
+    @Override
+    public boolean hasUserSubmitted(Long quizId, String username) {
+        Set<String> users = submittedUsers.get(quizId);
+        return users != null && users.contains(username);
+    }
+
+    @Override
+    public void putSubmittedUsers(Long quizId, Collection<String> usernames) {
+        submittedUsers.computeIfAbsent(quizId, id -> ConcurrentHashMap.newKeySet()).addAll(usernames);
+        quizzesWithSubmittedUsers.add(quizId);
+    }
+
+    @Override
+    public boolean hasSubmittedUsers(Long quizId) {
+        return quizzesWithSubmittedUsers.contains(quizId);
+    }
+
+    @Override
+    public void removeSubmittedUsers(Long quizId) {
+        quizzesWithSubmittedUsers.remove(quizId);
+        submittedUsers.remove(quizId);
+    }
+
+    @Override
+    public void putParticipation(Long quizId, String username, Participation participation) {
+        participationHashMap.computeIfAbsent(quizId, id -> new ConcurrentHashMap<>()).put(username, participation);
+    }
+
+    @Override
+    public Participation getParticipation(Long quizId, String username) {
+        Map<String, Participation> participations = participationHashMap.get(quizId);
+        return participations != null ? participations.get(username) : null;
+    }
+
+    @Override
+    public Map<String, Participation> removeParticipations(Long quizId) {
+        Map<String, Participation> participations = participationHashMap.remove(quizId);
+        return participations != null ? participations : Collections.emptyMap();
+    }
+
+    @Override
+    public void addResult(Long quizId, Result result) {
+        // NOTE: compute is atomic with removeResults, so a result can never end up in a set that was just removed
+        resultHashMap.compute(quizId, (id, results) -> {
+            if (results == null) {
+                results = new HashSet<>();
+            }
+            results.add(result);
+            return results;
+        });
+    }
+
+    @Override
+    public Set<Result> removeResults(Long quizId) {
+        Set<Result> results = resultHashMap.remove(quizId);
+        return results != null ? results : Collections.emptySet();
+    }
+
+    @Override
+    public Set<Long> getQuizIdsWithResults() {
+        return resultHashMap.keySet();
+    }
+
+    @Override
+    public void clear(Long quizId) {
+        participationHashMap.remove(quizId);
+        submissionHashMap.remove(quizId);
+        resultHashMap.remove(quizId);
+        quizzesWithSubmittedSubmissions.remove(quizId);
+        removeSubmittedUsers(quizId);
+    }
+
+    @Override
+    public boolean isOwner(Long quizId) {
+        return true;
+    }
+
+    @Override
+    public void publishQuizChange(Long quizId) {
+        // there are no other nodes
+    }
+
+    @Override
+    public void addQuizChangeListener(Consumer<Long> listener) {
+        // there are no other nodes
+    }
+}
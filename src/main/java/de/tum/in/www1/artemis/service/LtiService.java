@@ -278,6 +278,7 @@ public class LtiService {
             groups.add(courseGroup);
             user.setGroups(groups);
             userRepository.save(user);
+            userService.evictUserCaches(user.getLogin());
 
             if (!user.getLogin().startsWith("edx")) {
                 // try to sync with authentication service for actual users (not for edx users)
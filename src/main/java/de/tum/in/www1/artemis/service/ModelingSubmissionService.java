@@ -8,7 +8,6 @@ import de.tum.in.www1.artemis.domain.Result;
 import de.tum.in.www1.artemis.domain.enumeration.SubmissionType;
 import de.tum.in.www1.artemis.repository.JsonModelRepository;
 import de.tum.in.www1.artemis.repository.ModelingSubmissionRepository;
-import de.tum.in.www1.artemis.repository.ResultRepository;
 import de.tum.in.www1.artemis.service.compass.CompassService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,21 +20,21 @@ import java.util.Optional;
 public class ModelingSubmissionService {
 
     private final ModelingSubmissionRepository modelingSubmissionRepository;
-    private final ResultRepository resultRepository;
     private final JsonModelRepository jsonModelRepository;
     private final CompassService compassService;
-    private final ParticipationService participationService;
+    private final RelevantParticipationService relevantParticipationService;
+    private final LatestResultService latestResultService;
 
     public ModelingSubmissionService(ModelingSubmissionRepository modelingSubmissionRepository,
-                                     ResultRepository resultRepository,
                                      JsonModelRepository jsonModelRepository,
                                      CompassService compassService,
-                                     ParticipationService participationService) {
+                                     RelevantParticipationService relevantParticipationService,
+                                     LatestResultService latestResultService) {
         this.modelingSubmissionRepository = modelingSubmissionRepository;
-        this.resultRepository = resultRepository;
         this.jsonModelRepository = jsonModelRepository;
         this.compassService = compassService;
-        this.participationService = participationService;
+        this.relevantParticipationService = relevantParticipationService;
+        this.latestResultService = latestResultService;
     }
 
     /**
@@ -50,7 +49,7 @@ public class ModelingSubmissionService {
         // update submission properties
         modelingSubmission.setType(SubmissionType.MANUAL);
 
-        Optional<Result> optionalResult = resultRepository.findFirstByParticipationIdOrderByCompletionDateDesc(participation.getId());
+        Optional<Result> optionalResult = latestResultService.findLatestResult(participation);
         Result result;
         if (!optionalResult.isPresent()) {
             // create and save result
@@ -68,7 +67,8 @@ public class ModelingSubmissionService {
 
         modelingSubmissionRepository.save(modelingSubmission);
         result.setSubmission(modelingSubmission);
-        resultRepository.save(result);
+        latestResultService.saveResult(result);
+        relevantParticipationService.evict(participation);
 
         if (modelingSubmission.isSubmitted()) {
             submit(modelingSubmission, modelingExercise);
@@ -88,6 +88,10 @@ public class ModelingSubmissionService {
         return null;
     }
 
+    /**
+     * Create a new result for the given participation, which is saved by the caller in the current transaction together
+     * with the submission and the latest result references
+     */
     private Result initializeResult(Participation participation, ModelingSubmission modelingSubmission) {
         Result result = new Result().participation(participation).submission(modelingSubmission);
         result.setRated(false);
@@ -95,14 +99,13 @@ public class ModelingSubmissionService {
         result.setCompletionDate(ZonedDateTime.now());
 
         participation.addResult(result);
-        participationService.save(participation);
 
         return result;
     }
 
     public ModelingSubmission findByParticipation(Participation participation) {
         ModelingSubmission modelingSubmission;
-        Optional<Result> optionalResult = resultRepository.findFirstByParticipationIdOrderByCompletionDateDesc(participation.getId());
+        Optional<Result> optionalResult = latestResultService.findLatestResult(participation);
         Result result;
         if (optionalResult.isPresent()) {
             result = optionalResult.get();
@@ -116,7 +119,8 @@ public class ModelingSubmissionService {
         result.setSubmission(modelingSubmission);
         modelingSubmission = modelingSubmissionRepository.save(modelingSubmission);
 
-        resultRepository.save(result);
+        latestResultService.saveResult(result);
+        relevantParticipationService.evict(participation);
         return modelingSubmission;
     }
 }
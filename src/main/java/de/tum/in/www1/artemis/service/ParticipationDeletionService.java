@@ -0,0 +1,378 @@
+package de.tum.in.www1.artemis.service;
+
+import de.tum.in.www1.artemis.domain.Participation;
+import de.tum.in.www1.artemis.repository.*;
+import de.tum.in.www1.artemis.service.dto.ParticipationDeletionProgressDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.net.URL;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Deletes the participations of an exercise together with their results, feedback and submissions.
+ *
+ * The rows are deleted with set-based DELETE statements for chunks of participations instead of loading and removing
+ * every entity. The build plans and repositories of the deleted participations are removed on the external systems
+ * afterwards, on a worker pool with PARALLELISM threads. A failed removal is retried up to MAX_ATTEMPTS times with a
+ * growing delay. If it still fails, it is kept in the retry ledger, which is retried periodically.
+ */
+@Service
+public class ParticipationDeletionService {
+
+    private final Logger log = LoggerFactory.getLogger(ParticipationDeletionService.class);
+
+    @Value("${artemis.participation-deletion.chunk-size:200}")
+    private int CHUNK_SIZE;
+
+    @Value("${artemis.participation-deletion.parallelism:4}")
+    private int PARALLELISM;
+
+    @Value("${artemis.participation-deletion.max-attempts:3}")
+    private int MAX_ATTEMPTS;
+
+    @Value("${artemis.participation-deletion.retry-delay-ms:5000}")
+    private long RETRY_DELAY_MS;
+
+    @Value("${artemis.participation-deletion.ledger-max-attempts:24}")
+    private int LEDGER_MAX_ATTEMPTS;
+
+    private enum CleanupType {
+        BUILD_PLAN, REPOSITORY, LOCAL_REPOSITORY
+    }
+
+    /**
+     * The removal of a build plan or repository of a deleted participation
+     */
+    private static final class ExternalCleanup {
+
+        private final Long participationId;
+        private final CleanupType type;
+        private final String target;
+        private int attempts;
+        private int ledgerAttempts;
+
+        private ExternalCleanup(Long participationId, CleanupType type, String target) {
+            this.participationId = participationId;
+            this.type = type;
+            this.target = target;
+        }
+
+        @Override
+        public String toString() {
+            return type + " " + target + " of participation " + participationId;
+        }
+    }
+
+    private final ParticipationRepository participationRepository;
+    private final ResultRepository resultRepository;
+    private final ParticipationLatestResultRepository participationLatestResultRepository;
+    private final FeedbackRepository feedbackRepository;
+    private final SubmissionRepository submissionRepository;
+    private final SubmittedAnswerRepository submittedAnswerRepository;
+    private final MultipleChoiceSubmittedAnswerRepository multipleChoiceSubmittedAnswerRepository;
+    private final DragAndDropMappingRepository dragAndDropMappingRepository;
+    private final Optional<ContinuousIntegrationService> continuousIntegrationService;
+    private final Optional<VersionControlService> versionControlService;
+    private final Optional<GitService> gitService;
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final RelevantParticipationService relevantParticipationService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final BackgroundJobService backgroundJobService;
+
+    private ScheduledExecutorService cleanupExecutor;
+
+    /**
+     * removals that still failed after MAX_ATTEMPTS attempts
+     */
+    private final Queue<ExternalCleanup> retryLedger = new ConcurrentLinkedQueue<>();
+
+    public ParticipationDeletionService(ParticipationRepository participationRepository,
+                                        ResultRepository resultRepository,
+                                        ParticipationLatestResultRepository participationLatestResultRepository,
+                                        FeedbackRepository feedbackRepository,
+                                        SubmissionRepository submissionRepository,
+                                        SubmittedAnswerRepository submittedAnswerRepository,
+                                        MultipleChoiceSubmittedAnswerRepository multipleChoiceSubmittedAnswerRepository,
+                                        DragAndDropMappingRepository dragAndDropMappingRepository,
+                                        Optional<ContinuousIntegrationService> continuousIntegrationService,
+                                        Optional<VersionControlService> versionControlService,
+                                        Optional<GitService> gitService,
+                                        SimpMessageSendingOperations messagingTemplate,
+                                        RelevantParticipationService relevantParticipationService,
+                                        PlatformTransactionManager transactionManager,
+                                        BackgroundJobService backgroundJobService) {
+        this.participationRepository = participationRepository;
+        this.resultRepository = resultRepository;
+        this.participationLatestResultRepository = participationLatestResultRepository;
+        this.feedbackRepository = feedbackRepository;
+        this.submissionRepository = submissionRepository;
+        this.submittedAnswerRepository = submittedAnswerRepository;
+        this.multipleChoiceSubmittedAnswerRepository = multipleChoiceSubmittedAnswerRepository;
+        this.dragAndDropMappingRepository = dragAndDropMappingRepository;
+        this.continuousIntegrationService = continuousIntegrationService;
+        this.versionControlService = versionControlService;
+        this.gitService = gitService;
+        this.messagingTemplate = messagingTemplate;
+        this.relevantParticipationService = relevantParticipationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backgroundJobService = backgroundJobService;
+    }
+
+    @PostConstruct
+    public void init() {
+        cleanupExecutor = backgroundJobService.newScheduledWorkerPool("participation-cleanup-", PARALLELISM);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (!retryLedger.isEmpty()) {
+            log.warn("{} build plans and repositories of deleted participations could not be removed: {}", retryLedger.size(), retryLedger);
+        }
+    }
+
+    /**
+     * Delete all participations of the given exercise in the current transaction. The build plans and repositories
+     * are removed in the background after the transaction has been committed.
+     *
+     * @param exerciseId       the id of the exercise
+     * @param deleteBuildPlans whether the build plans of the participations should be removed
+     * @param deleteRepositories whether the repositories of the participations should be removed
+     * @return the number of deleted participations
+     */
+    @Transactional
+    public int deleteAllByExerciseId(Long exerciseId, boolean deleteBuildPlans, boolean deleteRepositories) {
+        List<Object[]> participations = participationRepository.findIdAndBuildPlanIdAndRepositoryUrlByExerciseId(exerciseId);
+        List<ExternalCleanup> cleanups = collectCleanups(participations, deleteBuildPlans, deleteRepositories);
+        for (List<Long> chunk : chunks(participations)) {
+            deleteParticipations(chunk);
+        }
+        if (!cleanups.isEmpty()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        cleanups.forEach(ParticipationDeletionService.this::submitCleanup);
+                    }
+                });
+            } else {
+                cleanups.forEach(this::submitCleanup);
+            }
+        }
+        return participations.size();
+    }
+
+    /**
+     * Reset the given exercise in the background: delete all its participations, build plans and repositories.
+     * The progress is sent to the given user over websocket ("/topic/exercise/{exerciseId}/reset").
+     *
+     * @param exerciseId the id of the exercise to reset
+     * @param username   the login of the user who started the reset
+     * @return false if a reset of the exercise is already running, true otherwise
+     */
+    public boolean resetAsync(Long exerciseId, String username) {
+        return backgroundJobService.submitJob("exercise-reset", exerciseId, id -> reset(id, username));
+    }
+
+    private void reset(Long exerciseId, String username) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        List<Object[]> participations = participationRepository.findIdAndBuildPlanIdAndRepositoryUrlByExerciseId(exerciseId);
+        List<ExternalCleanup> cleanups = collectCleanups(participations, true, true);
+        Map<Long, List<ExternalCleanup>> cleanupsByParticipation = cleanups.stream().collect(Collectors.groupingBy(cleanup -> cleanup.participationId));
+
+        ParticipationDeletionProgressDTO progress = new ParticipationDeletionProgressDTO();
+        progress.setExerciseId(exerciseId);
+        progress.setTotalParticipations(participations.size());
+        progress.setTotalCleanups(cleanups.size());
+        AtomicInteger completedCleanups = new AtomicInteger();
+        AtomicInteger failedCleanups = new AtomicInteger();
+        List<CompletableFuture<Boolean>> pendingCleanups = new ArrayList<>();
+
+        for (List<Long> chunk : chunks(participations)) {
+            transactionTemplate.execute(status -> {
+                deleteParticipations(chunk);
+                return null;
+            });
+            // the build plans and repositories of a chunk are removed while the next chunk is deleted
+            for (Long participationId : chunk) {
+                for (ExternalCleanup cleanup : cleanupsByParticipation.getOrDefault(participationId, Collections.emptyList())) {
+                    pendingCleanups.add(submitCleanup(cleanup).whenComplete((removed, error) -> {
+                        completedCleanups.incrementAndGet();
+                        if (!Boolean.TRUE.equals(removed)) {
+                            failedCleanups.incrementAndGet();
+                        }
+                    }));
+                }
+            }
+            progress.setDeletedParticipations(progress.getDeletedParticipations() + chunk.size());
+            sendProgress(username, progress, completedCleanups, failedCleanups);
+        }
+
+        CompletableFuture<Void> allCleanups = CompletableFuture.allOf(pendingCleanups.toArray(new CompletableFuture[0]));
+        while (true) {
+            try {
+                allCleanups.get(1, TimeUnit.SECONDS);
+                break;
+            } catch (TimeoutException e) {
+                sendProgress(username, progress, completedCleanups, failedCleanups);
+            } catch (ExecutionException e) {
+                // the failures are counted and kept in the retry ledger
+                break;
+            }
+        }
+        progress.setFinished(true);
+        sendProgress(username, progress, completedCleanups, failedCleanups);
+        log.info("Reset of exercise {} deleted {} participations and removed {} of {} build plans and repositories in {}ms",
+            exerciseId, participations.size(), completedCleanups.get() - failedCleanups.get(), cleanups.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Delete the given participations with their results, feedback and submissions (including the submitted answers)
+     * in the current transaction
+     */
+    private void deleteParticipations(List<Long> participationIds) {
+        feedbackRepository.deleteByResultParticipationIdIn(participationIds);
+        List<Long> submissionIds = resultRepository.findSubmissionIdsByParticipationIdIn(participationIds);
+        // the results reference the submissions, so they are deleted first
+        resultRepository.deleteByParticipationIdIn(participationIds);
+        participationLatestResultRepository.deleteByParticipationIdIn(participationIds);
+        if (!submissionIds.isEmpty()) {
+            dragAndDropMappingRepository.deleteBySubmittedAnswerSubmissionIdIn(submissionIds);
+            multipleChoiceSubmittedAnswerRepository.deleteSelectedOptionsBySubmissionIdIn(submissionIds);
+            submittedAnswerRepository.deleteBySubmissionIdIn(submissionIds);
+            submissionRepository.deleteByIdIn(submissionIds);
+        }
+        participationRepository.deleteByIdIn(participationIds);
+        relevantParticipationService.evictAll();
+    }
+
+    private List<List<Long>> chunks(List<Object[]> participations) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < participations.size(); from += CHUNK_SIZE) {
+            chunks.add(participations.subList(from, Math.min(from + CHUNK_SIZE, participations.size())).stream()
+                .map(participation -> (Long) participation[0])
+                .collect(Collectors.toList()));
+        }
+        return chunks;
+    }
+
+    /**
+     * @param participations the id, build plan id and repository url of each participation
+     */
+    private List<ExternalCleanup> collectCleanups(List<Object[]> participations, boolean deleteBuildPlans, boolean deleteRepositories) {
+        List<ExternalCleanup> cleanups = new ArrayList<>();
+        for (Object[] participation : participations) {
+            Long participationId = (Long) participation[0];
+            String buildPlanId = (String) participation[1];
+            String repositoryUrl = (String) participation[2];
+            if (deleteBuildPlans && buildPlanId != null && continuousIntegrationService.isPresent()) {
+                cleanups.add(new ExternalCleanup(participationId, CleanupType.BUILD_PLAN, buildPlanId));
+            }
+            if (deleteRepositories && repositoryUrl != null && versionControlService.isPresent()) {
+                cleanups.add(new ExternalCleanup(participationId, CleanupType.REPOSITORY, repositoryUrl));
+            }
+            if (repositoryUrl != null && gitService.isPresent()) {
+                cleanups.add(new ExternalCleanup(participationId, CleanupType.LOCAL_REPOSITORY, repositoryUrl));
+            }
+        }
+        return cleanups;
+    }
+
+    /**
+     * @return a future that completes with true if the cleanup succeeded, or with false if it was added to the retry ledger
+     */
+    private CompletableFuture<Boolean> submitCleanup(ExternalCleanup cleanup) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        try {
+            cleanupExecutor.execute(() -> attemptCleanup(cleanup, result));
+        } catch (RejectedExecutionException e) {
+            retryLedger.add(cleanup);
+            result.complete(false);
+        }
+        return result;
+    }
+
+    private void attemptCleanup(ExternalCleanup cleanup, CompletableFuture<Boolean> result) {
+        cleanup.attempts++;
+        try {
+            executeCleanup(cleanup);
+            result.complete(true);
+        } catch (Exception e) {
+            if (cleanup.attempts < MAX_ATTEMPTS) {
+                long delay = RETRY_DELAY_MS << (cleanup.attempts - 1);
+                log.warn("Could not remove {} (attempt {}), retrying in {}ms: {}", cleanup, cleanup.attempts, delay, e.getMessage());
+                try {
+                    cleanupExecutor.schedule(() -> attemptCleanup(cleanup, result), delay, TimeUnit.MILLISECONDS);
+                    return;
+                } catch (RejectedExecutionException rejected) {
+                    // shutting down, keep it in the ledger below
+                }
+            }
+            log.error("Could not remove {} after {} attempts, adding it to the retry ledger: {}", cleanup, cleanup.attempts, e.getMessage());
+            retryLedger.add(cleanup);
+            result.complete(false);
+        }
+    }
+
+    private void executeCleanup(ExternalCleanup cleanup) throws Exception {
+        switch (cleanup.type) {
+            case BUILD_PLAN:
+                continuousIntegrationService.get().deleteBuildPlan(cleanup.target);
+                break;
+            case REPOSITORY:
+                versionControlService.get().deleteRepository(new URL(cleanup.target));
+                break;
+            case LOCAL_REPOSITORY:
+                gitService.get().deleteLocalRepository(new Participation().repositoryUrl(cleanup.target));
+                break;
+        }
+    }
+
+    /**
+     * Retry the removals in the retry ledger. A removal is given up after LEDGER_MAX_ATTEMPTS further attempts.
+     */
+    @Scheduled(fixedDelayString = "${artemis.participation-deletion.ledger-retry-interval-ms:3600000}")
+    public void retryLedger() {
+        int size = retryLedger.size();
+        for (int i = 0; i < size; i++) {
+            ExternalCleanup cleanup = retryLedger.poll();
+            if (cleanup == null) {
+                break;
+            }
+            try {
+                executeCleanup(cleanup);
+                log.info("Removed {} from the retry ledger", cleanup);
+            } catch (Exception e) {
+                cleanup.ledgerAttempts++;
+                if (cleanup.ledgerAttempts < LEDGER_MAX_ATTEMPTS) {
+                    retryLedger.add(cleanup);
+                } else {
+                    log.error("Giving up to remove {}: {}", cleanup, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void sendProgress(String username, ParticipationDeletionProgressDTO progress, AtomicInteger completedCleanups, AtomicInteger failedCleanups) {
+        progress.setCompletedCleanups(completedCleanups.get());
+        progress.setFailedCleanups(failedCleanups.get());
+        if (username != null) {
+            messagingTemplate.convertAndSendToUser(username, "/topic/exercise/" + progress.getExerciseId() + "/reset", progress);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package de.tum.in.www1.artemis.service;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.domain.Participation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends the participations of many students of the same exercise via websocket (e.g. all results at the end of a quiz).
+ *
+ * All participations contain the same exercise, so the exercise is serialized only once. For each student only the
+ * participation without the exercise is serialized and the exercise is spliced into it.
+ * The messages are sent in batches on a bounded worker pool. At most PARALLELISM batches are in flight at the same
+ * time, the caller waits before handing over more batches.
+ */
+@Service
+public class ParticipationFanOutService {
+
+    private final Logger log = LoggerFactory.getLogger(ParticipationFanOutService.class);
+
+    @Value("${artemis.websocket.fan-out-batch-size:100}")
+    private int BATCH_SIZE;
+
+    @Value("${artemis.websocket.fan-out-parallelism:4}")
+    private int PARALLELISM;
+
+    /**
+     * ignores the exercise of a participation, it is added to the serialized participation afterwards
+     */
+    @JsonIgnoreProperties("exercise")
+    private static abstract class ParticipationWithoutExercise {
+    }
+
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final ObjectWriter exerciseWriter;
+    private final ObjectWriter participationWriter;
+    private final Timer fanOutTimer;
+
+    private ThreadPoolExecutor fanOutExecutor;
+    private Semaphore batchesInFlight;
+
+    public ParticipationFanOutService(SimpMessageSendingOperations messagingTemplate,
+                                      MappingJackson2HttpMessageConverter springMvcJacksonConverter,
+                                      MetricRegistry metricRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        ObjectMapper objectMapper = springMvcJacksonConverter.getObjectMapper();
+        this.exerciseWriter = objectMapper.writerFor(Exercise.class);
+        this.participationWriter = objectMapper.copy().addMixIn(Participation.class, ParticipationWithoutExercise.class).writer();
+        this.fanOutTimer = metricRegistry.timer(MetricRegistry.name(ParticipationFanOutService.class, "fanOut"));
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        fanOutExecutor = new ThreadPoolExecutor(PARALLELISM, PARALLELISM, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> new Thread(runnable, "websocket-fan-out-" + threadCount.incrementAndGet()));
+        batchesInFlight = new Semaphore(PARALLELISM);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        fanOutExecutor.shutdownNow();
+    }
+
+    /**
+     * Send each participation (including the given exercise) to its student. Blocks until all messages are handed to the broker.
+     *
+     * @param exercise       the exercise all participations belong to
+     * @param participations the participations to send
+     * @param destination    the user destination, e.g. "/topic/quizExercise/1/participation"
+     * @return the number of sent participations
+     */
+    public int sendParticipations(Exercise exercise, Collection<Participation> participations, String destination) {
+        final Timer.Context timerContext = fanOutTimer.time();
+        try {
+            final byte[] exerciseJson;
+            try {
+                exerciseJson = exerciseWriter.writeValueAsBytes(exercise);
+            } catch (JsonProcessingException e) {
+                log.error("Exception occurred while serializing exercise {}: {}", exercise.getId(), e.getMessage());
+                return 0;
+            }
+
+            AtomicInteger counter = new AtomicInteger();
+            List<Future<?>> batches = new ArrayList<>();
+            List<Participation> batch = new ArrayList<>(BATCH_SIZE);
+            for (Participation participation : participations) {
+                batch.add(participation);
+                if (batch.size() == BATCH_SIZE) {
+                    batches.add(submitBatch(batch, exerciseJson, destination, counter));
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) {
+                batches.add(submitBatch(batch, exerciseJson, destination, counter));
+            }
+
+            for (Future<?> future : batches) {
+                future.get();
+            }
+            return counter.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while sending participations for exercise {}", exercise.getId());
+            return 0;
+        } catch (ExecutionException e) {
+            log.error("Exception occurred while sending participations for exercise {}: {}", exercise.getId(), e.getMessage());
+            return 0;
+        } finally {
+            long durationInMillis = TimeUnit.NANOSECONDS.toMillis(timerContext.stop());
+            log.info("Fan-out of {} participations for exercise {} took {} ms", participations.size(), exercise.getId(), durationInMillis);
+        }
+    }
+
+    /**
+     * Hand the given batch to the fan-out pool, waits while PARALLELISM batches are already in flight
+     */
+    private Future<?> submitBatch(List<Participation> batch, byte[] exerciseJson, String destination, AtomicInteger counter) throws InterruptedException {
+        batchesInFlight.acquire();
+        try {
+            return fanOutExecutor.submit(() -> {
+                try {
+                    for (Participation participation : batch) {
+                        if (sendParticipation(participation, exerciseJson, destination)) {
+                            counter.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    batchesInFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            batchesInFlight.release();
+            throw e;
+        }
+    }
+
+    private boolean sendParticipation(Participation participation, byte[] exerciseJson, String destination) {
+        if (participation.getStudent() == null || participation.getStudent().getLogin() == null) {
+            log.error("Participation is missing student (or student is missing username): {}", participation);
+            return false;
+        }
+        try {
+            byte[] payload = splice(participationWriter.writeValueAsBytes(participation), exerciseJson);
+            // same as convertAndSendToUser, but the payload is already serialized (so the content type has to be set here)
+            String user = participation.getStudent().getLogin().replace("/", "%2F");
+            messagingTemplate.send("/user/" + user + destination, MessageBuilder.withPayload(payload)
+                .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+                .build());
+            return true;
+        } catch (Exception e) {
+            log.error("Exception occurred while sending participation {}: {}", participation.getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Add the serialized exercise as property "exercise" to the serialized participation (which is a JSON object)
+     *
+     * @param participationJson the serialized participation without the exercise
+     * @param exerciseJson      the serialized exercise
+     * @return the serialized participation with the exercise
+     */
+    static byte[] splice(byte[] participationJson, byte[] exerciseJson) {
+        int end = participationJson.length - 1;
+        while (end > 0 && participationJson[end] != '}') {
+            end--;
+        }
+        boolean emptyObject = true;
+        for (int i = end - 1; i > 0; i--) {
+            if (!Character.isWhitespace(participationJson[i])) {
+                emptyObject = participationJson[i] == '{';
+                break;
+            }
+        }
+        byte[] property = ((emptyObject ? "" : ",") + "\"exercise\":").getBytes(StandardCharsets.UTF_8);
+
+        byte[] result = new byte[end + property.length + exerciseJson.length + 1];
+        System.arraycopy(participationJson, 0, result, 0, end);
+        System.arraycopy(property, 0, result, end, property.length);
+        System.arraycopy(exerciseJson, 0, result, end + property.length, exerciseJson.length);
+        result[result.length - 1] = '}';
+        return result;
+    }
+}
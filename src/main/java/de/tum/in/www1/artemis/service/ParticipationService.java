@@ -4,26 +4,41 @@ import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.enumeration.ParticipationState;
 import de.tum.in.www1.artemis.domain.enumeration.SubmissionType;
 import de.tum.in.www1.artemis.repository.ExerciseRepository;
+import de.tum.in.www1.artemis.repository.ParticipationLatestResultRepository;
 import de.tum.in.www1.artemis.repository.ParticipationRepository;
 import de.tum.in.www1.artemis.repository.ResultRepository;
 import org.slf4j.Logger;
+import de.tum.in.www1.artemis.service.dto.ParticipationInitializationProgressDTO;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.annotation.PostConstruct;
 import java.net.URL;
 import java.time.ZonedDateTime;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.*;
 
 import static de.tum.in.www1.artemis.domain.enumeration.ParticipationState.INITIALIZED;
 
 /**
  * Service Implementation for managing Participation.
+ *
+ * The participations of programming exercises are initialized asynchronously: the repository is copied and configured
+ * on the version control executor while the build plan is copied on the continuous integration executor, the build
+ * plan is configured once both are done. Each executor has a fixed number of threads, which bounds the concurrent
+ * requests to Bitbucket and Bamboo. Every completed step is saved on the participation, so an interrupted or failed
+ * initialization continues with the missing steps when it is started again.
  */
 @Service
 @Transactional
@@ -34,28 +49,64 @@ public class ParticipationService {
     private final ParticipationRepository participationRepository;
     private final ExerciseRepository exerciseRepository;
     private final ResultRepository resultRepository;
+    private final ParticipationLatestResultRepository participationLatestResultRepository;
     private final QuizSubmissionService quizSubmissionService;
     private final UserService userService;
     private final Optional<GitService> gitService;
     private final Optional<ContinuousIntegrationService> continuousIntegrationService;
     private final Optional<VersionControlService> versionControlService;
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final ParticipationDeletionService participationDeletionService;
+    private final RelevantParticipationService relevantParticipationService;
+    private final QuizStateStore quizStateStore;
+
+    @Value("${artemis.participation.version-control-parallelism:8}")
+    private int VERSION_CONTROL_PARALLELISM;
+
+    @Value("${artemis.participation.continuous-integration-parallelism:8}")
+    private int CONTINUOUS_INTEGRATION_PARALLELISM;
+
+    private static final String INITIALIZATION_JOB = "participation-initialization";
+
+    private final BackgroundJobService backgroundJobService;
+
+    private ExecutorService versionControlExecutor;
+    private ExecutorService continuousIntegrationExecutor;
 
     public ParticipationService(ParticipationRepository participationRepository,
                                 ExerciseRepository exerciseRepository,
                                 ResultRepository resultRepository,
+                                ParticipationLatestResultRepository participationLatestResultRepository,
                                 QuizSubmissionService quizSubmissionService,
                                 UserService userService,
                                 Optional<GitService> gitService,
                                 Optional<ContinuousIntegrationService> continuousIntegrationService,
-                                Optional<VersionControlService> versionControlService) {
+                                Optional<VersionControlService> versionControlService,
+                                SimpMessageSendingOperations messagingTemplate,
+                                ParticipationDeletionService participationDeletionService,
+                                RelevantParticipationService relevantParticipationService,
+                                QuizStateStore quizStateStore,
+                                BackgroundJobService backgroundJobService) {
         this.participationRepository = participationRepository;
         this.exerciseRepository = exerciseRepository;
         this.resultRepository = resultRepository;
+        this.participationLatestResultRepository = participationLatestResultRepository;
         this.quizSubmissionService = quizSubmissionService;
         this.userService = userService;
         this.gitService = gitService;
         this.continuousIntegrationService = continuousIntegrationService;
         this.versionControlService = versionControlService;
+        this.messagingTemplate = messagingTemplate;
+        this.participationDeletionService = participationDeletionService;
+        this.relevantParticipationService = relevantParticipationService;
+        this.quizStateStore = quizStateStore;
+        this.backgroundJobService = backgroundJobService;
+    }
+
+    @PostConstruct
+    public void initExecutors() {
+        versionControlExecutor = backgroundJobService.newWorkerPool("participation-vcs-", VERSION_CONTROL_PARALLELISM);
+        continuousIntegrationExecutor = backgroundJobService.newWorkerPool("participation-ci-", CONTINUOUS_INTEGRATION_PARALLELISM);
     }
 
     /**
@@ -67,12 +118,16 @@ public class ParticipationService {
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public Participation save(Participation participation) {
         log.debug("Request to save Participation : {}", participation);
+        relevantParticipationService.evict(participation);
         return participationRepository.saveAndFlush(participation);
     }
 
     /**
      * This method should only be invoked for programming exercises, not for other exercises
      *
+     * For programming exercises the participation is returned right away in its current state, the missing
+     * initialization steps run asynchronously after the transaction has been committed.
+     *
      * @param exercise
      * @param username
      * @return
@@ -100,14 +155,24 @@ public class ParticipationService {
 //            if (exercise.getCourse().isOnlineCourse()) {
 //                participation.setLti(true);
 //            } //TODO use in the future
-            ProgrammingExercise programmingExercise = (ProgrammingExercise) exercise;
-            participation.setInitializationState(ParticipationState.UNINITIALIZED);
-            participation = copyRepository(participation, programmingExercise);
-            participation = configureRepository(participation, programmingExercise);
-            participation = copyBuildPlan(participation, programmingExercise);
-            participation = configureBuildPlan(participation, programmingExercise);
-            participation.setInitializationState(INITIALIZED);
-            participation.setInitializationDate(ZonedDateTime.now());
+            if (participation.getInitializationState() == null) {
+                participation.setInitializationState(ParticipationState.UNINITIALIZED);
+                participation = save(participation);
+            }
+            // the steps of the initialization save the participation in their own transactions, so they may only start
+            // after the participation was committed
+            Long participationId = participation.getId();
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        initializeAsync(participationId);
+                    }
+                });
+            } else {
+                initializeAsync(participationId);
+            }
+            return participation;
         } else if (exercise instanceof QuizExercise || exercise instanceof ModelingExercise) {
             if (participation.getInitializationState() == null) {
                 participation.setInitializationState(INITIALIZED);
@@ -157,13 +222,18 @@ public class ParticipationService {
         }
 
         // Look for Participation in ParticipationHashMap first
-        Participation participation = QuizScheduleService.getParticipation(quizExercise.getId(), username);
+        Participation participation = quizStateStore.getParticipation(quizExercise.getId(), username);
         if (participation != null) {
+            // the quiz state store does not keep the exercise of the participation
+            participation.setExercise(quizExercise);
             return participation;
         }
 
         // get submission from HashMap
-        QuizSubmission quizSubmission = QuizScheduleService.getQuizSubmission(quizExercise.getId(), username);
+        QuizSubmission quizSubmission = quizStateStore.getSubmission(quizExercise.getId(), username);
+        if (quizSubmission == null) {
+            quizSubmission = new QuizSubmission().submittedAnswers(new HashSet<>());
+        }
         if (quizExercise.isEnded() && quizSubmission.getSubmissionDate() != null) {
             if (quizSubmission.isSubmitted()) {
                 quizSubmission.setType(SubmissionType.MANUAL);
@@ -216,27 +286,131 @@ public class ParticipationService {
         return participation;
     }
 
-    private Participation copyRepository(Participation participation, ProgrammingExercise exercise) {
-        if (!participation.getInitializationState().hasCompletedState(ParticipationState.REPO_COPIED)) {
-            URL repositoryUrl = versionControlService.get().copyRepository(exercise.getBaseRepositoryUrlAsUrl(), participation.getStudent().getLogin());
-            if (Optional.ofNullable(repositoryUrl).isPresent()) {
-                participation.setRepositoryUrl(repositoryUrl.toString());
-                participation.setInitializationState(ParticipationState.REPO_COPIED);
+    /**
+     * Check if the initialization of the given participation of a programming exercise has not finished yet,
+     * i.e. it is still running or was interrupted
+     *
+     * @param participation the participation to check
+     * @return true if the participation is neither initialized, inactive nor finished
+     */
+    public boolean isInitializationIncomplete(Participation participation) {
+        ParticipationState state = participation.getInitializationState();
+        return state != INITIALIZED && state != ParticipationState.INACTIVE && state != ParticipationState.FINISHED;
+    }
+
+    /**
+     * Run the missing initialization steps of the participation with the given id on the executors. The progress is
+     * sent to the student over websocket ("/topic/exercise/{exerciseId}/participation"). Nothing happens if the
+     * initialization of the participation is already running on this node.
+     *
+     * @param participationId the id of the participation to initialize
+     */
+    private void initializeAsync(Long participationId) {
+        if (!backgroundJobService.tryStart(INITIALIZATION_JOB, participationId)) {
+            log.debug("Initialization of participation {} is already running", participationId);
+            return;
+        }
+        // the participation is loaded on the executor, so that the workflow does not share the instance of the request
+        CompletableFuture<Participation> participation = CompletableFuture.supplyAsync(() -> participationRepository.findOne(participationId), continuousIntegrationExecutor);
+
+        CompletableFuture<Void> repository = participation.thenAcceptAsync(loadedParticipation -> {
+            copyRepositoryStep(loadedParticipation);
+            configureRepositoryStep(loadedParticipation);
+        }, versionControlExecutor);
+        CompletableFuture<Void> buildPlan = participation.thenAcceptAsync(this::copyBuildPlanStep, continuousIntegrationExecutor);
+
+        CompletableFuture.allOf(repository, buildPlan)
+            .thenRunAsync(() -> configureBuildPlanStep(participation.join()), continuousIntegrationExecutor)
+            .whenComplete((ignored, error) -> {
+                backgroundJobService.finish(INITIALIZATION_JOB, participationId);
+                Participation loadedParticipation = participation.getNow(null);
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    log.error("Initialization of participation {} failed: {}", participationId, cause.getMessage());
+                    if (loadedParticipation != null) {
+                        sendInitializationProgress(loadedParticipation, false, true);
+                    }
+                } else {
+                    sendInitializationProgress(loadedParticipation, true, false);
+                }
+            });
+    }
+
+    private void copyRepositoryStep(Participation participation) {
+        if (participation.getRepositoryUrl() != null) {
+            return;
+        }
+        ProgrammingExercise exercise = (ProgrammingExercise) participation.getExercise();
+        URL repositoryUrl = versionControlService.get().copyRepository(exercise.getBaseRepositoryUrlAsUrl(), participation.getStudent().getLogin());
+        if (repositoryUrl == null) {
+            throw new IllegalStateException("The repository of exercise " + exercise.getId() + " could not be copied");
+        }
+        synchronized (participation) {
+            participation.setRepositoryUrl(repositoryUrl.toString());
+            participation.setInitializationState(ParticipationState.REPO_COPIED);
+            saveInitializationStep(participation);
+        }
+    }
+
+    private void configureRepositoryStep(Participation participation) {
+        if (participation.getInitializationState().hasCompletedState(ParticipationState.REPO_CONFIGURED)) {
+            return;
+        }
+        versionControlService.get().configureRepository(participation.getRepositoryUrlAsUrl(), participation.getStudent().getLogin());
+        synchronized (participation) {
+            // the build plan might have been copied in the meantime
+            participation.setInitializationState(participation.getBuildPlanId() != null ? ParticipationState.BUILD_PLAN_COPIED : ParticipationState.REPO_CONFIGURED);
+            saveInitializationStep(participation);
+        }
+    }
+
+    private void copyBuildPlanStep(Participation participation) {
+        if (participation.getBuildPlanId() != null) {
+            return;
+        }
+        ProgrammingExercise exercise = (ProgrammingExercise) participation.getExercise();
+        String buildPlanId = continuousIntegrationService.get().copyBuildPlan(exercise.getBaseBuildPlanId(), participation.getStudent().getLogin());
+        synchronized (participation) {
+            participation.setBuildPlanId(buildPlanId);
+            // the state is linear, the build plan only counts as copied once the repository is configured
+            if (participation.getInitializationState() == ParticipationState.REPO_CONFIGURED) {
+                participation.setInitializationState(ParticipationState.BUILD_PLAN_COPIED);
             }
-            return save(participation);
-        } else {
-            return participation;
+            saveInitializationStep(participation);
         }
     }
 
-    private Participation configureRepository(Participation participation, ProgrammingExercise exercise) {
-        if (!participation.getInitializationState().hasCompletedState(ParticipationState.REPO_CONFIGURED)) {
-            versionControlService.get().configureRepository(participation.getRepositoryUrlAsUrl(), participation.getStudent().getLogin());
-            participation.setInitializationState(ParticipationState.REPO_CONFIGURED);
-            return save(participation);
-        } else {
-            return participation;
+    private void configureBuildPlanStep(Participation participation) {
+        if (!participation.getInitializationState().hasCompletedState(ParticipationState.BUILD_PLAN_CONFIGURED)) {
+            continuousIntegrationService.get().configureBuildPlan(
+                participation.getBuildPlanId(),
+                participation.getRepositoryUrlAsUrl(),
+                participation.getStudent().getLogin());
+        }
+        synchronized (participation) {
+            participation.setInitializationState(INITIALIZED);
+            if (participation.getInitializationDate() == null) {
+                participation.setInitializationDate(ZonedDateTime.now());
+            }
+            participationRepository.saveAndFlush(participation);
         }
+        relevantParticipationService.evict(participation);
+    }
+
+    /**
+     * Save the completed step and notify the student. Has to be called while holding the lock of the participation,
+     * so that the saves of the concurrent steps do not overwrite each other.
+     */
+    private void saveInitializationStep(Participation participation) {
+        participationRepository.saveAndFlush(participation);
+        relevantParticipationService.evict(participation);
+        sendInitializationProgress(participation, false, false);
+    }
+
+    private void sendInitializationProgress(Participation participation, boolean finished, boolean failed) {
+        String username = participation.getStudent().getLogin();
+        ParticipationInitializationProgressDTO progress = new ParticipationInitializationProgressDTO(participation, participation.getExercise().getId(), finished, failed);
+        messagingTemplate.convertAndSendToUser(username, "/topic/exercise/" + progress.getExerciseId() + "/participation", progress);
     }
 
     private Participation copyBuildPlan(Participation participation, ProgrammingExercise exercise) {
@@ -403,26 +577,25 @@ public class ParticipationService {
                 resultRepository.delete(result.getId());
             }
         }
+        participationLatestResultRepository.deleteByParticipationIdIn(Collections.singletonList(participation.getId()));
 
         Exercise exercise = participation.getExercise();
         exercise.removeParticipation(participation);
         exerciseRepository.save(exercise);
         participationRepository.delete(participation);
+        relevantParticipationService.evict(participation);
     }
 
     /**
-     * Delete all participations belonging to the given exercise
+     * Delete all participations belonging to the given exercise with set-based statements. The build plans and
+     * repositories are removed in the background after the transaction has been committed.
      *
      * @param exerciseId the id of the exercise
+     * @param deleteBuildPlan whether the build plans of the participations should be removed
+     * @param deleteRepository whether the repositories of the participations should be removed
      */
     @Transactional
     public void deleteAllByExerciseId(Long exerciseId, boolean deleteBuildPlan, boolean deleteRepository) {
-        List<Participation> participationsToDelete = participationRepository.findByExerciseId(exerciseId);
-
-        //TODO: improve performance
-
-        for (Participation participation : participationsToDelete) {
-            delete(participation.getId(), deleteBuildPlan, deleteRepository);
-        }
+        participationDeletionService.deleteAllByExerciseId(exerciseId, deleteBuildPlan, deleteRepository);
     }
 }
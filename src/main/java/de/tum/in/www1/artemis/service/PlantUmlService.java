@@ -0,0 +1,330 @@
+package de.tum.in.www1.artemis.service;
+
+import net.sourceforge.plantuml.FileFormat;
+import net.sourceforge.plantuml.FileFormatOption;
+import net.sourceforge.plantuml.SourceStringReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Renders PlantUML diagrams and caches the rendered images.
+ *
+ * The instructions of a programming exercise contain the same diagrams for every student, so the rendered images are
+ * kept in an LRU cache keyed by a hash of the output format and the PlantUML source, bounded by the total number of
+ * bytes of the images. Optionally, the images are also persisted to disk so that they survive a restart. The disk cache
+ * is bounded by bytes as well, the least recently used files are deleted first.
+ * Rendering happens on a bounded worker pool. Concurrent requests for the same diagram are coalesced, i.e. they wait
+ * for the same render instead of starting their own.
+ */
+@Service
+public class PlantUmlService {
+
+    private final Logger log = LoggerFactory.getLogger(PlantUmlService.class);
+
+    public enum DiagramFormat {
+        PNG(FileFormat.PNG, "png"),
+        SVG(FileFormat.SVG, "svg");
+
+        private final FileFormat fileFormat;
+        private final String extension;
+
+        DiagramFormat(FileFormat fileFormat, String extension) {
+            this.fileFormat = fileFormat;
+            this.extension = extension;
+        }
+    }
+
+    @Value("${artemis.plantuml.cache-size-bytes:52428800}")
+    private long CACHE_SIZE_BYTES;
+
+    @Value("${artemis.plantuml.cache-path:}")
+    private String CACHE_PATH;
+
+    @Value("${artemis.plantuml.disk-cache-size-bytes:524288000}")
+    private long DISK_CACHE_SIZE_BYTES;
+
+    @Value("${artemis.plantuml.render-threads:2}")
+    private int RENDER_THREADS;
+
+    @Value("${artemis.plantuml.render-queue-capacity:100}")
+    private int RENDER_QUEUE_CAPACITY;
+
+    @Value("${artemis.plantuml.render-timeout-seconds:30}")
+    private int RENDER_TIMEOUT_SECONDS;
+
+    /**
+     * rendered images by content hash (access ordered, so that the least recently used image is evicted first)
+     * NOTE: guarded by itself, like cachedBytes
+     */
+    private final LinkedHashMap<String, byte[]> renderedImages = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long cachedBytes;
+
+    /**
+     * sizes of the images on disk by file name (access ordered like renderedImages)
+     * NOTE: guarded by itself, like diskCachedBytes
+     */
+    private final LinkedHashMap<String, Long> diskCachedFiles = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long diskCachedBytes;
+
+    /**
+     * renders that are currently running by content hash
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<byte[]>> pendingRenders = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor renderExecutor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        renderExecutor = new ThreadPoolExecutor(RENDER_THREADS, RENDER_THREADS, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(RENDER_QUEUE_CAPACITY),
+            runnable -> new Thread(runnable, "plantuml-render-" + threadCount.incrementAndGet()));
+
+        if (!CACHE_PATH.isEmpty()) {
+            try {
+                Files.createDirectories(Paths.get(CACHE_PATH));
+                loadDiskCache();
+            } catch (IOException e) {
+                log.warn("Could not create PlantUML cache directory {}, disk persistence is disabled: {}", CACHE_PATH, e.getMessage());
+                CACHE_PATH = "";
+            }
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        renderExecutor.shutdownNow();
+    }
+
+    /**
+     * Get the rendered image for the given PlantUML source in the given format.
+     * The image is taken from the cache if possible, otherwise it is rendered on the render pool.
+     *
+     * @param plantUml the PlantUML source
+     * @param format   the output format
+     * @return the rendered image
+     * @throws IOException if the image could not be rendered
+     */
+    public byte[] generateImage(String plantUml, DiagramFormat format) throws IOException {
+        String key = hash(plantUml, format);
+
+        byte[] image = getCachedImage(key);
+        if (image != null) {
+            return image;
+        }
+
+        image = readFromDisk(key, format);
+        if (image != null) {
+            putCachedImage(key, image);
+            return image;
+        }
+
+        CompletableFuture<byte[]> newRender = new CompletableFuture<>();
+        CompletableFuture<byte[]> render = pendingRenders.putIfAbsent(key, newRender);
+        if (render == null) {
+            // this request is responsible for rendering the diagram, all concurrent requests wait for its result
+            render = newRender;
+            // a render of the same diagram may have finished between the cache lookup and putIfAbsent
+            image = getCachedImage(key);
+            if (image != null) {
+                pendingRenders.remove(key, newRender);
+                newRender.complete(image);
+                return image;
+            }
+            try {
+                renderExecutor.execute(() -> render(key, plantUml, format, newRender));
+            } catch (RejectedExecutionException e) {
+                pendingRenders.remove(key, newRender);
+                newRender.completeExceptionally(new IOException("Too many PlantUML diagrams are currently being rendered"));
+            }
+        }
+
+        try {
+            return render.get(RENDER_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for PlantUML diagram", e);
+        } catch (TimeoutException e) {
+            throw new IOException("Timed out while waiting for PlantUML diagram", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Could not render PlantUML diagram", e.getCause());
+        }
+    }
+
+    private void render(String key, String plantUml, DiagramFormat format, CompletableFuture<byte[]> result) {
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            SourceStringReader reader = new SourceStringReader(plantUml);
+            reader.generateImage(output, new FileFormatOption(format.fileFormat));
+            byte[] image = output.toByteArray();
+
+            putCachedImage(key, image);
+            writeToDisk(key, format, image);
+            result.complete(image);
+        } catch (Exception e) {
+            log.error("Error while rendering PlantUML diagram", e);
+            result.completeExceptionally(e);
+        } catch (Error e) {
+            // do not let the waiting requests run into the timeout, but do not swallow the error either
+            result.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingRenders.remove(key, result);
+        }
+    }
+
+    byte[] getCachedImage(String key) {
+        synchronized (renderedImages) {
+            return renderedImages.get(key);
+        }
+    }
+
+    private void putCachedImage(String key, byte[] image) {
+        if (image.length > CACHE_SIZE_BYTES) {
+            return;
+        }
+        synchronized (renderedImages) {
+            byte[] replaced = renderedImages.put(key, image);
+            cachedBytes += image.length - (replaced != null ? replaced.length : 0);
+            Iterator<byte[]> eldest = renderedImages.values().iterator();
+            while (cachedBytes > CACHE_SIZE_BYTES && eldest.hasNext()) {
+                cachedBytes -= eldest.next().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Register the images that are already on disk, the least recently modified first
+     */
+    private void loadDiskCache() throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.list(Paths.get(CACHE_PATH))) {
+            files = paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        Map<Path, FileTime> modificationTimes = new HashMap<>();
+        for (Path file : files) {
+            modificationTimes.put(file, Files.getLastModifiedTime(file));
+        }
+        files.sort(Comparator.comparing(modificationTimes::get));
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(".tmp")) {
+                // left over from an interrupted write
+                Files.deleteIfExists(file);
+                continue;
+            }
+            registerDiskFile(file.getFileName().toString(), Files.size(file));
+        }
+    }
+
+    /**
+     * Register a file of the disk cache and delete the least recently used files if the disk cache is too large
+     */
+    private void registerDiskFile(String fileName, long size) {
+        List<String> evictedFiles = new ArrayList<>();
+        synchronized (diskCachedFiles) {
+            Long replaced = diskCachedFiles.put(fileName, size);
+            diskCachedBytes += size - (replaced != null ? replaced : 0);
+            Iterator<Map.Entry<String, Long>> eldest = diskCachedFiles.entrySet().iterator();
+            while (diskCachedBytes > DISK_CACHE_SIZE_BYTES && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                diskCachedBytes -= entry.getValue();
+                evictedFiles.add(entry.getKey());
+                eldest.remove();
+            }
+        }
+        for (String evictedFile : evictedFiles) {
+            try {
+                Files.deleteIfExists(Paths.get(CACHE_PATH, evictedFile));
+            } catch (IOException e) {
+                log.warn("Could not delete cached PlantUML diagram {}: {}", evictedFile, e.getMessage());
+            }
+        }
+    }
+
+    private byte[] readFromDisk(String key, DiagramFormat format) {
+        if (CACHE_PATH.isEmpty()) {
+            return null;
+        }
+        Path path = Paths.get(CACHE_PATH, key + "." + format.extension);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try {
+            byte[] image = Files.readAllBytes(path);
+            // mark the file as recently used, also for the order after a restart
+            synchronized (diskCachedFiles) {
+                diskCachedFiles.get(path.getFileName().toString());
+            }
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            return image;
+        } catch (IOException e) {
+            log.warn("Could not read cached PlantUML diagram {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, DiagramFormat format, byte[] image) {
+        if (CACHE_PATH.isEmpty()) {
+            return;
+        }
+        Path path = Paths.get(CACHE_PATH, key + "." + format.extension);
+        try {
+            // write to a temporary file first, so that concurrent readers never see a partially written image
+            Path tempFile = Files.createTempFile(Paths.get(CACHE_PATH), key, ".tmp");
+            Files.write(tempFile, image);
+            Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            registerDiskFile(path.getFileName().toString(), image.length);
+        } catch (IOException e) {
+            log.warn("Could not persist PlantUML diagram {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Compute the cache key for the given PlantUML source and output format
+     *
+     * @param plantUml the PlantUML source
+     * @param format   the output format
+     * @return the hex encoded SHA-256 hash of format and source
+     */
+    static String hash(String plantUml, DiagramFormat format) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(format.extension.getBytes(StandardCharsets.UTF_8));
+            byte[] hash = digest.digest(plantUml.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package de.tum.in.www1.artemis.service;
+
+import de.tum.in.www1.artemis.domain.Authority;
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.repository.UserRepository;
+import de.tum.in.www1.artemis.security.SecurityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Node-wide cache of the groups and authorities of the users, used for the permission checks of the REST endpoints.
+ * The entries expire after a short time, so that changes on other nodes (e.g. a JIRA group sync) become visible, and
+ * are evicted on this node when the user or the groups of a course change.
+ */
+@Service
+public class PrincipalCacheService {
+
+    public static final int STUDENT = 1;
+    public static final int TEACHING_ASSISTANT = 2;
+    public static final int INSTRUCTOR = 4;
+
+    private final Logger log = LoggerFactory.getLogger(PrincipalCacheService.class);
+
+    @Value("${artemis.principal-cache.ttl-seconds:30}")
+    private long TTL_SECONDS;
+
+    private final UserRepository userRepository;
+
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+
+    public PrincipalCacheService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Get the roles of the current user in the given course
+     *
+     * @param course the course to check the roles for
+     * @return the bitmap of STUDENT, TEACHING_ASSISTANT and INSTRUCTOR, 0 if the user does not exist
+     */
+    public int getCourseRoles(Course course) {
+        CachedPrincipal principal = getPrincipal(SecurityUtils.getCurrentUserLogin());
+        if (principal == null) {
+            return 0;
+        }
+        if (course.getId() == null) {
+            return computeCourseRoles(principal.groups, course);
+        }
+        return principal.courseRoles.computeIfAbsent(course.getId(), courseId -> computeCourseRoles(principal.groups, course));
+    }
+
+    /**
+     * Get the groups and authorities of the user with the given login, loads them from the database if they are not
+     * cached or the cached entry has expired
+     *
+     * @param login the login of the user
+     * @return the cached principal or null, if the user does not exist
+     */
+    public CachedPrincipal getPrincipal(String login) {
+        if (login == null) {
+            return null;
+        }
+        CachedPrincipal principal = principals.get(login);
+        if (principal != null && !principal.isExpired()) {
+            return principal;
+        }
+        User user = userRepository.findOneWithGroupsAndAuthoritiesByLogin(login).orElse(null);
+        if (user == null) {
+            principals.remove(login);
+            return null;
+        }
+        principal = new CachedPrincipal(user, System.nanoTime() + TimeUnit.SECONDS.toNanos(TTL_SECONDS));
+        principals.put(login, principal);
+        return principal;
+    }
+
+    /**
+     * Evict the user with the given login, e.g. after the user or the groups of the user have changed
+     *
+     * @param login the login of the user
+     */
+    public void evict(String login) {
+        if (login != null) {
+            principals.remove(login);
+        }
+    }
+
+    /**
+     * Evict all users, e.g. after the group names of a course have changed
+     */
+    public void evictAll() {
+        principals.clear();
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void removeExpiredPrincipals() {
+        int size = principals.size();
+        principals.values().removeIf(CachedPrincipal::isExpired);
+        log.debug("Removed {} expired principals from the cache", size - principals.size());
+    }
+
+    private static int computeCourseRoles(Set<String> groups, Course course) {
+        int roles = 0;
+        if (groups.contains(course.getStudentGroupName())) {
+            roles |= STUDENT;
+        }
+        if (groups.contains(course.getTeachingAssistantGroupName())) {
+            roles |= TEACHING_ASSISTANT;
+        }
+        if (groups.contains(course.getInstructorGroupName())) {
+            roles |= INSTRUCTOR;
+        }
+        return roles;
+    }
+
+    /**
+     * Immutable snapshot of the groups and authorities of a user together with the roles per course id
+     */
+    public static final class CachedPrincipal {
+
+        private final String login;
+        private final Set<String> groups;
+        private final Set<String> authorities;
+        private final Map<Long, Integer> courseRoles = new ConcurrentHashMap<>();
+        private final long expiresAt;
+
+        private CachedPrincipal(User user, long expiresAt) {
+            this.login = user.getLogin();
+            this.groups = Collections.unmodifiableSet(new HashSet<>(user.getGroups()));
+            this.authorities = Collections.unmodifiableSet(user.getAuthorities().stream().map(Authority::getName).collect(Collectors.toSet()));
+            this.expiresAt = expiresAt;
+        }
+
+        public String getLogin() {
+            return login;
+        }
+
+        public Set<String> getGroups() {
+            return groups;
+        }
+
+        public Set<String> getAuthorities() {
+            return authorities;
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
+}
@@ -1,13 +1,13 @@
 package de.tum.in.www1.artemis.service;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.view.QuizView;
 import de.tum.in.www1.artemis.repository.DragAndDropMappingRepository;
 import de.tum.in.www1.artemis.repository.QuizExerciseRepository;
-import de.tum.in.www1.artemis.repository.QuizSubmissionRepository;
-import de.tum.in.www1.artemis.repository.ResultRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
@@ -18,6 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -31,30 +32,30 @@ public class QuizExerciseService {
     private final DragAndDropMappingRepository dragAndDropMappingRepository;
     private final ParticipationService participationService;
     private final AuthorizationCheckService authCheckService;
-    private final ResultRepository resultRepository;
-    private final QuizSubmissionRepository quizSubmissionRepository;
     private final SimpMessageSendingOperations messagingTemplate;
     private final UserService userService;
+    private final QuizScoringService quizScoringService;
     private final ObjectMapper objectMapper;
+    private final Timer sendQuizExerciseTimer;
 
     public QuizExerciseService(UserService userService,
                                QuizExerciseRepository quizExerciseRepository,
                                DragAndDropMappingRepository dragAndDropMappingRepository,
                                ParticipationService participationService,
                                AuthorizationCheckService authCheckService,
-                               ResultRepository resultRepository,
-                               QuizSubmissionRepository quizSubmissionRepository,
                                SimpMessageSendingOperations messagingTemplate,
-                               MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter) {
+                               MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter,
+                               QuizScoringService quizScoringService,
+                               MetricRegistry metricRegistry) {
         this.userService = userService;
         this.quizExerciseRepository = quizExerciseRepository;
         this.dragAndDropMappingRepository = dragAndDropMappingRepository;
         this.participationService = participationService;
         this.authCheckService = authCheckService;
-        this.resultRepository = resultRepository;
-        this.quizSubmissionRepository = quizSubmissionRepository;
         this.messagingTemplate = messagingTemplate;
         this.objectMapper = mappingJackson2HttpMessageConverter.getObjectMapper();
+        this.quizScoringService = quizScoringService;
+        this.sendQuizExerciseTimer = metricRegistry.timer(MetricRegistry.name(QuizExerciseService.class, "sendQuizExercise"));
     }
 
     /**
@@ -82,6 +83,7 @@ public class QuizExerciseService {
         // Note: save will automatically remove deleted questions from the exercise and deleted answer options from the questions
         //       and delete the now orphaned entries from the database
         QuizExercise result = quizExerciseRepository.save(quizExercise);
+        quizScoringService.evict(result.getId());
 
         // fix references in all drag and drop questions (step 2/2)
         for (Question question : result.getQuestions()) {
@@ -104,6 +106,7 @@ public class QuizExerciseService {
      */
     @Transactional
     public QuizExercise saveWithNoNewEntities(QuizExercise quizExercise) {
+        quizScoringService.evict(quizExercise.getId());
         return quizExerciseRepository.save(quizExercise);
     }
 
@@ -231,52 +234,19 @@ public class QuizExerciseService {
         // delete all participations belonging to this quiz
         participationService.deleteAllByExerciseId(id, false, false);
         quizExerciseRepository.delete(id);
-    }
-
-    /**
-     * adjust existing results if an answer or and question was deleted
-     * and recalculate the scores
-     *
-     * @param quizExercise the changed quizExercise.
-     */
-    @Transactional
-    public void adjustResultsOnQuizChanges(QuizExercise quizExercise) {
-        //change existing results if an answer or and question was deleted
-        for (Result result : resultRepository.findByParticipationExerciseIdOrderByCompletionDateAsc(quizExercise.getId())) {
-
-            Set<SubmittedAnswer> submittedAnswersToDelete = new HashSet<>();
-            QuizSubmission quizSubmission = quizSubmissionRepository.findOne(result.getSubmission().getId());
-
-            for (SubmittedAnswer submittedAnswer : quizSubmission.getSubmittedAnswers()) {
-                // Delete all references to question and question-elements if the question was changed
-                submittedAnswer.checkAndDeleteReferences(quizExercise);
-                if (!quizExercise.getQuestions().contains(submittedAnswer.getQuestion())) {
-                    submittedAnswersToDelete.add(submittedAnswer);
-                }
-            }
-            quizSubmission.getSubmittedAnswers().removeAll(submittedAnswersToDelete);
-
-            //recalculate existing score
-            quizSubmission.calculateAndUpdateScores(quizExercise);
-            //update Successful-Flag in Result
-            result.getParticipation().setExercise(quizExercise);
-            result.setSubmission(quizSubmission);
-            result.evaluateSubmission();
-
-            // save the updated Result and its Submission
-            resultRepository.save(result);
-        }
+        quizScoringService.evict(id);
     }
 
     @Transactional(readOnly = true)
     public void sendQuizExerciseToSubscribedClients(QuizExercise quizExercise) {
+        final Timer.Context timerContext = sendQuizExerciseTimer.time();
         try{
-            long start = System.currentTimeMillis();
             Class view = viewForStudentsInQuizExercise(quizExercise);
             byte[] payload = objectMapper.writerWithView(view).writeValueAsBytes(quizExercise);
             messagingTemplate.send("/topic/quizExercise/" + quizExercise.getId(), MessageBuilder.withPayload(payload).build());
-            log.info("    sent out quizExercise to all listening clients in {} ms", System.currentTimeMillis() - start);
+            log.info("    sent out quizExercise to all listening clients in {} ms", TimeUnit.NANOSECONDS.toMillis(timerContext.stop()));
         } catch (JsonProcessingException e) {
+            timerContext.stop();
             log.error("Exception occurred while serializing quiz exercise: {}", e);
         }
     }
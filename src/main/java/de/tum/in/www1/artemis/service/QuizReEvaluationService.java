@@ -0,0 +1,174 @@
+package de.tum.in.www1.artemis.service;
+
+import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.scoring.CompiledQuiz;
+import de.tum.in.www1.artemis.repository.QuizSubmissionRepository;
+import de.tum.in.www1.artemis.repository.ResultRepository;
+import de.tum.in.www1.artemis.service.dto.QuizReEvaluationProgressDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Re-evaluates all results of a quiz exercise after the quiz was changed.
+ *
+ * The results are processed in chunks, each in its own transaction: a chunk of results and their submissions
+ * (including the submitted answers) is loaded with two queries, the submissions are scored in parallel with the compiled
+ * quiz and the chunk is written back at once. The latest rated and unrated result of every participation are collected
+ * on the way, so that the statistics can be rebuilt afterwards without reading the results again.
+ *
+ * The re-evaluation is idempotent: re-evaluating a result that was already re-evaluated against the same quiz version
+ * does not change it. If the re-evaluation or the subsequent save of the changed quiz fails, the already committed
+ * chunks are not rolled back, but repeating the same re-evaluation brings all results (and the statistics, see
+ * QuizExerciseResource.reEvaluateQuizExercise) to the state of the changed quiz.
+ */
+@Service
+public class QuizReEvaluationService {
+
+    private final Logger log = LoggerFactory.getLogger(QuizReEvaluationService.class);
+
+    @Value("${artemis.quiz.re-evaluation-chunk-size:500}")
+    private int CHUNK_SIZE;
+
+    private final ResultRepository resultRepository;
+    private final QuizSubmissionRepository quizSubmissionRepository;
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final RelevantParticipationService relevantParticipationService;
+    private final TransactionTemplate transactionTemplate;
+
+    public QuizReEvaluationService(ResultRepository resultRepository,
+                                   QuizSubmissionRepository quizSubmissionRepository,
+                                   SimpMessageSendingOperations messagingTemplate,
+                                   RelevantParticipationService relevantParticipationService,
+                                   PlatformTransactionManager transactionManager) {
+        this.resultRepository = resultRepository;
+        this.quizSubmissionRepository = quizSubmissionRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.relevantParticipationService = relevantParticipationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Adjust all existing results of the given quiz exercise to the changes of the quiz and recalculate their scores.
+     * Submitted answers to deleted questions are removed, references to deleted answer options, drag items and drop locations are removed.
+     * Every chunk is committed on its own, the progress is sent to the given user after each commit over websocket
+     * ("/topic/quizExercise/{id}/reEvaluation"). Must not be called within a transaction.
+     *
+     * @param quizExercise the changed quiz exercise (not saved yet)
+     * @param username     the login of the user who started the re-evaluation
+     * @return the latest rated and the latest unrated result of every participation (with loaded quiz submissions)
+     */
+    public List<Result> reEvaluateResults(QuizExercise quizExercise, String username) {
+        long start = System.currentTimeMillis();
+        // the changed quiz exercise is not saved yet, so it has to be compiled instead of using the cached version
+        CompiledQuiz compiledQuiz = CompiledQuiz.compile(quizExercise);
+        long totalResults = resultRepository.countByParticipationExerciseId(quizExercise.getId());
+
+        Map<Long, Result> latestRatedResults = new HashMap<>();
+        Map<Long, Result> latestUnratedResults = new HashMap<>();
+        long processedResults = 0;
+        long lastId = 0;
+
+        while (true) {
+            final long chunkStartId = lastId;
+            List<Result> chunk = transactionTemplate.execute(status -> reEvaluateChunk(quizExercise, compiledQuiz, chunkStartId));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            relevantParticipationService.evictAll();
+            for (Result result : chunk) {
+                rememberIfLatest(result.isRated() ? latestRatedResults : latestUnratedResults, result);
+            }
+            lastId = chunk.get(chunk.size() - 1).getId();
+            processedResults += chunk.size();
+            sendProgress(username, new QuizReEvaluationProgressDTO(quizExercise.getId(), processedResults, totalResults, false));
+        }
+        sendProgress(username, new QuizReEvaluationProgressDTO(quizExercise.getId(), processedResults, totalResults, true));
+        log.info("Re-evaluated {} results of quiz {} in {} ms", processedResults, quizExercise.getId(), System.currentTimeMillis() - start);
+
+        List<Result> latestResults = new ArrayList<>(latestRatedResults.values());
+        latestResults.addAll(latestUnratedResults.values());
+        return latestResults;
+    }
+
+    /**
+     * Load, re-evaluate and save the next chunk of results (must be called within a transaction)
+     *
+     * @param quizExercise the changed quiz exercise
+     * @param compiledQuiz the compiled version of the changed quiz exercise
+     * @param lastId       the id of the last result of the previous chunk
+     * @return the re-evaluated results of this chunk (empty if there are no more results)
+     */
+    private List<Result> reEvaluateChunk(QuizExercise quizExercise, CompiledQuiz compiledQuiz, long lastId) {
+        List<Result> results = resultRepository.findChunkByExerciseIdWithParticipation(quizExercise.getId(), lastId, new PageRequest(0, CHUNK_SIZE));
+        if (results.isEmpty()) {
+            return results;
+        }
+
+        // load all submissions of this chunk with their submitted answers at once
+        List<Long> submissionIds = results.stream()
+            .filter(result -> result.getSubmission() != null)
+            .map(result -> result.getSubmission().getId())
+            .collect(Collectors.toList());
+        Map<Long, QuizSubmission> submissions = quizSubmissionRepository.findWithSubmittedAnswersByIdIn(submissionIds).stream()
+            .collect(Collectors.toMap(QuizSubmission::getId, Function.identity()));
+
+        // remove references to deleted questions and question elements
+        // Note: this may load lazy associations, so it has to happen in this thread
+        for (QuizSubmission quizSubmission : submissions.values()) {
+            Set<SubmittedAnswer> submittedAnswersToDelete = new HashSet<>();
+            for (SubmittedAnswer submittedAnswer : quizSubmission.getSubmittedAnswers()) {
+                submittedAnswer.checkAndDeleteReferences(quizExercise);
+                if (!quizExercise.getQuestions().contains(submittedAnswer.getQuestion())) {
+                    submittedAnswersToDelete.add(submittedAnswer);
+                }
+            }
+            quizSubmission.getSubmittedAnswers().removeAll(submittedAnswersToDelete);
+        }
+
+        // scoring only works on loaded data and the compiled quiz is immutable, so the submissions can be scored in parallel
+        submissions.values().parallelStream().forEach(quizSubmission -> quizSubmission.calculateAndUpdateScores(compiledQuiz));
+
+        List<Result> reEvaluatedResults = new ArrayList<>(results.size());
+        for (Result result : results) {
+            QuizSubmission quizSubmission = result.getSubmission() != null ? submissions.get(result.getSubmission().getId()) : null;
+            if (quizSubmission == null) {
+                continue;
+            }
+            result.setSubmission(quizSubmission);
+            result.evaluateSubmission(quizExercise);
+            reEvaluatedResults.add(result);
+        }
+
+        // save the updated results and their submissions (the updates are flushed as one batch when the transaction commits)
+        resultRepository.save(reEvaluatedResults);
+        return results;
+    }
+
+    private void rememberIfLatest(Map<Long, Result> latestResults, Result result) {
+        if (!(result.getSubmission() instanceof QuizSubmission)) {
+            return;
+        }
+        Long participationId = result.getParticipation().getId();
+        Result latestResult = latestResults.get(participationId);
+        if (latestResult == null || (latestResult.getCompletionDate() != null && result.getCompletionDate() != null
+            && latestResult.getCompletionDate().isBefore(result.getCompletionDate()))) {
+            latestResults.put(participationId, result);
+        }
+    }
+
+    private void sendProgress(String username, QuizReEvaluationProgressDTO progress) {
+        if (username != null) {
+            messagingTemplate.convertAndSendToUser(username, "/topic/quizExercise/" + progress.getQuizExerciseId() + "/reEvaluation", progress);
+        }
+    }
+}
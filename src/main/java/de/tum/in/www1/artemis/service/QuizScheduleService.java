@@ -1,44 +1,116 @@
 package de.tum.in.www1.artemis.service;
 
+import com.codahale.metrics.CachedGauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.enumeration.ParticipationState;
 import de.tum.in.www1.artemis.domain.enumeration.SubmissionType;
 import de.tum.in.www1.artemis.repository.ParticipationRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.ZonedDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class QuizScheduleService {
 
     private static final Logger log = LoggerFactory.getLogger(QuizScheduleService.class);
 
-    private static Map<Long, Map<String, QuizSubmission>> submissionHashMap = new ConcurrentHashMap<>();
-    private static Map<Long, Map<String, Participation>> participationHashMap = new ConcurrentHashMap<>();
-    private static Map<Long, Set<Result>> resultHashMap = new ConcurrentHashMap<>();
+    /**
+     * submissions, participations and results of running quizzes (shared by all nodes with the profile "cluster")
+     */
+    private final QuizStateStore quizStateStore;
+
     private static Map<Long, ScheduledFuture> quizStartSchedules = new ConcurrentHashMap<>();
+    private static Map<Long, ScheduledFuture> quizEndSchedules = new ConcurrentHashMap<>();
+
+    /**
+     * running quizzes (with questions), loaded once and reused until the quiz ends or is changed
+     */
+    private static Map<Long, QuizExercise> liveQuizExercises = new ConcurrentHashMap<>();
 
+    /**
+     * timing of all quizzes that received submissions, replaced whenever a quiz changes
+     */
+    private static Map<Long, QuizTiming> quizTimings = new ConcurrentHashMap<>();
+
+    /**
+     * only fires the quiz start and end events and the tick, the actual work is handed to the executors below
+     */
     private static ThreadPoolTaskScheduler threadPoolTaskScheduler = new ThreadPoolTaskScheduler();
     static {
         threadPoolTaskScheduler.setThreadNamePrefix("QuizScheduler");
-        threadPoolTaskScheduler.setPoolSize(3);
+        threadPoolTaskScheduler.setPoolSize(1);
         threadPoolTaskScheduler.initialize();
     }
 
+    /**
+     * creates participations and results and updates statistics (DB work)
+     * NOTE: this executor has a single thread, so the processing of a quiz never runs concurrently
+     */
+    private static ThreadPoolTaskExecutor persistenceExecutor = new ThreadPoolTaskExecutor();
+    static {
+        persistenceExecutor.setThreadNamePrefix("QuizPersistence");
+        persistenceExecutor.setCorePoolSize(1);
+        persistenceExecutor.setMaxPoolSize(1);
+        persistenceExecutor.initialize();
+    }
+
+    /**
+     * sends quiz exercises and participations to the clients (websocket fan-out)
+     */
+    private static ThreadPoolTaskExecutor websocketExecutor = new ThreadPoolTaskExecutor();
+    static {
+        websocketExecutor.setThreadNamePrefix("QuizWebsocket");
+        websocketExecutor.setCorePoolSize(2);
+        websocketExecutor.setMaxPoolSize(2);
+        websocketExecutor.initialize();
+    }
+
+    /**
+     * true while a run of processPendingWork() is queued or running (prevents ticks from piling up)
+     */
+    private final AtomicBoolean pendingWorkScheduled = new AtomicBoolean(false);
+
+    /**
+     * guards loading the submitted users of a quiz from the database (see hasUserSubmitted)
+     */
+    private final Object submittedUsersLock = new Object();
+
     private ScheduledFuture scheduledFuture;
 
-    private final SimpMessageSendingOperations messagingTemplate;
     private final ParticipationRepository participationRepository;
     private final UserService userService;
     private final QuizExerciseService quizExerciseService;
     private final StatisticService statisticService;
+    private final QuizScoringService quizScoringService;
+    private final ParticipationFanOutService participationFanOutService;
+    private final RelevantParticipationService relevantParticipationService;
+    private final LatestResultService latestResultService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final MetricRegistry metricRegistry;
+    private final Timer pendingWorkTimer;
+    private final Timer createParticipationsTimer;
+    private final Timer updateStatisticsTimer;
+    private final Timer quizEndTimer;
+
+    /**
+     * ids of the quizzes with a registered gauge for their pending submissions
+     */
+    private final Set<Long> quizzesWithPendingSubmissionsGauge = ConcurrentHashMap.newKeySet();
 
     /**
      * add a quizSubmission to the submissionHashMap
@@ -47,31 +119,50 @@ public class QuizScheduleService {
      * @param username       the username of the user, who submitted the submission (second Key)
      * @param quizSubmission the quizSubmission, which should be added (Value)
      */
-    public static void updateSubmission(Long quizId, String username, QuizSubmission quizSubmission) {
+    public void updateSubmission(Long quizId, String username, QuizSubmission quizSubmission) {
 
         if (quizSubmission != null && quizId != null && username != null) {
-            //check if there is already a quizSubmission with the same quiz
-            if (!submissionHashMap.containsKey(quizId)) {
-                submissionHashMap.put(quizId, new ConcurrentHashMap<>());
+            quizStateStore.putSubmission(quizId, username, quizSubmission);
+            if (quizSubmission.isSubmitted()) {
+                // the user submitted before the end of the quiz => create the participation with the next tick
+                quizStateStore.markUserSubmitted(quizId, username);
+                quizStateStore.markSubmitted(quizId);
             }
-            submissionHashMap.get(quizId).put(username, quizSubmission);
         }
     }
 
+    /**
+     * check if the user has already submitted in the given quiz (without creating a participation)
+     * The submitted users are loaded from the database once if the quiz state store does not have them (e.g. after a restart)
+     *
+     * @param quizId   the quizId of the quiz
+     * @param username the username of the user
+     * @return true if the user has submitted before the end of the quiz
+     */
+    public boolean hasUserSubmitted(Long quizId, String username) {
+        if (!quizStateStore.hasSubmittedUsers(quizId)) {
+            // only one thread loads the submitted users, the other submissions of the quiz wait for them
+            synchronized (submittedUsersLock) {
+                if (!quizStateStore.hasSubmittedUsers(quizId)) {
+                    List<String> submittedUsers = participationRepository.findSubmittedStudentLoginsByExerciseId(quizId);
+                    quizStateStore.putSubmittedUsers(quizId, submittedUsers);
+                    log.debug("Loaded {} submitted users of quiz {} from the database", submittedUsers.size(), quizId);
+                }
+            }
+        }
+        return quizStateStore.hasUserSubmitted(quizId, username);
+    }
+
     /**
      * add a result to resultHashMap for a statistic-update
      *
      * @param quizId the quizId of the quiz the result belongs to (first Key)
      * @param result the result, which should be added
      */
-    public static void addResultToStatistic(Long quizId, Result result) {
+    public void addResultToStatistic(Long quizId, Result result) {
 
         if (quizId != null && result != null) {
-            //check if there is already a result with the same quiz
-            if (!resultHashMap.containsKey(quizId)) {
-                resultHashMap.put(quizId, new HashSet<>());
-            }
-            resultHashMap.get(quizId).add(result);
+            quizStateStore.addResult(quizId, result);
         }
 
     }
@@ -82,14 +173,10 @@ public class QuizScheduleService {
      * @param quizId        the quizId of the quiz the result belongs to (first Key)
      * @param participation the result, which should be added
      */
-    private static void addParticipation(Long quizId, Participation participation) {
+    private void addParticipation(Long quizId, Participation participation) {
 
         if (quizId != null && participation != null) {
-            //check if there is already a result with the same quiz
-            if (!participationHashMap.containsKey(quizId)) {
-                participationHashMap.put(quizId, new ConcurrentHashMap<>());
-            }
-            participationHashMap.get(quizId).put(participation.getStudent().getLogin(), participation);
+            quizStateStore.putParticipation(quizId, participation.getStudent().getLogin(), participation);
         }
 
     }
@@ -103,19 +190,14 @@ public class QuizScheduleService {
      * -> return an empty QuizSubmission if there is no quizSubmission
      * -> return null if the quizId or if the username is null
      */
-    public static QuizSubmission getQuizSubmission(Long quizId, String username) {
+    public QuizSubmission getQuizSubmission(Long quizId, String username) {
 
         if (quizId == null || username == null) {
             return null;
         }
-        QuizSubmission quizSubmission;
-        //check if the the map contains submissions with the quizId
-        if (submissionHashMap.containsKey(quizId)) {
-            //return the quizSubmission with the username-Key
-            quizSubmission = submissionHashMap.get(quizId).get(username);
-            if (quizSubmission != null) {
-                return quizSubmission;
-            }
+        QuizSubmission quizSubmission = quizStateStore.getSubmission(quizId, username);
+        if (quizSubmission != null) {
+            return quizSubmission;
         }
         //return an empty quizSubmission if the maps contain no mapping for the keys
         return new QuizSubmission().submittedAnswers(new HashSet<>());
@@ -130,37 +212,52 @@ public class QuizScheduleService {
      * -> return null if there is no participation
      * -> return null if the quizId or if the username is null
      */
-    public static Participation getParticipation(Long quizId, String username) {
+    public Participation getParticipation(Long quizId, String username) {
         if (quizId == null || username == null) {
             return null;
         }
-        //check if the the map contains participations with the quizId
-        if (participationHashMap.containsKey(quizId)) {
-            //return the participation with the username-Key
-            return participationHashMap.get(quizId).get(username);
-        }
-        //return null if the maps contain no mapping for the keys
-        return null;
+        return quizStateStore.getParticipation(quizId, username);
     }
 
-    public QuizScheduleService(SimpMessageSendingOperations messagingTemplate,
-                               ParticipationRepository participationRepository,
+    public QuizScheduleService(ParticipationRepository participationRepository,
                                UserService userService,
                                QuizExerciseService quizExerciseService,
-                               StatisticService statisticService) {
-        this.messagingTemplate = messagingTemplate;
+                               StatisticService statisticService,
+                               QuizScoringService quizScoringService,
+                               ParticipationFanOutService participationFanOutService,
+                               RelevantParticipationService relevantParticipationService,
+                               LatestResultService latestResultService,
+                               QuizStateStore quizStateStore,
+                               MetricRegistry metricRegistry,
+                               PlatformTransactionManager transactionManager) {
         this.participationRepository = participationRepository;
         this.userService = userService;
         this.quizExerciseService = quizExerciseService;
         this.statisticService = statisticService;
+        this.quizScoringService = quizScoringService;
+        this.participationFanOutService = participationFanOutService;
+        this.relevantParticipationService = relevantParticipationService;
+        this.latestResultService = latestResultService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.quizStateStore = quizStateStore;
+        this.metricRegistry = metricRegistry;
+        this.pendingWorkTimer = metricRegistry.timer(MetricRegistry.name(QuizScheduleService.class, "tick", "pendingWork"));
+        this.createParticipationsTimer = metricRegistry.timer(MetricRegistry.name(QuizScheduleService.class, "tick", "createParticipations"));
+        this.updateStatisticsTimer = metricRegistry.timer(MetricRegistry.name(QuizScheduleService.class, "tick", "updateStatistics"));
+        this.quizEndTimer = metricRegistry.timer(MetricRegistry.name(QuizScheduleService.class, "quizEnd"));
     }
 
     /**
      * start scheduler
+     *
+     * The quiz start and end events are scheduled for the exact release and end date of each quiz.
+     * In between, a tick with the given delay processes submissions that were submitted before the end of the quiz
+     * and pending statistic updates. Ticks without pending work don't do anything.
      */
     public void startSchedule(long delayInMillis) {
         log.info("QuizScheduleService was started to run repeatedly with {} second gaps.", delayInMillis / 1000.0);
-        scheduledFuture = threadPoolTaskScheduler.scheduleWithFixedDelay(this::run, delayInMillis);
+        scheduledFuture = threadPoolTaskScheduler.scheduleWithFixedDelay(this::tick, delayInMillis);
+        quizStateStore.addQuizChangeListener(quizId -> persistenceExecutor.execute(() -> onQuizChangedOnOtherNode(quizId)));
 
         // schedule quiz start for all existing quizzes that are planned to start in the future
         List<QuizExercise> quizExercises = quizExerciseService.findAllPlannedToStartInTheFutureWithQuestions();
@@ -179,22 +276,94 @@ public class QuizScheduleService {
         for (Long quizId : quizStartSchedules.keySet()) {
             cancelScheduledQuizStart(quizId);
         }
+        for (Long quizId : quizEndSchedules.keySet()) {
+            cancelScheduledQuizEnd(quizId);
+        }
     }
 
+    /**
+     * (Re-)schedule the start and the end of the given quiz. Must be called whenever the quiz exercise changes
+     *
+     * @param quizExercise the changed quiz exercise
+     */
     public void scheduleQuizStart(final QuizExercise quizExercise) {
+        scheduleQuizStartOnThisNode(quizExercise);
+        quizStateStore.publishQuizChange(quizExercise.getId());
+    }
+
+    /**
+     * Reschedule the given quiz after it was changed on another node of the cluster
+     *
+     * @param quizId the id of the changed quiz
+     */
+    private void onQuizChangedOnOtherNode(Long quizId) {
+        try {
+            QuizExercise quizExercise = quizExerciseService.findOneWithQuestions(quizId);
+            if (quizExercise != null) {
+                scheduleQuizStartOnThisNode(quizExercise);
+            } else {
+                // the quiz was deleted
+                cancelScheduledQuizStart(quizId);
+                cancelScheduledQuizEnd(quizId);
+                liveQuizExercises.remove(quizId);
+                quizTimings.remove(quizId);
+                removePendingSubmissionsGauge(quizId);
+            }
+        } catch (Exception e) {
+            log.error("Exception while rescheduling quiz {}:\n{}", quizId, e.getMessage());
+        }
+    }
+
+    /**
+     * Every node schedules the start and the end of every quiz, but only the node that owns the quiz processes them.
+     * So if the owner leaves the cluster, the new owner is already prepared.
+     */
+    private void scheduleQuizStartOnThisNode(final QuizExercise quizExercise) {
         // first remove and cancel old scheduledFuture if it exists
         cancelScheduledQuizStart(quizExercise.getId());
+        // the quiz has changed => the cached version must not be used anymore
+        liveQuizExercises.remove(quizExercise.getId());
+        quizTimings.put(quizExercise.getId(), QuizTiming.of(quizExercise));
 
         if (quizExercise.isIsPlannedToStart() && quizExercise.getReleaseDate().isAfter(ZonedDateTime.now())) {
             // schedule sending out filtered quiz over websocket
             ScheduledFuture scheduledFuture = threadPoolTaskScheduler.schedule(
-                () -> quizExerciseService.sendQuizExerciseToSubscribedClients(quizExercise),
+                () -> {
+                    if (quizStateStore.isOwner(quizExercise.getId())) {
+                        websocketExecutor.execute(() -> quizExerciseService.sendQuizExerciseToSubscribedClients(quizExercise));
+                    }
+                },
                 Date.from(quizExercise.getReleaseDate().toInstant())
             );
 
             // save scheduled future in HashMap
             quizStartSchedules.put(quizExercise.getId(), scheduledFuture);
         }
+
+        scheduleQuizEnd(quizExercise);
+    }
+
+    /**
+     * Schedule the processing of the end of the given quiz for the exact point in time the quiz ends (including the grace period)
+     *
+     * @param quizExercise the quiz exercise
+     */
+    private void scheduleQuizEnd(final QuizExercise quizExercise) {
+        cancelScheduledQuizEnd(quizExercise.getId());
+
+        if (quizExercise.isIsPlannedToStart() && quizExercise.getReleaseDate() != null && quizExercise.getDuration() != null) {
+            final Long quizId = quizExercise.getId();
+            if (quizStateStore.isOwner(quizId)) {
+                registerPendingSubmissionsGauge(quizId);
+            }
+            ZonedDateTime endDate = quizExercise.getDueDate().plusSeconds(Constants.QUIZ_GRACE_PERIOD_IN_SECONDS);
+            // if the quiz has already ended, the event fires immediately
+            ScheduledFuture scheduledFuture = threadPoolTaskScheduler.schedule(
+                () -> persistenceExecutor.execute(() -> processQuizEnd(quizId)),
+                Date.from(endDate.toInstant())
+            );
+            quizEndSchedules.put(quizId, scheduledFuture);
+        }
     }
 
     public void cancelScheduledQuizStart(Long quizId) {
@@ -204,144 +373,288 @@ public class QuizScheduleService {
         }
     }
 
+    private void cancelScheduledQuizEnd(Long quizId) {
+        ScheduledFuture scheduledFuture = quizEndSchedules.remove(quizId);
+        if (scheduledFuture != null) {
+            scheduledFuture.cancel(false);
+        }
+    }
+
     public void clearQuizData(Long quizId) {
         // delete all participation, submission, and result hashmap entries that correspond to this quiz
-        participationHashMap.remove(quizId);
-        submissionHashMap.remove(quizId);
-        resultHashMap.remove(quizId);
+        cancelScheduledQuizEnd(quizId);
+        quizStateStore.clear(quizId);
+        liveQuizExercises.remove(quizId);
+        quizTimings.remove(quizId);
+        removePendingSubmissionsGauge(quizId);
+        quizStateStore.publishQuizChange(quizId);
+    }
+
+    /**
+     * Register the gauge "QuizScheduleService.pendingSubmissions.quiz-{id}" with the number of submissions of the given quiz
+     * that are not processed yet (cached, so that frequent reporting doesn't scan the quiz state store every time).
+     * Only registered on the node that owns the quiz and removed when the quiz ends
+     */
+    private void registerPendingSubmissionsGauge(Long quizId) {
+        if (quizzesWithPendingSubmissionsGauge.add(quizId)) {
+            metricRegistry.register(pendingSubmissionsGaugeName(quizId), new CachedGauge<Integer>(5, TimeUnit.SECONDS) {
+                @Override
+                protected Integer loadValue() {
+                    return quizStateStore.getSubmissions(quizId).size();
+                }
+            });
+        }
+    }
+
+    private void removePendingSubmissionsGauge(Long quizId) {
+        if (quizzesWithPendingSubmissionsGauge.remove(quizId)) {
+            metricRegistry.remove(pendingSubmissionsGaugeName(quizId));
+        }
+    }
+
+    private static String pendingSubmissionsGaugeName(Long quizId) {
+        return MetricRegistry.name(QuizScheduleService.class, "pendingSubmissions", "quiz-" + quizId);
     }
 
     /**
-     * 1. Check SubmissionHashMap for new submissions with “isSubmitted() == true”
-     * a. Process each Submission (set submissionType to “SubmissionType.MANUAL”) and create Participation and Result and save them to Database (DB Write)
+     * Hand pending work over to the persistence executor. Only in-memory checks happen here, so idle ticks are free
+     */
+    private void tick() {
+        if (quizStateStore.getQuizIdsWithSubmittedSubmissions().isEmpty() && quizStateStore.getQuizIdsWithResults().isEmpty()
+            && !hasSubmissionsForUnscheduledQuiz()) {
+            return;
+        }
+        if (pendingWorkScheduled.compareAndSet(false, true)) {
+            try {
+                persistenceExecutor.execute(this::processPendingWork);
+            } catch (Exception e) {
+                pendingWorkScheduled.set(false);
+                log.error("Could not schedule processing of quiz submissions: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return true if there are submissions for a quiz whose end is not scheduled (e.g. because the quiz was running when the server started
+     * or this node took over the quiz from another node)
+     */
+    private boolean hasSubmissionsForUnscheduledQuiz() {
+        for (Long quizId : quizStateStore.getQuizIdsWithSubmissions()) {
+            if (!quizEndSchedules.containsKey(quizId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 1. Schedule the end of quizzes that received submissions but whose end is not scheduled yet
+     * 2. Process submissions with “isSubmitted() == true”:
+     * a. set submissionType to “SubmissionType.MANUAL” and create Participation and Result and save them to Database (DB Write)
      * b. Remove processed Submissions from SubmissionHashMap and write Participation with Result into ParticipationHashMap and write Result into ResultHashMap
-     * 2. If Quiz has ended:
-     * a. Process all Submissions in SubmissionHashMap that belong to this quiz
-     * i. set “isSubmitted” to “true” and submissionType to “SubmissionType.TIMEOUT”
-     * ii. Create Participation and Result and save to Database (DB Write)
-     * iii. Remove processed Submissions from SubmissionHashMap and write Participations with Result into ParticipationHashMap and Results into ResultHashMap
-     * b. Send out Participations (including QuizExercise and Result) from ParticipationHashMap via WebSocket to each user and remove them from ParticipationHashMap (WebSocket Send)
      * 3. Update Statistics with Results from ResultHashMap (DB Read and DB Write) and remove from ResultHashMap
      * 4. Send out new Statistics over WebSocket (WebSocket Send)
      */
-    private void run() {
+    private void processPendingWork() {
+        pendingWorkScheduled.set(false);
+        final Timer.Context timerContext = pendingWorkTimer.time();
         // global try-catch for error logging
         try {
-            long start = System.currentTimeMillis();
 
-            //create Participations and Results if the submission was submitted or if the quiz has ended and save them to Database (DB Write)
-            for (long quizId : submissionHashMap.keySet()) {
-
-                QuizExercise quizExercise = quizExerciseService.findOneWithQuestions(quizId);
-                // check if quiz has been deleted
-                if (quizExercise == null) {
-                    submissionHashMap.remove(quizId);
-                    continue;
-                }
-
-                // if quiz has ended, all submissions will be processed => we can remove the inner HashMap for this quiz
-                // if quiz hasn't ended, some submissions (those that are not submitted) will stay in HashMap => keep inner HashMap
-                Map<String, QuizSubmission> submissions;
-                if (quizExercise.isEnded()) {
-                    submissions = submissionHashMap.remove(quizId);
-                } else {
-                    submissions = submissionHashMap.get(quizId);
+            for (Long quizId : quizStateStore.getQuizIdsWithSubmissions()) {
+                if (!quizEndSchedules.containsKey(quizId)) {
+                    QuizExercise quizExercise = quizExerciseService.findOne(quizId);
+                    // check if quiz has been deleted
+                    if (quizExercise == null) {
+                        clearQuizData(quizId);
+                        continue;
+                    }
+                    scheduleQuizEnd(quizExercise);
                 }
-
-                int num = createParticipations(quizExercise, submissions);
-
-                log.info("Processed {} submissions after {} ms in quiz {}", num, System.currentTimeMillis() - start, quizExercise.getTitle());
             }
 
-            // Send out Participations from ParticipationHashMap to each user if the quiz has ended
-            for (long quizId : participationHashMap.keySet()) {
+            //create Participations and Results for submitted submissions and save them to Database (DB Write)
+            for (Long quizId : quizStateStore.getQuizIdsWithSubmittedSubmissions()) {
+                quizStateStore.unmarkSubmitted(quizId);
 
-                // get the Quiz without the statistics and questions from the database
-                QuizExercise quizExercise = quizExerciseService.findOne(quizId);
+                QuizExercise quizExercise = getLiveQuizExercise(quizId);
                 // check if quiz has been deleted
                 if (quizExercise == null) {
-                    participationHashMap.remove(quizId);
+                    clearQuizData(quizId);
                     continue;
                 }
 
-                // check if the quiz has ended
-                if (quizExercise.isEnded()) {
-                    // send the participation with containing result and quiz back to the users via websocket
-                    //      and remove the participation from the ParticipationHashMap
-                    int counter = 0;
-                    for (Participation participation : participationHashMap.remove(quizId).values()) {
-                        if (participation.getStudent() == null || participation.getStudent().getLogin() == null) {
-                            log.error("Participation is missing student (or student is missing username): {}", participation);
-                            continue;
-                        }
-                        messagingTemplate.convertAndSendToUser(participation.getStudent().getLogin(), "/topic/quizExercise/" + quizId + "/participation", participation);
-                        counter++;
-                    }
-                    log.info("Sent out {} participations after {} ms for quiz {}", counter, System.currentTimeMillis() - start, quizExercise.getTitle());
-                }
+                final Timer.Context createParticipationsContext = createParticipationsTimer.time();
+                int num = createParticipations(quizExercise, false);
+                log.info("Processed {} submissions after {} ms in quiz {}", num, TimeUnit.NANOSECONDS.toMillis(createParticipationsContext.stop()), quizExercise.getTitle());
             }
 
             //Update Statistics with Results from ResultHashMap (DB Read and DB Write) and remove from ResultHashMap
-            for (long quizId : resultHashMap.keySet()) {
+            for (Long quizId : quizStateStore.getQuizIdsWithResults()) {
+                updateStatistics(quizId);
+            }
+        } catch (Exception e) {
+            log.error("Exception in Quiz Schedule:\n{}", e.getMessage());
+        } finally {
+            timerContext.stop();
+        }
+    }
 
-                // get the Quiz with the statistic from the database
-                QuizExercise quizExercise = quizExerciseService.findOneWithQuestionsAndStatistics(quizId);
-                // check if quiz has been deleted
-                if (quizExercise == null) {
-                    resultHashMap.remove(quizId);
-                    continue;
-                }
+    /**
+     * Process the end of the given quiz:
+     * 1. Process all Submissions in SubmissionHashMap that belong to this quiz
+     * i. set “isSubmitted” to “true” and submissionType to “SubmissionType.TIMEOUT” (if not submitted yet)
+     * ii. Create Participation and Result and save to Database (DB Write)
+     * 2. Send out Participations (including QuizExercise and Result) from ParticipationHashMap via WebSocket to each user (WebSocket Send)
+     * 3. Update Statistics with Results from ResultHashMap (DB Read and DB Write) and send them out over WebSocket
+     *
+     * @param quizId the id of the quiz that has ended
+     */
+    private void processQuizEnd(Long quizId) {
+        quizEndSchedules.remove(quizId);
+        liveQuizExercises.remove(quizId);
+        // the gauge is removed on every node, the ownership of the quiz could have changed while it was running
+        removePendingSubmissionsGauge(quizId);
+        if (!quizStateStore.isOwner(quizId)) {
+            // another node of the cluster processes this quiz
+            return;
+        }
+        final Timer.Context timerContext = quizEndTimer.time();
+        // global try-catch for error logging
+        try {
+            QuizExercise quizExercise = quizExerciseService.findOneWithQuestions(quizId);
+            // check if quiz has been deleted
+            if (quizExercise == null) {
+                clearQuizData(quizId);
+                return;
+            }
+            if (!quizExercise.isEnded()) {
+                // the quiz was changed in the meantime => wait for the new end
+                scheduleQuizEnd(quizExercise);
+                return;
+            }
 
-                // update statistic with all results of the quizExercise
-                try {
-                    statisticService.updateStatistics(resultHashMap.remove(quizId), quizExercise);
-                    log.info("Updated statistics after {} ms for quiz {}", System.currentTimeMillis() - start, quizExercise.getTitle());
-                } catch (Exception e) {
-                    log.error("Exception in StatisticService.updateStatistics():\n{}", e.getMessage());
-                }
+            // all submissions will be processed
+            quizStateStore.unmarkSubmitted(quizId);
+            final Timer.Context createParticipationsContext = createParticipationsTimer.time();
+            int num = createParticipations(quizExercise, true);
+            log.info("Processed {} submissions after {} ms in quiz {}", num, TimeUnit.NANOSECONDS.toMillis(createParticipationsContext.stop()), quizExercise.getTitle());
+
+            // send the participation with containing result and quiz back to the users via websocket
+            Map<String, Participation> participations = quizStateStore.removeParticipations(quizId);
+            if (!participations.isEmpty()) {
+                websocketExecutor.execute(() -> {
+                    int counter = participationFanOutService.sendParticipations(quizExercise, participations.values(), "/topic/quizExercise/" + quizId + "/participation");
+                    log.info("Sent out {} participations for quiz {}", counter, quizExercise.getTitle());
+                });
             }
+
+            updateStatistics(quizId);
+            quizStateStore.removeSubmittedUsers(quizId);
         } catch (Exception e) {
-            log.error("Exception in Quiz Schedule:\n{}", e.getMessage());
+            log.error("Exception while processing the end of quiz {}:\n{}", quizId, e.getMessage());
+        } finally {
+            timerContext.stop();
+        }
+    }
+
+    /**
+     * Update the statistics of the given quiz with the results from ResultHashMap (DB Read and DB Write) and remove them from ResultHashMap
+     *
+     * @param quizId the id of the quiz
+     */
+    private void updateStatistics(Long quizId) {
+        Set<Result> results = quizStateStore.removeResults(quizId);
+        if (results.isEmpty()) {
+            return;
+        }
+        final Timer.Context timerContext = updateStatisticsTimer.time();
+
+        // get the Quiz with the statistic from the database
+        QuizExercise quizExercise = quizExerciseService.findOneWithQuestionsAndStatistics(quizId);
+        // check if quiz has been deleted
+        if (quizExercise == null) {
+            timerContext.stop();
+            return;
+        }
+
+        // update statistic with all results of the quizExercise
+        try {
+            statisticService.updateStatistics(results, quizExercise);
+            log.info("Updated statistics after {} ms for quiz {}", TimeUnit.NANOSECONDS.toMillis(timerContext.stop()), quizExercise.getTitle());
+        } catch (Exception e) {
+            timerContext.stop();
+            log.error("Exception in StatisticService.updateStatistics():\n{}", e.getMessage());
         }
     }
 
+    /**
+     * Get the timing of the given quiz from the cache, or load the quiz if it is not cached yet
+     *
+     * @param quizId the id of the quiz
+     * @return the timing of the quiz, or null if the quiz doesn't exist
+     */
+    public QuizTiming getQuizTiming(Long quizId) {
+        return quizTimings.computeIfAbsent(quizId, id -> {
+            QuizExercise quizExercise = quizExerciseService.findOne(id);
+            return quizExercise != null ? QuizTiming.of(quizExercise) : null;
+        });
+    }
+
+    /**
+     * Get the running quiz with the given id (with questions) from the cache, or load it if it is not cached yet
+     *
+     * @param quizId the id of the quiz
+     * @return the quiz exercise, or null if it doesn't exist
+     */
+    private QuizExercise getLiveQuizExercise(Long quizId) {
+        return liveQuizExercises.computeIfAbsent(quizId, quizExerciseService::findOneWithQuestions);
+    }
+
     /**
      * check if the user submitted the submission or if the quiz has ended:
      * if true: -> Create Participation and Result and save to Database (DB Write)
      * Remove processed Submissions from SubmissionHashMap and write Participations with Result into ParticipationHashMap and Results into ResultHashMap
      *
-     * @param quizExercise      the quiz which should be checked
-     * @param userSubmissionMap a Map with all submissions for the given quizExercise mapped by the username
+     * @param quizExercise the quiz which should be checked
+     * @param quizEnded    true if the quiz has ended, i.e. all submissions have to be processed
      * @return the number of created participations
      */
-    private int createParticipations(QuizExercise quizExercise, Map<String, QuizSubmission> userSubmissionMap) {
+    private int createParticipations(QuizExercise quizExercise, boolean quizEnded) {
         int counter = 0;
 
-        for (String username : userSubmissionMap.keySet()) {
+        Map<String, QuizSubmission> userSubmissionMap = quizStateStore.getSubmissions(quizExercise.getId());
+        for (Map.Entry<String, QuizSubmission> entry : userSubmissionMap.entrySet()) {
+            String username = entry.getKey();
+            if (!entry.getValue().isSubmitted() && !quizEnded) {
+                continue;
+            }
             try {
+                // the removed submission is the latest one of the user (the snapshot might be outdated)
+                QuizSubmission quizSubmission = quizStateStore.removeSubmission(quizExercise.getId(), username);
+                if (quizSubmission == null) {
+                    continue;
+                }
                 // first case: the user submitted the quizSubmission
-                if (userSubmissionMap.get(username).isSubmitted()) {
-                    QuizSubmission quizSubmission = userSubmissionMap.remove(username);
+                if (quizSubmission.isSubmitted()) {
                     if (quizSubmission.getType() == null) {
                         quizSubmission.setType(SubmissionType.MANUAL);
                     }
-
-                    // Create Participation and Result and save to Database (DB Write)
-                    // Remove processed Submissions from SubmissionHashMap and write Participations with Result into ParticipationHashMap and Results into ResultHashMap
-                    createParticipationWithResultAndWriteItInHashMaps(quizExercise, username, quizSubmission);
-                    counter++;
                     // second case: the quiz has ended
-                } else if (quizExercise.isEnded()) {
-                    QuizSubmission quizSubmission = userSubmissionMap.remove(username);
+                } else if (quizEnded) {
                     quizSubmission.setSubmitted(true);
                     quizSubmission.setType(SubmissionType.TIMEOUT);
                     quizSubmission.setSubmissionDate(ZonedDateTime.now());
-
-                    // Create Participation and Result and save to Database (DB Write)
-                    // Remove processed Submissions from SubmissionHashMap and write Participations with Result into ParticipationHashMap and Results into ResultHashMap
-                    createParticipationWithResultAndWriteItInHashMaps(quizExercise, username, quizSubmission);
-                    counter++;
+                } else {
+                    // not submitted anymore => keep it until the user submits or the quiz ends
+                    quizStateStore.putSubmission(quizExercise.getId(), username, quizSubmission);
+                    continue;
                 }
+
+                // Create Participation and Result and save to Database (DB Write)
+                // Remove processed Submissions from SubmissionHashMap and write Participations with Result into ParticipationHashMap and Results into ResultHashMap
+                createParticipationWithResultAndWriteItInHashMaps(quizExercise, username, quizSubmission);
+                counter++;
             } catch (Exception e) {
                 log.error("Exception in createParticipations() for {} in quiz {}:\n{}", username, quizExercise.getId(), e.getMessage());
             }
@@ -361,9 +674,6 @@ public class QuizScheduleService {
 
         if (quizExercise != null && username != null && quizSubmission != null) {
 
-            // update submission with score
-            quizSubmission.calculateAndUpdateScores(quizExercise);
-
             //create and save new participation
             Participation participation = new Participation();
             Optional<User> user = userService.getUserByLogin(username);
@@ -380,21 +690,26 @@ public class QuizScheduleService {
             result.setSubmission(quizSubmission);
 
             // calculate scores and update result and submission accordingly
-            quizSubmission.calculateAndUpdateScores(quizExercise);
+            quizSubmission.calculateAndUpdateScores(quizScoringService.getCompiledQuiz(quizExercise));
             result.evaluateSubmission();
 
             // add result to participation
             participation.addResult(result);
             participation.setInitializationState(ParticipationState.FINISHED);
 
-            //save participation with result and quizSubmission
-            participationRepository.save(participation);
+            //save participation with result and quizSubmission, and the latest result references in the same transaction
+            transactionTemplate.execute(status -> {
+                participationRepository.save(participation);
+                latestResultService.onResultCreated(result);
+                return null;
+            });
+            relevantParticipationService.evict(participation);
 
             participation.setExercise(quizExercise);
             //add the participation to the participationHashMap for the send out at the end of the quiz
-            QuizScheduleService.addParticipation(quizExercise.getId(), participation);
+            addParticipation(quizExercise.getId(), participation);
             //add the result of the participation resultHashMap for the statistic-Update
-            QuizScheduleService.addResultToStatistic(quizExercise.getId(), result);
+            addResultToStatistic(quizExercise.getId(), result);
 
             return participation;
         }
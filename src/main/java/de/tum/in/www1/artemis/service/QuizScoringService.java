@@ -0,0 +1,78 @@
+package de.tum.in.www1.artemis.service;
+
+import de.tum.in.www1.artemis.domain.QuizExercise;
+import de.tum.in.www1.artemis.domain.scoring.CompiledQuiz;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the compiled representation of quiz exercises (see {@link CompiledQuiz}), so that a quiz is compiled only once
+ * per version, no matter how many submissions are scored.
+ * Every change of a quiz exercise must evict its compiled quiz (see QuizExerciseService.save), the eviction is
+ * propagated to the other nodes of the cluster.
+ */
+@Service
+public class QuizScoringService {
+
+    private final Logger log = LoggerFactory.getLogger(QuizScoringService.class);
+
+    private static final String EVICTION_TOPIC = "compiled-quiz-eviction";
+
+    private final ClusterEventService clusterEventService;
+
+    private final Map<Long, CompiledQuiz> compiledQuizzes = new ConcurrentHashMap<>();
+
+    public QuizScoringService(ClusterEventService clusterEventService) {
+        this.clusterEventService = clusterEventService;
+        clusterEventService.<Long>addListener(EVICTION_TOPIC, compiledQuizzes::remove);
+    }
+
+    /**
+     * Get the compiled quiz for the given quiz exercise (compiles the quiz exercise, if it is not cached yet)
+     *
+     * @param quizExercise the quiz exercise with loaded questions
+     * @return the compiled quiz
+     */
+    public CompiledQuiz getCompiledQuiz(QuizExercise quizExercise) {
+        if (quizExercise.getId() == null) {
+            // unsaved quizzes cannot be cached
+            return CompiledQuiz.compile(quizExercise);
+        }
+        return compiledQuizzes.computeIfAbsent(quizExercise.getId(), quizId -> {
+            log.debug("Compiling quiz exercise {} for scoring", quizId);
+            return CompiledQuiz.compile(quizExercise);
+        });
+    }
+
+    /**
+     * Remove the compiled quiz for the given quiz exercise id on all nodes. Must be called whenever the quiz exercise
+     * changes. Within a transaction, the compiled quiz is removed again after the commit, because a concurrent reader
+     * could have compiled and cached the old state of the quiz in the meantime.
+     *
+     * @param quizExerciseId the id of the changed quiz exercise
+     */
+    public void evict(Long quizExerciseId) {
+        if (quizExerciseId == null) {
+            return;
+        }
+        compiledQuizzes.remove(quizExerciseId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    compiledQuizzes.remove(quizExerciseId);
+                    clusterEventService.publish(EVICTION_TOPIC, quizExerciseId);
+                }
+            });
+        }
+        else {
+            clusterEventService.publish(EVICTION_TOPIC, quizExerciseId);
+        }
+    }
+}
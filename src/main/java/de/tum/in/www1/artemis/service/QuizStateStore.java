@@ -0,0 +1,123 @@
+package de.tum.in.www1.artemis.service;
+
+import de.tum.in.www1.artemis.domain.Participation;
+import de.tum.in.www1.artemis.domain.QuizSubmission;
+import de.tum.in.www1.artemis.domain.Result;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Holds the state of running quizzes (submissions, participations and results that are not processed yet).
+ *
+ * By default the state lives in the memory of this server (LocalQuizStateStore). With the profile "cluster", it is
+ * partitioned by quiz id across all nodes (HazelcastQuizStateStore) and exactly one node is responsible for each quiz.
+ */
+public interface QuizStateStore {
+
+    void putSubmission(Long quizId, String username, QuizSubmission quizSubmission);
+
+    QuizSubmission getSubmission(Long quizId, String username);
+
+    /**
+     * @param quizId the id of the quiz
+     * @return a snapshot of all submissions of the given quiz by username
+     */
+    Map<String, QuizSubmission> getSubmissions(Long quizId);
+
+    /**
+     * Remove the submission of the given user, only one caller gets the submission if it is removed concurrently
+     *
+     * @return the removed submission, or null if there was none
+     */
+    QuizSubmission removeSubmission(Long quizId, String username);
+
+    /**
+     * @return the ids of the quizzes this node is responsible for that have submissions
+     */
+    Set<Long> getQuizIdsWithSubmissions();
+
+    /**
+     * Remember that the given quiz has submissions that were submitted by the user before the end of the quiz
+     */
+    void markSubmitted(Long quizId);
+
+    void unmarkSubmitted(Long quizId);
+
+    /**
+     * @return the ids of the quizzes this node is responsible for that have submissions submitted by the user
+     */
+    Set<Long> getQuizIdsWithSubmittedSubmissions();
+
+    /**
+     * Remember that the given user has submitted in the given quiz, further submissions of the user are rejected
+     */
+    void markUserSubmitted(Long quizId, String username);
+
+    /**
+     * Must be cheap, it is checked for every submission that is saved. Only complete if hasSubmittedUsers(quizId) is true
+     *
+     * @return true if the given user has already submitted in the given quiz
+     */
+    boolean hasUserSubmitted(Long quizId, String username);
+
+    /**
+     * Remember the given users as submitted in the given quiz (e.g. loaded from the database) and that the submitted
+     * users of the quiz are complete from now on
+     */
+    void putSubmittedUsers(Long quizId, Collection<String> usernames);
+
+    /**
+     * @return true if the submitted users of the given quiz have been put into this store (see putSubmittedUsers), false
+     * e.g. after a restart or before the first submission of the quiz on this node
+     */
+    boolean hasSubmittedUsers(Long quizId);
+
+    /**
+     * Forget the submitted users of the given quiz (once the quiz has ended, all submissions are rejected anyway)
+     */
+    void removeSubmittedUsers(Long quizId);
+
+    void putParticipation(Long quizId, String username, Participation participation);
+
+    Participation getParticipation(Long quizId, String username);
+
+    /**
+     * @return all participations of the given quiz by username, they are removed from the store
+     */
+    Map<String, Participation> removeParticipations(Long quizId);
+
+    void addResult(Long quizId, Result result);
+
+    /**
+     * @return all results of the given quiz, they are removed from the store
+     */
+    Set<Result> removeResults(Long quizId);
+
+    /**
+     * @return the ids of the quizzes this node is responsible for that have results
+     */
+    Set<Long> getQuizIdsWithResults();
+
+    /**
+     * Remove all submissions, participations, results and submitted users of the given quiz
+     */
+    void clear(Long quizId);
+
+    /**
+     * @return true if this node is responsible for starting and ending the given quiz
+     */
+    boolean isOwner(Long quizId);
+
+    /**
+     * Notify the other nodes that the given quiz was changed, so that they can reschedule it
+     */
+    void publishQuizChange(Long quizId);
+
+    /**
+     * Register a listener that is called with the quiz id when a quiz was changed on another node
+     */
+    void addQuizChangeListener(Consumer<Long> listener);
+}
@@ -6,7 +6,6 @@ import de.tum.in.www1.artemis.domain.QuizSubmission;
 import de.tum.in.www1.artemis.domain.Result;
 import de.tum.in.www1.artemis.domain.enumeration.SubmissionType;
 import de.tum.in.www1.artemis.repository.QuizSubmissionRepository;
-import de.tum.in.www1.artemis.repository.ResultRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,12 +17,18 @@ import java.util.List;
 public class QuizSubmissionService {
 
     private final QuizSubmissionRepository quizSubmissionRepository;
-    private final ResultRepository resultRepository;
+    private final RelevantParticipationService relevantParticipationService;
+    private final LatestResultService latestResultService;
+    private final QuizStateStore quizStateStore;
 
     public QuizSubmissionService(QuizSubmissionRepository quizSubmissionRepository,
-                                 ResultRepository resultRepository) {
+                                 RelevantParticipationService relevantParticipationService,
+                                 LatestResultService latestResultService,
+                                 QuizStateStore quizStateStore) {
         this.quizSubmissionRepository = quizSubmissionRepository;
-        this.resultRepository = resultRepository;
+        this.relevantParticipationService = relevantParticipationService;
+        this.latestResultService = latestResultService;
+        this.quizStateStore = quizStateStore;
     }
 
     @Transactional(readOnly = true)
@@ -65,12 +70,13 @@ public class QuizSubmissionService {
         // calculate score and update result accordingly
         result.evaluateSubmission();
         // save result
-        resultRepository.save(result);
+        latestResultService.saveNewResult(result);
+        relevantParticipationService.evict(participation);
         // replace proxy with submission, because of Lazy-fetching
         result.setSubmission(quizSubmission);
 
         // add result to statistics
-        QuizScheduleService.addResultToStatistic(quizExercise.getId(), result);
+        quizStateStore.addResult(quizExercise.getId(), result);
 
         return result;
     }
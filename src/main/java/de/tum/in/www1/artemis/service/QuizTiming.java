@@ -0,0 +1,62 @@
+package de.tum.in.www1.artemis.service;
+
+import de.tum.in.www1.artemis.config.Constants;
+import de.tum.in.www1.artemis.domain.QuizExercise;
+
+import java.time.Instant;
+
+/**
+ * Immutable snapshot of the timing of a quiz exercise, so that incoming submissions can be checked without loading the quiz.
+ *
+ * A snapshot has to be replaced whenever the quiz changes (see QuizScheduleService.scheduleQuizStart).
+ */
+public final class QuizTiming {
+
+    private final Long quizId;
+
+    /**
+     * null if the quiz is not planned to start
+     */
+    private final Instant releaseDate;
+
+    /**
+     * the end of the quiz including the grace period, null if the quiz is not planned to start
+     */
+    private final Instant endOfSubmissions;
+
+    private QuizTiming(Long quizId, Instant releaseDate, Instant endOfSubmissions) {
+        this.quizId = quizId;
+        this.releaseDate = releaseDate;
+        this.endOfSubmissions = endOfSubmissions;
+    }
+
+    public static QuizTiming of(QuizExercise quizExercise) {
+        if (!Boolean.TRUE.equals(quizExercise.isIsPlannedToStart()) || quizExercise.getReleaseDate() == null || quizExercise.getDuration() == null) {
+            return new QuizTiming(quizExercise.getId(), null, null);
+        }
+        Instant releaseDate = quizExercise.getReleaseDate().toInstant();
+        return new QuizTiming(quizExercise.getId(), releaseDate, releaseDate.plusSeconds(quizExercise.getDuration() + Constants.QUIZ_GRACE_PERIOD_IN_SECONDS));
+    }
+
+    public Long getQuizId() {
+        return quizId;
+    }
+
+    /**
+     * Same as QuizExercise.isSubmissionAllowed(), but without loading the quiz
+     *
+     * @param now the current time
+     * @return true if submissions for the quiz are allowed at the given time
+     */
+    public boolean isSubmissionAllowed(Instant now) {
+        return releaseDate != null && now.isAfter(releaseDate) && now.isBefore(endOfSubmissions);
+    }
+
+    /**
+     * @param now the current time
+     * @return true if the quiz (including the grace period) has ended at the given time
+     */
+    public boolean isEnded(Instant now) {
+        return endOfSubmissions != null && !now.isBefore(endOfSubmissions);
+    }
+}
@@ -0,0 +1,274 @@
+package de.tum.in.www1.artemis.service;
+
+import de.tum.in.www1.artemis.domain.Exercise;
+import de.tum.in.www1.artemis.domain.Participation;
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.domain.enumeration.AssessmentType;
+import de.tum.in.www1.artemis.domain.enumeration.ParticipationState;
+import de.tum.in.www1.artemis.repository.ParticipationRepository;
+import de.tum.in.www1.artemis.service.LatestResultService.LatestResults;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node-wide cache of the participations of the users (with their latest results), indexed by exercise id, used for the
+ * course dashboard. The entries are evicted on this node when a participation or result of the user changes, and expire after
+ * a short time, so that changes on other nodes become visible.
+ *
+ * Only the ids and the state of the participations and results are cached, every request gets its own participation and
+ * result objects, so that the cached entries are neither shared between requests nor attached to a persistence context.
+ */
+@Service
+public class RelevantParticipationService {
+
+    private final Logger log = LoggerFactory.getLogger(RelevantParticipationService.class);
+
+    @Value("${artemis.relevant-participations.ttl-seconds:30}")
+    private long TTL_SECONDS;
+
+    private final ParticipationRepository participationRepository;
+    private final LatestResultService latestResultService;
+
+    private final Map<String, RelevantParticipations> participationsByUser = new ConcurrentHashMap<>();
+
+    public RelevantParticipationService(ParticipationRepository participationRepository, LatestResultService latestResultService) {
+        this.participationRepository = participationRepository;
+        this.latestResultService = latestResultService;
+    }
+
+    /**
+     * Get the participations with their latest results of the user with the given login, loads them from the database
+     * if they are not cached or the cached entry has expired
+     *
+     * @param username the login of the user
+     * @return the participations of the user, indexed by exercise id
+     */
+    public RelevantParticipations getRelevantParticipations(String username) {
+        RelevantParticipations participations = participationsByUser.get(username);
+        if (participations != null && !participations.isExpired()) {
+            return participations;
+        }
+        List<Participation> userParticipations = participationRepository.findByStudentLogin(username);
+        participations = new RelevantParticipations(userParticipations, latestResultService.findLatestResults(userParticipations),
+            System.nanoTime() + TimeUnit.SECONDS.toNanos(TTL_SECONDS));
+        participationsByUser.put(username, participations);
+        return participations;
+    }
+
+    /**
+     * Evict the participations of the student of the given participation, e.g. after the participation or one of its
+     * results has changed. Inside a transaction, the participations are evicted again after the commit, so that a
+     * concurrent request does not cache the state before the commit. If the student is not known (e.g. for a
+     * participation from a request body), the participations of all users are evicted.
+     *
+     * @param participation the changed participation
+     */
+    public void evict(Participation participation) {
+        if (participation == null) {
+            return;
+        }
+        if (participation.getStudent() != null && participation.getStudent().getLogin() != null) {
+            evict(participation.getStudent().getLogin());
+        } else {
+            evictAll();
+        }
+    }
+
+    /**
+     * Evict the participations of the user with the given login, also after the commit of the current transaction
+     *
+     * @param username the login of the user
+     */
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        participationsByUser.remove(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    participationsByUser.remove(username);
+                }
+            });
+        }
+    }
+
+    /**
+     * Evict the participations of all users, e.g. after the participations of an exercise have been changed in bulk
+     */
+    public void evictAll() {
+        participationsByUser.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    participationsByUser.clear();
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void removeExpiredParticipations() {
+        int size = participationsByUser.size();
+        participationsByUser.values().removeIf(RelevantParticipations::isExpired);
+        log.debug("Removed {} expired users from the relevant participation cache", size - participationsByUser.size());
+    }
+
+    /**
+     * Immutable snapshot of the participations of a user and their latest results, grouped by exercise id
+     */
+    public static final class RelevantParticipations {
+
+        private final Map<Long, List<ParticipationSnapshot>> participationsByExerciseId = new HashMap<>();
+        private final Map<Long, ParticipationSnapshot> participationsById = new HashMap<>();
+        private final long expiresAt;
+
+        private RelevantParticipations(List<Participation> participations, Map<Long, LatestResults> latestResults, long expiresAt) {
+            for (Participation participation : participations) {
+                if (participation.getExercise() != null) {
+                    ParticipationSnapshot snapshot = new ParticipationSnapshot(participation, latestResults.get(participation.getId()));
+                    participationsByExerciseId.computeIfAbsent(participation.getExercise().getId(), id -> new ArrayList<>()).add(snapshot);
+                    participationsById.put(participation.getId(), snapshot);
+                }
+            }
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * Find the relevant participation of the user in the given exercise (see Exercise.findRelevantParticipation)
+         *
+         * @param exercise the exercise to find the participation for
+         * @param student  the user whose participations these are
+         * @return a new participation object of the relevant participation or null, if the user has no relevant participation in the exercise
+         */
+        public Participation findRelevantParticipation(Exercise exercise, User student) {
+            List<ParticipationSnapshot> snapshots = participationsByExerciseId.get(exercise.getId());
+            if (snapshots == null) {
+                return null;
+            }
+            List<Participation> participations = new ArrayList<>(snapshots.size());
+            for (ParticipationSnapshot snapshot : snapshots) {
+                participations.add(snapshot.toParticipation(exercise, student));
+            }
+            return exercise.findRelevantParticipation(participations);
+        }
+
+        /**
+         * Find the latest relevant result of the given participation of the user
+         *
+         * @param exercise      the exercise of the participation
+         * @param participation the participation, e.g. the relevant participation of the exercise
+         * @return a new result object of the latest relevant result or null, if there is none
+         */
+        public Result findLatestRelevantResult(Exercise exercise, Participation participation) {
+            ParticipationSnapshot snapshot = participation.getId() != null ? participationsById.get(participation.getId()) : null;
+            if (snapshot == null) {
+                return null;
+            }
+            return exercise.findLatestRelevantResult(toResult(snapshot.latestRatedResult), toResult(snapshot.latestUnratedResult));
+        }
+
+        private static Result toResult(ResultSnapshot snapshot) {
+            return snapshot != null ? snapshot.toResult() : null;
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
+
+    /**
+     * The columns of a participation that are shown on the dashboard
+     */
+    private static final class ParticipationSnapshot {
+
+        private final Long id;
+        private final String repositoryUrl;
+        private final String buildPlanId;
+        private final ParticipationState initializationState;
+        private final ZonedDateTime initializationDate;
+        private final ResultSnapshot latestRatedResult;
+        private final ResultSnapshot latestUnratedResult;
+
+        private ParticipationSnapshot(Participation participation, LatestResults latestResults) {
+            this.id = participation.getId();
+            this.repositoryUrl = participation.getRepositoryUrl();
+            this.buildPlanId = participation.getBuildPlanId();
+            this.initializationState = participation.getInitializationState();
+            this.initializationDate = participation.getInitializationDate();
+            this.latestRatedResult = latestResults != null ? toSnapshot(latestResults.getLatestRatedResult()) : null;
+            this.latestUnratedResult = latestResults != null ? toSnapshot(latestResults.getLatestUnratedResult()) : null;
+        }
+
+        private Participation toParticipation(Exercise exercise, User student) {
+            Participation participation = new Participation()
+                .repositoryUrl(repositoryUrl)
+                .buildPlanId(buildPlanId)
+                .initializationState(initializationState)
+                .initializationDate(initializationDate)
+                .exercise(exercise)
+                .student(student);
+            participation.setId(id);
+            return participation;
+        }
+
+        private static ResultSnapshot toSnapshot(Result result) {
+            return result != null ? new ResultSnapshot(result) : null;
+        }
+    }
+
+    /**
+     * The columns of a result that are shown on the dashboard
+     */
+    private static final class ResultSnapshot {
+
+        private final Long id;
+        private final String resultString;
+        private final ZonedDateTime completionDate;
+        private final Boolean successful;
+        private final Boolean buildArtifact;
+        private final Long score;
+        private final Boolean rated;
+        private final Boolean hasFeedback;
+        private final AssessmentType assessmentType;
+
+        private ResultSnapshot(Result result) {
+            this.id = result.getId();
+            this.resultString = result.getResultString();
+            this.completionDate = result.getCompletionDate();
+            this.successful = result.isSuccessful();
+            this.buildArtifact = result.isBuildArtifact();
+            this.score = result.getScore();
+            this.rated = result.isRated();
+            this.hasFeedback = result.getHasFeedback();
+            this.assessmentType = result.getAssessmentType();
+        }
+
+        private Result toResult() {
+            Result result = new Result();
+            result.setId(id);
+            result.setResultString(resultString);
+            result.setCompletionDate(completionDate);
+            result.setSuccessful(successful);
+            result.setBuildArtifact(buildArtifact);
+            result.setScore(score);
+            result.setRated(rated);
+            result.setHasFeedback(hasFeedback);
+            result.setAssessmentType(assessmentType);
+            return result;
+        }
+    }
+}
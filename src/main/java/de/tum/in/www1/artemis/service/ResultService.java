@@ -23,12 +23,15 @@ public class ResultService {
     private final Optional<ContinuousIntegrationService> continuousIntegrationService;
     private final LtiService ltiService;
     private final SimpMessageSendingOperations messagingTemplate;
+    private final BuildStatusCacheService buildStatusCacheService;
 
-    public ResultService(ResultRepository resultRepository, Optional<ContinuousIntegrationService> continuousIntegrationService, LtiService ltiService, SimpMessageSendingOperations messagingTemplate) {
+    public ResultService(ResultRepository resultRepository, Optional<ContinuousIntegrationService> continuousIntegrationService, LtiService ltiService, SimpMessageSendingOperations messagingTemplate,
+                         BuildStatusCacheService buildStatusCacheService) {
         this.resultRepository = resultRepository;
         this.continuousIntegrationService = continuousIntegrationService;
         this.ltiService = ltiService;
         this.messagingTemplate = messagingTemplate;
+        this.buildStatusCacheService = buildStatusCacheService;
     }
 
     /**
@@ -40,6 +43,8 @@ public class ResultService {
     public void onResultNotified(Participation participation) {
         log.debug("Received new build result for participation " + participation.getId());
         Long start = System.currentTimeMillis();
+        // the notification is sent at the end of the build, so the build status changes without asking the CI system
+        buildStatusCacheService.onBuildCompleted(participation);
         // fetches the new build result
         Result result = continuousIntegrationService.get().onBuildCompleted(participation);
         if (result != null) {
@@ -6,6 +6,7 @@ import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.Set;
 
 /**
@@ -15,20 +16,17 @@ import java.util.Set;
 public class StatisticService {
 
     private final SimpMessageSendingOperations messagingTemplate;
-    private final ParticipationRepository participationRepository;
     private final ResultRepository resultRepository;
     private final QuizSubmissionRepository quizSubmissionRepository;
     private final QuizPointStatisticRepository quizPointStatisticRepository;
     private final QuestionStatisticRepository questionStatisticRepository;
 
     public StatisticService(SimpMessageSendingOperations messagingTemplate,
-                            ParticipationRepository participationRepository,
                             ResultRepository resultRepository,
                             QuizSubmissionRepository quizSubmissionRepository,
                             QuizPointStatisticRepository quizPointStatisticRepository,
                             QuestionStatisticRepository questionStatisticRepository) {
         this.messagingTemplate = messagingTemplate;
-        this.participationRepository = participationRepository;
         this.resultRepository = resultRepository;
         this.quizSubmissionRepository = quizSubmissionRepository;
         this.quizPointStatisticRepository = quizPointStatisticRepository;
@@ -51,12 +49,12 @@ public class StatisticService {
     }
 
     /**
-     * 1. Go through all Results in the Participation and recalculate the score
-     * 2. recalculate the statistics of the given quizExercise
+     * Rebuild the statistics of the given quizExercise from scratch after a re-evaluation
      *
-     * @param quizExercise the changed QuizExercise object which will be used to recalculate the existing Results and Statistics
+     * @param quizExercise  the changed QuizExercise object whose statistics will be recalculated
+     * @param latestResults the latest rated and the latest unrated Result of every participation (see QuizReEvaluationService)
      */
-    public void updateStatisticsAfterReEvaluation(QuizExercise quizExercise){
+    public void updateStatisticsAfterReEvaluation(QuizExercise quizExercise, Collection<Result> latestResults) {
 
         //reset all statistics
         quizExercise.getQuizPointStatistic().resetStatistic();
@@ -66,29 +64,11 @@ public class StatisticService {
             }
         }
 
-        // update the Results in every participation of the given quizExercise
-        for (Participation participation : participationRepository.findByExerciseId(quizExercise.getId())) {
-
-            Result latestRatedResult = null;
-            Result latestUnratedResult = null;
-
-            // update all Results of a participation
-            for (Result result : resultRepository.findByParticipationIdOrderByCompletionDateDesc(participation.getId())) {
-
-                // find latest rated Result
-                if (result.isRated() && (latestRatedResult == null || latestRatedResult.getCompletionDate().isBefore(result.getCompletionDate()))) {
-                    latestRatedResult = result;
-                }
-                // find latest unrated Result
-                if (!result.isRated() && (latestUnratedResult == null || latestUnratedResult.getCompletionDate().isBefore(result.getCompletionDate()))) {
-                    latestUnratedResult = result;
-                }
-            }
-            // update statistics with latest rated und unrated Result
-            this.addResultToAllStatistics(quizExercise, latestRatedResult);
-            this.addResultToAllStatistics(quizExercise, latestUnratedResult);
-
+        // update statistics with the latest rated und unrated Result of every participation
+        for (Result result : latestResults) {
+            this.addResultToAllStatistics(quizExercise, result);
         }
+
         //save changed Statistics
         quizPointStatisticRepository.save(quizExercise.getQuizPointStatistic());
         for (Question question : quizExercise.getQuestions()) {
@@ -135,24 +115,15 @@ public class StatisticService {
     }
 
     /**
-     * Go through all Results in the Participation and return the latest one before the new Result,
+     * Get the latest Result of the Participation before the new Result, with the same rated flag as the new Result
+     * (a single row of the index on participation and completion date)
      *
      * @param newResult the new result object which will replace the old Result in the Statistics
      * @return the previous Result, which is presented in the Statistics (null if where is no previous Result)
      */
     private Result getPreviousResult(Result newResult) {
-        Result oldResult = null;
-
-        for (Result result : resultRepository.findByParticipationIdOrderByCompletionDateDesc(newResult.getParticipation().getId())) {
-            //find the latest Result, which is presented in the Statistics
-            if (result.isRated() == newResult.isRated()
-                && result.getCompletionDate().isBefore(newResult.getCompletionDate())
-                && !result.equals(newResult)
-                && (oldResult == null || result.getCompletionDate().isAfter(oldResult.getCompletionDate()))) {
-                oldResult = result;
-            }
-        }
-        return oldResult;
+        return resultRepository.findFirstByParticipationIdAndRatedAndCompletionDateBeforeOrderByCompletionDateDesc(
+            newResult.getParticipation().getId(), Boolean.TRUE.equals(newResult.isRated()), newResult.getCompletionDate()).orElse(null);
     }
 
     /**
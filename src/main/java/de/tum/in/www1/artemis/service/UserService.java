@@ -22,6 +22,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -49,11 +51,16 @@ public class UserService {
 
     private final CacheManager cacheManager;
 
-    public UserService(UserRepository userRepository, PersistentTokenRepository persistentTokenRepository, AuthorityRepository authorityRepository, CacheManager cacheManager) {
+    private final PrincipalCacheService principalCacheService;
+
+    private static final String CURRENT_USER_REQUEST_ATTRIBUTE = UserService.class.getName() + ".currentUser";
+
+    public UserService(UserRepository userRepository, PersistentTokenRepository persistentTokenRepository, AuthorityRepository authorityRepository, CacheManager cacheManager, PrincipalCacheService principalCacheService) {
         this.userRepository = userRepository;
         this.persistentTokenRepository = persistentTokenRepository;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.principalCacheService = principalCacheService;
     }
 
     private PBEPasswordEncoder passwordEncoder;
@@ -89,7 +96,7 @@ public class UserService {
                 // activate given user for the registration key.
                 user.setActivated(true);
                 user.setActivationKey(null);
-                cacheManager.getCache(UserRepository.USERS_CACHE).evict(user.getLogin());
+                evictUserCaches(user.getLogin());
                 log.debug("Activated user: {}", user);
                 return user;
             });
@@ -104,7 +111,7 @@ public class UserService {
                 user.setPassword(passwordEncoder().encode(newPassword));
                 user.setResetKey(null);
                 user.setResetDate(null);
-                cacheManager.getCache(UserRepository.USERS_CACHE).evict(user.getLogin());
+                evictUserCaches(user.getLogin());
                 return user;
            });
     }
@@ -115,7 +122,7 @@ public class UserService {
             .map(user -> {
                 user.setResetKey(RandomUtil.generateResetKey());
                 user.setResetDate(Instant.now());
-                cacheManager.getCache(UserRepository.USERS_CACHE).evict(user.getLogin());
+                evictUserCaches(user.getLogin());
                 return user;
             });
     }
@@ -215,7 +222,7 @@ public class UserService {
             user.setEmail(email);
             user.setLangKey(langKey);
             user.setImageUrl(imageUrl);
-            cacheManager.getCache(UserRepository.USERS_CACHE).evict(user.getLogin());
+            evictUserCaches(user.getLogin());
             log.debug("Changed Information for User: {}", user);
         });
     }
@@ -242,7 +249,7 @@ public class UserService {
                 userDTO.getAuthorities().stream()
                     .map(authorityRepository::findOne)
                     .forEach(managedAuthorities::add);
-                cacheManager.getCache(UserRepository.USERS_CACHE).evict(user.getLogin());
+                evictUserCaches(user.getLogin());
                 log.debug("Changed Information for User: {}", user);
                 return user;
             })
@@ -252,7 +259,7 @@ public class UserService {
     public void deleteUser(String login) {
         userRepository.findOneByLogin(login).ifPresent(user -> {
             userRepository.delete(user);
-            cacheManager.getCache(UserRepository.USERS_CACHE).evict(login);
+            evictUserCaches(login);
             log.debug("Deleted User: {}", user);
         });
     }
@@ -261,7 +268,7 @@ public class UserService {
         userRepository.findOneByLogin(SecurityUtils.getCurrentUserLogin()).ifPresent(user -> {
             String encryptedPassword = passwordEncoder().encode(password);
             user.setPassword(encryptedPassword);
-            cacheManager.getCache(UserRepository.USERS_CACHE).evict(user.getLogin());
+            evictUserCaches(user.getLogin());
             log.debug("Changed password for User: {}", user);
         });
     }
@@ -331,14 +338,40 @@ public class UserService {
         return user;
     }
 
+    /**
+     * Get the current user with groups and authorities. The user is loaded at most once per HTTP request.
+     *
+     * @return the current user
+     */
     @Transactional(readOnly = true)
     public User getUserWithGroupsAndAuthorities() {
-        User user = userRepository.findOneByLogin(SecurityUtils.getCurrentUserLogin()).get();
+        String login = SecurityUtils.getCurrentUserLogin();
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            Object currentUser = requestAttributes.getAttribute(CURRENT_USER_REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (currentUser instanceof User && ((User) currentUser).getLogin().equals(login)) {
+                return (User) currentUser;
+            }
+        }
+        User user = userRepository.findOneByLogin(login).get();
         user.getGroups().size(); // eagerly load the association
         user.getAuthorities().size(); // eagerly load the association
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(CURRENT_USER_REQUEST_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
         return user;
     }
 
+    /**
+     * Evict the user from the users cache of the repository and from the principal cache
+     *
+     * @param login the login of the user
+     */
+    public void evictUserCaches(String login) {
+        cacheManager.getCache(UserRepository.USERS_CACHE).evict(login);
+        principalCacheService.evict(login);
+    }
+
     /**
      * Persistent Token are used for providing automatic authentication, they should be automatically deleted after
      * 30 days.
@@ -367,7 +400,7 @@ public class UserService {
         for (User user : users) {
             log.debug("Deleting not activated user {}", user.getLogin());
             userRepository.delete(user);
-            cacheManager.getCache(UserRepository.USERS_CACHE).evict(user.getLogin());
+            evictUserCaches(user.getLogin());
         }
     }
 
@@ -0,0 +1,104 @@
+package de.tum.in.www1.artemis.service;
+
+import com.google.common.util.concurrent.RateLimiter;
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Provisions all users of a course on the version control system ahead of the first programming exercise, so that
+ * starting an exercise only has to give the user permissions on the new repository.
+ *
+ * The users are provisioned by a worker pool with PARALLELISM threads, the requests to the version control system are
+ * limited to a configurable rate per second. Users that are already provisioned on this node are skipped by the
+ * provisioning cache of the version control service.
+ */
+@Service
+public class VersionControlProvisioningService {
+
+    private final Logger log = LoggerFactory.getLogger(VersionControlProvisioningService.class);
+
+    @Value("${artemis.provisioning.parallelism:4}")
+    private int PARALLELISM;
+
+    @Value("${artemis.provisioning.version-control-requests-per-second:5}")
+    private double VERSION_CONTROL_REQUESTS_PER_SECOND;
+
+    private final UserRepository userRepository;
+    private final Optional<VersionControlService> versionControlService;
+
+    private final BackgroundJobService backgroundJobService;
+
+    private ExecutorService provisioningExecutor;
+    private RateLimiter versionControlRateLimiter;
+
+    public VersionControlProvisioningService(UserRepository userRepository, Optional<VersionControlService> versionControlService,
+                                             BackgroundJobService backgroundJobService) {
+        this.userRepository = userRepository;
+        this.versionControlService = versionControlService;
+        this.backgroundJobService = backgroundJobService;
+    }
+
+    @PostConstruct
+    public void init() {
+        provisioningExecutor = backgroundJobService.newWorkerPool("version-control-provisioning-", PARALLELISM);
+        versionControlRateLimiter = RateLimiter.create(VERSION_CONTROL_REQUESTS_PER_SECOND);
+    }
+
+    /**
+     * Provision the students, teaching assistants and instructors of the given course on the version control system
+     * in the background.
+     *
+     * @param course the course whose users should be provisioned
+     * @return false if the provisioning of the course is already running, true otherwise
+     */
+    public boolean provisionCourseAsync(Course course) {
+        if (!versionControlService.isPresent()) {
+            return true;
+        }
+        Long courseId = course.getId();
+        List<String> groups = new ArrayList<>();
+        for (String group : Arrays.asList(course.getStudentGroupName(), course.getTeachingAssistantGroupName(), course.getInstructorGroupName())) {
+            if (group != null) {
+                groups.add(group);
+            }
+        }
+        return backgroundJobService.submitJob("version-control-provisioning-job", courseId, id -> provisionUsers(id, groups));
+    }
+
+    private void provisionUsers(Long courseId, List<String> groups) throws InterruptedException, ExecutionException {
+        long start = System.currentTimeMillis();
+        List<String> logins = groups.isEmpty() ? Collections.emptyList() : userRepository.findAllLoginsByGroupsIn(groups);
+        log.info("Provisioning {} users of course {} on the version control system", logins.size(), courseId);
+
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (String login : logins) {
+            futures.add(provisioningExecutor.submit(() -> provisionUser(login)));
+        }
+        int failedUsers = 0;
+        for (Future<Boolean> future : futures) {
+            if (!future.get()) {
+                failedUsers++;
+            }
+        }
+        log.info("Provisioned {} users of course {} in {}ms, {} users failed", logins.size(), courseId, System.currentTimeMillis() - start, failedUsers);
+    }
+
+    private boolean provisionUser(String login) {
+        versionControlRateLimiter.acquire();
+        try {
+            versionControlService.get().provisionUser(login);
+            return true;
+        } catch (Exception e) {
+            log.error("Could not provision user {}: {}", login, e.getMessage());
+            return false;
+        }
+    }
+}
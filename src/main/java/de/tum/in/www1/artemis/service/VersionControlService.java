@@ -13,6 +13,14 @@ public interface VersionControlService {
 
     public void configureRepository(URL repositoryUrl, String username);
 
+    /**
+     * Make sure that the user with the given login exists on the version control system and is a member of the groups
+     * of the user, e.g. to provision the students of a course before the first exercise starts.
+     *
+     * @param username the login of the user
+     */
+    public void provisionUser(String username);
+
     public void deleteRepository(URL repositoryUrl);
 
     public URL getRepositoryWebUrl(Participation participation);
@@ -1,5 +1,8 @@
 package de.tum.in.www1.artemis.service.compass;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.google.gson.JsonObject;
 import de.tum.in.www1.artemis.domain.ModelingExercise;
 import de.tum.in.www1.artemis.domain.Result;
@@ -8,6 +11,8 @@ import de.tum.in.www1.artemis.repository.JsonAssessmentRepository;
 import de.tum.in.www1.artemis.repository.JsonModelRepository;
 import de.tum.in.www1.artemis.repository.ModelingExerciseRepository;
 import de.tum.in.www1.artemis.repository.ResultRepository;
+import de.tum.in.www1.artemis.service.LatestResultService;
+import de.tum.in.www1.artemis.service.RelevantParticipationService;
 import de.tum.in.www1.artemis.service.compass.grade.CompassGrade;
 import de.tum.in.www1.artemis.service.compass.grade.Grade;
 import de.tum.in.www1.artemis.service.compass.grade.GradeParser;
@@ -36,6 +41,11 @@ public class CompassService {
     private final JsonModelRepository modelRepository;
     private final ResultRepository resultRepository;
     private final ModelingExerciseRepository modelingExerciseRepository;
+    private final LatestResultService latestResultService;
+    private final RelevantParticipationService relevantParticipationService;
+    private final Timer loadEngineTimer;
+    private final Timer addAssessmentTimer;
+    private final Timer selectOptimalModelTimer;
     /**
      * Map exerciseId to compass CalculationEngines
      */
@@ -51,11 +61,19 @@ public class CompassService {
     private static Map<Long, Thread> optimalModelThreads = new ConcurrentHashMap<>();
 
     public CompassService (JsonAssessmentRepository assessmentRepository, JsonModelRepository modelRepository,
-                           ResultRepository resultRepository, ModelingExerciseRepository modelingExerciseRepository) {
+                           ResultRepository resultRepository, ModelingExerciseRepository modelingExerciseRepository,
+                           LatestResultService latestResultService, RelevantParticipationService relevantParticipationService,
+                           MetricRegistry metricRegistry) {
         this.assessmentRepository = assessmentRepository;
         this.modelRepository = modelRepository;
         this.resultRepository = resultRepository;
         this.modelingExerciseRepository = modelingExerciseRepository;
+        this.latestResultService = latestResultService;
+        this.relevantParticipationService = relevantParticipationService;
+        this.loadEngineTimer = metricRegistry.timer(MetricRegistry.name(CompassService.class, "loadEngine"));
+        this.addAssessmentTimer = metricRegistry.timer(MetricRegistry.name(CompassService.class, "addAssessment"));
+        this.selectOptimalModelTimer = metricRegistry.timer(MetricRegistry.name(CompassService.class, "selectOptimalModel"));
+        metricRegistry.register(MetricRegistry.name(CompassService.class, "loadedEngines"), (Gauge<Integer>) () -> compassCalculationEngines.size());
     }
 
     /**
@@ -68,7 +86,12 @@ public class CompassService {
         if (!loadExerciseIfSuspended(exerciseId)) {
             return null;
         }
-        return compassCalculationEngines.get(exerciseId).getNextOptimalModel();
+        final Timer.Context timerContext = selectOptimalModelTimer.time();
+        try {
+            return compassCalculationEngines.get(exerciseId).getNextOptimalModel();
+        } finally {
+            timerContext.stop();
+        }
     }
 
     public Set<Long> getModelsWaitingForAssessment(long exerciseId) {
@@ -141,11 +164,16 @@ public class CompassService {
         if (!loadExerciseIfSuspended(exerciseId)) {
             return;
         }
-        CalculationEngine engine = compassCalculationEngines.get(exerciseId);
-        engine.notifyNewAssessment(assessment, modelId);
-        // Check all models for new assessments
-        for (long id: engine.getModelIds()) {
-            assessAutomatically(id, exerciseId);
+        final Timer.Context timerContext = addAssessmentTimer.time();
+        try {
+            CalculationEngine engine = compassCalculationEngines.get(exerciseId);
+            engine.notifyNewAssessment(assessment, modelId);
+            // Check all models for new assessments
+            for (long id: engine.getModelIds()) {
+                assessAutomatically(id, exerciseId);
+            }
+        } finally {
+            timerContext.stop();
         }
     }
 
@@ -181,7 +209,8 @@ public class CompassService {
                 DecimalFormat formatter = new DecimalFormat("#.##"); // limit decimal places to 2
                 result.setResultString(formatter.format(points) + " of " + formatter.format(modelingExercise.getMaxScore()) + " points");
 
-                resultRepository.save(result);
+                latestResultService.saveResult(result);
+                relevantParticipationService.evict(result.getParticipation());
                 engine.removeModelWaitingForAssessment(modelId, true);
             } else {
                 log.info("Model " + modelId + " got a confidence of " + grade.getConfidence() + " and a coverage of " + grade.getCoverage());
@@ -231,9 +260,11 @@ public class CompassService {
             return;
         }
         log.info("Compass calculation engine for exercise " + exerciseId + " has to be load from file system");
+        final Timer.Context timerContext = loadEngineTimer.time();
         Map<Long, JsonObject> models = modelRepository.readModelsForExercise(exerciseId);
         Map<Long, JsonObject> assessments = assessmentRepository.readAssessmentsForExercise(exerciseId, true);
         CalculationEngine calculationEngine = new CompassCalculationEngine(models, assessments);
+        timerContext.stop();
         compassCalculationEngines.put(exerciseId, calculationEngine);
         // assess models after reload
         for (long id: calculationEngine.getModelIds()) {
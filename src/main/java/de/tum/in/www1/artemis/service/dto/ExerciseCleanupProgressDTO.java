@@ -0,0 +1,93 @@
+package de.tum.in.www1.artemis.service.dto;
+
+/**
+ * DTO for the progress of the cleanup of the build plans and repositories of a programming exercise, which is sent to the instructor over websocket.
+ */
+public class ExerciseCleanupProgressDTO {
+
+    private Long exerciseId;
+
+    private int processedParticipations;
+
+    private int totalParticipations;
+
+    private int deletedBuildPlans;
+
+    private int deletedRepositories;
+
+    private int failedParticipations;
+
+    private boolean finished;
+
+    public ExerciseCleanupProgressDTO() {
+    }
+
+    public Long getExerciseId() {
+        return exerciseId;
+    }
+
+    public void setExerciseId(Long exerciseId) {
+        this.exerciseId = exerciseId;
+    }
+
+    public int getProcessedParticipations() {
+        return processedParticipations;
+    }
+
+    public void setProcessedParticipations(int processedParticipations) {
+        this.processedParticipations = processedParticipations;
+    }
+
+    public int getTotalParticipations() {
+        return totalParticipations;
+    }
+
+    public void setTotalParticipations(int totalParticipations) {
+        this.totalParticipations = totalParticipations;
+    }
+
+    public int getDeletedBuildPlans() {
+        return deletedBuildPlans;
+    }
+
+    public void setDeletedBuildPlans(int deletedBuildPlans) {
+        this.deletedBuildPlans = deletedBuildPlans;
+    }
+
+    public int getDeletedRepositories() {
+        return deletedRepositories;
+    }
+
+    public void setDeletedRepositories(int deletedRepositories) {
+        this.deletedRepositories = deletedRepositories;
+    }
+
+    public int getFailedParticipations() {
+        return failedParticipations;
+    }
+
+    public void setFailedParticipations(int failedParticipations) {
+        this.failedParticipations = failedParticipations;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public void setFinished(boolean finished) {
+        this.finished = finished;
+    }
+
+    @Override
+    public String toString() {
+        return "ExerciseCleanupProgressDTO{" +
+            "exerciseId=" + exerciseId +
+            ", processedParticipations=" + processedParticipations +
+            ", totalParticipations=" + totalParticipations +
+            ", deletedBuildPlans=" + deletedBuildPlans +
+            ", deletedRepositories=" + deletedRepositories +
+            ", failedParticipations=" + failedParticipations +
+            ", finished=" + finished +
+            '}';
+    }
+}
@@ -0,0 +1,94 @@
+package de.tum.in.www1.artemis.service.dto;
+
+/**
+ * DTO for the progress of the deletion of all participations of an exercise (reset), which is sent to the instructor over websocket.
+ * The cleanups are the deletions of build plans and repositories on the external systems.
+ */
+public class ParticipationDeletionProgressDTO {
+
+    private Long exerciseId;
+
+    private int deletedParticipations;
+
+    private int totalParticipations;
+
+    private int completedCleanups;
+
+    private int failedCleanups;
+
+    private int totalCleanups;
+
+    private boolean finished;
+
+    public ParticipationDeletionProgressDTO() {
+    }
+
+    public Long getExerciseId() {
+        return exerciseId;
+    }
+
+    public void setExerciseId(Long exerciseId) {
+        this.exerciseId = exerciseId;
+    }
+
+    public int getDeletedParticipations() {
+        return deletedParticipations;
+    }
+
+    public void setDeletedParticipations(int deletedParticipations) {
+        this.deletedParticipations = deletedParticipations;
+    }
+
+    public int getTotalParticipations() {
+        return totalParticipations;
+    }
+
+    public void setTotalParticipations(int totalParticipations) {
+        this.totalParticipations = totalParticipations;
+    }
+
+    public int getCompletedCleanups() {
+        return completedCleanups;
+    }
+
+    public void setCompletedCleanups(int completedCleanups) {
+        this.completedCleanups = completedCleanups;
+    }
+
+    public int getFailedCleanups() {
+        return failedCleanups;
+    }
+
+    public void setFailedCleanups(int failedCleanups) {
+        this.failedCleanups = failedCleanups;
+    }
+
+    public int getTotalCleanups() {
+        return totalCleanups;
+    }
+
+    public void setTotalCleanups(int totalCleanups) {
+        this.totalCleanups = totalCleanups;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public void setFinished(boolean finished) {
+        this.finished = finished;
+    }
+
+    @Override
+    public String toString() {
+        return "ParticipationDeletionProgressDTO{" +
+            "exerciseId=" + exerciseId +
+            ", deletedParticipations=" + deletedParticipations +
+            ", totalParticipations=" + totalParticipations +
+            ", completedCleanups=" + completedCleanups +
+            ", failedCleanups=" + failedCleanups +
+            ", totalCleanups=" + totalCleanups +
+            ", finished=" + finished +
+            '}';
+    }
+}
@@ -0,0 +1,106 @@
+package de.tum.in.www1.artemis.service.dto;
+
+import de.tum.in.www1.artemis.domain.Participation;
+import de.tum.in.www1.artemis.domain.enumeration.ParticipationState;
+
+/**
+ * DTO for the progress of the initialization of a programming exercise participation, which is sent to the student over websocket.
+ */
+public class ParticipationInitializationProgressDTO {
+
+    private Long participationId;
+
+    private Long exerciseId;
+
+    private ParticipationState initializationState;
+
+    private String repositoryUrl;
+
+    private String buildPlanId;
+
+    private boolean finished;
+
+    private boolean failed;
+
+    public ParticipationInitializationProgressDTO() {
+    }
+
+    public ParticipationInitializationProgressDTO(Participation participation, Long exerciseId, boolean finished, boolean failed) {
+        this.participationId = participation.getId();
+        this.exerciseId = exerciseId;
+        this.initializationState = participation.getInitializationState();
+        this.repositoryUrl = participation.getRepositoryUrl();
+        this.buildPlanId = participation.getBuildPlanId();
+        this.finished = finished;
+        this.failed = failed;
+    }
+
+    public Long getParticipationId() {
+        return participationId;
+    }
+
+    public void setParticipationId(Long participationId) {
+        this.participationId = participationId;
+    }
+
+    public Long getExerciseId() {
+        return exerciseId;
+    }
+
+    public void setExerciseId(Long exerciseId) {
+        this.exerciseId = exerciseId;
+    }
+
+    public ParticipationState getInitializationState() {
+        return initializationState;
+    }
+
+    public void setInitializationState(ParticipationState initializationState) {
+        this.initializationState = initializationState;
+    }
+
+    public String getRepositoryUrl() {
+        return repositoryUrl;
+    }
+
+    public void setRepositoryUrl(String repositoryUrl) {
+        this.repositoryUrl = repositoryUrl;
+    }
+
+    public String getBuildPlanId() {
+        return buildPlanId;
+    }
+
+    public void setBuildPlanId(String buildPlanId) {
+        this.buildPlanId = buildPlanId;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public void setFinished(boolean finished) {
+        this.finished = finished;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public void setFailed(boolean failed) {
+        this.failed = failed;
+    }
+
+    @Override
+    public String toString() {
+        return "ParticipationInitializationProgressDTO{" +
+            "participationId=" + participationId +
+            ", exerciseId=" + exerciseId +
+            ", initializationState=" + initializationState +
+            ", repositoryUrl='" + repositoryUrl + '\'' +
+            ", buildPlanId='" + buildPlanId + '\'' +
+            ", finished=" + finished +
+            ", failed=" + failed +
+            '}';
+    }
+}
@@ -0,0 +1,63 @@
+package de.tum.in.www1.artemis.service.dto;
+
+import de.tum.in.www1.artemis.domain.Participation;
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.domain.enumeration.ParticipationState;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serializable state of a quiz participation (with its results) that is kept in the quiz state store of the cluster
+ * (see HazelcastQuizStateStore).
+ *
+ * Contains neither the quiz exercise nor the student, only the login of the student. toParticipation() creates the
+ * participation with a student that only contains the login and without exercise (the caller adds the quiz exercise).
+ */
+public class QuizParticipationDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private String studentLogin;
+
+    private ParticipationState initializationState;
+
+    private ZonedDateTime initializationDate;
+
+    private List<QuizResultDTO> results = new ArrayList<>();
+
+    public static QuizParticipationDTO of(Participation participation) {
+        QuizParticipationDTO dto = new QuizParticipationDTO();
+        dto.id = participation.getId();
+        dto.studentLogin = participation.getStudent() != null ? participation.getStudent().getLogin() : null;
+        dto.initializationState = participation.getInitializationState();
+        dto.initializationDate = participation.getInitializationDate();
+        for (Result result : participation.getResults()) {
+            dto.results.add(QuizResultDTO.of(result));
+        }
+        return dto;
+    }
+
+    public Participation toParticipation() {
+        Participation participation = new Participation();
+        participation.setId(id);
+        if (studentLogin != null) {
+            User student = new User();
+            student.setLogin(studentLogin);
+            participation.setStudent(student);
+        }
+        participation.setInitializationState(initializationState);
+        participation.setInitializationDate(initializationDate);
+        for (QuizResultDTO resultDTO : results) {
+            Result result = resultDTO.toResult();
+            // the result belongs to this participation (not to a participation that only contains the id)
+            participation.addResult(result);
+        }
+        return participation;
+    }
+}
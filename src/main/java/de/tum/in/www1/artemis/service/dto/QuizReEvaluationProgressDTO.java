@@ -0,0 +1,67 @@
+package de.tum.in.www1.artemis.service.dto;
+
+/**
+ * DTO for the progress of a quiz re-evaluation, which is sent to the instructor over websocket.
+ */
+public class QuizReEvaluationProgressDTO {
+
+    private Long quizExerciseId;
+
+    private long processedResults;
+
+    private long totalResults;
+
+    private boolean finished;
+
+    public QuizReEvaluationProgressDTO() {
+    }
+
+    public QuizReEvaluationProgressDTO(Long quizExerciseId, long processedResults, long totalResults, boolean finished) {
+        this.quizExerciseId = quizExerciseId;
+        this.processedResults = processedResults;
+        this.totalResults = totalResults;
+        this.finished = finished;
+    }
+
+    public Long getQuizExerciseId() {
+        return quizExerciseId;
+    }
+
+    public void setQuizExerciseId(Long quizExerciseId) {
+        this.quizExerciseId = quizExerciseId;
+    }
+
+    public long getProcessedResults() {
+        return processedResults;
+    }
+
+    public void setProcessedResults(long processedResults) {
+        this.processedResults = processedResults;
+    }
+
+    public long getTotalResults() {
+        return totalResults;
+    }
+
+    public void setTotalResults(long totalResults) {
+        this.totalResults = totalResults;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public void setFinished(boolean finished) {
+        this.finished = finished;
+    }
+
+    @Override
+    public String toString() {
+        return "QuizReEvaluationProgressDTO{" +
+            "quizExerciseId=" + quizExerciseId +
+            ", processedResults=" + processedResults +
+            ", totalResults=" + totalResults +
+            ", finished=" + finished +
+            '}';
+    }
+}
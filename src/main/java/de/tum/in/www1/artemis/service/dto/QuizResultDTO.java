@@ -0,0 +1,68 @@
+package de.tum.in.www1.artemis.service.dto;
+
+import de.tum.in.www1.artemis.domain.Participation;
+import de.tum.in.www1.artemis.domain.QuizSubmission;
+import de.tum.in.www1.artemis.domain.Result;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * Serializable state of a quiz result that is kept in the quiz state store of the cluster (see HazelcastQuizStateStore).
+ *
+ * Only contains the id of the participation, toResult() creates the result with a participation that only contains its id.
+ */
+public class QuizResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private Long participationId;
+
+    private String resultString;
+
+    private ZonedDateTime completionDate;
+
+    private Boolean successful;
+
+    private Long score;
+
+    private Boolean rated;
+
+    private QuizSubmissionDTO submission;
+
+    public static QuizResultDTO of(Result result) {
+        QuizResultDTO dto = new QuizResultDTO();
+        dto.id = result.getId();
+        dto.participationId = result.getParticipation() != null ? result.getParticipation().getId() : null;
+        dto.resultString = result.getResultString();
+        dto.completionDate = result.getCompletionDate();
+        dto.successful = result.isSuccessful();
+        dto.score = result.getScore();
+        dto.rated = result.isRated();
+        if (result.getSubmission() instanceof QuizSubmission) {
+            dto.submission = QuizSubmissionDTO.of((QuizSubmission) result.getSubmission());
+        }
+        return dto;
+    }
+
+    public Result toResult() {
+        Result result = new Result();
+        result.setId(id);
+        if (participationId != null) {
+            Participation participation = new Participation();
+            participation.setId(participationId);
+            result.setParticipation(participation);
+        }
+        result.setResultString(resultString);
+        result.setCompletionDate(completionDate);
+        result.setSuccessful(successful);
+        result.setScore(score);
+        result.setRated(rated);
+        if (submission != null) {
+            result.setSubmission(submission.toQuizSubmission());
+        }
+        return result;
+    }
+}
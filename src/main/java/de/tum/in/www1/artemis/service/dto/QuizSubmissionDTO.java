@@ -0,0 +1,146 @@
+package de.tum.in.www1.artemis.service.dto;
+
+import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.enumeration.SubmissionType;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Serializable state of a quiz submission that is kept in the quiz state store of the cluster (see HazelcastQuizStateStore).
+ *
+ * The submitted answers are keyed by question id and only contain the ids of the selected answer options, drag items
+ * and drop locations, so that the quiz itself is not stored with every submission. toQuizSubmission() creates the
+ * submission with references to the questions and question elements that only contain their ids (like a submission
+ * that was sent by a client).
+ */
+public class QuizSubmissionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private Boolean submitted;
+
+    private SubmissionType type;
+
+    private ZonedDateTime submissionDate;
+
+    private Double scoreInPoints;
+
+    private Map<Long, SubmittedAnswerDTO> submittedAnswers = new HashMap<>();
+
+    public static QuizSubmissionDTO of(QuizSubmission quizSubmission) {
+        QuizSubmissionDTO dto = new QuizSubmissionDTO();
+        dto.id = quizSubmission.getId();
+        dto.submitted = quizSubmission.isSubmitted();
+        dto.type = quizSubmission.getType();
+        dto.submissionDate = quizSubmission.getSubmissionDate();
+        dto.scoreInPoints = quizSubmission.getScoreInPoints();
+        for (SubmittedAnswer submittedAnswer : quizSubmission.getSubmittedAnswers()) {
+            Question question = submittedAnswer.getQuestion();
+            // only the first answer for a question counts (see QuizSubmission.getSubmittedAnswerForQuestion)
+            if (question != null && question.getId() != null && !dto.submittedAnswers.containsKey(question.getId())) {
+                dto.submittedAnswers.put(question.getId(), SubmittedAnswerDTO.of(submittedAnswer));
+            }
+        }
+        return dto;
+    }
+
+    public QuizSubmission toQuizSubmission() {
+        QuizSubmission quizSubmission = new QuizSubmission();
+        quizSubmission.setId(id);
+        quizSubmission.setSubmitted(submitted);
+        quizSubmission.setType(type);
+        quizSubmission.setSubmissionDate(submissionDate);
+        quizSubmission.setScoreInPoints(scoreInPoints);
+        for (Map.Entry<Long, SubmittedAnswerDTO> submittedAnswer : submittedAnswers.entrySet()) {
+            quizSubmission.addSubmittedAnswers(submittedAnswer.getValue().toSubmittedAnswer(submittedAnswer.getKey()));
+        }
+        return quizSubmission;
+    }
+
+    public Map<Long, SubmittedAnswerDTO> getSubmittedAnswers() {
+        return submittedAnswers;
+    }
+
+    /**
+     * A multiple choice answer (selectedOptionIds) or a drag and drop answer (dragItemIdByDropLocationId)
+     */
+    public static class SubmittedAnswerDTO implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long id;
+
+        private Double scoreInPoints;
+
+        private Set<Long> selectedOptionIds;
+
+        private Map<Long, Long> dragItemIdByDropLocationId;
+
+        static SubmittedAnswerDTO of(SubmittedAnswer submittedAnswer) {
+            SubmittedAnswerDTO dto = new SubmittedAnswerDTO();
+            dto.id = submittedAnswer.getId();
+            dto.scoreInPoints = submittedAnswer.getScoreInPoints();
+            if (submittedAnswer instanceof MultipleChoiceSubmittedAnswer) {
+                dto.selectedOptionIds = new HashSet<>();
+                for (AnswerOption answerOption : ((MultipleChoiceSubmittedAnswer) submittedAnswer).getSelectedOptions()) {
+                    dto.selectedOptionIds.add(answerOption.getId());
+                }
+            } else if (submittedAnswer instanceof DragAndDropSubmittedAnswer) {
+                dto.dragItemIdByDropLocationId = new HashMap<>();
+                for (DragAndDropMapping mapping : ((DragAndDropSubmittedAnswer) submittedAnswer).getMappings()) {
+                    if (mapping.getDragItem() != null && mapping.getDropLocation() != null) {
+                        dto.dragItemIdByDropLocationId.put(mapping.getDropLocation().getId(), mapping.getDragItem().getId());
+                    }
+                }
+            }
+            return dto;
+        }
+
+        SubmittedAnswer toSubmittedAnswer(Long questionId) {
+            SubmittedAnswer submittedAnswer;
+            if (dragItemIdByDropLocationId != null) {
+                DragAndDropQuestion question = new DragAndDropQuestion();
+                question.setId(questionId);
+                DragAndDropSubmittedAnswer dragAndDropSubmittedAnswer = new DragAndDropSubmittedAnswer();
+                for (Map.Entry<Long, Long> mapping : dragItemIdByDropLocationId.entrySet()) {
+                    DropLocation dropLocation = new DropLocation();
+                    dropLocation.setId(mapping.getKey());
+                    DragItem dragItem = new DragItem();
+                    dragItem.setId(mapping.getValue());
+                    dragAndDropSubmittedAnswer.addMappings(new DragAndDropMapping().dragItem(dragItem).dropLocation(dropLocation));
+                }
+                submittedAnswer = dragAndDropSubmittedAnswer.question(question);
+            } else {
+                MultipleChoiceQuestion question = new MultipleChoiceQuestion();
+                question.setId(questionId);
+                MultipleChoiceSubmittedAnswer multipleChoiceSubmittedAnswer = new MultipleChoiceSubmittedAnswer();
+                if (selectedOptionIds != null) {
+                    for (Long selectedOptionId : selectedOptionIds) {
+                        AnswerOption answerOption = new AnswerOption();
+                        answerOption.setId(selectedOptionId);
+                        multipleChoiceSubmittedAnswer.addSelectedOptions(answerOption);
+                    }
+                }
+                submittedAnswer = multipleChoiceSubmittedAnswer.question(question);
+            }
+            submittedAnswer.setId(id);
+            submittedAnswer.setScoreInPoints(scoreInPoints);
+            return submittedAnswer;
+        }
+
+        public Set<Long> getSelectedOptionIds() {
+            return selectedOptionIds;
+        }
+
+        public Map<Long, Long> getDragItemIdByDropLocationId() {
+            return dragItemIdByDropLocationId;
+        }
+    }
+}
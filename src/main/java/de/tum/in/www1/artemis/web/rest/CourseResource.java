@@ -41,24 +41,30 @@ public class CourseResource {
 
     private final UserService userService;
     private final CourseService courseService;
-    private final ParticipationService participationService;
     private final AuthorizationCheckService authCheckService;
     private final ObjectMapper objectMapper;
     private final CourseRepository courseRepository;
     private final ExerciseService exerciseService;
+    private final VersionControlProvisioningService versionControlProvisioningService;
+    private final RelevantParticipationService relevantParticipationService;
+    private final QuizScheduleService quizScheduleService;
 
     public CourseResource(UserService userService,
                           CourseService courseService,
-                          ParticipationService participationService,
                           CourseRepository courseRepository,
                           ExerciseService exerciseService,
+                          VersionControlProvisioningService versionControlProvisioningService,
+                          RelevantParticipationService relevantParticipationService,
+                          QuizScheduleService quizScheduleService,
                           AuthorizationCheckService authCheckService,
                           MappingJackson2HttpMessageConverter springMvcJacksonConverter) {
         this.userService = userService;
         this.courseService = courseService;
-        this.participationService = participationService;
         this.courseRepository = courseRepository;
         this.exerciseService = exerciseService;
+        this.versionControlProvisioningService = versionControlProvisioningService;
+        this.relevantParticipationService = relevantParticipationService;
+        this.quizScheduleService = quizScheduleService;
         this.authCheckService = authCheckService;
         this.objectMapper = springMvcJacksonConverter.getObjectMapper();
     }
@@ -147,15 +153,15 @@ public class CourseResource {
         // get all courses with exercises for this user
         List<Course> courses = courseService.findAllWithExercisesForUser(principal, user);
 
-        // get all participations of this user
-        List<Participation> participations = participationService.findWithResultsByStudentUsername(principal.getName());
+        // get all participations of this user, indexed by exercise
+        RelevantParticipationService.RelevantParticipations participations = relevantParticipationService.getRelevantParticipations(principal.getName());
 
         for (Course course : courses) {
             ObjectNode courseJson = objectMapper.valueToTree(course);
             ArrayNode exercisesJson = objectMapper.createArrayNode();
             for (Exercise exercise : course.getExercises()) {
                 // add participation with result to each exercise
-                ObjectNode exerciseJson = exerciseToJsonWithParticipation(exercise, participations, principal.getName());
+                ObjectNode exerciseJson = exerciseToJsonWithParticipation(exercise, participations, user);
                 exercisesJson.add(exerciseJson);
             }
 
@@ -217,6 +223,56 @@ public class CourseResource {
         return ResponseEntity.ok().headers(HeaderUtil.createEntityDeletionAlert(ENTITY_NAME, id.toString())).build();
     }
 
+    /**
+     * DELETE  /courses/:courseId/cleanup : delete all build plans (except BASE) of all programming exercises of the course,
+     * optionally also the repositories. The exercises are cleaned up one after another in the background, the progress
+     * is sent over websocket ("/user/topic/exercise/:exerciseId/cleanup").
+     *
+     * @param courseId           the id of the course
+     * @param deleteRepositories whether repositories should be deleted or not
+     * @return the ResponseEntity with status 200 (OK) and with body the ids of the exercises whose cleanup was started
+     */
+    @DeleteMapping("/courses/{courseId}/cleanup")
+    @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
+    @Timed
+    public ResponseEntity<List<Long>> cleanupCourse(@PathVariable Long courseId, @RequestParam(defaultValue = "false") boolean deleteRepositories) {
+        log.info("REST request to cleanup build plans of Course : {}, delete repositories: {}", courseId, deleteRepositories);
+        Course course = courseService.findOne(courseId);
+        if (course == null) {
+            return ResponseEntity.notFound().build();
+        }
+        User user = userService.getUserWithGroupsAndAuthorities();
+        if (!authCheckService.isInstructorInCourse(course, user) && !authCheckService.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(exerciseService.cleanupCourse(courseId, deleteRepositories, user.getLogin()));
+    }
+
+    /**
+     * POST  /courses/:courseId/provision-users : create the users of the course on the version control system and add
+     * them to their groups, so that starting the first programming exercise is faster. The users are provisioned in the background.
+     *
+     * @param courseId the id of the course
+     * @return the ResponseEntity with status 200 (OK), or with status 400 (Bad Request) if the provisioning of the course is already running
+     */
+    @PostMapping("/courses/{courseId}/provision-users")
+    @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
+    @Timed
+    public ResponseEntity<Void> provisionUsers(@PathVariable Long courseId) {
+        log.info("REST request to provision the users of Course : {}", courseId);
+        Course course = courseService.findOne(courseId);
+        if (course == null) {
+            return ResponseEntity.notFound().build();
+        }
+        User user = userService.getUserWithGroupsAndAuthorities();
+        if (!authCheckService.isInstructorInCourse(course, user) && !authCheckService.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (!versionControlProvisioningService.provisionCourseAsync(course)) {
+            return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert(ENTITY_NAME, "provisioningAlreadyRunning", "The users of the course are already being provisioned.")).build();
+        }
+        return ResponseEntity.ok().build();
+    }
 
     /**
      * GET /courses/:courseId/getAllCourseScoresOfCourseUsers
@@ -241,17 +297,18 @@ public class CourseResource {
      * participation with its most recent relevant result
      *
      * @param exercise       the exercise to create a JSON ObjectNode for
-     * @param participations the set of participations, wherein to search for the relevant participation
+     * @param participations the participations of the user, wherein to search for the relevant participation
+     * @param user           the current user
      * @return the JSON for the given exercise
      */
-    private ObjectNode exerciseToJsonWithParticipation(Exercise exercise, List<Participation> participations, String username) {
+    private ObjectNode exerciseToJsonWithParticipation(Exercise exercise, RelevantParticipationService.RelevantParticipations participations, User user) {
         // get user's participation for the exercise
-        Participation participation = exercise.findRelevantParticipation(participations);
+        Participation participation = participations.findRelevantParticipation(exercise, user);
 
         // for quiz exercises also check SubmissionHashMap for submission by this user (active participation)
         // if participation was not found in database
         if (participation == null && exercise instanceof QuizExercise) {
-            QuizSubmission submission = QuizScheduleService.getQuizSubmission(exercise.getId(), username);
+            QuizSubmission submission = quizScheduleService.getQuizSubmission(exercise.getId(), user.getLogin());
             if (submission.getSubmissionDate() != null) {
                 participation = new Participation().exercise(exercise).initializationState(ParticipationState.INITIALIZED);
             }
@@ -263,7 +320,7 @@ public class CourseResource {
             participationJson = objectMapper.valueToTree(participation);
 
             // only transmit the relevant result
-            Result result = exercise.findLatestRelevantResult(participation);
+            Result result = participations.findLatestRelevantResult(exercise, participation);
             List<Result> results = Optional.ofNullable(result).map(Arrays::asList).orElse(new ArrayList<>());
 
             // add results to json
@@ -238,7 +238,7 @@ public class ExerciseResource {
     @Timed
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         log.debug("REST request to delete Exercise : {}", id);
-        Exercise exercise = exerciseService.findOneLoadParticipations(id);
+        Exercise exercise = exerciseService.findOne(id);
         if (Optional.ofNullable(exercise).isPresent()) {
             Course course = exercise.getCourse();
             User user = userService.getUserWithGroupsAndAuthorities();
@@ -253,36 +253,40 @@ public class ExerciseResource {
 
     /**
      * DELETE  /exercises/:id/participations : delete all participations of "id" exercise (reset).
+     * The participations are deleted in the background, the progress is sent over websocket ("/user/topic/exercise/:id/reset").
      *
      * @param id the id of the exercise to delete
-     * @return the ResponseEntity with status 200 (OK)
+     * @return the ResponseEntity with status 200 (OK), or with status 400 (Bad Request) if a reset of the exercise is already running
      */
     @DeleteMapping(value = "/exercises/{id}/participations")
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
     @Timed
     public ResponseEntity<Void> reset(@PathVariable Long id) {
         log.debug("REST request to reset Exercise : {}", id);
-        Exercise exercise = exerciseService.findOneLoadParticipations(id);
+        Exercise exercise = exerciseService.findOne(id);
         Course course = exercise.getCourse();
         User user = userService.getUserWithGroupsAndAuthorities();
         if (!authCheckService.isInstructorInCourse(course, user) && !authCheckService.isAdmin()) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
-        exerciseService.reset(exercise);
+        if (!exerciseService.resetAsync(exercise, user.getLogin())) {
+            return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert("exercise", "resetAlreadyRunning", "The exercise is already being reset.")).build();
+        }
         return ResponseEntity.ok().headers(HeaderUtil.createEntityUpdateAlert("exercise", id.toString())).build();
     }
 
     /**
      * GET  /exercises/:id/cleanup : delete all build plans (except BASE) of all participations belonging to this exercise. Optionally delete and archive all repositories
+     * The cleanup runs in the background, the progress is sent over websocket ("/user/topic/exercise/:id/cleanup").
      *
      * @param id                 the id of the exercise to delete build plans for
      * @param deleteRepositories whether repositories should be deleted or not
-     * @return ResponseEntity with status
+     * @return ResponseEntity with status 200 (OK), or with status 400 (Bad Request) if the cleanup is already running
      */
     @DeleteMapping(value = "/exercises/{id}/cleanup")
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
     @Timed
-    public ResponseEntity<Resource> cleanup(@PathVariable Long id, @RequestParam(defaultValue = "false") boolean deleteRepositories) throws IOException {
+    public ResponseEntity<Resource> cleanup(@PathVariable Long id, @RequestParam(defaultValue = "false") boolean deleteRepositories) {
         log.info("Start to cleanup build plans for Exercise: {}, delete repositories: {}", id, deleteRepositories);
         Exercise exercise = exerciseService.findOne(id);
         Course course = exercise.getCourse();
@@ -290,12 +294,12 @@ public class ExerciseResource {
         if (!authCheckService.isInstructorInCourse(course, user) && !authCheckService.isAdmin()) {
              return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
-        exerciseService.cleanup(id, deleteRepositories);
-        log.info("Cleanup build plans was successful for Exercise : {}", id);
-        return ResponseEntity.ok().headers(HeaderUtil.createAlert("Cleanup was successful. Repositories have been deleted: " + deleteRepositories, "")).build();
+        if (!exerciseService.cleanup(id, deleteRepositories, user.getLogin())) {
+            return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert("exercise", "cleanupNotStarted", "The cleanup is already running or the exercise is not a programming exercise.")).build();
+        }
+        return ResponseEntity.ok().headers(HeaderUtil.createAlert("Cleanup was started. Repositories will be deleted: " + deleteRepositories, "")).build();
     }
 
-
     /**
      * GET  /exercises/:id/archive : archive all repositories (except BASE) of all participations belonging to this exercise into a zip file and provide a downloadable link.
      *
@@ -11,7 +11,9 @@ import de.tum.in.www1.artemis.repository.ParticipationRepository;
 import de.tum.in.www1.artemis.repository.ResultRepository;
 import de.tum.in.www1.artemis.service.AuthorizationCheckService;
 import de.tum.in.www1.artemis.service.CourseService;
+import de.tum.in.www1.artemis.service.LatestResultService;
 import de.tum.in.www1.artemis.service.ModelingExerciseService;
+import de.tum.in.www1.artemis.service.RelevantParticipationService;
 import de.tum.in.www1.artemis.service.UserService;
 import de.tum.in.www1.artemis.service.compass.CompassService;
 import de.tum.in.www1.artemis.web.rest.util.HeaderUtil;
@@ -44,8 +46,10 @@ public class ModelingAssessmentResource {
     private final UserService userService;
     private final AuthorizationCheckService authCheckService;
     private final CourseService courseService;
+    private final RelevantParticipationService relevantParticipationService;
+    private final LatestResultService latestResultService;
 
-    public ModelingAssessmentResource(JsonAssessmentRepository jsonAssessmentRepository, ResultRepository resultRepository, ParticipationRepository participationRepository, CompassService compassService, ModelingExerciseService modelingExerciseService, UserService userService, AuthorizationCheckService authCheckService, CourseService courseService) {
+    public ModelingAssessmentResource(JsonAssessmentRepository jsonAssessmentRepository, ResultRepository resultRepository, ParticipationRepository participationRepository, CompassService compassService, ModelingExerciseService modelingExerciseService, UserService userService, AuthorizationCheckService authCheckService, CourseService courseService, RelevantParticipationService relevantParticipationService, LatestResultService latestResultService) {
         this.jsonAssessmentRepository = jsonAssessmentRepository;
         this.resultRepository = resultRepository;
         this.participationRepository = participationRepository;
@@ -54,6 +58,8 @@ public class ModelingAssessmentResource {
         this.userService = userService;
         this.authCheckService = authCheckService;
         this.courseService = courseService;
+        this.relevantParticipationService = relevantParticipationService;
+        this.latestResultService = latestResultService;
     }
 
     @DeleteMapping("/modeling-assessments/exercise/{exerciseId}/optimal-models")
@@ -230,7 +236,8 @@ public class ModelingAssessmentResource {
             result.setSuccessful(percentageScore.longValue() == 100L);
         }
 
-        resultRepository.save(result);
+        latestResultService.saveResult(result);
+        relevantParticipationService.evict(result.getParticipation());
 
         return result;
     }
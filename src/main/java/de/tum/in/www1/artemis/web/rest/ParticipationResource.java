@@ -7,6 +7,7 @@ import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
 import de.tum.in.www1.artemis.web.rest.util.HeaderUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.json.MappingJacksonValue;
@@ -20,8 +21,11 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.security.Principal;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * REST controller for managing Participation.
@@ -39,16 +43,21 @@ public class ParticipationResource {
     private final AuthorizationCheckService authCheckService;
     private final Optional<ContinuousIntegrationService> continuousIntegrationService;
     private final Optional<VersionControlService> versionControlService;
+    private final BuildStatusCacheService buildStatusCacheService;
 
     private static final String ENTITY_NAME = "participation";
 
+    @Value("${artemis.build-status.max-participations-per-request:100}")
+    private int MAX_PARTICIPATIONS_PER_STATUS_REQUEST;
+
     public ParticipationResource(ParticipationService participationService,
                                  CourseService courseService,
                                  QuizExerciseService quizExerciseService,
                                  ExerciseService exerciseService,
                                  AuthorizationCheckService authCheckService,
                                  Optional<ContinuousIntegrationService> continuousIntegrationService,
-                                 Optional<VersionControlService> versionControlService) {
+                                 Optional<VersionControlService> versionControlService,
+                                 BuildStatusCacheService buildStatusCacheService) {
         this.participationService = participationService;
         this.quizExerciseService = quizExerciseService;
         this.exerciseService = exerciseService;
@@ -56,6 +65,7 @@ public class ParticipationResource {
         this.authCheckService = authCheckService;
         this.continuousIntegrationService = continuousIntegrationService;
         this.versionControlService = versionControlService;
+        this.buildStatusCacheService = buildStatusCacheService;
     }
 
     /**
@@ -85,6 +95,8 @@ public class ParticipationResource {
 
     /**
      * POST  /courses/:courseId/exercises/:exerciseId/participations : start the "id" exercise for the current user.
+     * The participation of a programming exercise is initialized asynchronously, the progress is sent over websocket
+     * ("/user/topic/exercise/:exerciseId/participation").
      *
      * @param courseId   only included for API consistency, not actually used
      * @param exerciseId the id of the exercise for which to init a participation
@@ -102,7 +114,9 @@ public class ParticipationResource {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
         if (Optional.ofNullable(exercise).isPresent()) {
-            if (participationService.findOneByExerciseIdAndStudentLoginAnyState(exerciseId, principal.getName()) != null) {
+            Participation existingParticipation = participationService.findOneByExerciseIdAndStudentLoginAnyState(exerciseId, principal.getName());
+            // the initialization of a programming exercise participation is started again to continue with the missing steps
+            if (existingParticipation != null && !(exercise instanceof ProgrammingExercise && participationService.isInitializationIncomplete(existingParticipation))) {
                 // participation already exists
                 return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert("participation", "participationAlreadyExists", "There is already a participation for the given exercise and user.")).body(null);
             }
@@ -401,7 +415,7 @@ public class ParticipationResource {
             QuizExercise.Status status = QuizExercise.statusForQuiz((QuizExercise) participation.getExercise());
             return new ResponseEntity<>(status, HttpStatus.OK);
         } else if (participation.getExercise() instanceof ProgrammingExercise) {
-            ContinuousIntegrationService.BuildStatus buildStatus = continuousIntegrationService.get().getBuildStatus(participation);
+            ContinuousIntegrationService.BuildStatus buildStatus = buildStatusCacheService.getBuildStatus(participation);
             return Optional.ofNullable(buildStatus)
                 .map(status -> new ResponseEntity<>(
                     status,
@@ -411,6 +425,28 @@ public class ParticipationResource {
         return ResponseEntity.unprocessableEntity().build();
     }
 
+    /**
+     * POST  /participations/status: get the build status of many programming exercise participations at once.
+     * Further changes of the status are pushed over websocket ("/topic/participation/{participationId}/buildStatus").
+     *
+     * @param participationIds the ids of the participations
+     * @return the ResponseEntity with status 200 (OK) and the map from participation id to build status in body
+     * (participations without build plan or that the user is not allowed to see are missing), or with status 400 (Bad
+     * Request) if more than artemis.build-status.max-participations-per-request participations are requested
+     */
+    @PostMapping(value = "/participations/status")
+    @PreAuthorize("hasAnyRole('USER', 'TA', 'INSTRUCTOR', 'ADMIN')")
+    @Timed
+    public ResponseEntity<Map<Long, ContinuousIntegrationService.BuildStatus>> getParticipationStatuses(@RequestBody List<Long> participationIds) {
+        Set<Long> distinctParticipationIds = new HashSet<>(participationIds);
+        if (distinctParticipationIds.size() > MAX_PARTICIPATIONS_PER_STATUS_REQUEST) {
+            return ResponseEntity.badRequest().headers(HeaderUtil.createFailureAlert(ENTITY_NAME, "tooManyParticipations",
+                "The status of at most " + MAX_PARTICIPATIONS_PER_STATUS_REQUEST + " participations can be requested at once")).build();
+        }
+        // only the participations of the user and of the courses in which the user is a teaching assistant or instructor are returned
+        return ResponseEntity.ok(buildStatusCacheService.getBuildStatuses(distinctParticipationIds));
+    }
+
     /**
      * DELETE  /participations/:id : delete the "id" participation.
      *
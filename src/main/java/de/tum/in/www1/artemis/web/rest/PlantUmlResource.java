@@ -1,6 +1,7 @@
 package de.tum.in.www1.artemis.web.rest;
 
-import net.sourceforge.plantuml.SourceStringReader;
+import de.tum.in.www1.artemis.service.PlantUmlService;
+import de.tum.in.www1.artemis.service.PlantUmlService.DiagramFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
@@ -13,7 +14,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 /**
@@ -25,7 +25,13 @@ import java.io.IOException;
 @PreAuthorize("hasAnyRole('USER', 'TA', 'INSTRUCTOR', 'ADMIN')")
 public class PlantUmlResource {
 
-    private final Logger log = LoggerFactory.getLogger(ParticipationResource.class);
+    private final Logger log = LoggerFactory.getLogger(PlantUmlResource.class);
+
+    private final PlantUmlService plantUmlService;
+
+    public PlantUmlResource(PlantUmlService plantUmlService) {
+        this.plantUmlService = plantUmlService;
+    }
 
     /**
      * Generate PNG diagram for given PlantUML commands
@@ -36,19 +42,30 @@ public class PlantUmlResource {
      */
     @GetMapping(value = "/plantuml/png")
     public ResponseEntity<byte[]> generatePng(@RequestParam("plantuml") String plantuml) throws IOException {
+        log.debug("REST request to generate PNG for PlantUML diagram");
+        byte[] png = plantUmlService.generateImage(plantuml, DiagramFormat.PNG);
 
-        // Create PNG output stream
-        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        HttpHeaders responseHeaders = new HttpHeaders();
+        responseHeaders.setContentType(MediaType.IMAGE_PNG);
 
-        // Create input stream reader
-        SourceStringReader reader = new SourceStringReader(plantuml);
+        return new ResponseEntity<>(png, responseHeaders, HttpStatus.OK);
+    }
 
-        // Create PNG
-        String dest = reader.generateImage(png);
+    /**
+     * Generate SVG diagram for given PlantUML commands
+     *
+     * @param plantuml PlantUML command(s)
+     * @return ResponseEntity SVG stream
+     * @throws IOException
+     */
+    @GetMapping(value = "/plantuml/svg")
+    public ResponseEntity<byte[]> generateSvg(@RequestParam("plantuml") String plantuml) throws IOException {
+        log.debug("REST request to generate SVG for PlantUML diagram");
+        byte[] svg = plantUmlService.generateImage(plantuml, DiagramFormat.SVG);
 
         HttpHeaders responseHeaders = new HttpHeaders();
-        responseHeaders.setContentType(MediaType.IMAGE_PNG);
+        responseHeaders.setContentType(MediaType.valueOf("image/svg+xml"));
 
-        return new ResponseEntity(png.toByteArray(), responseHeaders, HttpStatus.OK);
+        return new ResponseEntity<>(svg, responseHeaders, HttpStatus.OK);
     }
 }
@@ -2,6 +2,7 @@ package de.tum.in.www1.artemis.web.rest;
 
 import com.codahale.metrics.annotation.Timed;
 import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.security.SecurityUtils;
 import de.tum.in.www1.artemis.service.*;
 import de.tum.in.www1.artemis.web.rest.util.HeaderUtil;
 import io.github.jhipster.web.util.ResponseUtil;
@@ -35,17 +36,20 @@ public class QuizExerciseResource {
     private final StatisticService statisticService;
     private final AuthorizationCheckService authCheckService;
     private final QuizScheduleService quizScheduleService;
+    private final QuizReEvaluationService quizReEvaluationService;
 
     public QuizExerciseResource(QuizExerciseService quizExerciseService,
                                 CourseService courseService,
                                 StatisticService statisticService,
                                 AuthorizationCheckService authCheckService,
-                                QuizScheduleService quizScheduleService) {
+                                QuizScheduleService quizScheduleService,
+                                QuizReEvaluationService quizReEvaluationService) {
         this.quizExerciseService = quizExerciseService;
         this.courseService = courseService;
         this.statisticService = statisticService;
         this.authCheckService = authCheckService;
         this.quizScheduleService = quizScheduleService;
+        this.quizReEvaluationService = quizReEvaluationService;
     }
 
     /**
@@ -401,20 +405,20 @@ public class QuizExerciseResource {
         }
 
         quizExercise.undoUnallowedChanges(originalQuizExercise);
-        boolean updateOfResultsAndStatisticsNecessary = quizExercise.checkIfRecalculationIsNecessary(originalQuizExercise);
 
         //update QuizExercise
         reconnectJSONIgnoreAttributes(quizExercise);
 
-        //adjust existing results if an answer or and question was deleted and recalculate them
-        quizExerciseService.adjustResultsOnQuizChanges(quizExercise);
+        //adjust existing results if an answer or and question was deleted and recalculate them (in chunks, progress is sent to the user)
+        //Note: every chunk of results is committed on its own before the changed quiz is saved (deleted answer options must
+        //      not be referenced anymore), if anything fails, the instructor repeats the (idempotent) re-evaluation
+        List<Result> latestResults = quizReEvaluationService.reEvaluateResults(quizExercise, SecurityUtils.getCurrentUserLogin());
 
         QuizExercise result = quizExerciseService.saveWithNoNewEntities(quizExercise);
 
-        if (updateOfResultsAndStatisticsNecessary) {
-            // update Statistics
-            statisticService.updateStatisticsAfterReEvaluation(quizExercise);
-        }
+        // update Statistics from the results that were loaded during the re-evaluation
+        // Note: this is done even if the statistics seem to be unchanged, so that a repeated re-evaluation also repairs them
+        statisticService.updateStatisticsAfterReEvaluation(quizExercise, latestResults);
 
 
         return ResponseEntity.ok()
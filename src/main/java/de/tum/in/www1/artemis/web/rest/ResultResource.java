@@ -1,10 +1,13 @@
 package de.tum.in.www1.artemis.web.rest;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.codahale.metrics.annotation.Timed;
 import de.tum.in.www1.artemis.domain.*;
 import de.tum.in.www1.artemis.domain.enumeration.ParticipationState;
 import de.tum.in.www1.artemis.repository.ResultRepository;
 import de.tum.in.www1.artemis.service.*;
+import de.tum.in.www1.artemis.service.LatestResultService.LatestResults;
 import de.tum.in.www1.artemis.web.rest.errors.BadRequestAlertException;
 import de.tum.in.www1.artemis.web.rest.util.HeaderUtil;
 import io.github.jhipster.web.util.ResponseUtil;
@@ -22,6 +25,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -43,19 +47,22 @@ public class ResultResource {
     private final ExerciseService exerciseService;
     private final AuthorizationCheckService authCheckService;
     private final FeedbackService feedbackService;
-    private final UserService userService;
+    private final RelevantParticipationService relevantParticipationService;
+    private final LatestResultService latestResultService;
+    private final Timer relevantResultsTimer;
 
-    public ResultResource(UserService userService,
-                          ResultRepository resultRepository,
+    public ResultResource(ResultRepository resultRepository,
                           Optional<LtiService> ltiService,
                           ParticipationService participationService,
                           ResultService resultService,
                           AuthorizationCheckService authCheckService,
                           FeedbackService feedbackService,
                           ExerciseService exerciseService,
-                          CourseService courseService) {
+                          CourseService courseService,
+                          RelevantParticipationService relevantParticipationService,
+                          LatestResultService latestResultService,
+                          MetricRegistry metricRegistry) {
 
-        this.userService = userService;
         this.resultRepository = resultRepository;
         this.ltiService = ltiService;
         this.participationService = participationService;
@@ -64,6 +71,9 @@ public class ResultResource {
         this.feedbackService = feedbackService;
         this.exerciseService = exerciseService;
         this.authCheckService = authCheckService;
+        this.relevantParticipationService = relevantParticipationService;
+        this.latestResultService = latestResultService;
+        this.relevantResultsTimer = metricRegistry.timer(MetricRegistry.name(ResultResource.class, "getResultsForExercise", "relevantResults"));
     }
 
     /**
@@ -80,10 +90,7 @@ public class ResultResource {
         log.debug("REST request to save Result : {}", result);
         Participation participation = result.getParticipation();
         Course course = participation.getExercise().getCourse();
-        User user = userService.getUserWithGroupsAndAuthorities();
-        if (!authCheckService.isTeachingAssistantInCourse(course, user) &&
-             !authCheckService.isInstructorInCourse(course, user) &&
-             !authCheckService.isAdmin()) {
+        if (!authCheckService.isAtLeastTeachingAssistantInCourse(course)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
@@ -104,7 +111,8 @@ public class ResultResource {
             result.setHasFeedback(true);
         }
 
-        Result savedResult = resultRepository.save(result);
+        Result savedResult = latestResultService.saveNewResult(result);
+        relevantParticipationService.evict(participation);
         try {
             // TODO this seems to break in too many cases - track how often this warning can be found in server logs
             participation.addResult(savedResult);
@@ -179,16 +187,14 @@ public class ResultResource {
         log.debug("REST request to update Result : {}", result);
         Participation participation = result.getParticipation();
         Course course = participation.getExercise().getCourse();
-        User user = userService.getUserWithGroupsAndAuthorities();
-        if (!authCheckService.isTeachingAssistantInCourse(course, user) &&
-             !authCheckService.isInstructorInCourse(course, user) &&
-             !authCheckService.isAdmin()) {
+        if (!authCheckService.isAtLeastTeachingAssistantInCourse(course)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
         if (result.getId() == null) {
             return createResult(result);
         }
-        resultRepository.save(result);
+        latestResultService.saveResult(result);
+        relevantParticipationService.evict(participation);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(ENTITY_NAME, result.getId().toString()))
             .body(result);
@@ -217,12 +223,9 @@ public class ResultResource {
 
         if (!authCheckService.isOwnerOfParticipation(participation)) {
             Course course = participation.getExercise().getCourse();
-            User user = userService.getUserWithGroupsAndAuthorities();
-             if(!authCheckService.isTeachingAssistantInCourse(course, user) &&
-                !authCheckService.isInstructorInCourse(course, user) &&
-                !authCheckService.isAdmin()) {
-                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
-             }
+            if (!authCheckService.isAtLeastTeachingAssistantInCourse(course)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
         }
         if (participation != null) {
             // if exercise is quiz => only give out results if quiz is over
@@ -271,15 +274,13 @@ public class ResultResource {
                                                               @RequestParam(defaultValue = "false") boolean ratedOnly,
                                                               @RequestParam(defaultValue = "false") boolean withSubmissions,
                                                               @RequestParam(defaultValue = "false") boolean withAssessors) {
-        long start = System.currentTimeMillis();
+        final Timer.Context timerContext = relevantResultsTimer.time();
         log.debug("REST request to get Results for Exercise : {}", exerciseId);
 
         Exercise exercise = exerciseService.findOneLoadParticipations(exerciseId);
         Course course = exercise.getCourse();
-        User user = userService.getUserWithGroupsAndAuthorities();
-        if (!authCheckService.isTeachingAssistantInCourse(course, user) &&
-             !authCheckService.isInstructorInCourse(course, user) &&
-             !authCheckService.isAdmin()) {
+        if (!authCheckService.isAtLeastTeachingAssistantInCourse(course)) {
+            timerContext.stop();
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
@@ -287,21 +288,27 @@ public class ResultResource {
 
         List<Result> results = new ArrayList<>();
 
-        List<Participation> participations = participationService.findByExerciseIdWithEagerResults(exerciseId);
+        // only the latest results of the participations and the number of results per participation are loaded
+        List<Participation> participations = participationService.findByExerciseId(exerciseId);
+        Map<Long, LatestResults> latestResults = latestResultService.findLatestResults(participations);
+        Map<Long, Long> submissionCounts = new HashMap<>();
+        for (Object[] submissionCount : resultRepository.findSubmissionCountsForStudents(exerciseId)) {
+            submissionCounts.put((Long) submissionCount[0], (Long) submissionCount[1]);
+        }
 
         for (Participation participation : participations) {
 
-            Result relevantResult = exercise.findLatestRelevantResult(participation);
+            Result relevantResult = LatestResultService.findLatestRelevantResult(exercise, participation, latestResults);
 
             if (relevantResult == null) {
                 continue;
             }
 
-            relevantResult.setSubmissionCount(new Long(participation.getResults().size()));
+            relevantResult.setSubmissionCount(submissionCounts.getOrDefault(participation.getId(), 0L));
             results.add(relevantResult);
         }
 
-        log.info("getResultsForExercise took " + (System.currentTimeMillis() - start) + "ms for " + results.size() + " results.");
+        log.info("getResultsForExercise took " + TimeUnit.NANOSECONDS.toMillis(timerContext.stop()) + "ms for " + results.size() + " results.");
 
         if (withSubmissions) {
             results.forEach(result -> {
@@ -331,10 +338,7 @@ public class ResultResource {
     public ResponseEntity<List<Result>> getResultsForCourse(@PathVariable Long courseId) {
         log.debug("REST request to get Results for Course : {}", courseId);
         Course course = courseService.findOne(courseId);
-        User user = userService.getUserWithGroupsAndAuthorities();
-        if (!authCheckService.isTeachingAssistantInCourse(course, user) &&
-             !authCheckService.isInstructorInCourse(course, user) &&
-             !authCheckService.isAdmin()) {
+        if (!authCheckService.isAtLeastTeachingAssistantInCourse(course)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
         List<Result> results = resultRepository.findEarliestSuccessfulResultsForCourse(courseId);
@@ -356,10 +360,7 @@ public class ResultResource {
         Result result = resultRepository.findOne(id);
         Participation participation = result.getParticipation();
         Course course = participation.getExercise().getCourse();
-        User user = userService.getUserWithGroupsAndAuthorities();
-        if (!authCheckService.isTeachingAssistantInCourse(course, user) &&
-             !authCheckService.isInstructorInCourse(course, user) &&
-             !authCheckService.isAdmin()) {
+        if (!authCheckService.isAtLeastTeachingAssistantInCourse(course)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
         return Optional.ofNullable(result)
@@ -389,11 +390,7 @@ public class ResultResource {
         Participation participation = result.getParticipation();
         Course course = participation.getExercise().getCourse();
         if (!authCheckService.isOwnerOfParticipation(participation)) {
-
-            User user = userService.getUserWithGroupsAndAuthorities();
-            if(!authCheckService.isTeachingAssistantInCourse(course, user) &&
-                !authCheckService.isInstructorInCourse(course, user) &&
-                !authCheckService.isAdmin()) {
+            if (!authCheckService.isAtLeastTeachingAssistantInCourse(course)) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
         }
@@ -422,13 +419,11 @@ public class ResultResource {
         Result result = resultRepository.findOne(id);
         Participation participation = result.getParticipation();
         Course course = participation.getExercise().getCourse();
-        User user = userService.getUserWithGroupsAndAuthorities();
-        if (!authCheckService.isTeachingAssistantInCourse(course, user) &&
-             !authCheckService.isInstructorInCourse(course, user) &&
-             !authCheckService.isAdmin()) {
+        if (!authCheckService.isAtLeastTeachingAssistantInCourse(course)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
-        resultRepository.delete(id);
+        latestResultService.deleteResult(result);
+        relevantParticipationService.evict(participation);
         return ResponseEntity.ok().headers(HeaderUtil.createEntityDeletionAlert(ENTITY_NAME, id.toString())).build();
     }
 
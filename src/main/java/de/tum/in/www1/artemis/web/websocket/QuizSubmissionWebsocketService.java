@@ -1,12 +1,11 @@
 package de.tum.in.www1.artemis.web.websocket;
 
 import de.tum.in.www1.artemis.domain.*;
-import de.tum.in.www1.artemis.service.AuthorizationCheckService;
-import de.tum.in.www1.artemis.service.ParticipationService;
-import de.tum.in.www1.artemis.service.QuizExerciseService;
 import de.tum.in.www1.artemis.service.QuizScheduleService;
+import de.tum.in.www1.artemis.service.QuizTiming;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
@@ -14,51 +13,66 @@ import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Controller;
 
 import java.security.Principal;
+import java.time.Instant;
 import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Saves the submissions that students send while a quiz is running (on every change of an answer).
+ *
+ * This is the hot path during a quiz, so nothing here touches the database: the quiz timing is cached
+ * (QuizScheduleService.getQuizTiming) and whether a user has already submitted is kept in memory. Saves of the same
+ * user within the echo window are answered with a small acknowledgement (only the submission date) instead of the
+ * whole submission.
+ */
 @SuppressWarnings("unused")
 @Controller
 public class QuizSubmissionWebsocketService {
     private static final Logger log = LoggerFactory.getLogger(QuizSubmissionWebsocketService.class);
 
-    private final QuizExerciseService quizExerciseService;
-    private final ParticipationService participationService;
+    private final QuizScheduleService quizScheduleService;
     private final SimpMessageSendingOperations messagingTemplate;
-    private final AuthorizationCheckService authCheckService;
 
-    public QuizSubmissionWebsocketService(QuizExerciseService quizExerciseService,
-                                          ParticipationService participationService,
-                                          SimpMessageSendingOperations messagingTemplate,
-                                          AuthorizationCheckService authCheckService) {
-        this.quizExerciseService = quizExerciseService;
-        this.participationService = participationService;
+    /**
+     * time in ms after a full echo of the submission during which further saves are only acknowledged (0 always echoes)
+     */
+    @Value("${artemis.quiz.submission-echo-window-ms:2000}")
+    private long ECHO_WINDOW;
+
+    /**
+     * time of the last full echo by username for each running quiz
+     */
+    private final Map<Long, Map<String, Long>> lastEchoTimes = new ConcurrentHashMap<>();
+
+    public QuizSubmissionWebsocketService(QuizScheduleService quizScheduleService,
+                                          SimpMessageSendingOperations messagingTemplate) {
+        this.quizScheduleService = quizScheduleService;
         this.messagingTemplate = messagingTemplate;
-        this.authCheckService = authCheckService;
     }
 
     @MessageMapping("/topic/quizExercise/{exerciseId}/submission")
     public void saveSubmission(@DestinationVariable Long exerciseId, @Payload QuizSubmission quizSubmission, Principal principal) {
         String username = principal.getName();
+        Instant now = Instant.now();
 
         // check if submission is still allowed
-        QuizExercise quizExercise = quizExerciseService.findOne(exerciseId);
-        if (!quizExercise.isSubmissionAllowed()) {
+        QuizTiming quizTiming = quizScheduleService.getQuizTiming(exerciseId);
+        if (quizTiming == null || !quizTiming.isSubmissionAllowed(now)) {
+            if (quizTiming == null || quizTiming.isEnded(now)) {
+                lastEchoTimes.remove(exerciseId);
+            }
             // TODO: notify user that submission was not saved because quiz is not active over payload and handle this case in the client
             messagingTemplate.convertAndSendToUser(username, "/topic/quizExercise/" + exerciseId + "/submission", null);
             return;
         }
 
         // check if user already submitted for this quiz
-        Participation participation = participationService.getParticipationForQuiz(quizExercise, username);
-        if (!participation.getResults().isEmpty()) {
-            // NOTE: At this point, there can only be one Result because we already checked
-            // if the quiz is active, so there is no way the student could have already practiced
-            Result result = (Result) participation.getResults().toArray()[0];
-            if (result.getSubmission().isSubmitted()) {
-                // TODO: notify user that submission was not saved because they already submitted over payload and handle this case in the client
-                messagingTemplate.convertAndSendToUser(username, "/topic/quizExercise/" + exerciseId + "/submission", null);
-                return;
-            }
+        if (quizScheduleService.hasUserSubmitted(exerciseId, username)) {
+            // TODO: notify user that submission was not saved because they already submitted over payload and handle this case in the client
+            messagingTemplate.convertAndSendToUser(username, "/topic/quizExercise/" + exerciseId + "/submission", null);
+            return;
         }
 
         // recreate pointers back to submission in each submitted answer
@@ -70,9 +84,30 @@ public class QuizSubmissionWebsocketService {
         quizSubmission.setSubmissionDate(ZonedDateTime.now());
 
         // save submission to HashMap
-        QuizScheduleService.updateSubmission(exerciseId, username, quizSubmission);
+        quizScheduleService.updateSubmission(exerciseId, username, quizSubmission);
 
-        // send updated submission over websocket
-        messagingTemplate.convertAndSendToUser(username, "/topic/quizExercise/" + exerciseId + "/submission", quizSubmission);
+        // send updated submission over websocket (the client relies on the full submission after submitting)
+        if (quizSubmission.isSubmitted() || shouldEcho(exerciseId, username, now.toEpochMilli())) {
+            messagingTemplate.convertAndSendToUser(username, "/topic/quizExercise/" + exerciseId + "/submission", quizSubmission);
+        } else {
+            messagingTemplate.convertAndSendToUser(username, "/topic/quizExercise/" + exerciseId + "/submission",
+                Collections.singletonMap("submissionDate", quizSubmission.getSubmissionDate()));
+        }
+    }
+
+    /**
+     * @return true if the last full echo to the user is older than the echo window (and remember this echo)
+     */
+    private boolean shouldEcho(Long exerciseId, String username, long currentTime) {
+        if (ECHO_WINDOW <= 0) {
+            return true;
+        }
+        Map<String, Long> echoTimes = lastEchoTimes.computeIfAbsent(exerciseId, id -> new ConcurrentHashMap<>());
+        Long lastEchoTime = echoTimes.get(username);
+        if (lastEchoTime != null && currentTime - lastEchoTime < ECHO_WINDOW) {
+            return false;
+        }
+        echoTimes.put(username, currentTime);
+        return true;
     }
 }
@@ -0,0 +1,45 @@
+package de.tum.in.www1.artemis.config;
+
+import com.codahale.metrics.MetricRegistry;
+import io.github.jhipster.config.JHipsterProperties;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.dropwizard.DropwizardExports;
+import io.prometheus.client.exporter.MetricsServlet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.ServletContextInitializer;
+import org.springframework.context.annotation.Configuration;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+
+/**
+ * Exposes all Dropwizard metrics (including the timers and gauges of the quiz, Bamboo, Compass and Git services) in the
+ * Prometheus text format. Only part of the build with -Pprometheus (see gradle/prometheus.gradle).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "jhipster.metrics.prometheus", name = "enabled")
+public class PrometheusMetricsConfiguration implements ServletContextInitializer {
+
+    private final Logger log = LoggerFactory.getLogger(PrometheusMetricsConfiguration.class);
+
+    private final MetricRegistry metricRegistry;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    public PrometheusMetricsConfiguration(MetricRegistry metricRegistry, JHipsterProperties jHipsterProperties) {
+        this.metricRegistry = metricRegistry;
+        this.jHipsterProperties = jHipsterProperties;
+    }
+
+    @Override
+    public void onStartup(ServletContext servletContext) throws ServletException {
+        String endpoint = jHipsterProperties.getMetrics().getPrometheus().getEndpoint();
+        log.info("Initializing Metrics Prometheus endpoint at {}", endpoint);
+        CollectorRegistry.defaultRegistry.register(new DropwizardExports(metricRegistry));
+        servletContext
+            .addServlet("prometheusMetrics", new MetricsServlet(CollectorRegistry.defaultRegistry))
+            .addMapping(endpoint);
+    }
+}
@@ -189,15 +189,50 @@ export class ExerciseListComponent implements OnInit, OnDestroy {
             return this.router.navigate(['/quiz', exercise.id]);
         }
 
-        this.courseExerciseService.start(this.course.id, exercise.id).finally(() => exercise.loading = false)
+        // the participation of a programming exercise is initialized on the server after the response, the progress arrives via websocket
+        const progressChannel = '/user/topic/exercise/' + exercise.id + '/participation';
+        let initializationDone = false;
+        this.jhiWebsocketService.subscribe(progressChannel);
+        this.jhiWebsocketService.receive(progressChannel).subscribe(progress => {
+            exercise['participation'] = Object.assign({}, exercise['participation'], {
+                id: progress.participationId,
+                initializationState: progress.initializationState,
+                repositoryUrl: progress.repositoryUrl,
+                buildPlanId: progress.buildPlanId
+            });
+            if (progress.finished || progress.failed) {
+                initializationDone = true;
+                this.jhiWebsocketService.unsubscribe(progressChannel);
+                exercise.loading = false;
+                exercise.participationStatus = this.participationStatus(exercise);
+                if (progress.finished) {
+                    this.jhiAlertService.success('arTeMiSApp.exercise.personalRepository');
+                } else {
+                    this.jhiAlertService.warning('arTeMiSApp.exercise.startError');
+                }
+            }
+        });
+
+        this.courseExerciseService.start(this.course.id, exercise.id)
             .subscribe(data => {
+                    if (initializationDone) {
+                        // the initialization has already finished, the response contains an older state
+                        return;
+                    }
                     if (data) {
                         exercise['participation'] = data.participation;
                         exercise.participationStatus = this.participationStatus(exercise);
                     }
-                    this.jhiAlertService.success('arTeMiSApp.exercise.personalRepository');
+                    if (!data || !data.participation || data.participation.initializationState === 'INITIALIZED') {
+                        initializationDone = true;
+                        this.jhiWebsocketService.unsubscribe(progressChannel);
+                        exercise.loading = false;
+                        this.jhiAlertService.success('arTeMiSApp.exercise.personalRepository');
+                    }
                 }, error => {
                     console.log(error);
+                    this.jhiWebsocketService.unsubscribe(progressChannel);
+                    exercise.loading = false;
                     this.jhiAlertService.warning('arTeMiSApp.exercise.startError');
                 }
             );
@@ -270,6 +305,9 @@ export class ExerciseListComponent implements OnInit, OnDestroy {
             return 'uninitialized';
         } else if (exercise.participation.initializationState === 'INITIALIZED') {
             return 'initialized';
+        } else if (exercise.type === 'programming-exercise' && exercise.participation.initializationState !== 'INACTIVE' &&
+            exercise.participation.initializationState !== 'FINISHED') {
+            return 'initializing';
         }
         return 'inactive';
     }
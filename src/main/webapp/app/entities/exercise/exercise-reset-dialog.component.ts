@@ -4,21 +4,25 @@ import { Exercise } from './exercise.model';
 import { ActivatedRoute } from '@angular/router';
 import { ExercisePopupService } from './exercise-popup.service';
 import { ExerciseService } from './exercise.service';
+import { JhiWebsocketService } from '../../shared';
 
 @Component({
     selector: 'jhi-exercise-reset-dialog',
     templateUrl: './exercise-reset-dialog.component.html'
 })
-export class ExerciseResetDialogComponent implements OnInit {
+export class ExerciseResetDialogComponent implements OnInit, OnDestroy {
 
     exercise: Exercise;
     confirmExerciseName: string;
     deleteParticipations: boolean;
     resetInProgress: boolean;
+    resetProgress: any;
+    progressChannel: string;
 
     constructor(
         public activeModal: NgbActiveModal,
-        public exerciseService: ExerciseService
+        public exerciseService: ExerciseService,
+        private jhiWebsocketService: JhiWebsocketService
     ) {
     }
 
@@ -32,15 +36,36 @@ export class ExerciseResetDialogComponent implements OnInit {
         this.activeModal.dismiss('cancel');
     }
 
+    ngOnDestroy() {
+        this.unsubscribeFromProgress();
+    }
+
     confirmReset(id) {
         this.resetInProgress = true;
-        this.exerciseService.reset(id).subscribe(() => {
-            this.activeModal.close(true);
-            this.resetInProgress = false;
-        }, () => {
+        this.resetProgress = null;
+        // the participations are deleted in the background, the progress arrives via websocket
+        this.progressChannel = '/user/topic/exercise/' + id + '/reset';
+        this.jhiWebsocketService.subscribe(this.progressChannel);
+        this.jhiWebsocketService.receive(this.progressChannel).subscribe(progress => {
+            this.resetProgress = progress;
+            if (progress.finished) {
+                this.unsubscribeFromProgress();
+                this.resetInProgress = false;
+                this.activeModal.close(true);
+            }
+        });
+        this.exerciseService.reset(id).subscribe(() => {}, () => {
+            this.unsubscribeFromProgress();
             this.resetInProgress = false;
         });
     }
+
+    private unsubscribeFromProgress() {
+        if (this.progressChannel) {
+            this.jhiWebsocketService.unsubscribe(this.progressChannel);
+            this.progressChannel = null;
+        }
+    }
 }
 
 @Component({
@@ -6,23 +6,27 @@ import { JhiAlertService } from 'ng-jhipster';
 
 import { InstructorDashboardPopupService } from './instructor-dashboard-popup.service';
 import { Exercise, ExerciseService } from '../entities/exercise';
+import { JhiWebsocketService } from '../shared';
 
 @Component({
     selector: 'jhi-instructor-dashboard-cleanup-dialog',
     templateUrl: './instructor-dashboard-cleanup-dialog.component.html'
 })
-export class InstructorDashboardCleanupDialogComponent {
+export class InstructorDashboardCleanupDialogComponent implements OnDestroy {
 
     exercise: Exercise;
     confirmExerciseName;
     deleteRepositories: boolean;
     cleanupInProgress;
     deleteInProgress;
+    cleanupProgress: any;
+    progressChannel: string;
 
     constructor(
         private exerciseService: ExerciseService,
         public activeModal: NgbActiveModal,
-        private jhiAlertService: JhiAlertService
+        private jhiAlertService: JhiAlertService,
+        private jhiWebsocketService: JhiWebsocketService
     ) {
         this.confirmExerciseName = '';
         this.deleteRepositories = false;
@@ -33,29 +37,40 @@ export class InstructorDashboardCleanupDialogComponent {
         this.activeModal.dismiss('cancel');
     }
 
+    ngOnDestroy() {
+        this.unsubscribeFromProgress();
+    }
+
     confirmCleanup(id: number) {
         this.cleanupInProgress = true;
-        this.exerciseService.cleanup(id, this.deleteRepositories).subscribe(
-            response => {
-                this.deleteInProgress = false;
+        this.cleanupProgress = null;
+        // the build plans and repositories are deleted in the background, the progress arrives via websocket
+        this.progressChannel = '/user/topic/exercise/' + id + '/cleanup';
+        this.jhiWebsocketService.subscribe(this.progressChannel);
+        this.jhiWebsocketService.receive(this.progressChannel).subscribe(progress => {
+            this.cleanupProgress = progress;
+            if (progress.finished) {
+                this.unsubscribeFromProgress();
+                this.cleanupInProgress = false;
                 if (this.deleteRepositories) {
                     this.jhiAlertService.success('Cleanup was successful. All build plans and repositories have been deleted. All participations have been marked as Finished.');
                 } else {
                     this.jhiAlertService.success('Cleanup was successful. All build plans have been deleted. Students can resume their participation.');
                 }
                 this.activeModal.dismiss(true);
-                const blob = new Blob([response.body], { type: 'application/zip' });
-                const url = window.URL.createObjectURL(blob);
-                const link = document.createElement('a');
-                link.setAttribute('href', url);
-                link.setAttribute('download', response.headers.get('filename'));
-                document.body.appendChild(link); // Required for FF
-                link.click();
-                window.URL.revokeObjectURL(url);
-            },
-            err => {
-                this.deleteInProgress = false;
-            });
+            }
+        });
+        this.exerciseService.cleanup(id, this.deleteRepositories).subscribe(() => {}, () => {
+            this.unsubscribeFromProgress();
+            this.cleanupInProgress = false;
+        });
+    }
+
+    private unsubscribeFromProgress() {
+        if (this.progressChannel) {
+            this.jhiWebsocketService.unsubscribe(this.progressChannel);
+            this.progressChannel = null;
+        }
     }
 }
 
@@ -715,6 +715,17 @@ export class QuizComponent implements OnInit, OnDestroy {
             this.submission = response;
             this.updateSubmissionTime();
             this.applySubmission();
+        } else if (!response.submittedAnswers) {
+            // acknowledgement of a save that only contains the new submission date
+            if (this.outstandingWebsocketResponses > 0) {
+                this.outstandingWebsocketResponses--;
+            }
+            if (this.outstandingWebsocketResponses === 0) {
+                this.isSaving = false;
+                this.unsavedChanges = false;
+                this.submission.submissionDate = response.submissionDate;
+                this.updateSubmissionTime();
+            }
         } else if (this.outstandingWebsocketResponses === 0) {
             this.isSaving = false;
             this.unsavedChanges = false;
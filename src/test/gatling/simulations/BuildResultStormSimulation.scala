@@ -0,0 +1,87 @@
+package simulations
+
+import java.time.ZonedDateTime
+import java.time.format.DateTimeFormatter
+
+import _root_.io.gatling.core.scenario.Simulation
+import io.gatling.core.Predef._
+import io.gatling.core.structure.ScenarioBuilder
+import io.gatling.http.Predef._
+import simulations.LoadTestSupport._
+
+import scala.concurrent.duration._
+
+/**
+  * Load test for the hours before the due date of a programming exercise: many students push at the same time and the
+  * CI server notifies ArTEMiS about every new build result (POST /api/results/{planKey}). For every notification,
+  * ArTEMiS fetches the build result and the failed tests from the Bamboo stub, while the students reload their results.
+  *
+  * System properties: participations (number of build plans), rate (notifications per second at the peak), ramp and
+  * duration (seconds of the ramp up and the peak), p95 and p99 (SLOs in ms)
+  */
+class BuildResultStormSimulation extends Simulation {
+
+    val numberOfParticipations: Int = intProperty("participations", 300)
+    val peakRate: Int = intProperty("rate", 50)
+    val rampSeconds: Int = intProperty("ramp", 60)
+    val durationSeconds: Int = intProperty("duration", 180)
+
+    val stubServer: StubServer = new StubServer(stubPort).start()
+    val admin: AdminClient = AdminClient.login()
+    val courseId: Long = admin.createCourse("Load Test Build Results")
+    val exerciseId: Long = admin.id(admin.post("/api/programming-exercises", Map(
+        "type" -> "programming-exercise",
+        "title" -> "Load Test Build Results",
+        "course" -> Map("id" -> courseId),
+        "maxScore" -> 100,
+        "baseRepositoryUrl" -> ("http://localhost:" + stubPort + "/bitbucket/scm/LOADTEST/loadtest-exercise.git"),
+        "baseBuildPlanId" -> "LOADTEST-BASE",
+        "publishBuildPlanUrl" -> false,
+        "allowOnlineEditor" -> false
+    )))
+
+    // one initialized participation with its own build plan per student, like after "Start Exercise"
+    val participations: IndexedSeq[Map[String, Any]] = (0 until numberOfParticipations).map { i =>
+        val username = f"student$i%04d"
+        val buildPlanId = "LOADTEST-" + username.toUpperCase
+        val participation = admin.post("/api/participations", Map(
+            "student" -> Map("id" -> admin.userId(username)),
+            "exercise" -> Map("type" -> "programming-exercise", "id" -> exerciseId, "course" -> Map("id" -> courseId)),
+            "buildPlanId" -> buildPlanId,
+            "repositoryUrl" -> ("http://" + username + "@localhost:" + stubPort + "/bitbucket/scm/LOADTEST/" + buildPlanId.toLowerCase + ".git"),
+            "initializationState" -> "INITIALIZED",
+            "initializationDate" -> ZonedDateTime.now().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME)
+        ))
+        Map("username" -> username, "password" -> "loadtest", "planKey" -> buildPlanId, "participationId" -> admin.id(participation))
+    }
+
+    after {
+        stubServer.stop()
+    }
+
+    val ciServer: ScenarioBuilder = scenario("CI server notifying new build results")
+        .feed(participations.toArray.circular)
+        .exec(http("Notify new result")
+            .post("/api/results/${planKey}")
+            .check(status.is(200)))
+
+    val students: ScenarioBuilder = scenario("Students waiting for their results")
+        .feed(participations.toArray.circular)
+        .exec(login)
+        .during((rampSeconds + durationSeconds) seconds) {
+            exec(http("Get results of participation")
+                .get("/api/courses/" + courseId + "/exercises/" + exerciseId + "/participations/${participationId}/results?showAllResults=false")
+                .headers(headers_http_authenticated)
+                .check(status.is(200)))
+                .pause(10 seconds, 30 seconds)
+        }
+
+    setUp(
+        ciServer.inject(
+            rampUsersPerSec(1) to peakRate during (rampSeconds seconds),
+            constantUsersPerSec(peakRate) during (durationSeconds seconds)
+        ),
+        students.inject(rampUsers(numberOfParticipations) over (rampSeconds seconds))
+    ).protocols(httpConf)
+        .assertions(sloAssertions(p95 = 1000, p99 = 3000): _*)
+}
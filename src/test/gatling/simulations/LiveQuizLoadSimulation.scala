@@ -0,0 +1,138 @@
+package simulations
+
+import _root_.io.gatling.core.scenario.Simulation
+import io.gatling.core.Predef._
+import io.gatling.core.json._
+import io.gatling.core.structure.ScenarioBuilder
+import io.gatling.http.Predef._
+import simulations.LoadTestSupport._
+
+import scala.concurrent.duration._
+import scala.util.Random
+import scala.util.parsing.json.JSON
+
+/**
+  * Load test for a live quiz in the lecture: the students open the quiz and wait in the lobby (SockJS / STOMP),
+  * the instructor starts the quiz, the students receive it, save their answers several times over the websocket,
+  * submit at the end and receive their result when the quiz has ended.
+  *
+  * System properties: students (number of students), ramp (seconds until all students have connected), updates (answer
+  * updates per student), updatePause (seconds between the updates), p95 and p99 (SLOs in ms)
+  */
+class LiveQuizLoadSimulation extends Simulation {
+
+    val numberOfStudents: Int = intProperty("students", 500)
+    val rampSeconds: Int = intProperty("ramp", 60)
+    val numberOfUpdates: Int = intProperty("updates", 10)
+    val updatePauseSeconds: Int = intProperty("updatePause", 5)
+
+    // the quiz starts when all students are in the lobby and ends when the slowest student had enough time to submit
+    val startDelaySeconds: Int = rampSeconds + 10
+    val quizDurationSeconds: Int = numberOfUpdates * updatePauseSeconds * 2 + 60
+
+    val stubServer: StubServer = new StubServer(stubPort).start()
+    val admin: AdminClient = AdminClient.login()
+    val courseId: Long = admin.createCourse("Load Test Live Quiz")
+    val quizId: Long = admin.id(admin.post("/api/quiz-exercises", Map(
+        "type" -> "quiz-exercise",
+        "title" -> "Load Test Live Quiz",
+        "course" -> Map("id" -> courseId),
+        "duration" -> quizDurationSeconds,
+        "isVisibleBeforeStart" -> true,
+        "isOpenForPractice" -> false,
+        "isPlannedToStart" -> false,
+        "randomizeQuestionOrder" -> true,
+        "questions" -> List.tabulate(10)(i => Map(
+            "type" -> "multiple-choice",
+            "title" -> ("Question " + (i + 1)),
+            "text" -> "Which of the following statements are correct?",
+            "score" -> 2,
+            "scoringType" -> "ALL_OR_NOTHING",
+            "randomizeOrder" -> true,
+            "answerOptions" -> List.tabulate(4)(j => Map(
+                "text" -> ("Statement " + (j + 1)),
+                "isCorrect" -> (j % 2 == 0)
+            ))
+        ))
+    )))
+
+    val quizTopic: String = "/topic/quizExercise/" + quizId
+    val submissionTopic: String = quizTopic + "/submission"
+
+    after {
+        stubServer.stop()
+    }
+
+    /**
+      * Selects random answers for all multiple choice and drag and drop questions, like a student does in the client
+      *
+      * @param questionsString the questions of the quiz as a JSON string
+      * @param submit true if the student submits the answers
+      * @return the quiz submission as a JSON string
+      */
+    def randomSubmission(questionsString: String, submit: Boolean): String = {
+        val questions = JSON.parseFull(questionsString).get.asInstanceOf[List[Map[String, Any]]]
+        val submittedAnswers = questions.map(question => question("type") match {
+            case "multiple-choice" =>
+                val answerOptions = question("answerOptions").asInstanceOf[List[Map[String, Any]]]
+                Map("type" -> "multiple-choice", "question" -> question, "selectedOptions" -> answerOptions.filter(_ => Random.nextBoolean()))
+            case "drag-and-drop" =>
+                val dragItems = Random.shuffle(question("dragItems").asInstanceOf[List[Map[String, Any]]])
+                val dropLocations = Random.shuffle(question("dropLocations").asInstanceOf[List[Map[String, Any]]])
+                Map("type" -> "drag-and-drop", "question" -> question,
+                    "mappings" -> dragItems.zip(dropLocations).map { case (dragItem, dropLocation) => Map("dragItem" -> dragItem, "dropLocation" -> dropLocation) })
+        })
+        Json.stringify(Map("submittedAnswers" -> submittedAnswers, "submitted" -> submit))
+    }
+
+    val students: ScenarioBuilder = scenario("Students in the live quiz")
+        .feed(users("student", numberOfStudents))
+        .exec(login)
+        .exec(http("Get dashboard")
+            .get("/api/courses/for-dashboard")
+            .headers(headers_http_authenticated)
+            .check(status.is(200)))
+        .exec(sockJsPath)
+        .exec(ws("Open websocket").open("${sockJsPath}"))
+        .exec(ws("Connect STOMP")
+            .sendText(stompConnect)
+            .check(wsAwait.within(10 seconds).until(1).regex("CONNECTED")))
+        .exec(ws("Subscribe quiz").sendText(stompSubscribe("sub-0", quizTopic)))
+        .exec(ws("Subscribe submission").sendText(stompSubscribe("sub-1", "/user" + submissionTopic)))
+        .exec(ws("Subscribe participation").sendText(stompSubscribe("sub-2", "/user" + quizTopic + "/participation")))
+        // lobby: the quiz is sent to all subscribers when the instructor starts it
+        .exec(ws("Receive quiz start")
+            .check(wsAwait.within((startDelaySeconds + 60) seconds).until(1).regex("destination:" + quizTopic + "\\\\n")))
+        .exec(http("Get participation with quiz")
+            .get("/api/courses/" + courseId + "/exercises/" + quizId + "/participation")
+            .headers(headers_http_authenticated)
+            .check(status.is(200))
+            .check(jsonPath("$.exercise.questions").saveAs("questions"))).exitHereIfFailed
+        .repeat(numberOfUpdates) {
+            pause((updatePauseSeconds / 2) seconds, (updatePauseSeconds * 3 / 2) seconds)
+                .exec(ws("Save answers")
+                    .sendText(session => stompSend(submissionTopic, randomSubmission(session("questions").as[String], submit = false)))
+                    .check(wsAwait.within(10 seconds).until(1).regex("submissionDate")))
+        }
+        .exec(ws("Submit answers")
+            .sendText(session => stompSend(submissionTopic, randomSubmission(session("questions").as[String], submit = true)))
+            .check(wsAwait.within(10 seconds).until(1).regex("submitted\\W+true")))
+        .exec(ws("Receive result")
+            .check(wsAwait.within((quizDurationSeconds + 120) seconds).until(1).regex("destination:/user" + quizTopic + "/participation")))
+        .exec(ws("Close websocket").close)
+
+    val instructor: ScenarioBuilder = scenario("Instructor starting the live quiz")
+        .feed(Iterator.continually(Map("username" -> adminUsername, "password" -> adminPassword)))
+        .exec(login)
+        .pause(startDelaySeconds seconds)
+        .exec(http("Start quiz")
+            .post("/api/quiz-exercises/" + quizId + "/start-now")
+            .headers(headers_http_authenticated)
+            .check(status.is(200)))
+
+    setUp(
+        students.inject(rampUsers(numberOfStudents) over (rampSeconds seconds)),
+        instructor.inject(atOnceUsers(1))
+    ).protocols(httpConf)
+        .assertions(sloAssertions(p95 = 500, p99 = 1500): _*)
+}
@@ -0,0 +1,298 @@
+package simulations
+
+import java.io.{InputStream, OutputStream}
+import java.net.{HttpURLConnection, InetSocketAddress, URL, URLDecoder}
+import java.nio.charset.StandardCharsets
+import java.time.ZonedDateTime
+import java.time.format.DateTimeFormatter
+import java.util.concurrent.{ExecutorService, Executors}
+
+import com.sun.net.httpserver.{HttpExchange, HttpHandler, HttpServer}
+import io.gatling.core.Predef._
+import io.gatling.core.json._
+import io.gatling.core.structure.ChainBuilder
+import io.gatling.http.Predef._
+import io.gatling.http.protocol.HttpProtocolBuilder
+
+import scala.io.Source
+import scala.util.Random
+import scala.util.parsing.json.{JSON, JSONFormat}
+
+/**
+  * Shared setup of the load test simulations (LiveQuizLoadSimulation, BuildResultStormSimulation and MarkingWeekSimulation).
+  *
+  * The simulations run against a local ArTEMiS instance that is started with the profile "loadtest" in addition to the
+  * usual profiles (--spring.profiles.active=dev,bamboo,bitbucket,jira,loadtest). This profile points JIRA, Bitbucket and
+  * Bamboo to the StubServer, which the simulations start in the Gatling JVM. The JIRA stub accepts every user; the
+  * group of a user is derived from the prefix of the username (admin, instructor, tutor, student).
+  *
+  * Every simulation creates its own course and exercises with the admin account before the load starts.
+  */
+object LoadTestSupport {
+
+    val baseURL: String = Option(System.getProperty("baseURL")) getOrElse """http://localhost:8080"""
+    val wsBaseURL: String = baseURL.replaceFirst("^http", "ws")
+    val stubPort: Int = intProperty("stubPort", 8099)
+    val adminUsername: String = Option(System.getProperty("adminUsername")) getOrElse "admin"
+    val adminPassword: String = Option(System.getProperty("adminPassword")) getOrElse "admin"
+
+    val studentGroup = "loadtest-students"
+    val tutorGroup = "loadtest-tutors"
+    val instructorGroup = "loadtest-instructors"
+    val adminGroup = "loadtest-admins"
+
+    def intProperty(name: String, default: Int): Int = Integer.getInteger(name, default)
+
+    val httpConf: HttpProtocolBuilder = http
+        .baseURL(baseURL)
+        .wsBaseURL(wsBaseURL)
+        .acceptHeader("*/*")
+        .acceptEncodingHeader("gzip, deflate")
+        .acceptLanguageHeader("en-us,en;q=0.5")
+        .connectionHeader("keep-alive")
+        .userAgentHeader("Mozilla/5.0 (Macintosh; Intel Mac OS X 10.13; rv:60.0) Gecko/20100101 Firefox/60.0")
+
+    val headers_http_authentication = Map(
+        "Content-Type" -> """application/json""",
+        "Accept" -> """application/json"""
+    )
+
+    val headers_http_authenticated = Map(
+        "Accept" -> """application/json""",
+        "Authorization" -> "${access_token}"
+    )
+
+    val headers_http_authenticated_json = Map(
+        "Content-Type" -> """application/json""",
+        "Accept" -> """application/json""",
+        "Authorization" -> "${access_token}"
+    )
+
+    /**
+      * @return a feeder with the usernames prefix0000, prefix0001, ... (the JIRA stub accepts any password)
+      */
+    def users(prefix: String, count: Int): Iterator[Map[String, String]] = Iterator.tabulate(count)(i => Map(
+        "username" -> f"$prefix$i%04d",
+        "password" -> "loadtest"
+    ))
+
+    /**
+      * Logs in the user of the session, saves the header "Authorization" as access_token and the JWT as jwt
+      */
+    val login: ChainBuilder = exec(http("Authentication")
+        .post("/api/authenticate")
+        .headers(headers_http_authentication)
+        .body(StringBody("""{"username":"${username}", "password":"${password}", "rememberMe":false}""")).asJSON
+        .check(status.is(200))
+        .check(header("Authorization").saveAs("access_token"))
+        .check(headerRegex("Authorization", "Bearer (.*)").saveAs("jwt"))).exitHereIfFailed
+
+    /**
+      * Sets sockJsPath to the url of the SockJS websocket transport (/websocket/tracker/{server}/{session}/websocket),
+      * like the SockJS client of the browser does. The JWT is passed as query parameter.
+      */
+    val sockJsPath: ChainBuilder = exec(session => session.set("sockJsPath",
+        "/websocket/tracker/" + Random.nextInt(1000) + "/" + Random.alphanumeric.take(8).mkString.toLowerCase + "/websocket?access_token=" + session("jwt").as[String]))
+
+    /**
+      * SockJS sends messages as JSON arrays of strings
+      */
+    def sockJsFrame(stompFrame: String): String = "[\"" + JSONFormat.quoteString(stompFrame) + "\"]"
+
+    def stompConnect: String = sockJsFrame("CONNECT\naccept-version:1.1,1.2\nheart-beat:0,0\n\n\u0000")
+
+    def stompSubscribe(id: String, destination: String): String = sockJsFrame("SUBSCRIBE\nid:" + id + "\ndestination:" + destination + "\n\n\u0000")
+
+    def stompSend(destination: String, body: String): String = sockJsFrame("SEND\ndestination:" + destination + "\ncontent-type:application/json\n\n" + body + "\u0000")
+
+    /**
+      * Service level objectives of a simulation: the 95th and 99th percentile of the response times of all requests
+      * (percentile3 and percentile4 in gatling.conf), overridable with the system properties p95 and p99 (in ms)
+      */
+    def sloAssertions(p95: Int, p99: Int) = Seq(
+        global.responseTime.percentile3.lt(intProperty("p95", p95)),
+        global.responseTime.percentile4.lt(intProperty("p99", p99)),
+        global.failedRequests.percent.lt(1)
+    )
+}
+
+/**
+  * Canned JIRA, Bitbucket and Bamboo REST API on one port: JIRA below /jira, Bitbucket below /bitbucket and Bamboo
+  * below /bamboo. Every response is delayed by the system property stubLatencyMs to resemble the real servers.
+  */
+class StubServer(port: Int) {
+
+    private val latencyMs: Int = LoadTestSupport.intProperty("stubLatencyMs", 50)
+    private val server: HttpServer = HttpServer.create(new InetSocketAddress(port), 0)
+    private val executor: ExecutorService = Executors.newFixedThreadPool(64)
+
+    server.createContext("/jira", handler(jira))
+    server.createContext("/bitbucket", handler(_ => (200, "{}")))
+    server.createContext("/bamboo", handler(bamboo))
+    server.setExecutor(executor)
+
+    def start(): StubServer = {
+        server.start()
+        this
+    }
+
+    def stop(): Unit = {
+        server.stop(0)
+        executor.shutdownNow()
+    }
+
+    private def handler(respond: HttpExchange => (Int, String)): HttpHandler = new HttpHandler {
+        override def handle(exchange: HttpExchange): Unit = {
+            try {
+                if (latencyMs > 0) {
+                    Thread.sleep(latencyMs)
+                }
+                val (status, body) = respond(exchange)
+                val bytes = body.getBytes(StandardCharsets.UTF_8)
+                exchange.getResponseHeaders.set("Content-Type", "application/json")
+                exchange.sendResponseHeaders(status, bytes.length)
+                val output: OutputStream = exchange.getResponseBody
+                output.write(bytes)
+                output.close()
+            } finally {
+                exchange.close()
+            }
+        }
+    }
+
+    private def jira(exchange: HttpExchange): (Int, String) = {
+        val path = exchange.getRequestURI.getPath
+        if (path.endsWith("/rest/api/2/user")) {
+            val username = queryParameter(exchange, "username").getOrElse("unknown")
+            (200, Json.stringify(Map(
+                "name" -> username,
+                "displayName" -> ("Load Test " + username),
+                "emailAddress" -> (username + "@loadtest.local"),
+                "groups" -> Map("size" -> 1, "items" -> List(Map("name" -> groupOf(username))))
+            )))
+        } else if (path.endsWith("/rest/api/2/user/search")) {
+            (200, "[]")
+        } else {
+            (200, "{}")
+        }
+    }
+
+    private def groupOf(username: String): String = {
+        if (username.startsWith("admin")) LoadTestSupport.adminGroup
+        else if (username.startsWith("instructor")) LoadTestSupport.instructorGroup
+        else if (username.startsWith("tutor")) LoadTestSupport.tutorGroup
+        else LoadTestSupport.studentGroup
+    }
+
+    private val numberOfTests = 12
+
+    private def bamboo(exchange: HttpExchange): (Int, String) = {
+        val path = exchange.getRequestURI.getPath
+        if (!path.contains("/rest/api/latest/result/")) {
+            (200, "{}")
+        } else if (path.contains("-JOB1/")) {
+            // details of the failed tests of the latest build
+            val failedTests = List.tabulate(Random.nextInt(4))(i => Map(
+                "className" -> "de.tum.in.www1.loadtest.ExerciseTest",
+                "methodName" -> ("testCase" + i),
+                "errors" -> Map("error" -> List(Map("message" -> ("expected:<" + i + "> but was:<" + (i + 1) + ">\n\tat org.junit.Assert.fail"))))
+            ))
+            (200, Json.stringify(Map("testResults" -> Map("failedTests" -> Map("testResult" -> failedTests)))))
+        } else {
+            // the latest build, always completed just now so that ArTEMiS does not wait for a newer one
+            val failed = if (Random.nextDouble() < 0.3) 0 else 1 + Random.nextInt(numberOfTests)
+            (200, Json.stringify(Map(
+                "successful" -> (failed == 0),
+                "buildTestSummary" -> (if (failed == 0) numberOfTests + " passed" else failed + " of " + numberOfTests + " failed"),
+                "buildCompletedDate" -> ZonedDateTime.now().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME),
+                "buildReason" -> "Changes by Load Test",
+                "artifacts" -> Map("size" -> 0)
+            )))
+        }
+    }
+
+    private def queryParameter(exchange: HttpExchange, name: String): Option[String] = {
+        Option(exchange.getRequestURI.getRawQuery).toList
+            .flatMap(_.split("&"))
+            .map(_.split("=", 2))
+            .collectFirst { case Array(key, value) if key == name => URLDecoder.decode(value, "UTF-8") }
+    }
+}
+
+/**
+  * Blocking REST client for the setup of the simulations, its requests are not part of the measurements
+  */
+class AdminClient(accessToken: String) {
+
+    def get(path: String): Any = AdminClient.request("GET", path, None, Some(accessToken))
+
+    def post(path: String, body: Any): Any = AdminClient.request("POST", path, Some(Json.stringify(body)), Some(accessToken))
+
+    def put(path: String, body: Any): Any = AdminClient.request("PUT", path, Some(Json.stringify(body)), Some(accessToken))
+
+    def createCourse(title: String): Long = id(post("/api/courses", Map(
+        "title" -> title,
+        "studentGroupName" -> LoadTestSupport.studentGroup,
+        "teachingAssistantGroupName" -> LoadTestSupport.tutorGroup,
+        "instructorGroupName" -> LoadTestSupport.instructorGroup,
+        "onlineCourse" -> false
+    )))
+
+    /**
+      * @return the id of the user with the given login, the user is created by logging in once
+      */
+    def userId(username: String): Long = {
+        AdminClient.login(username, "loadtest")
+        id(get("/api/users/" + username))
+    }
+
+    def id(entity: Any): Long = entity.asInstanceOf[Map[String, Any]]("id").asInstanceOf[Double].toLong
+}
+
+object AdminClient {
+
+    def login(): AdminClient = login(LoadTestSupport.adminUsername, LoadTestSupport.adminPassword)
+
+    def login(username: String, password: String): AdminClient = {
+        val connection = open("POST", "/api/authenticate", None)
+        write(connection, Json.stringify(Map("username" -> username, "password" -> password, "rememberMe" -> false)))
+        if (connection.getResponseCode != 200) {
+            throw new IllegalStateException("Could not log in as " + username + ": " + connection.getResponseCode)
+        }
+        new AdminClient(connection.getHeaderField("Authorization"))
+    }
+
+    private[simulations] def request(method: String, path: String, body: Option[String], accessToken: Option[String]): Any = {
+        val connection = open(method, path, accessToken)
+        body.foreach(write(connection, _))
+        val status = connection.getResponseCode
+        if (status >= 400) {
+            throw new IllegalStateException(method + " " + path + " failed with " + status + ": " + read(connection.getErrorStream))
+        }
+        val response = read(connection.getInputStream)
+        if (response.isEmpty) null else JSON.parseFull(response).orNull
+    }
+
+    private def open(method: String, path: String, accessToken: Option[String]): HttpURLConnection = {
+        val connection = new URL(LoadTestSupport.baseURL + path).openConnection().asInstanceOf[HttpURLConnection]
+        connection.setRequestMethod(method)
+        connection.setRequestProperty("Accept", "application/json")
+        connection.setRequestProperty("Content-Type", "application/json")
+        accessToken.foreach(connection.setRequestProperty("Authorization", _))
+        connection
+    }
+
+    private def write(connection: HttpURLConnection, body: String): Unit = {
+        connection.setDoOutput(true)
+        val output = connection.getOutputStream
+        output.write(body.getBytes(StandardCharsets.UTF_8))
+        output.close()
+    }
+
+    private def read(input: InputStream): String = {
+        if (input == null) {
+            return ""
+        }
+        try Source.fromInputStream(input, "UTF-8").mkString finally input.close()
+    }
+}
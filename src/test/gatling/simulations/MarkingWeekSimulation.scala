@@ -0,0 +1,171 @@
+package simulations
+
+import _root_.io.gatling.core.scenario.Simulation
+import io.gatling.core.Predef._
+import io.gatling.core.json._
+import io.gatling.core.structure.ScenarioBuilder
+import io.gatling.http.Predef._
+import simulations.LoadTestSupport._
+
+import scala.concurrent.duration._
+import scala.util.Random
+import scala.util.parsing.json.JSON
+
+/**
+  * Load test for the marking week of a modeling exercise: the tutors assess the submissions with the help of Compass.
+  * Each tutor repeatedly asks for the next optimal models, opens one of them, loads the partial assessment computed by
+  * Compass, completes it and saves and submits the assessment, which Compass uses to assess the remaining models.
+  *
+  * Before the load starts, every student submits a class diagram that is a variation of the same sample solution.
+  *
+  * System properties: students (number of submissions), tutors, duration (seconds), p95 and p99 (SLOs in ms)
+  */
+class MarkingWeekSimulation extends Simulation {
+
+    val numberOfStudents: Int = intProperty("students", 200)
+    val numberOfTutors: Int = intProperty("tutors", 20)
+    val durationSeconds: Int = intProperty("duration", 600)
+
+    val sampleSolution: List[List[String]] = List(
+        List("Student", "name: String", "matriculationNumber: int", "enroll()"),
+        List("Course", "title: String", "semester: String", "register(Student)"),
+        List("Lecture", "title: String", "date: Date"),
+        List("Exercise", "title: String", "dueDate: Date", "evaluate()"),
+        List("Submission", "submissionDate: Date", "submitted: boolean"),
+        List("Result", "score: int", "feedback: String"),
+        List("Tutor", "name: String", "assess(Submission)")
+    )
+
+    /**
+      * @return a class diagram in the format of the modeling editor, some classes and members of the sample solution are missing
+      */
+    def randomModel(): String = {
+        var nextId = 0
+        def id(): String = { nextId += 1; "e" + nextId }
+
+        val classes = sampleSolution.filter(_ => Random.nextDouble() < 0.85).map { sampleClass =>
+            val members = sampleClass.tail.filter(_ => Random.nextDouble() < 0.8).map(member => Map("id" -> id(), "name" -> member))
+            Map("id" -> id(), "kind" -> "CLASS", "name" -> sampleClass.head,
+                "attributes" -> members.filterNot(_("name").endsWith(")")),
+                "methods" -> members.filter(_("name").endsWith(")")))
+        }
+        val relationships = if (classes.isEmpty) Nil else List.fill(classes.size)(Map(
+            "id" -> id(),
+            "kind" -> (if (Random.nextBoolean()) "ASSOCIATION_BIDIRECTIONAL" else "AGGREGATION"),
+            "source" -> Map("entityId" -> classes(Random.nextInt(classes.size))("id")),
+            "target" -> Map("entityId" -> classes(Random.nextInt(classes.size))("id"))
+        ))
+        Json.stringify(Map(
+            "entities" -> Map("allIds" -> classes.map(_("id")), "byId" -> classes.map(c => c("id").toString -> c).toMap),
+            "relationships" -> Map("allIds" -> relationships.map(_("id")), "byId" -> relationships.map(r => r("id").toString -> r).toMap)
+        ))
+    }
+
+    /**
+      * Completes the partial assessment of Compass like a tutor: elements without an automatic assessment get credits
+      *
+      * @param modelString the model of the submission as a JSON string
+      * @param partialAssessmentString the partial assessment of Compass as a JSON string
+      * @return the assessment of all classes, attributes, methods and relationships as a JSON string
+      */
+    def completeAssessment(modelString: String, partialAssessmentString: String): String = {
+        val model = JSON.parseFull(modelString).get.asInstanceOf[Map[String, Map[String, Any]]]
+        val partialAssessment = JSON.parseFull(partialAssessmentString).getOrElse(Nil).asInstanceOf[List[Map[String, Any]]]
+        val assessed = partialAssessment.map(assessment => assessment("id") -> assessment).toMap
+
+        def elements(group: String): List[Map[String, Any]] = model(group)("byId").asInstanceOf[Map[String, Map[String, Any]]].values.toList
+
+        def assess(id: Any, elementType: String): Map[String, Any] = assessed.getOrElse(id, Map(
+            "id" -> id,
+            "type" -> elementType,
+            "credits" -> (if (Random.nextDouble() < 0.7) 0.5 else 0.0),
+            "comment" -> "Assessed during the load test"
+        ))
+
+        val classes = elements("entities")
+        val assessments = classes.map(c => assess(c("id"), "class")) ++
+            classes.flatMap(_("attributes").asInstanceOf[List[Map[String, Any]]]).map(a => assess(a("id"), "attribute")) ++
+            classes.flatMap(_("methods").asInstanceOf[List[Map[String, Any]]]).map(m => assess(m("id"), "method")) ++
+            elements("relationships").map(r => assess(r("id"), "relationship"))
+        Json.stringify(assessments)
+    }
+
+    val stubServer: StubServer = new StubServer(stubPort).start()
+    val admin: AdminClient = AdminClient.login()
+    val courseId: Long = admin.createCourse("Load Test Marking Week")
+    val exerciseId: Long = admin.id(admin.post("/api/modeling-exercises", Map(
+        "type" -> "modeling-exercise",
+        "title" -> "Load Test Marking Week",
+        "course" -> Map("id" -> courseId),
+        "maxScore" -> 20
+    )))
+
+    // the tutors log in once, so that they are in the tutor group of the course before the students submit
+    (0 until numberOfTutors).foreach(i => AdminClient.login(f"tutor$i%04d", "loadtest"))
+
+    (0 until numberOfStudents).foreach { i =>
+        val student = AdminClient.login(f"student$i%04d", "loadtest")
+        val submissionsPath = "/api/courses/" + courseId + "/exercises/" + exerciseId + "/modeling-submissions"
+        val model = randomModel()
+        val result = student.post(submissionsPath, Map("model" -> model)).asInstanceOf[Map[String, Any]]
+        val submissionId = student.id(result("submission"))
+        student.put(submissionsPath, Map("id" -> submissionId, "model" -> model, "submitted" -> true))
+    }
+
+    after {
+        stubServer.stop()
+    }
+
+    val tutors: ScenarioBuilder = scenario("Tutors assessing with Compass")
+        .feed(users("tutor", numberOfTutors))
+        .exec(login)
+        .during(durationSeconds seconds) {
+            exec(http("Get optimal models")
+                .get("/api/modeling-assessments/exercise/" + exerciseId + "/optimal-models")
+                .headers(headers_http_authenticated)
+                .check(status.is(200))
+                .check(jsonPath("$[*].id").findAll.optional.saveAs("optimalModels")))
+                .doIfOrElse(session => session.contains("optimalModels")) {
+                    exec(session => session.set("submissionId", Random.shuffle(session("optimalModels").as[Seq[String]]).head))
+                        .exec(http("Get modeling submission")
+                            .get("/api/modeling-submissions/${submissionId}")
+                            .headers(headers_http_authenticated)
+                            .check(status.is(200))
+                            .check(jsonPath("$.model").saveAs("model")))
+                        .exec(http("Get result of submission")
+                            .get("/api/results/submission/${submissionId}")
+                            .headers(headers_http_authenticated)
+                            .check(status.is(200))
+                            .check(jsonPath("$.id").saveAs("resultId")))
+                        .exec(http("Get partial assessment")
+                            .get("/api/modeling-assessments/exercise/" + exerciseId + "/submission/${submissionId}/partial-assessment")
+                            .headers(headers_http_authenticated)
+                            .check(status.is(200))
+                            .check(bodyString.saveAs("partialAssessment")))
+                        .exec(session => session.set("assessment",
+                            completeAssessment(session("model").as[String], session("partialAssessment").as[String])))
+                        // the tutor looks at the model and completes the assessment
+                        .pause(20 seconds, 60 seconds)
+                        .exec(http("Save assessment")
+                            .put("/api/modeling-assessments/exercise/" + exerciseId + "/result/${resultId}")
+                            .headers(headers_http_authenticated_json)
+                            .body(StringBody("${assessment}"))
+                            .check(status.is(200)))
+                        .pause(2 seconds, 5 seconds)
+                        .exec(http("Submit assessment")
+                            .put("/api/modeling-assessments/exercise/" + exerciseId + "/result/${resultId}/submit")
+                            .headers(headers_http_authenticated_json)
+                            .body(StringBody("${assessment}"))
+                            .check(status.is(200)))
+                        .exec(session => session.remove("optimalModels"))
+                } {
+                    // everything is assessed or Compass is still computing the next optimal models
+                    pause(10 seconds)
+                }
+        }
+
+    setUp(
+        tutors.inject(rampUsers(numberOfTutors) over (60 seconds))
+    ).protocols(httpConf)
+        .assertions(sloAssertions(p95 = 800, p99 = 2000): _*)
+}
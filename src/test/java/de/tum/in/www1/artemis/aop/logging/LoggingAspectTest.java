@@ -0,0 +1,26 @@
+package de.tum.in.www1.artemis.aop.logging;
+
+import de.tum.in.www1.artemis.repository.ParticipationRepository;
+import de.tum.in.www1.artemis.service.PlantUmlService;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoggingAspectTest {
+
+    @Test
+    public void repositoryIsNamedAfterItsInterface() {
+        // Spring Data repositories are JDK proxies, their inherited methods are declared in CrudRepository or JpaRepository
+        Object repository = Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ParticipationRepository.class},
+            (proxy, method, args) -> null);
+
+        assertThat(LoggingAspect.componentName(repository.getClass())).isEqualTo(ParticipationRepository.class.getName());
+    }
+
+    @Test
+    public void serviceIsNamedAfterItsClass() {
+        assertThat(LoggingAspect.componentName(PlantUmlService.class)).isEqualTo(PlantUmlService.class.getName());
+    }
+}
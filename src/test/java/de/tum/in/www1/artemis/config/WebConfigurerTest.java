@@ -9,6 +9,9 @@ import io.github.jhipster.web.filter.CachingHttpHeadersFilter;
 import io.undertow.Undertow;
 import io.undertow.Undertow.Builder;
 import io.undertow.UndertowOptions;
+import io.undertow.servlet.api.DeploymentInfo;
+import io.undertow.websockets.extensions.PerMessageDeflateHandshake;
+import io.undertow.websockets.jsr.WebSocketDeploymentInfo;
 import org.apache.commons.io.FilenameUtils;
 import org.junit.Before;
 import org.junit.Test;
@@ -119,6 +122,29 @@ public class WebConfigurerTest {
         assertThat(serverOptions.getMap().get(UndertowOptions.ENABLE_HTTP2)).isTrue();
     }
 
+    @Test
+    public void testWebsocketCompressionEnabled() {
+        UndertowEmbeddedServletContainerFactory container = new UndertowEmbeddedServletContainerFactory();
+        webConfigurer.customize(container);
+        DeploymentInfo deploymentInfo = new DeploymentInfo();
+        container.getDeploymentInfoCustomizers().forEach(c -> c.customize(deploymentInfo));
+        WebSocketDeploymentInfo webSocketDeploymentInfo =
+            (WebSocketDeploymentInfo) deploymentInfo.getServletContextAttributes().get(WebSocketDeploymentInfo.ATTRIBUTE_NAME);
+        assertThat(webSocketDeploymentInfo).isNotNull();
+        assertThat(webSocketDeploymentInfo.getExtensions()).hasSize(1);
+        assertThat(webSocketDeploymentInfo.getExtensions().get(0)).isInstanceOf(PerMessageDeflateHandshake.class);
+    }
+
+    @Test
+    public void testWebsocketCompressionDisabled() {
+        env.setProperty("artemis.websocket.compression", "false");
+        UndertowEmbeddedServletContainerFactory container = new UndertowEmbeddedServletContainerFactory();
+        webConfigurer.customize(container);
+        DeploymentInfo deploymentInfo = new DeploymentInfo();
+        container.getDeploymentInfoCustomizers().forEach(c -> c.customize(deploymentInfo));
+        assertThat(deploymentInfo.getServletContextAttributes()).doesNotContainKey(WebSocketDeploymentInfo.ATTRIBUTE_NAME);
+    }
+
     @Test
     public void testCorsFilterOnApiPath() throws Exception {
         props.getCors().setAllowedOrigins(Collections.singletonList("*"));
@@ -0,0 +1,157 @@
+package de.tum.in.www1.artemis.config.websocket;
+
+import org.junit.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MultiValueMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HashedSubscriptionRegistryTest {
+
+    private static final String DESTINATION = "/topic/quizExercise/1/submission";
+
+    private final HashedSubscriptionRegistry registry = new HashedSubscriptionRegistry();
+
+    @Test
+    public void findsSubscriptionsOfDestinationAndPattern() {
+        subscribe("session1", "sub1", DESTINATION);
+        subscribe("session2", "sub2", "/topic/quizExercise/2/submission");
+        subscribe("session3", "sub3", "/topic/quizExercise/**");
+
+        MultiValueMap<String, String> subscriptions = findSubscriptions(DESTINATION);
+
+        assertThat(subscriptions).containsOnlyKeys("session1", "session3");
+        assertThat(subscriptions.get("session1")).containsExactly("sub1");
+        assertThat(subscriptions.get("session3")).containsExactly("sub3");
+    }
+
+    @Test
+    public void removesSubscriptions() {
+        subscribe("session1", "sub1", DESTINATION);
+        subscribe("session1", "sub2", "/topic/quizExercise/**");
+        subscribe("session2", "sub3", DESTINATION);
+
+        unsubscribe("session2", "sub3");
+        assertThat(findSubscriptions(DESTINATION)).containsOnlyKeys("session1");
+
+        registry.unregisterAllSubscriptions("session1");
+        assertThat(findSubscriptions(DESTINATION)).isEmpty();
+    }
+
+    @Test
+    public void findSubscriptionsDuringConcurrentSubscribeAndUnsubscribe() throws Exception {
+        // without pattern subscriptions, the lookup returns the subscriptions of the registry itself
+        findSubscriptionsDuringConcurrentSubscribeAndUnsubscribe(false);
+    }
+
+    @Test
+    public void findSubscriptionsWithPatternDuringConcurrentSubscribeAndUnsubscribe() throws Exception {
+        findSubscriptionsDuringConcurrentSubscribeAndUnsubscribe(true);
+    }
+
+    private void findSubscriptionsDuringConcurrentSubscribeAndUnsubscribe(boolean withPattern) throws Exception {
+        // these sessions stay subscribed the whole time and must always be found
+        int stableSessions = 50;
+        for (int i = 0; i < stableSessions; i++) {
+            subscribe("stable-" + i, "sub-0", DESTINATION);
+        }
+        if (withPattern) {
+            subscribe("pattern-session", "sub-0", "/topic/quizExercise/*/submission");
+        }
+
+        int writers = 4;
+        int readers = 4;
+        int iterations = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(writers + readers);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> writerFutures = new ArrayList<>();
+            for (int writer = 0; writer < writers; writer++) {
+                final int writerId = writer;
+                writerFutures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < iterations; i++) {
+                        String sessionId = "writer-" + writerId + "-" + (i % 20);
+                        subscribe(sessionId, "sub-" + i, DESTINATION);
+                        if (i % 3 == 0) {
+                            registry.unregisterAllSubscriptions(sessionId);
+                        } else {
+                            unsubscribe(sessionId, "sub-" + i);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            List<Future<Integer>> readerFutures = new ArrayList<>();
+            for (int reader = 0; reader < readers; reader++) {
+                readerFutures.add(executor.submit(() -> {
+                    start.await();
+                    int lookups = 0;
+                    while (writing.get()) {
+                        MultiValueMap<String, String> subscriptions = findSubscriptions(DESTINATION);
+                        int found = 0;
+                        // iterating while the subscriptions change must neither fail nor lose the stable sessions
+                        for (String sessionId : subscriptions.keySet()) {
+                            if (sessionId.startsWith("stable-")) {
+                                assertThat(subscriptions.get(sessionId)).containsExactly("sub-0");
+                                found++;
+                            }
+                        }
+                        assertThat(found).isEqualTo(stableSessions);
+                        if (withPattern) {
+                            assertThat(subscriptions.getFirst("pattern-session")).isEqualTo("sub-0");
+                        }
+                        lookups++;
+                    }
+                    return lookups;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> writerFuture : writerFutures) {
+                writerFuture.get(60, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            for (Future<Integer> readerFuture : readerFutures) {
+                assertThat(readerFuture.get(60, TimeUnit.SECONDS)).isPositive();
+            }
+        } finally {
+            writing.set(false);
+            executor.shutdownNow();
+        }
+
+        // all subscriptions of the writers are gone
+        MultiValueMap<String, String> subscriptions = findSubscriptions(DESTINATION);
+        assertThat(subscriptions).hasSize(withPattern ? stableSessions + 1 : stableSessions);
+        assertThat(subscriptions.keySet()).allMatch(sessionId -> sessionId.startsWith("stable-") || sessionId.equals("pattern-session"));
+    }
+
+    private void subscribe(String sessionId, String subsId, String destination) {
+        registry.registerSubscription(message(SimpMessageType.SUBSCRIBE, sessionId, subsId, destination));
+    }
+
+    private void unsubscribe(String sessionId, String subsId) {
+        registry.unregisterSubscription(message(SimpMessageType.UNSUBSCRIBE, sessionId, subsId, null));
+    }
+
+    private MultiValueMap<String, String> findSubscriptions(String destination) {
+        return registry.findSubscriptions(message(SimpMessageType.MESSAGE, null, null, destination));
+    }
+
+    private static Message<byte[]> message(SimpMessageType messageType, String sessionId, String subsId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(messageType);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subsId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
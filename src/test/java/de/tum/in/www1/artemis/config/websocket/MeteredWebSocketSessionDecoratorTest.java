@@ -0,0 +1,96 @@
+package de.tum.in.www1.artemis.config.websocket;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class MeteredWebSocketSessionDecoratorTest {
+
+    private final Counter droppedMessages = new Counter();
+    private final Counter droppedBytes = new Counter();
+    private final Meter evictedSessions = new Meter();
+
+    private final CountDownLatch clientReads = new CountDownLatch(1);
+    private final CountDownLatch sendStarted = new CountDownLatch(1);
+    private ExecutorService executor;
+    private WebSocketSession session;
+
+    @Before
+    public void setup() throws Exception {
+        executor = Executors.newSingleThreadExecutor();
+        // a slow client: sending blocks until the client reads
+        session = Mockito.mock(WebSocketSession.class);
+        Mockito.when(session.getId()).thenReturn("session1");
+        Mockito.when(session.isOpen()).thenReturn(true);
+        Mockito.doAnswer(invocation -> {
+            sendStarted.countDown();
+            clientReads.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(session).sendMessage(Mockito.any(WebSocketMessage.class));
+    }
+
+    @After
+    public void tearDown() {
+        clientReads.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void countsQueuedMessages() throws Exception {
+        MeteredWebSocketSessionDecorator decorator = createDecorator(1024);
+        Future<?> blockedSend = sendWhileClientIsSlow(decorator);
+        decorator.sendMessage(new TextMessage("second"));
+        decorator.sendMessage(new TextMessage("third"));
+
+        assertThat(decorator.getQueueLength()).isEqualTo(3);
+
+        clientReads.countDown();
+        blockedSend.get(10, TimeUnit.SECONDS);
+        assertThat(decorator.getQueueLength()).isEqualTo(0);
+        assertThat(droppedMessages.getCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void countsDroppedMessagesWhenBufferLimitIsExceeded() throws Exception {
+        MeteredWebSocketSessionDecorator decorator = createDecorator(10);
+        sendWhileClientIsSlow(decorator);
+        try {
+            decorator.sendMessage(new TextMessage("exceeds the buffer"));
+            fail("the buffer size limit should be exceeded");
+        } catch (SessionLimitExceededException e) {
+            // expected
+        }
+        assertThat(droppedMessages.getCount()).isEqualTo(2);
+        assertThat(droppedBytes.getCount()).isGreaterThan(10);
+        assertThat(evictedSessions.getCount()).isEqualTo(1);
+
+        // messages for the evicted session are dropped as well
+        decorator.sendMessage(new TextMessage("after eviction"));
+        assertThat(droppedMessages.getCount()).isEqualTo(3);
+    }
+
+    private MeteredWebSocketSessionDecorator createDecorator(int bufferSizeLimit) {
+        return new MeteredWebSocketSessionDecorator(session, 60000, bufferSizeLimit, droppedMessages, droppedBytes, evictedSessions);
+    }
+
+    private Future<?> sendWhileClientIsSlow(MeteredWebSocketSessionDecorator decorator) throws Exception {
+        Future<?> blockedSend = executor.submit(() -> {
+            decorator.sendMessage(new TextMessage("first"));
+            return null;
+        });
+        assertThat(sendStarted.await(10, TimeUnit.SECONDS)).isTrue();
+        return blockedSend;
+    }
+}
@@ -0,0 +1,173 @@
+package de.tum.in.www1.artemis.domain.scoring;
+
+import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.enumeration.ScoringType;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+public class CompiledQuizTest {
+
+    private long nextId = 1;
+
+    @Test
+    public void multipleChoiceScoresMatchScoringStrategies() {
+        for (ScoringType scoringType : ScoringType.values()) {
+            MultipleChoiceQuestion question = multipleChoiceQuestion(scoringType, true, false, true, false);
+            question.getAnswerOptions().get(3).setInvalid(true);
+            QuizExercise quizExercise = quiz(question);
+            CompiledQuiz compiledQuiz = CompiledQuiz.compile(quizExercise);
+
+            // try every possible selection of answer options
+            for (int selection = 0; selection < 16; selection++) {
+                MultipleChoiceSubmittedAnswer answer = new MultipleChoiceSubmittedAnswer();
+                answer.setQuestion(question);
+                answer.setSelectedOptions(new HashSet<>());
+                for (int i = 0; i < 4; i++) {
+                    if ((selection & (1 << i)) != 0) {
+                        answer.getSelectedOptions().add(question.getAnswerOptions().get(i));
+                    }
+                }
+                assertSameScores(quizExercise, compiledQuiz, answer);
+            }
+        }
+    }
+
+    @Test
+    public void dragAndDropScoresMatchScoringStrategies() {
+        Random random = new Random(42);
+        for (ScoringType scoringType : ScoringType.values()) {
+            DragAndDropQuestion question = dragAndDropQuestion(scoringType, 4, 5);
+            question.getDropLocations().get(2).setInvalid(true);
+            question.getDragItems().get(4).setInvalid(true);
+            QuizExercise quizExercise = quiz(question);
+            CompiledQuiz compiledQuiz = CompiledQuiz.compile(quizExercise);
+
+            for (int run = 0; run < 200; run++) {
+                DragAndDropSubmittedAnswer answer = new DragAndDropSubmittedAnswer();
+                answer.setQuestion(question);
+                answer.setMappings(new HashSet<>());
+                for (DropLocation dropLocation : question.getDropLocations()) {
+                    // leave some drop locations empty
+                    int dragItem = random.nextInt(question.getDragItems().size() + 1);
+                    if (dragItem < question.getDragItems().size()) {
+                        answer.getMappings().add(mapping(question.getDragItems().get(dragItem), dropLocation));
+                    }
+                }
+                assertSameScores(quizExercise, compiledQuiz, answer);
+            }
+        }
+    }
+
+    @Test
+    public void invalidQuestionGetsFullScore() {
+        MultipleChoiceQuestion question = multipleChoiceQuestion(ScoringType.ALL_OR_NOTHING, true, false);
+        question.setInvalid(true);
+        QuizExercise quizExercise = quiz(question);
+
+        MultipleChoiceSubmittedAnswer answer = new MultipleChoiceSubmittedAnswer();
+        answer.setQuestion(question);
+        answer.setSelectedOptions(new HashSet<>(Collections.singletonList(question.getAnswerOptions().get(1))));
+        QuizSubmission quizSubmission = new QuizSubmission().submittedAnswers(new HashSet<>(Collections.singletonList(answer)));
+
+        quizSubmission.calculateAndUpdateScores(CompiledQuiz.compile(quizExercise));
+
+        assertThat(quizSubmission.getScoreInPoints()).isEqualTo(question.getScore().doubleValue());
+    }
+
+    @Test
+    public void duplicateAnswersToTheSameQuestionAreScoredOnce() {
+        MultipleChoiceQuestion question = multipleChoiceQuestion(ScoringType.ALL_OR_NOTHING, true, false);
+        QuizExercise quizExercise = quiz(question);
+        Set<SubmittedAnswer> answers = new LinkedHashSet<>();
+        for (int i = 0; i < 3; i++) {
+            MultipleChoiceSubmittedAnswer answer = new MultipleChoiceSubmittedAnswer();
+            answer.setId(nextId++);
+            answer.setQuestion(question);
+            answer.setSelectedOptions(new HashSet<>(Collections.singletonList(question.getAnswerOptions().get(0))));
+            answers.add(answer);
+        }
+        QuizSubmission quizSubmission = new QuizSubmission().submittedAnswers(answers);
+
+        quizSubmission.calculateAndUpdateScores(quizExercise);
+        double expectedTotal = quizSubmission.getScoreInPoints();
+        quizSubmission.removeScores();
+        quizSubmission.calculateAndUpdateScores(CompiledQuiz.compile(quizExercise));
+
+        assertThat(expectedTotal).isEqualTo(question.getScore().doubleValue());
+        assertThat(quizSubmission.getScoreInPoints()).isEqualTo(expectedTotal);
+    }
+
+    private void assertSameScores(QuizExercise quizExercise, CompiledQuiz compiledQuiz, SubmittedAnswer answer) {
+        QuizSubmission quizSubmission = new QuizSubmission().submittedAnswers(new HashSet<>(Collections.singletonList(answer)));
+
+        quizSubmission.calculateAndUpdateScores(quizExercise);
+        double expectedTotal = quizSubmission.getScoreInPoints();
+        double expectedAnswer = answer.getScoreInPoints();
+
+        quizSubmission.removeScores();
+        quizSubmission.calculateAndUpdateScores(compiledQuiz);
+
+        assertThat(quizSubmission.getScoreInPoints()).isCloseTo(expectedTotal, offset(1e-9));
+        assertThat(answer.getScoreInPoints()).isCloseTo(expectedAnswer, offset(1e-9));
+    }
+
+    private QuizExercise quiz(Question question) {
+        QuizExercise quizExercise = new QuizExercise();
+        quizExercise.setId(nextId++);
+        quizExercise.setQuestions(new ArrayList<>(Collections.singletonList(question)));
+        return quizExercise;
+    }
+
+    private MultipleChoiceQuestion multipleChoiceQuestion(ScoringType scoringType, boolean... correctOptions) {
+        MultipleChoiceQuestion question = new MultipleChoiceQuestion();
+        question.setId(nextId++);
+        question.setScore(4);
+        question.setScoringType(scoringType);
+        List<AnswerOption> answerOptions = new ArrayList<>();
+        for (boolean isCorrect : correctOptions) {
+            AnswerOption answerOption = new AnswerOption().isCorrect(isCorrect);
+            answerOption.setId(nextId++);
+            answerOptions.add(answerOption);
+        }
+        question.setAnswerOptions(answerOptions);
+        return question;
+    }
+
+    private DragAndDropQuestion dragAndDropQuestion(ScoringType scoringType, int dropLocations, int dragItems) {
+        DragAndDropQuestion question = new DragAndDropQuestion();
+        question.setId(nextId++);
+        question.setScore(6);
+        question.setScoringType(scoringType);
+        question.setDropLocations(new ArrayList<>());
+        question.setDragItems(new ArrayList<>());
+        question.setCorrectMappings(new ArrayList<>());
+        for (int i = 0; i < dropLocations; i++) {
+            DropLocation dropLocation = new DropLocation();
+            dropLocation.setId(nextId++);
+            question.getDropLocations().add(dropLocation);
+        }
+        for (int i = 0; i < dragItems; i++) {
+            DragItem dragItem = new DragItem();
+            dragItem.setId(nextId++);
+            question.getDragItems().add(dragItem);
+        }
+        // the last drop location is meant to stay empty, the first one accepts two drag items
+        question.getCorrectMappings().add(mapping(question.getDragItems().get(0), question.getDropLocations().get(0)));
+        question.getCorrectMappings().add(mapping(question.getDragItems().get(1), question.getDropLocations().get(0)));
+        for (int i = 1; i < dropLocations - 1; i++) {
+            question.getCorrectMappings().add(mapping(question.getDragItems().get(i + 1), question.getDropLocations().get(i)));
+        }
+        return question;
+    }
+
+    private DragAndDropMapping mapping(DragItem dragItem, DropLocation dropLocation) {
+        DragAndDropMapping mapping = new DragAndDropMapping();
+        mapping.setDragItem(dragItem);
+        mapping.setDropLocation(dropLocation);
+        return mapping;
+    }
+}
@@ -0,0 +1,78 @@
+package de.tum.in.www1.artemis.repository;
+
+import liquibase.Contexts;
+import liquibase.Liquibase;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the changelog of the participation_latest_result table against the participation and result tables of an
+ * in-memory database with existing results, and checks the backfilled references.
+ */
+public class ParticipationLatestResultChangelogTest {
+
+    private static final String CHANGELOG = "config/liquibase/changelog/20180620120000_changelog.xml";
+
+    private Connection connection;
+
+    @Before
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:participation_latest_result;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE participation (id BIGINT PRIMARY KEY)");
+            statement.execute("CREATE TABLE result (id BIGINT PRIMARY KEY, participation_id BIGINT, rated BOOLEAN, completion_date TIMESTAMP)");
+            statement.execute("INSERT INTO participation (id) VALUES (1), (2), (3)");
+            // participation 1: two rated results with the same completion date and a later one without completion date
+            statement.execute("INSERT INTO result (id, participation_id, rated, completion_date) VALUES " +
+                "(10, 1, TRUE, '2018-06-01 10:00:00'), " +
+                "(12, 1, TRUE, '2018-06-02 10:00:00'), " +
+                "(11, 1, TRUE, '2018-06-02 10:00:00'), " +
+                "(13, 1, NULL, '2018-06-01 12:00:00'), " +
+                "(14, 1, FALSE, '2018-06-01 11:00:00'), " +
+                "(15, 1, TRUE, NULL)");
+            // participation 2: only a result without completion date, participation 3: no results
+            statement.execute("INSERT INTO result (id, participation_id, rated, completion_date) VALUES (20, 2, FALSE, NULL)");
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    public void backfillReferencesLatestCompletedResults() throws Exception {
+        Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+        new Liquibase(CHANGELOG, new ClassLoaderResourceAccessor(), database).update(new Contexts());
+
+        Map<Long, Long[]> latestResults = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                 "SELECT participation_id, latest_rated_result_id, latest_unrated_result_id FROM participation_latest_result")) {
+            while (resultSet.next()) {
+                latestResults.put(resultSet.getLong(1), new Long[]{(Long) resultSet.getObject(2), (Long) resultSet.getObject(3)});
+            }
+        }
+
+        assertThat(latestResults).containsOnlyKeys(1L);
+        // ties are broken by the higher id, results without completion date are ignored
+        assertThat(latestResults.get(1L)).containsExactly(12L, 13L);
+        try (ResultSet columns = connection.getMetaData().getColumns(null, null, "PARTICIPATION", "LATEST_RATED_RESULT_ID")) {
+            assertThat(columns.next()).isFalse();
+        }
+    }
+}
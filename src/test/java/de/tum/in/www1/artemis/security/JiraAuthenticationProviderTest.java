@@ -0,0 +1,131 @@
+package de.tum.in.www1.artemis.security;
+
+import de.tum.in.www1.artemis.domain.Authority;
+import de.tum.in.www1.artemis.domain.User;
+import de.tum.in.www1.artemis.repository.UserRepository;
+import de.tum.in.www1.artemis.service.CourseService;
+import de.tum.in.www1.artemis.service.UserService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class JiraAuthenticationProviderTest {
+
+    private UserService userService;
+    private UserRepository userRepository;
+    private CourseService courseService;
+    private JiraAuthenticationProvider jiraAuthenticationProvider;
+
+    @Before
+    public void setup() {
+        userService = mock(UserService.class);
+        userRepository = mock(UserRepository.class);
+        courseService = mock(CourseService.class);
+        when(courseService.getAllInstructorGroupNames()).thenReturn(Collections.singletonList("course-instructors"));
+        when(courseService.getAllTeachingAssistantGroupNames()).thenReturn(Collections.singletonList("course-tutors"));
+        jiraAuthenticationProvider = new JiraAuthenticationProvider(userService, userRepository, courseService);
+        ReflectionTestUtils.setField(jiraAuthenticationProvider, "ADMIN_GROUP_NAME", "admins");
+        ReflectionTestUtils.setField(jiraAuthenticationProvider, "AUTHENTICATION_CACHE_TTL_SECONDS", 60L);
+    }
+
+    @Test
+    public void groupSyncKeepsOtherGroupsAndSavesChangedUsersOnce() {
+        // student1 left the tutor group in JIRA, student2 joined it, student3 is unchanged
+        User student1 = createUser("student1", "course-students", "course-tutors", "jira-software-users");
+        User student2 = createUser("student2", "course-students", "jira-software-users");
+        User student3 = createUser("student3", "course-students");
+        Set<String> synchronizedGroups = new HashSet<>(Arrays.asList("admins", "course-students", "course-tutors", "course-instructors"));
+        Map<String, Set<String>> groupsByLogin = new HashMap<>();
+        groupsByLogin.put("student1", new HashSet<>(Collections.singletonList("course-students")));
+        groupsByLogin.put("student2", new HashSet<>(Arrays.asList("course-students", "course-tutors")));
+        groupsByLogin.put("student3", new HashSet<>(Collections.singletonList("course-students")));
+        when(userRepository.findAllWithGroupsAndAuthoritiesByLoginIn(groupsByLogin.keySet())).thenReturn(Arrays.asList(student1, student2, student3));
+        when(userRepository.findAllWithGroupsAndAuthoritiesByGroupsIn(synchronizedGroups)).thenReturn(Arrays.asList(student1, student3));
+
+        int updatedUsers = jiraAuthenticationProvider.updateGroupsOfMembers(synchronizedGroups, groupsByLogin);
+
+        assertThat(updatedUsers).isEqualTo(2);
+        assertThat(student1.getGroups()).containsExactlyInAnyOrder("course-students", "jira-software-users");
+        assertThat(student1.getAuthorities()).extracting(Authority::getName).containsExactly(AuthoritiesConstants.USER);
+        assertThat(student2.getGroups()).containsExactlyInAnyOrder("course-students", "course-tutors", "jira-software-users");
+        assertThat(student2.getAuthorities()).extracting(Authority::getName)
+            .containsExactlyInAnyOrder(AuthoritiesConstants.USER, AuthoritiesConstants.TEACHING_ASSISTANT);
+        ArgumentCaptor<Iterable> savedUsers = ArgumentCaptor.forClass(Iterable.class);
+        verify(userRepository).save(savedUsers.capture());
+        verify(userRepository, never()).save(any(User.class));
+        assertThat((Iterable<User>) savedUsers.getValue()).containsExactlyInAnyOrder(student1, student2);
+        verify(userService).evictUserCaches("student1");
+        verify(userService).evictUserCaches("student2");
+        verify(userService, never()).evictUserCaches("student3");
+    }
+
+    @Test
+    public void groupSyncRemovesSynchronizedGroupsOfFormerMembers() {
+        User instructor = createUser("instructor1", "course-instructors", "jira-administrators");
+        Set<String> synchronizedGroups = new HashSet<>(Arrays.asList("admins", "course-instructors"));
+        when(userRepository.findAllWithGroupsAndAuthoritiesByGroupsIn(synchronizedGroups)).thenReturn(Collections.singletonList(instructor));
+
+        int updatedUsers = jiraAuthenticationProvider.updateGroupsOfMembers(synchronizedGroups, Collections.emptyMap());
+
+        assertThat(updatedUsers).isEqualTo(1);
+        assertThat(instructor.getGroups()).containsExactly("jira-administrators");
+        verify(userRepository, never()).findAllWithGroupsAndAuthoritiesByLoginIn(any());
+    }
+
+    @Test
+    public void verifiedCredentialsMatchOnlyTheSamePassword() {
+        jiraAuthenticationProvider.rememberVerifiedCredentials("student1", "secret");
+
+        assertThat(jiraAuthenticationProvider.isVerifiedLocally("student1", "secret")).isTrue();
+        assertThat(jiraAuthenticationProvider.isVerifiedLocally("student1", "wrong")).isFalse();
+        assertThat(jiraAuthenticationProvider.isVerifiedLocally("student2", "secret")).isFalse();
+    }
+
+    @Test
+    public void credentialsAreNotRememberedIfTheCacheIsDisabled() {
+        ReflectionTestUtils.setField(jiraAuthenticationProvider, "AUTHENTICATION_CACHE_TTL_SECONDS", 0L);
+
+        jiraAuthenticationProvider.rememberVerifiedCredentials("student1", "secret");
+
+        assertThat(jiraAuthenticationProvider.isVerifiedLocally("student1", "secret")).isFalse();
+    }
+
+    @Test
+    public void expiredCredentialsAreNotVerified() {
+        ReflectionTestUtils.setField(jiraAuthenticationProvider, "AUTHENTICATION_CACHE_TTL_SECONDS", -1L);
+
+        jiraAuthenticationProvider.rememberVerifiedCredentials("student1", "secret");
+
+        assertThat(jiraAuthenticationProvider.isVerifiedLocally("student1", "secret")).isFalse();
+    }
+
+    @Test
+    public void locallyVerifiedLoginDoesNotCallJira() {
+        User user = createUser("student1", "course-students");
+        user.setActivated(true);
+        when(userService.getUserWithAuthoritiesByLogin("student1")).thenReturn(Optional.of(user));
+        jiraAuthenticationProvider.rememberVerifiedCredentials("student1", "secret");
+
+        // the JIRA URL is not set, so a call to JIRA would fail
+        User authenticatedUser = jiraAuthenticationProvider.getOrCreateUser(new UsernamePasswordAuthenticationToken("Student1", "secret"), false);
+
+        assertThat(authenticatedUser).isSameAs(user);
+        verifyZeroInteractions(userRepository);
+    }
+
+    private User createUser(String login, String... groups) {
+        User user = new User();
+        user.setLogin(login);
+        user.setGroups(new ArrayList<>(Arrays.asList(groups)));
+        user.setAuthorities(new HashSet<>());
+        return user;
+    }
+}
@@ -1,6 +1,7 @@
 package de.tum.in.www1.artemis.security.jwt;
 
 import de.tum.in.www1.artemis.security.AuthoritiesConstants;
+import com.google.common.cache.CacheBuilder;
 import io.github.jhipster.config.JHipsterProperties;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -79,6 +80,47 @@ public class TokenProviderTest {
         assertThat(isTokenValid).isEqualTo(false);
     }
 
+    @Test
+    public void testReturnFreshAuthenticationForCachedToken() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Authentication authentication = tokenProvider.getValidatedAuthentication(token);
+        Authentication cachedAuthentication = tokenProvider.getValidatedAuthentication(token);
+
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getName()).isEqualTo("anonymous");
+        assertThat(authentication.getCredentials()).isEqualTo("");
+        assertThat(cachedAuthentication).isNotSameAs(authentication);
+        assertThat(cachedAuthentication.getPrincipal()).isSameAs(authentication.getPrincipal());
+        assertThat(cachedAuthentication.getCredentials()).isEqualTo("");
+        assertThat(cachedAuthentication.getAuthorities()).containsExactly(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsedTokenWhenCacheIsFull() {
+        ReflectionTestUtils.setField(tokenProvider, "verifiedTokens", CacheBuilder.newBuilder().maximumSize(1).build());
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMillisecondsForRememberMe", 2 * ONE_MINUTE);
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        String otherToken = tokenProvider.createToken(createAuthentication(), true);
+
+        Object principal = tokenProvider.getValidatedAuthentication(token).getPrincipal();
+        tokenProvider.getValidatedAuthentication(otherToken);
+
+        // the first token has been evicted, so it is verified again and gets a new principal
+        Authentication authentication = tokenProvider.getValidatedAuthentication(token);
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getPrincipal()).isNotSameAs(principal);
+    }
+
+    @Test
+    public void testReturnNullAuthenticationWhenJWTisExpired() {
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", -ONE_MINUTE);
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.getValidatedAuthentication(token)).isNull();
+        assertThat(tokenProvider.getValidatedAuthentication(createTokenWithDifferentSignature())).isNull();
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
@@ -0,0 +1,92 @@
+package de.tum.in.www1.artemis.service;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class BackgroundJobServiceTest {
+
+    private BackgroundJobService backgroundJobService;
+
+    @Before
+    public void setup() {
+        backgroundJobService = new BackgroundJobService();
+    }
+
+    @After
+    public void tearDown() {
+        backgroundJobService.destroy();
+    }
+
+    @Test
+    public void jobWithRunningKeyIsNotStartedAgain() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+
+        assertThat(backgroundJobService.submitJob("test-job", 1L, key -> {
+            release.await();
+            finished.countDown();
+        })).isTrue();
+        assertThat(backgroundJobService.submitJob("test-job", 1L, key -> {})).isFalse();
+        assertThat(backgroundJobService.tryStart("other-job", 1L)).isTrue();
+
+        release.countDown();
+        assertThat(finished.await(10, TimeUnit.SECONDS)).isTrue();
+        // the key is released after the job, also if the job fails
+        awaitFinished("test-job", 1L);
+        CountDownLatch failed = new CountDownLatch(1);
+        backgroundJobService.submitJob("test-job", 1L, key -> {
+            failed.countDown();
+            throw new IllegalStateException("failure");
+        });
+        assertThat(failed.await(10, TimeUnit.SECONDS)).isTrue();
+        awaitFinished("test-job", 1L);
+    }
+
+    @Test
+    public void jobsAreRunOneAfterAnotherAndRunningKeysAreSkipped() throws Exception {
+        List<Long> runKeys = new CopyOnWriteArrayList<>();
+        backgroundJobService.tryStart("test-job", 2L);
+
+        List<Long> startedKeys = backgroundJobService.submitJobs("test-job", Arrays.asList(1L, 2L, 3L), runKeys::add);
+
+        assertThat(startedKeys).containsExactly(1L, 3L);
+        awaitFinished("test-job", 3L);
+        assertThat(runKeys).containsExactly(1L, 3L);
+    }
+
+    @Test
+    public void workerPoolsAreShutDownWithTheService() {
+        ExecutorService workerPool = backgroundJobService.newWorkerPool("test-worker-", 2);
+        ScheduledExecutorService scheduledWorkerPool = backgroundJobService.newScheduledWorkerPool("test-scheduled-worker-", 1);
+
+        backgroundJobService.destroy();
+
+        assertThat(workerPool.isShutdown()).isTrue();
+        assertThat(scheduledWorkerPool.isShutdown()).isTrue();
+        try {
+            backgroundJobService.submitJob("test-job", 1L, key -> {});
+            fail("the job should have been rejected");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+        // the key of the rejected job is released
+        assertThat(backgroundJobService.tryStart("test-job", 1L)).isTrue();
+    }
+
+    private void awaitFinished(String jobName, Long key) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!backgroundJobService.tryStart(jobName, key)) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+        backgroundJobService.finish(jobName, key);
+    }
+}
@@ -0,0 +1,147 @@
+package de.tum.in.www1.artemis.service;
+
+import com.codahale.metrics.MetricRegistry;
+import de.tum.in.www1.artemis.domain.Course;
+import de.tum.in.www1.artemis.domain.Participation;
+import de.tum.in.www1.artemis.repository.ParticipationRepository;
+import de.tum.in.www1.artemis.service.ContinuousIntegrationService.BuildStatus;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class BuildStatusCacheServiceTest {
+
+    private ParticipationRepository participationRepository;
+    private ContinuousIntegrationService continuousIntegrationService;
+    private SimpMessageSendingOperations messagingTemplate;
+    private AuthorizationCheckService authCheckService;
+    private ClusterEventService clusterEventService;
+    private BuildStatusCacheService buildStatusCacheService;
+    private Consumer<Serializable> clusterListener;
+    private Participation participation;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        participationRepository = mock(ParticipationRepository.class);
+        continuousIntegrationService = mock(ContinuousIntegrationService.class);
+        messagingTemplate = mock(SimpMessageSendingOperations.class);
+        authCheckService = mock(AuthorizationCheckService.class);
+        clusterEventService = mock(ClusterEventService.class);
+        buildStatusCacheService = new BuildStatusCacheService(participationRepository, Optional.of(continuousIntegrationService),
+            messagingTemplate, authCheckService, clusterEventService, new MetricRegistry());
+        ReflectionTestUtils.setField(buildStatusCacheService, "TTL_SECONDS", 600L);
+        ReflectionTestUtils.setField(buildStatusCacheService, "MAX_AGE_MS", 60000L);
+
+        ArgumentCaptor<Consumer> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(clusterEventService).addListener(eq("build-status"), listener.capture());
+        clusterListener = listener.getValue();
+
+        participation = new Participation().buildPlanId("EXERCISE-STUDENT1");
+        participation.setId(1L);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("student1", "student1"));
+    }
+
+    @After
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void watchedStatusIsReturnedFromCache() {
+        when(continuousIntegrationService.getBuildStatus(participation)).thenReturn(BuildStatus.BUILDING);
+
+        assertThat(buildStatusCacheService.getBuildStatus(participation)).isEqualTo(BuildStatus.BUILDING);
+        assertThat(buildStatusCacheService.getBuildStatus(participation)).isEqualTo(BuildStatus.BUILDING);
+
+        verify(continuousIntegrationService, times(1)).getBuildStatus(participation);
+    }
+
+    @Test
+    public void outdatedStatusIsRetrievedAgainAndPublished() {
+        ReflectionTestUtils.setField(buildStatusCacheService, "MAX_AGE_MS", 0L);
+        when(continuousIntegrationService.getBuildStatus(participation)).thenReturn(BuildStatus.INACTIVE, BuildStatus.QUEUED);
+
+        assertThat(buildStatusCacheService.getBuildStatus(participation)).isEqualTo(BuildStatus.INACTIVE);
+        assertThat(buildStatusCacheService.getBuildStatus(participation)).isEqualTo(BuildStatus.QUEUED);
+
+        verify(messagingTemplate).convertAndSend("/topic/participation/1/buildStatus", BuildStatus.QUEUED);
+        verify(clusterEventService).publish(eq("build-status"), any(Serializable.class));
+    }
+
+    @Test
+    public void completedBuildIsPushedAndPublishedToOtherNodes() {
+        when(continuousIntegrationService.getBuildStatus(participation)).thenReturn(BuildStatus.BUILDING);
+        buildStatusCacheService.getBuildStatus(participation);
+
+        buildStatusCacheService.onBuildCompleted(participation);
+
+        assertThat(buildStatusCacheService.getBuildStatus(participation)).isEqualTo(BuildStatus.INACTIVE);
+        verify(messagingTemplate).convertAndSend("/topic/participation/1/buildStatus", BuildStatus.INACTIVE);
+        verify(clusterEventService).publish(eq("build-status"), any(Serializable.class));
+    }
+
+    @Test
+    public void completedBuildOnOtherNodeUpdatesCacheWithoutPush() {
+        when(continuousIntegrationService.getBuildStatus(participation)).thenReturn(BuildStatus.BUILDING);
+        buildStatusCacheService.getBuildStatus(participation);
+        // another node receives the notification and publishes the change
+        BuildStatusCacheService otherNode = new BuildStatusCacheService(participationRepository, Optional.of(continuousIntegrationService),
+            mock(SimpMessageSendingOperations.class), authCheckService, clusterEventService, new MetricRegistry());
+        otherNode.onBuildCompleted(participation);
+        ArgumentCaptor<Serializable> change = ArgumentCaptor.forClass(Serializable.class);
+        verify(clusterEventService).publish(eq("build-status"), change.capture());
+
+        clusterListener.accept(change.getValue());
+
+        assertThat(buildStatusCacheService.getBuildStatus(participation)).isEqualTo(BuildStatus.INACTIVE);
+        verify(continuousIntegrationService, times(1)).getBuildStatus(participation);
+        verifyZeroInteractions(messagingTemplate);
+    }
+
+    @Test
+    public void onlyVisibleParticipationsAreReturnedAndWatched() {
+        Course course = new Course();
+        course.setId(10L);
+        Course otherCourse = new Course();
+        otherCourse.setId(11L);
+        when(authCheckService.isAtLeastTeachingAssistantInCourse(course)).thenReturn(false);
+        when(authCheckService.isAtLeastTeachingAssistantInCourse(otherCourse)).thenReturn(true);
+        when(participationRepository.findIdAndBuildPlanIdAndStudentLoginAndCourseByIdIn(anyCollectionOf(Long.class))).thenReturn(Arrays.asList(
+            new Object[]{1L, "EXERCISE-STUDENT1", "student1", course},
+            new Object[]{2L, "EXERCISE-STUDENT2", "student2", course},
+            new Object[]{3L, "EXERCISE-STUDENT3", "student3", course},
+            new Object[]{4L, "OTHER-STUDENT4", "student4", otherCourse}));
+        Map<String, BuildStatus> retrieved = new HashMap<>();
+        retrieved.put("EXERCISE-STUDENT1", BuildStatus.QUEUED);
+        retrieved.put("OTHER-STUDENT4", BuildStatus.BUILDING);
+        when(continuousIntegrationService.getBuildStatuses(anyCollectionOf(String.class))).thenReturn(retrieved);
+
+        Map<Long, BuildStatus> statuses = buildStatusCacheService.getBuildStatuses(Arrays.asList(1L, 2L, 3L, 4L));
+
+        assertThat(statuses).containsOnlyKeys(1L, 4L);
+        assertThat(statuses.get(1L)).isEqualTo(BuildStatus.QUEUED);
+        assertThat(statuses.get(4L)).isEqualTo(BuildStatus.BUILDING);
+        ArgumentCaptor<Collection> requestedBuildPlanIds = ArgumentCaptor.forClass(Collection.class);
+        verify(continuousIntegrationService).getBuildStatuses(requestedBuildPlanIds.capture());
+        assertThat(requestedBuildPlanIds.getValue()).containsOnly("EXERCISE-STUDENT1", "OTHER-STUDENT4");
+        // the role is checked once per course
+        verify(authCheckService, times(1)).isAtLeastTeachingAssistantInCourse(course);
+
+        // the visible participations are watched now
+        buildStatusCacheService.getBuildStatuses(Arrays.asList(1L, 4L));
+        verify(continuousIntegrationService, times(1)).getBuildStatuses(anyCollectionOf(String.class));
+    }
+}
@@ -0,0 +1,207 @@
+package de.tum.in.www1.artemis.service;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.enumeration.ParticipationState;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs two nodes of the cluster (two embedded Hazelcast members on this machine) and checks that the state of a quiz
+ * written on one node can be read and processed on the other one.
+ */
+public class HazelcastQuizStateStoreTest {
+
+    private static final Long QUIZ_ID = 42L;
+
+    private HazelcastInstance firstMember;
+    private HazelcastInstance secondMember;
+    private HazelcastQuizStateStore firstNode;
+    private HazelcastQuizStateStore secondNode;
+
+    @Before
+    public void setup() {
+        String clusterName = "artemis-test-" + UUID.randomUUID();
+        firstMember = Hazelcast.newHazelcastInstance(createConfig(clusterName));
+        secondMember = Hazelcast.newHazelcastInstance(createConfig(clusterName));
+        firstNode = new HazelcastQuizStateStore(firstMember);
+        secondNode = new HazelcastQuizStateStore(secondMember);
+    }
+
+    @After
+    public void tearDown() {
+        secondMember.shutdown();
+        firstMember.shutdown();
+    }
+
+    @Test
+    public void membersFormOneCluster() {
+        assertThat(firstMember.getCluster().getMembers()).hasSize(2);
+        // exactly one node processes the quiz
+        assertThat(firstNode.isOwner(QUIZ_ID)).isNotEqualTo(secondNode.isOwner(QUIZ_ID));
+    }
+
+    @Test
+    public void submissionIsReadOnOtherNode() {
+        firstNode.putSubmission(QUIZ_ID, "student1", createSubmission());
+        firstNode.markSubmitted(QUIZ_ID);
+
+        QuizSubmission quizSubmission = secondNode.getSubmissions(QUIZ_ID).get("student1");
+
+        assertThat(quizSubmission).isNotNull();
+        assertThat(quizSubmission.isSubmitted()).isTrue();
+        assertThat(quizSubmission.getSubmittedAnswers()).hasSize(2);
+        MultipleChoiceSubmittedAnswer multipleChoiceAnswer = (MultipleChoiceSubmittedAnswer) answerForQuestion(quizSubmission, 1L);
+        assertThat(multipleChoiceAnswer.getSelectedOptions()).extracting(AnswerOption::getId).containsExactlyInAnyOrder(10L, 11L);
+        DragAndDropSubmittedAnswer dragAndDropAnswer = (DragAndDropSubmittedAnswer) answerForQuestion(quizSubmission, 2L);
+        assertThat(dragAndDropAnswer.getMappings()).hasSize(1);
+        DragAndDropMapping mapping = dragAndDropAnswer.getMappings().iterator().next();
+        assertThat(mapping.getDragItem().getId()).isEqualTo(20L);
+        assertThat(mapping.getDropLocation().getId()).isEqualTo(30L);
+
+        assertThat(secondNode.removeSubmission(QUIZ_ID, "student1")).isNotNull();
+        assertThat(firstNode.getSubmission(QUIZ_ID, "student1")).isNull();
+    }
+
+    @Test
+    public void participationAndResultAreReadOnOtherNode() {
+        Participation participation = createParticipation();
+        firstNode.putParticipation(QUIZ_ID, "student1", participation);
+        firstNode.addResult(QUIZ_ID, participation.getResults().iterator().next());
+
+        Map<String, Participation> participations = secondNode.removeParticipations(QUIZ_ID);
+        Set<Result> results = secondNode.removeResults(QUIZ_ID);
+
+        assertThat(participations).containsOnlyKeys("student1");
+        Participation storedParticipation = participations.get("student1");
+        assertThat(storedParticipation.getId()).isEqualTo(5L);
+        assertThat(storedParticipation.getStudent().getLogin()).isEqualTo("student1");
+        assertThat(storedParticipation.getInitializationState()).isEqualTo(ParticipationState.FINISHED);
+        assertThat(storedParticipation.getResults()).hasSize(1);
+        assertThat(results).hasSize(1);
+        Result result = results.iterator().next();
+        assertThat(result.getId()).isEqualTo(6L);
+        assertThat(result.getParticipation().getId()).isEqualTo(5L);
+        assertThat(result.getScore()).isEqualTo(50L);
+        assertThat(result.isRated()).isTrue();
+        assertThat(((QuizSubmission) result.getSubmission()).getSubmittedAnswers()).hasSize(2);
+
+        assertThat(firstNode.removeParticipations(QUIZ_ID)).isEmpty();
+        assertThat(firstNode.removeResults(QUIZ_ID)).isEmpty();
+    }
+
+    @Test
+    public void submittedUsersAreReplicatedToOtherNode() {
+        firstNode.putSubmittedUsers(QUIZ_ID, Collections.singletonList("student1"));
+        firstNode.markUserSubmitted(QUIZ_ID, "student2");
+
+        // the replicated map is updated asynchronously
+        awaitTrue(() -> secondNode.hasSubmittedUsers(QUIZ_ID) && secondNode.hasUserSubmitted(QUIZ_ID, "student2"));
+        assertThat(secondNode.hasUserSubmitted(QUIZ_ID, "student1")).isTrue();
+        assertThat(secondNode.hasUserSubmitted(QUIZ_ID, "student3")).isFalse();
+
+        secondNode.removeSubmittedUsers(QUIZ_ID);
+        awaitTrue(() -> !firstNode.hasSubmittedUsers(QUIZ_ID) && !firstNode.hasUserSubmitted(QUIZ_ID, "student1"));
+    }
+
+    @Test
+    public void quizChangeIsOnlyDeliveredToOtherNodes() {
+        List<Long> changesOnFirstNode = new CopyOnWriteArrayList<>();
+        List<Long> changesOnSecondNode = new CopyOnWriteArrayList<>();
+        firstNode.addQuizChangeListener(changesOnFirstNode::add);
+        secondNode.addQuizChangeListener(changesOnSecondNode::add);
+
+        firstNode.publishQuizChange(QUIZ_ID);
+
+        awaitTrue(() -> !changesOnSecondNode.isEmpty());
+        assertThat(changesOnSecondNode).containsExactly(QUIZ_ID);
+        assertThat(changesOnFirstNode).isEmpty();
+    }
+
+    private static Config createConfig(String clusterName) {
+        Config config = new Config();
+        config.getGroupConfig().setName(clusterName);
+        config.setProperty("hazelcast.logging.type", "slf4j");
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        config.getNetworkConfig().setPort(5801).setPortAutoIncrement(true);
+        JoinConfig joinConfig = config.getNetworkConfig().getJoin();
+        joinConfig.getMulticastConfig().setEnabled(false);
+        joinConfig.getTcpIpConfig().setEnabled(true).addMember("127.0.0.1");
+        return config;
+    }
+
+    private static QuizSubmission createSubmission() {
+        MultipleChoiceQuestion multipleChoiceQuestion = new MultipleChoiceQuestion();
+        multipleChoiceQuestion.setId(1L);
+        MultipleChoiceSubmittedAnswer multipleChoiceAnswer = new MultipleChoiceSubmittedAnswer();
+        multipleChoiceAnswer.setQuestion(multipleChoiceQuestion);
+        for (long answerOptionId : new long[]{10L, 11L}) {
+            AnswerOption answerOption = new AnswerOption();
+            answerOption.setId(answerOptionId);
+            multipleChoiceAnswer.addSelectedOptions(answerOption);
+        }
+
+        DragAndDropQuestion dragAndDropQuestion = new DragAndDropQuestion();
+        dragAndDropQuestion.setId(2L);
+        DragItem dragItem = new DragItem();
+        dragItem.setId(20L);
+        DropLocation dropLocation = new DropLocation();
+        dropLocation.setId(30L);
+        DragAndDropSubmittedAnswer dragAndDropAnswer = new DragAndDropSubmittedAnswer();
+        dragAndDropAnswer.setQuestion(dragAndDropQuestion);
+        dragAndDropAnswer.addMappings(new DragAndDropMapping().dragItem(dragItem).dropLocation(dropLocation));
+
+        QuizSubmission quizSubmission = new QuizSubmission();
+        quizSubmission.setSubmitted(true);
+        quizSubmission.setSubmissionDate(ZonedDateTime.now());
+        quizSubmission.addSubmittedAnswers(multipleChoiceAnswer);
+        quizSubmission.addSubmittedAnswers(dragAndDropAnswer);
+        return quizSubmission;
+    }
+
+    private static Participation createParticipation() {
+        User student = new User();
+        student.setLogin("student1");
+        Participation participation = new Participation().student(student);
+        participation.setId(5L);
+        participation.setInitializationState(ParticipationState.FINISHED);
+        Result result = new Result();
+        result.setId(6L);
+        result.setScore(50L);
+        result.setRated(true);
+        result.setCompletionDate(ZonedDateTime.now());
+        result.setSubmission(createSubmission());
+        participation.addResult(result);
+        return participation;
+    }
+
+    private static SubmittedAnswer answerForQuestion(QuizSubmission quizSubmission, Long questionId) {
+        return quizSubmission.getSubmittedAnswers().stream()
+            .filter(submittedAnswer -> questionId.equals(submittedAnswer.getQuestion().getId()))
+            .findFirst().orElse(null);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met within 10 seconds").isLessThan(deadline);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package de.tum.in.www1.artemis.service;
+
+import de.tum.in.www1.artemis.domain.Participation;
+import de.tum.in.www1.artemis.domain.ParticipationLatestResult;
+import de.tum.in.www1.artemis.domain.Result;
+import de.tum.in.www1.artemis.repository.ParticipationLatestResultRepository;
+import de.tum.in.www1.artemis.repository.ResultRepository;
+import de.tum.in.www1.artemis.service.LatestResultService.LatestResults;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class LatestResultServiceTest {
+
+    private static final ZonedDateTime NOW = ZonedDateTime.now();
+
+    private ParticipationLatestResultRepository participationLatestResultRepository;
+    private ResultRepository resultRepository;
+    private LatestResultService latestResultService;
+    private Participation participation;
+
+    @Before
+    public void setup() {
+        participationLatestResultRepository = mock(ParticipationLatestResultRepository.class);
+        resultRepository = mock(ResultRepository.class);
+        latestResultService = new LatestResultService(participationLatestResultRepository, resultRepository);
+        participation = new Participation();
+        participation.setId(1L);
+    }
+
+    @Test
+    public void newResultMovesReferenceOnlyIfLater() {
+        result(10L, true, NOW);
+        ParticipationLatestResult latestResult = latestResult(10L, null);
+
+        latestResultService.onResultCreated(result(11L, true, NOW.minusMinutes(1)));
+        assertThat(latestResult.getLatestRatedResultId()).isEqualTo(10L);
+
+        latestResultService.onResultCreated(result(12L, true, NOW.plusMinutes(1)));
+        assertThat(latestResult.getLatestRatedResultId()).isEqualTo(12L);
+        assertThat(latestResult.getLatestUnratedResultId()).isNull();
+    }
+
+    @Test
+    public void newResultWithSameCompletionDateMovesReferenceOnlyIfItHasHigherId() {
+        result(10L, false, NOW);
+        ParticipationLatestResult latestResult = latestResult(null, 10L);
+
+        latestResultService.onResultCreated(result(9L, false, NOW));
+        assertThat(latestResult.getLatestUnratedResultId()).isEqualTo(10L);
+
+        latestResultService.onResultCreated(result(11L, false, NOW));
+        assertThat(latestResult.getLatestUnratedResultId()).isEqualTo(11L);
+    }
+
+    @Test
+    public void firstResultCreatesReferences() {
+        Result result = result(10L, true, NOW);
+        when(resultRepository.findByParticipationIdOrderByCompletionDateDesc(1L)).thenReturn(Collections.singletonList(result));
+
+        latestResultService.onResultCreated(result);
+
+        ParticipationLatestResult saved = captureSaved();
+        assertThat(saved.getParticipationId()).isEqualTo(1L);
+        assertThat(saved.getLatestRatedResultId()).isEqualTo(10L);
+        assertThat(saved.getLatestUnratedResultId()).isNull();
+    }
+
+    @Test
+    public void referencesAreComputedAgainAfterDelete() {
+        Result deleted = result(12L, true, NOW.plusMinutes(1));
+        ParticipationLatestResult latestResult = latestResult(12L, 11L);
+        // the remaining results, ordered by completion date only, the result without completion date is ignored
+        List<Result> remainingResults = Arrays.asList(
+            result(13L, false, null), result(10L, true, NOW), result(14L, true, NOW), result(11L, false, NOW.minusMinutes(1)));
+        when(resultRepository.findByParticipationIdOrderByCompletionDateDesc(1L)).thenReturn(remainingResults);
+
+        latestResultService.deleteResult(deleted);
+
+        verify(resultRepository).delete(12L);
+        assertThat(captureSaved()).isSameAs(latestResult);
+        assertThat(latestResult.getLatestRatedResultId()).isEqualTo(14L);
+        assertThat(latestResult.getLatestUnratedResultId()).isEqualTo(11L);
+    }
+
+    @Test
+    public void latestResultsAreLoadedByParticipation() {
+        Result rated = result(10L, true, NOW);
+        Result unrated = result(11L, false, NOW.plusMinutes(1));
+        ParticipationLatestResult latestResult = latestResult(10L, 11L);
+        when(participationLatestResultRepository.findAll(Collections.singleton(1L))).thenReturn(Collections.singletonList(latestResult));
+        when(resultRepository.findAll(anyCollectionOf(Long.class))).thenReturn(Arrays.asList(rated, unrated));
+
+        Participation otherParticipation = new Participation();
+        otherParticipation.setId(2L);
+        Map<Long, LatestResults> latestResults = latestResultService.findLatestResults(Arrays.asList(participation, otherParticipation));
+
+        assertThat(latestResults).containsOnlyKeys(1L);
+        assertThat(LatestResultService.findLatestResult(participation, latestResults)).isSameAs(unrated);
+        assertThat(LatestResultService.findLatestResult(otherParticipation, latestResults)).isNull();
+    }
+
+    private Result result(Long id, boolean rated, ZonedDateTime completionDate) {
+        Result result = new Result().participation(participation);
+        result.setId(id);
+        result.setRated(rated);
+        result.setCompletionDate(completionDate);
+        when(resultRepository.findOne(id)).thenReturn(result);
+        return result;
+    }
+
+    private ParticipationLatestResult latestResult(Long latestRatedResultId, Long latestUnratedResultId) {
+        ParticipationLatestResult latestResult = new ParticipationLatestResult(1L);
+        latestResult.setLatestRatedResultId(latestRatedResultId);
+        latestResult.setLatestUnratedResultId(latestUnratedResultId);
+        when(participationLatestResultRepository.findOneForUpdate(1L)).thenReturn(latestResult);
+        return latestResult;
+    }
+
+    private ParticipationLatestResult captureSaved() {
+        ArgumentCaptor<ParticipationLatestResult> captor = ArgumentCaptor.forClass(ParticipationLatestResult.class);
+        verify(participationLatestResultRepository).save(captor.capture());
+        return captor.getValue();
+    }
+}
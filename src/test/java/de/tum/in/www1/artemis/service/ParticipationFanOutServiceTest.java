@@ -0,0 +1,74 @@
+package de.tum.in.www1.artemis.service;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.tum.in.www1.artemis.domain.ModelingExercise;
+import de.tum.in.www1.artemis.domain.Participation;
+import de.tum.in.www1.artemis.domain.User;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ParticipationFanOutServiceTest {
+
+    @Test
+    public void spliceAddsExerciseToParticipation() {
+        assertThat(splice("{\"id\":1,\"results\":[]}", "{\"id\":2}")).isEqualTo("{\"id\":1,\"results\":[],\"exercise\":{\"id\":2}}");
+    }
+
+    @Test
+    public void spliceIgnoresWhitespace() {
+        assertThat(splice("{ \"id\" : 1 }\n", "{}")).isEqualTo("{ \"id\" : 1 ,\"exercise\":{}}");
+        assertThat(splice("{ }", "{}")).isEqualTo("{ \"exercise\":{}}");
+    }
+
+    @Test
+    public void spliceIntoEmptyParticipation() {
+        assertThat(splice("{}", "{\"id\":2}")).isEqualTo("{\"exercise\":{\"id\":2}}");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void participationIsSentAsJson() {
+        SimpMessageSendingOperations messagingTemplate = Mockito.mock(SimpMessageSendingOperations.class);
+        ParticipationFanOutService fanOutService = new ParticipationFanOutService(messagingTemplate,
+            new MappingJackson2HttpMessageConverter(new ObjectMapper().findAndRegisterModules()), new MetricRegistry());
+        ReflectionTestUtils.setField(fanOutService, "BATCH_SIZE", 10);
+        ReflectionTestUtils.setField(fanOutService, "PARALLELISM", 1);
+        fanOutService.init();
+        try {
+            User student = new User();
+            student.setLogin("student1");
+            ModelingExercise exercise = new ModelingExercise();
+            exercise.setId(2L);
+            Participation participation = new Participation().student(student).exercise(exercise);
+            participation.setId(1L);
+
+            int sent = fanOutService.sendParticipations(exercise, Collections.singletonList(participation), "/topic/quizExercise/2/participation");
+
+            assertThat(sent).isEqualTo(1);
+            ArgumentCaptor<Message> message = ArgumentCaptor.forClass(Message.class);
+            Mockito.verify(messagingTemplate).send(Mockito.eq("/user/student1/topic/quizExercise/2/participation"), message.capture());
+            assertThat(message.getValue().getHeaders().get(MessageHeaders.CONTENT_TYPE)).isEqualTo(MimeTypeUtils.APPLICATION_JSON);
+            assertThat(new String((byte[]) message.getValue().getPayload(), StandardCharsets.UTF_8)).contains("\"exercise\":{");
+        } finally {
+            fanOutService.destroy();
+        }
+    }
+
+    private String splice(String participationJson, String exerciseJson) {
+        byte[] result = ParticipationFanOutService.splice(participationJson.getBytes(StandardCharsets.UTF_8), exerciseJson.getBytes(StandardCharsets.UTF_8));
+        return new String(result, StandardCharsets.UTF_8);
+    }
+}
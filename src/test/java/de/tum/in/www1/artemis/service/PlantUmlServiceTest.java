@@ -0,0 +1,99 @@
+package de.tum.in.www1.artemis.service;
+
+import de.tum.in.www1.artemis.service.PlantUmlService.DiagramFormat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PlantUmlServiceTest {
+
+    // sequence diagrams are rendered without graphviz
+    private static final String DIAGRAM_1 = "@startuml\nAlice -> Bob : hello\n@enduml";
+    private static final String DIAGRAM_2 = "@startuml\nBob -> Alice : goodbye\n@enduml";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private PlantUmlService plantUmlService;
+
+    @Before
+    public void setup() {
+        plantUmlService = createService(1024 * 1024, "", 1024 * 1024);
+    }
+
+    @After
+    public void tearDown() {
+        plantUmlService.destroy();
+    }
+
+    @Test
+    public void renderedImageIsCached() throws Exception {
+        byte[] image = plantUmlService.generateImage(DIAGRAM_1, DiagramFormat.SVG);
+
+        assertThat(image).isNotEmpty();
+        assertThat(plantUmlService.getCachedImage(PlantUmlService.hash(DIAGRAM_1, DiagramFormat.SVG))).isSameAs(image);
+        assertThat(plantUmlService.generateImage(DIAGRAM_1, DiagramFormat.SVG)).isSameAs(image);
+    }
+
+    @Test
+    public void leastRecentlyUsedImageIsEvictedWhenCacheIsFull() throws Exception {
+        byte[] image = plantUmlService.generateImage(DIAGRAM_1, DiagramFormat.SVG);
+        plantUmlService.destroy();
+        // the cache only has room for one of the two images
+        plantUmlService = createService(image.length + image.length / 2, "", 1024 * 1024);
+
+        plantUmlService.generateImage(DIAGRAM_1, DiagramFormat.SVG);
+        plantUmlService.generateImage(DIAGRAM_2, DiagramFormat.SVG);
+
+        assertThat(plantUmlService.getCachedImage(PlantUmlService.hash(DIAGRAM_1, DiagramFormat.SVG))).isNull();
+        assertThat(plantUmlService.getCachedImage(PlantUmlService.hash(DIAGRAM_2, DiagramFormat.SVG))).isNotNull();
+    }
+
+    @Test
+    public void imageIsReadFromDiskIfNotInMemory() throws Exception {
+        plantUmlService.destroy();
+        Path cachePath = temporaryFolder.newFolder().toPath();
+        // an image that could not have been rendered from the source proves that the disk cache was used
+        byte[] cachedImage = "<svg>cached</svg>".getBytes(StandardCharsets.UTF_8);
+        Files.write(cachePath.resolve(PlantUmlService.hash(DIAGRAM_1, DiagramFormat.SVG) + ".svg"), cachedImage);
+        plantUmlService = createService(1024 * 1024, cachePath.toString(), 1024 * 1024);
+
+        assertThat(plantUmlService.generateImage(DIAGRAM_1, DiagramFormat.SVG)).isEqualTo(cachedImage);
+    }
+
+    @Test
+    public void leastRecentlyUsedFileIsDeletedWhenDiskCacheIsFull() throws Exception {
+        byte[] image = plantUmlService.generateImage(DIAGRAM_1, DiagramFormat.SVG);
+        plantUmlService.destroy();
+        Path cachePath = temporaryFolder.newFolder().toPath();
+        // the disk cache only has room for one of the two images
+        plantUmlService = createService(1024 * 1024, cachePath.toString(), image.length + image.length / 2);
+
+        plantUmlService.generateImage(DIAGRAM_1, DiagramFormat.SVG);
+        plantUmlService.generateImage(DIAGRAM_2, DiagramFormat.SVG);
+
+        assertThat(cachePath.resolve(PlantUmlService.hash(DIAGRAM_1, DiagramFormat.SVG) + ".svg")).doesNotExist();
+        assertThat(cachePath.resolve(PlantUmlService.hash(DIAGRAM_2, DiagramFormat.SVG) + ".svg")).exists();
+    }
+
+    private PlantUmlService createService(long cacheSizeBytes, String cachePath, long diskCacheSizeBytes) {
+        PlantUmlService service = new PlantUmlService();
+        ReflectionTestUtils.setField(service, "CACHE_SIZE_BYTES", cacheSizeBytes);
+        ReflectionTestUtils.setField(service, "CACHE_PATH", cachePath);
+        ReflectionTestUtils.setField(service, "DISK_CACHE_SIZE_BYTES", diskCacheSizeBytes);
+        ReflectionTestUtils.setField(service, "RENDER_THREADS", 1);
+        ReflectionTestUtils.setField(service, "RENDER_QUEUE_CAPACITY", 10);
+        ReflectionTestUtils.setField(service, "RENDER_TIMEOUT_SECONDS", 30);
+        service.init();
+        return service;
+    }
+}
@@ -0,0 +1,42 @@
+package de.tum.in.www1.artemis.service;
+
+import de.tum.in.www1.artemis.config.Constants;
+import de.tum.in.www1.artemis.domain.QuizExercise;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QuizTimingTest {
+
+    private final ZonedDateTime releaseDate = ZonedDateTime.parse("2018-06-01T10:00:00Z");
+
+    @Test
+    public void submissionAllowedWhileQuizIsRunning() {
+        QuizTiming quizTiming = QuizTiming.of(quiz(true, 60));
+        Instant start = releaseDate.toInstant();
+
+        assertThat(quizTiming.isSubmissionAllowed(start.minusSeconds(1))).isFalse();
+        assertThat(quizTiming.isSubmissionAllowed(start.plusSeconds(1))).isTrue();
+        assertThat(quizTiming.isSubmissionAllowed(start.plusSeconds(60 + Constants.QUIZ_GRACE_PERIOD_IN_SECONDS - 1))).isTrue();
+        assertThat(quizTiming.isSubmissionAllowed(start.plusSeconds(60 + Constants.QUIZ_GRACE_PERIOD_IN_SECONDS))).isFalse();
+        assertThat(quizTiming.isEnded(start.plusSeconds(60 + Constants.QUIZ_GRACE_PERIOD_IN_SECONDS))).isTrue();
+    }
+
+    @Test
+    public void submissionNotAllowedIfQuizIsNotPlannedToStart() {
+        QuizTiming quizTiming = QuizTiming.of(quiz(false, 60));
+
+        assertThat(quizTiming.isSubmissionAllowed(releaseDate.toInstant().plusSeconds(1))).isFalse();
+        assertThat(quizTiming.isEnded(releaseDate.toInstant().plusSeconds(3600))).isFalse();
+    }
+
+    private QuizExercise quiz(boolean isPlannedToStart, int duration) {
+        QuizExercise quizExercise = new QuizExercise().isPlannedToStart(isPlannedToStart).duration(duration);
+        quizExercise.setId(1L);
+        quizExercise.setReleaseDate(releaseDate);
+        return quizExercise;
+    }
+}
@@ -0,0 +1,102 @@
+package de.tum.in.www1.artemis.service;
+
+import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.enumeration.ParticipationState;
+import de.tum.in.www1.artemis.repository.ParticipationRepository;
+import de.tum.in.www1.artemis.service.LatestResultService.LatestResults;
+import de.tum.in.www1.artemis.service.RelevantParticipationService.RelevantParticipations;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+public class RelevantParticipationServiceTest {
+
+    private ParticipationRepository participationRepository;
+    private RelevantParticipationService relevantParticipationService;
+    private ProgrammingExercise exercise;
+    private User student;
+
+    @Before
+    public void setup() {
+        participationRepository = mock(ParticipationRepository.class);
+        LatestResultService latestResultService = mock(LatestResultService.class);
+        relevantParticipationService = new RelevantParticipationService(participationRepository, latestResultService);
+        ReflectionTestUtils.setField(relevantParticipationService, "TTL_SECONDS", 60L);
+
+        exercise = new ProgrammingExercise();
+        exercise.setId(1L);
+        student = new User();
+        student.setLogin("student1");
+
+        Participation participation = new Participation().exercise(exercise).student(student)
+            .initializationState(ParticipationState.INITIALIZED).buildPlanId("PLAN-STUDENT1");
+        participation.setId(2L);
+        Result result = new Result();
+        result.setId(3L);
+        result.setRated(true);
+        result.setScore(80L);
+        result.setCompletionDate(ZonedDateTime.now());
+        result.setParticipation(participation);
+        Map<Long, LatestResults> latestResults = new HashMap<>();
+        latestResults.put(2L, new LatestResults(result, null));
+        when(participationRepository.findByStudentLogin("student1")).thenReturn(Collections.singletonList(participation));
+        when(latestResultService.findLatestResults(anyCollection())).thenReturn(latestResults);
+    }
+
+    @Test
+    public void everyRequestGetsItsOwnParticipationAndResult() {
+        RelevantParticipations participations = relevantParticipationService.getRelevantParticipations("student1");
+
+        Participation participation = participations.findRelevantParticipation(exercise, student);
+        Result result = participations.findLatestRelevantResult(exercise, participation);
+
+        assertThat(participation.getId()).isEqualTo(2L);
+        assertThat(participation.getBuildPlanId()).isEqualTo("PLAN-STUDENT1");
+        assertThat(participation.getExercise()).isSameAs(exercise);
+        assertThat(result.getId()).isEqualTo(3L);
+        assertThat(result.getScore()).isEqualTo(80L);
+        assertThat(result.getParticipation()).isNull();
+
+        // a request that changes its objects does not change the cached state
+        participation.setBuildPlanId(null);
+        result.setScore(0L);
+        RelevantParticipations cachedParticipations = relevantParticipationService.getRelevantParticipations("student1");
+        Participation otherParticipation = cachedParticipations.findRelevantParticipation(exercise, student);
+        assertThat(cachedParticipations).isSameAs(participations);
+        assertThat(otherParticipation).isNotSameAs(participation);
+        assertThat(otherParticipation.getBuildPlanId()).isEqualTo("PLAN-STUDENT1");
+        assertThat(cachedParticipations.findLatestRelevantResult(exercise, otherParticipation).getScore()).isEqualTo(80L);
+        verify(participationRepository, times(1)).findByStudentLogin("student1");
+    }
+
+    @Test
+    public void evictedParticipationsAreLoadedAgain() {
+        RelevantParticipations participations = relevantParticipationService.getRelevantParticipations("student1");
+        Participation participation = new Participation().student(student);
+
+        relevantParticipationService.evict(participation);
+
+        assertThat(relevantParticipationService.getRelevantParticipations("student1")).isNotSameAs(participations);
+        verify(participationRepository, times(2)).findByStudentLogin("student1");
+    }
+
+    @Test
+    public void exerciseWithoutParticipationHasNoRelevantParticipation() {
+        ProgrammingExercise otherExercise = new ProgrammingExercise();
+        otherExercise.setId(4L);
+
+        RelevantParticipations participations = relevantParticipationService.getRelevantParticipations("student1");
+
+        assertThat(participations.findRelevantParticipation(otherExercise, student)).isNull();
+        assertThat(participations.findLatestRelevantResult(otherExercise, new Participation())).isNull();
+    }
+}
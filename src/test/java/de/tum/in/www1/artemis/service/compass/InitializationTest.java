@@ -1,5 +1,6 @@
 package de.tum.in.www1.artemis.service.compass;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.gson.JsonObject;
 import de.tum.in.www1.artemis.config.Constants;
 import de.tum.in.www1.artemis.repository.JsonAssessmentRepository;
@@ -212,7 +213,7 @@ public class InitializationTest {
         int studentId = 2;
         int exerciseId = 6;
 
-        CompassService compassService = new CompassService(assessmentRepository, modelRepository, null, null);
+        CompassService compassService = new CompassService(assessmentRepository, modelRepository, null, null, null, null, new MetricRegistry());
         compassService.loadExercise(exerciseId);
 
         compassCalculationEngine = (CompassCalculationEngine) compassService.getEngine(exerciseId);
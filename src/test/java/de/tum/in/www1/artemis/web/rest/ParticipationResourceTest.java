@@ -0,0 +1,57 @@
+package de.tum.in.www1.artemis.web.rest;
+
+import de.tum.in.www1.artemis.service.BuildStatusCacheService;
+import de.tum.in.www1.artemis.service.ContinuousIntegrationService.BuildStatus;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class ParticipationResourceTest {
+
+    private BuildStatusCacheService buildStatusCacheService;
+    private ParticipationResource participationResource;
+
+    @Before
+    public void setup() {
+        buildStatusCacheService = mock(BuildStatusCacheService.class);
+        participationResource = new ParticipationResource(null, null, null, null, null, Optional.empty(), Optional.empty(), buildStatusCacheService);
+        ReflectionTestUtils.setField(participationResource, "MAX_PARTICIPATIONS_PER_STATUS_REQUEST", 100);
+    }
+
+    @Test
+    public void statusOfAtMostMaxParticipationsIsReturned() {
+        List<Long> participationIds = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            participationIds.add(id);
+        }
+        // duplicates do not count
+        participationIds.add(1L);
+        Map<Long, BuildStatus> statuses = Collections.singletonMap(1L, BuildStatus.QUEUED);
+        when(buildStatusCacheService.getBuildStatuses(new HashSet<>(participationIds))).thenReturn(statuses);
+
+        ResponseEntity<Map<Long, BuildStatus>> response = participationResource.getParticipationStatuses(participationIds);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isSameAs(statuses);
+    }
+
+    @Test
+    public void requestForMoreThanMaxParticipationsIsRejected() {
+        List<Long> participationIds = new ArrayList<>();
+        for (long id = 1; id <= 101; id++) {
+            participationIds.add(id);
+        }
+
+        ResponseEntity<Map<Long, BuildStatus>> response = participationResource.getParticipationStatuses(participationIds);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyZeroInteractions(buildStatusCacheService);
+    }
+}
@@ -0,0 +1,172 @@
+package de.tum.in.www1.artemis.benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import de.tum.in.www1.artemis.service.compass.controller.JSONParser;
+import de.tum.in.www1.artemis.service.compass.umlmodel.UMLModel;
+import de.tum.in.www1.artemis.service.compass.utils.JSONMapping;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates class diagrams in the JSON format of the modeling editor, like the submissions of a modeling exercise:
+ * every model is a variation of the same sample solution (missing classes, typos, additional classes and relations).
+ *
+ * The generator is seeded, so every run of a benchmark works on the same models.
+ */
+public class ModelGenerator {
+
+    private static final String[][] SAMPLE_SOLUTION = {
+        // class name, attributes..., methods (ending with "()")
+        {"Student", "name: String", "matriculationNumber: int", "enroll()", "submit(Exercise)"},
+        {"Course", "title: String", "semester: String", "register(Student)"},
+        {"Lecture", "title: String", "date: Date"},
+        {"Exercise", "title: String", "dueDate: Date", "maxScore: int", "evaluate()"},
+        {"Submission", "submissionDate: Date", "submitted: boolean"},
+        {"Result", "score: int", "feedback: String", "publish()"},
+        {"Tutor", "name: String", "assess(Submission)"},
+        {"Instructor", "name: String", "createExercise()"},
+        {"Room", "building: String", "capacity: int"},
+        {"Exam", "date: Date", "duration: int", "grade()"},
+    };
+
+    private static final String[] ADDITIONAL_CLASSES = {"University", "Semester", "Team", "Grade", "Schedule", "Building", "Faculty", "Library"};
+
+    private static final String[] RELATIONSHIP_TYPES = {"PLAIN", "AGGREGATION", "COMPOSITION", "INHERITANCE", "ASSOCIATION_UNIDIRECTIONAL", "ASSOCIATION_BIDIRECTIONAL"};
+
+    private final Random random;
+
+    private int nextId = 0;
+
+    public ModelGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * @param count the number of models
+     * @return the given number of models in the JSON format of the modeling editor
+     */
+    public List<JsonObject> generateJsonModels(int count) {
+        List<JsonObject> models = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            models.add(generateJsonModel());
+        }
+        return models;
+    }
+
+    /**
+     * @param count the number of models
+     * @return the given number of models parsed by Compass, the model ids are 0 to count - 1
+     */
+    public List<UMLModel> generateModels(int count) {
+        List<UMLModel> models = new ArrayList<>(count);
+        long modelId = 0;
+        for (JsonObject jsonModel : generateJsonModels(count)) {
+            try {
+                models.add(JSONParser.buildModelFromJSON(jsonModel, modelId++));
+            } catch (IOException e) {
+                throw new IllegalStateException("Generated an invalid model", e);
+            }
+        }
+        return models;
+    }
+
+    private JsonObject generateJsonModel() {
+        JsonArray elementIds = new JsonArray();
+        JsonObject elementsById = new JsonObject();
+
+        for (String[] sampleClass : SAMPLE_SOLUTION) {
+            // most students model most of the classes of the sample solution
+            if (random.nextDouble() < 0.85) {
+                addClass(elementIds, elementsById, vary(sampleClass[0]), sampleClass);
+            }
+        }
+        int additionalClasses = random.nextInt(3);
+        for (int i = 0; i < additionalClasses; i++) {
+            String name = ADDITIONAL_CLASSES[random.nextInt(ADDITIONAL_CLASSES.length)];
+            addClass(elementIds, elementsById, name, new String[] {name, "id: int"});
+        }
+
+        JsonArray relationshipIds = new JsonArray();
+        JsonObject relationshipsById = new JsonObject();
+        int relationships = elementIds.size() == 0 ? 0 : elementIds.size() + random.nextInt(elementIds.size());
+        for (int i = 0; i < relationships; i++) {
+            String id = nextId();
+            JsonObject relationship = new JsonObject();
+            relationship.addProperty(JSONMapping.elementID, id);
+            relationship.addProperty(JSONMapping.relationshipType, RELATIONSHIP_TYPES[random.nextInt(RELATIONSHIP_TYPES.length)]);
+            relationship.add(JSONMapping.relationshipSource, endpoint(elementIds.get(random.nextInt(elementIds.size())).getAsString()));
+            relationship.add(JSONMapping.relationshipTarget, endpoint(elementIds.get(random.nextInt(elementIds.size())).getAsString()));
+            relationshipIds.add(id);
+            relationshipsById.add(id, relationship);
+        }
+
+        JsonObject elements = new JsonObject();
+        elements.add(JSONMapping.idArray, elementIds);
+        elements.add(JSONMapping.byId, elementsById);
+        JsonObject relationshipsObject = new JsonObject();
+        relationshipsObject.add(JSONMapping.idArray, relationshipIds);
+        relationshipsObject.add(JSONMapping.byId, relationshipsById);
+
+        JsonObject model = new JsonObject();
+        model.add(JSONMapping.elements, elements);
+        model.add(JSONMapping.relationships, relationshipsObject);
+        return model;
+    }
+
+    private void addClass(JsonArray elementIds, JsonObject elementsById, String name, String[] members) {
+        JsonArray attributes = new JsonArray();
+        JsonArray methods = new JsonArray();
+        for (int i = 1; i < members.length; i++) {
+            // some attributes and methods are forgotten
+            if (random.nextDouble() < 0.2) {
+                continue;
+            }
+            JsonObject member = new JsonObject();
+            member.addProperty(JSONMapping.elementID, nextId());
+            member.addProperty(JSONMapping.elementName, vary(members[i]));
+            if (members[i].endsWith(")")) {
+                methods.add(member);
+            } else {
+                attributes.add(member);
+            }
+        }
+
+        String id = nextId();
+        JsonObject umlClass = new JsonObject();
+        umlClass.addProperty(JSONMapping.elementID, id);
+        umlClass.addProperty(JSONMapping.relationshipType, "CLASS");
+        umlClass.addProperty(JSONMapping.elementName, name);
+        umlClass.add(JSONMapping.elementAttributes, attributes);
+        umlClass.add(JSONMapping.elementMethods, methods);
+        elementIds.add(id);
+        elementsById.add(id, umlClass);
+    }
+
+    private JsonObject endpoint(String elementId) {
+        JsonObject endpoint = new JsonObject();
+        endpoint.addProperty(JSONMapping.relationshipEndpointID, elementId);
+        if (random.nextBoolean()) {
+            endpoint.addProperty(JSONMapping.relationshipMultiplicity, random.nextBoolean() ? "1" : "*");
+        }
+        return endpoint;
+    }
+
+    /**
+     * @return the given name, with a typo in some cases
+     */
+    private String vary(String name) {
+        if (random.nextDouble() < 0.1 && name.length() > 3) {
+            int position = 1 + random.nextInt(name.length() - 2);
+            return name.substring(0, position) + name.substring(position + 1);
+        }
+        return name;
+    }
+
+    private String nextId() {
+        return Integer.toString(nextId++, 36);
+    }
+}
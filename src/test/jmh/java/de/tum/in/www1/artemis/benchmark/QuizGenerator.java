@@ -0,0 +1,124 @@
+package de.tum.in.www1.artemis.benchmark;
+
+import de.tum.in.www1.artemis.domain.*;
+import de.tum.in.www1.artemis.domain.enumeration.ScoringType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates a quiz with multiple choice and drag and drop questions and submissions for it, in which the students
+ * answer all questions with a mix of correct and wrong answers.
+ *
+ * The generator is seeded, so every run of a benchmark works on the same quiz and submissions.
+ */
+public class QuizGenerator {
+
+    private static final int MULTIPLE_CHOICE_QUESTIONS = 6;
+    private static final int ANSWER_OPTIONS = 4;
+    private static final int DRAG_AND_DROP_QUESTIONS = 4;
+    private static final int DROP_LOCATIONS = 4;
+
+    private final Random random;
+
+    private long nextId = 1;
+
+    public QuizGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public QuizExercise generateQuiz() {
+        QuizExercise quizExercise = new QuizExercise();
+        quizExercise.setId(nextId++);
+        for (int i = 0; i < MULTIPLE_CHOICE_QUESTIONS; i++) {
+            quizExercise.addQuestions(generateMultipleChoiceQuestion(i % 2 == 0 ? ScoringType.ALL_OR_NOTHING : ScoringType.PROPORTIONAL_WITH_PENALTY));
+        }
+        for (int i = 0; i < DRAG_AND_DROP_QUESTIONS; i++) {
+            quizExercise.addQuestions(generateDragAndDropQuestion(i % 2 == 0 ? ScoringType.ALL_OR_NOTHING : ScoringType.PROPORTIONAL_WITH_PENALTY));
+        }
+        return quizExercise;
+    }
+
+    /**
+     * @param quizExercise the quiz generated by this generator
+     * @param count        the number of submissions
+     * @return the given number of submissions for the given quiz
+     */
+    public List<QuizSubmission> generateSubmissions(QuizExercise quizExercise, int count) {
+        List<QuizSubmission> submissions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            QuizSubmission quizSubmission = new QuizSubmission();
+            quizSubmission.setId(nextId++);
+            for (Question question : quizExercise.getQuestions()) {
+                SubmittedAnswer submittedAnswer = question instanceof MultipleChoiceQuestion ?
+                    generateMultipleChoiceAnswer((MultipleChoiceQuestion) question) : generateDragAndDropAnswer((DragAndDropQuestion) question);
+                submittedAnswer.setId(nextId++);
+                submittedAnswer.setQuestion(question);
+                submittedAnswer.setSubmission(quizSubmission);
+                quizSubmission.addSubmittedAnswers(submittedAnswer);
+            }
+            submissions.add(quizSubmission);
+        }
+        return submissions;
+    }
+
+    private MultipleChoiceQuestion generateMultipleChoiceQuestion(ScoringType scoringType) {
+        MultipleChoiceQuestion question = new MultipleChoiceQuestion();
+        question.setId(nextId++);
+        question.setScore(2);
+        question.setScoringType(scoringType);
+        for (int i = 0; i < ANSWER_OPTIONS; i++) {
+            AnswerOption answerOption = new AnswerOption().text("Option " + i).isCorrect(random.nextBoolean());
+            answerOption.setId(nextId++);
+            question.addAnswerOptions(answerOption);
+        }
+        return question;
+    }
+
+    private DragAndDropQuestion generateDragAndDropQuestion(ScoringType scoringType) {
+        DragAndDropQuestion question = new DragAndDropQuestion();
+        question.setId(nextId++);
+        question.setScore(3);
+        question.setScoringType(scoringType);
+        for (int i = 0; i < DROP_LOCATIONS; i++) {
+            DragItem dragItem = new DragItem().text("Item " + i);
+            dragItem.setId(nextId++);
+            DropLocation dropLocation = new DropLocation().posX(i * 50).posY(0).width(40).height(20);
+            dropLocation.setId(nextId++);
+            question.addDragItems(dragItem);
+            question.addDropLocations(dropLocation);
+            DragAndDropMapping mapping = new DragAndDropMapping().dragItem(dragItem).dropLocation(dropLocation);
+            mapping.setId(nextId++);
+            question.addCorrectMappings(mapping);
+        }
+        return question;
+    }
+
+    private SubmittedAnswer generateMultipleChoiceAnswer(MultipleChoiceQuestion question) {
+        MultipleChoiceSubmittedAnswer submittedAnswer = new MultipleChoiceSubmittedAnswer();
+        for (AnswerOption answerOption : question.getAnswerOptions()) {
+            // mostly right
+            if (answerOption.isIsCorrect() == (random.nextDouble() < 0.75)) {
+                submittedAnswer.addSelectedOptions(answerOption);
+            }
+        }
+        return submittedAnswer;
+    }
+
+    private SubmittedAnswer generateDragAndDropAnswer(DragAndDropQuestion question) {
+        DragAndDropSubmittedAnswer submittedAnswer = new DragAndDropSubmittedAnswer();
+        List<DragItem> dragItems = new ArrayList<>(question.getDragItems());
+        for (DropLocation dropLocation : question.getDropLocations()) {
+            if (dragItems.isEmpty() || random.nextDouble() < 0.1) {
+                // left empty
+                continue;
+            }
+            DragItem dragItem = dragItems.remove(random.nextInt(dragItems.size()));
+            DragAndDropMapping mapping = new DragAndDropMapping().dragItem(dragItem).dropLocation(dropLocation);
+            mapping.setId(nextId++);
+            submittedAnswer.addMappings(mapping);
+        }
+        return submittedAnswer;
+    }
+}
@@ -0,0 +1,50 @@
+package de.tum.in.www1.artemis.domain.scoring;
+
+import de.tum.in.www1.artemis.benchmark.QuizGenerator;
+import de.tum.in.www1.artemis.domain.QuizExercise;
+import de.tum.in.www1.artemis.domain.QuizSubmission;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores all submissions of a quiz, like the quiz scheduler does when a quiz ends
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuizScoringBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int submissions;
+
+    private QuizExercise quizExercise;
+    private CompiledQuiz compiledQuiz;
+    private List<QuizSubmission> submissionList;
+
+    @Setup
+    public void setup() {
+        QuizGenerator quizGenerator = new QuizGenerator(42);
+        quizExercise = quizGenerator.generateQuiz();
+        compiledQuiz = CompiledQuiz.compile(quizExercise);
+        submissionList = quizGenerator.generateSubmissions(quizExercise, submissions);
+    }
+
+    @Benchmark
+    public void calculateAndUpdateScores() {
+        for (QuizSubmission quizSubmission : submissionList) {
+            quizSubmission.calculateAndUpdateScores(quizExercise);
+        }
+    }
+
+    @Benchmark
+    public void calculateAndUpdateScoresCompiled() {
+        for (QuizSubmission quizSubmission : submissionList) {
+            quizSubmission.calculateAndUpdateScores(compiledQuiz);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package de.tum.in.www1.artemis.repository;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the SQL of the hot repository queries against a generated dataset of 1M results (50 000 participations with 20
+ * results each), without and with the indexes of the changelog 20180618143000_changelog.xml.
+ *
+ * The dataset is generated once into a separate MySQL database and reused by later runs. The tables only contain the
+ * columns and the indexes of the production schema that matter for the queries (foreign key indexes, unique constraints).
+ *
+ * System properties: benchmark.jdbc.url, benchmark.jdbc.username, benchmark.jdbc.password
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HotQueryIndexBenchmark {
+
+    private static final int EXERCISES = 100;
+    private static final int STUDENTS = 500;
+    private static final int RESULTS_PER_PARTICIPATION = 20;
+    private static final int PARTICIPATIONS = EXERCISES * STUDENTS;
+    private static final long RESULTS = (long) PARTICIPATIONS * RESULTS_PER_PARTICIPATION;
+
+    private static final String[] INDEXES = {
+        "CREATE INDEX idx_participation_build_plan_state ON participation (build_plan_id, initialization_state)",
+        "CREATE INDEX idx_participation_exercise_student ON participation (exercise_id, student_id)",
+        "CREATE INDEX idx_result_participation_completion ON result (participation_id, completion_date, rated)"
+    };
+
+    @Param({"false", "true"})
+    private boolean indexed;
+
+    private Connection connection;
+
+    private PreparedStatement findByBuildPlanIdAndInitializationState;
+    private PreparedStatement findByExerciseIdAndStudentId;
+    private PreparedStatement findByParticipationIdOrderByCompletionDateDesc;
+    private PreparedStatement findFirstByParticipationIdAndRatedOrderByCompletionDateDesc;
+    private PreparedStatement findDistinctBySubmissionId;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(
+            System.getProperty("benchmark.jdbc.url", "jdbc:mysql://localhost:3306/ArTEMiS_benchmark?createDatabaseIfNotExist=true&useSSL=false&rewriteBatchedStatements=true"),
+            System.getProperty("benchmark.jdbc.username", "root"),
+            System.getProperty("benchmark.jdbc.password", ""));
+        if (countResults() != RESULTS) {
+            generateDataset();
+        }
+        for (String index : INDEXES) {
+            String indexName = index.split(" ")[2];
+            String tableName = index.split(" ")[4];
+            if (hasIndex(tableName, indexName)) {
+                execute("DROP INDEX " + indexName + " ON " + tableName);
+            }
+            if (indexed) {
+                execute(index);
+            }
+        }
+        execute("ANALYZE TABLE participation, result");
+
+        findByBuildPlanIdAndInitializationState = connection.prepareStatement(
+            "SELECT * FROM participation WHERE build_plan_id = ? AND initialization_state = ?");
+        findByExerciseIdAndStudentId = connection.prepareStatement(
+            "SELECT * FROM participation WHERE exercise_id = ? AND student_id = ?");
+        findByParticipationIdOrderByCompletionDateDesc = connection.prepareStatement(
+            "SELECT * FROM result WHERE participation_id = ? ORDER BY completion_date DESC");
+        findFirstByParticipationIdAndRatedOrderByCompletionDateDesc = connection.prepareStatement(
+            "SELECT * FROM result WHERE participation_id = ? AND rated = ? ORDER BY completion_date DESC LIMIT 1");
+        findDistinctBySubmissionId = connection.prepareStatement(
+            "SELECT DISTINCT * FROM result WHERE submission_id = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int findByBuildPlanIdAndInitializationState() throws SQLException {
+        int participation = ThreadLocalRandom.current().nextInt(PARTICIPATIONS);
+        findByBuildPlanIdAndInitializationState.setString(1, buildPlanId(participation / STUDENTS, participation % STUDENTS));
+        findByBuildPlanIdAndInitializationState.setString(2, "INITIALIZED");
+        return consume(findByBuildPlanIdAndInitializationState);
+    }
+
+    @Benchmark
+    public int findByExerciseIdAndStudentId() throws SQLException {
+        findByExerciseIdAndStudentId.setLong(1, ThreadLocalRandom.current().nextInt(EXERCISES) + 1);
+        findByExerciseIdAndStudentId.setLong(2, ThreadLocalRandom.current().nextInt(STUDENTS) + 1);
+        return consume(findByExerciseIdAndStudentId);
+    }
+
+    @Benchmark
+    public int findByParticipationIdOrderByCompletionDateDesc() throws SQLException {
+        findByParticipationIdOrderByCompletionDateDesc.setLong(1, ThreadLocalRandom.current().nextInt(PARTICIPATIONS) + 1);
+        return consume(findByParticipationIdOrderByCompletionDateDesc);
+    }
+
+    @Benchmark
+    public int findFirstByParticipationIdAndRatedOrderByCompletionDateDesc() throws SQLException {
+        findFirstByParticipationIdAndRatedOrderByCompletionDateDesc.setLong(1, ThreadLocalRandom.current().nextInt(PARTICIPATIONS) + 1);
+        findFirstByParticipationIdAndRatedOrderByCompletionDateDesc.setBoolean(2, true);
+        return consume(findFirstByParticipationIdAndRatedOrderByCompletionDateDesc);
+    }
+
+    @Benchmark
+    public int findDistinctBySubmissionId() throws SQLException {
+        findDistinctBySubmissionId.setLong(1, ThreadLocalRandom.current().nextLong(RESULTS) + 1);
+        return consume(findDistinctBySubmissionId);
+    }
+
+    private int consume(PreparedStatement statement) throws SQLException {
+        int rows = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static String buildPlanId(int exercise, int student) {
+        return "EXERCISE" + exercise + "-STUDENT" + student;
+    }
+
+    private long countResults() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM result")) {
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        } catch (SQLException e) {
+            // the tables do not exist yet
+            return -1;
+        }
+    }
+
+    private boolean hasIndex(String tableName, String indexName) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SHOW INDEX FROM " + tableName + " WHERE Key_name = ?")) {
+            statement.setString(1, indexName);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private void generateDataset() throws SQLException {
+        execute("DROP TABLE IF EXISTS result");
+        execute("DROP TABLE IF EXISTS participation");
+        execute("CREATE TABLE participation (" +
+            "id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+            "repository_url VARCHAR(255), " +
+            "build_plan_id VARCHAR(255), " +
+            "initialization_state VARCHAR(255), " +
+            "initialization_date TIMESTAMP NULL, " +
+            "exercise_id BIGINT, " +
+            "student_id BIGINT, " +
+            "KEY fk_participation_exercise (exercise_id), " +
+            "KEY fk_participation_student (student_id), " +
+            "UNIQUE KEY uk_participation (student_id, exercise_id, initialization_state))");
+        execute("CREATE TABLE result (" +
+            "id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+            "result_string VARCHAR(255), " +
+            "completion_date TIMESTAMP NULL, " +
+            "jhi_successful BIT, " +
+            "score BIGINT, " +
+            "rated BIT, " +
+            "hasFeedback BIT, " +
+            "assessment_type VARCHAR(255), " +
+            "participation_id BIGINT, " +
+            "submission_id BIGINT, " +
+            "KEY fk_result_participation (participation_id), " +
+            "UNIQUE KEY uc_result_submission (submission_id))");
+
+        Random random = new Random(42);
+        connection.setAutoCommit(false);
+        try (PreparedStatement insertParticipation = connection.prepareStatement(
+            "INSERT INTO participation (id, repository_url, build_plan_id, initialization_state, initialization_date, exercise_id, student_id) VALUES (?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement insertResult = connection.prepareStatement(
+                 "INSERT INTO result (id, result_string, completion_date, jhi_successful, score, rated, hasFeedback, assessment_type, participation_id, submission_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            long resultId = 0;
+            long start = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(365);
+            // participations in the order of their creation: all students start the first exercise, then the next one
+            for (int participation = 0; participation < PARTICIPATIONS; participation++) {
+                int exercise = participation / STUDENTS;
+                int student = participation % STUDENTS;
+                long participationId = participation + 1;
+                String buildPlanId = buildPlanId(exercise, student);
+                insertParticipation.setLong(1, participationId);
+                insertParticipation.setString(2, "https://bitbucket/scm/" + buildPlanId + ".git");
+                insertParticipation.setString(3, buildPlanId);
+                insertParticipation.setString(4, random.nextInt(10) == 0 ? "INACTIVE" : "INITIALIZED");
+                insertParticipation.setTimestamp(5, new Timestamp(start + participation * 1000L));
+                insertParticipation.setLong(6, exercise + 1);
+                insertParticipation.setLong(7, student + 1);
+                insertParticipation.addBatch();
+                for (int i = 0; i < RESULTS_PER_PARTICIPATION; i++) {
+                    resultId++;
+                    insertResult.setLong(1, resultId);
+                    insertResult.setString(2, random.nextInt(100) + " of 100 passed");
+                    // results of different participations are interleaved in time, like the builds during an exercise
+                    insertResult.setTimestamp(3, new Timestamp(start + participation * 1000L + random.nextInt(1000000)));
+                    insertResult.setBoolean(4, random.nextBoolean());
+                    insertResult.setLong(5, random.nextInt(101));
+                    insertResult.setBoolean(6, random.nextInt(4) != 0);
+                    insertResult.setBoolean(7, random.nextBoolean());
+                    insertResult.setString(8, "AUTOMATIC");
+                    insertResult.setLong(9, participationId);
+                    insertResult.setLong(10, resultId);
+                    insertResult.addBatch();
+                }
+                if (participation % 500 == 499) {
+                    insertParticipation.executeBatch();
+                    insertResult.executeBatch();
+                    connection.commit();
+                }
+            }
+            insertParticipation.executeBatch();
+            insertResult.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+}
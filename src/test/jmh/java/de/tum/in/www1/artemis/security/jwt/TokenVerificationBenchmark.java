@@ -0,0 +1,51 @@
+package de.tum.in.www1.artemis.security.jwt;
+
+import io.github.jhipster.config.JHipsterProperties;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authenticates a request with a JWT, like the JWTFilter does: before with a separate validation and parse of the
+ * token, now with a single parse and the cache of verified tokens
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenVerificationBenchmark {
+
+    private TokenProvider tokenProvider;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setSecret("e5c9ee274ae87bc031adda32e27fa98b9290da83");
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setTokenValidityInSeconds(3600);
+        tokenProvider = new TokenProvider(jHipsterProperties);
+        tokenProvider.init();
+        token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken("student0001", "",
+            Arrays.asList(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_TA"))), false);
+    }
+
+    @Benchmark
+    public Authentication validateAndParse() {
+        if (tokenProvider.validateToken(token)) {
+            return tokenProvider.getAuthentication(token);
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Authentication validatedAuthentication() {
+        return tokenProvider.getValidatedAuthentication(token);
+    }
+}
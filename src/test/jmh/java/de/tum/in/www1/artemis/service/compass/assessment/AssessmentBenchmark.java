@@ -0,0 +1,48 @@
+package de.tum.in.www1.artemis.service.compass.assessment;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds the manual assessments of an element by all tutors, like Compass does when assessments are submitted
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssessmentBenchmark {
+
+    private static final Context CONTEXT = new Context(1);
+
+    @Param({"10", "100", "1000"})
+    private int scores;
+
+    private List<Score> scoreList;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        scoreList = new ArrayList<>(scores);
+        for (int i = 0; i < scores; i++) {
+            // tutors mostly agree on the points
+            double points = random.nextDouble() < 0.8 ? 1.0 : random.nextInt(3) * 0.5;
+            scoreList.add(new Score(points, Collections.singletonList("Comment " + random.nextInt(5)), 1.0));
+        }
+    }
+
+    @Benchmark
+    public Assessment addScores() {
+        Assessment assessment = new Assessment(CONTEXT, scoreList.get(0));
+        for (int i = 1; i < scoreList.size(); i++) {
+            assessment.addScore(scoreList.get(i), CONTEXT);
+        }
+        return assessment;
+    }
+}
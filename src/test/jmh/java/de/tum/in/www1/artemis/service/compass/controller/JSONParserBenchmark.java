@@ -0,0 +1,40 @@
+package de.tum.in.www1.artemis.service.compass.controller;
+
+import com.google.gson.JsonObject;
+import de.tum.in.www1.artemis.benchmark.ModelGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the Compass models of all submissions of an exercise from their JSON
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JSONParserBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int models;
+
+    private List<JsonObject> jsonModels;
+
+    @Setup
+    public void setup() {
+        jsonModels = new ModelGenerator(42).generateJsonModels(models);
+    }
+
+    @Benchmark
+    public void buildModelsFromJson(Blackhole blackhole) throws IOException {
+        long modelId = 0;
+        for (JsonObject jsonModel : jsonModels) {
+            blackhole.consume(JSONParser.buildModelFromJSON(jsonModel, modelId++));
+        }
+    }
+}
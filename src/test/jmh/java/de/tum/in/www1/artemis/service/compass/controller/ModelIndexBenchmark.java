@@ -0,0 +1,40 @@
+package de.tum.in.www1.artemis.service.compass.controller;
+
+import de.tum.in.www1.artemis.benchmark.ModelGenerator;
+import de.tum.in.www1.artemis.service.compass.umlmodel.UMLModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assigns the element ids (ModelIndex.getElementID) of all elements of the models of an exercise, like Compass does
+ * when it loads an exercise
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelIndexBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int models;
+
+    private List<UMLModel> modelList;
+
+    @Setup
+    public void setup() {
+        modelList = new ModelGenerator(42).generateModels(models);
+    }
+
+    @Benchmark
+    public ModelIndex analyzeSimilarityOfAllModels() {
+        ModelIndex modelIndex = new ModelIndex();
+        for (UMLModel model : modelList) {
+            SimilarityDetector.analyzeSimilarity(model, modelIndex);
+        }
+        return modelIndex;
+    }
+}
@@ -0,0 +1,39 @@
+package de.tum.in.www1.artemis.service.compass.umlmodel;
+
+import de.tum.in.www1.artemis.benchmark.ModelGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares one model with all other models of an exercise, like Compass does when it looks for similar models
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UMLModelSimilarityBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int models;
+
+    private List<UMLModel> modelList;
+    private UMLModel reference;
+
+    @Setup
+    public void setup() {
+        modelList = new ModelGenerator(42).generateModels(models);
+        reference = modelList.get(0);
+    }
+
+    @Benchmark
+    public void similarityToAllModels(Blackhole blackhole) {
+        for (UMLModel model : modelList) {
+            blackhole.consume(reference.similarity(model));
+        }
+    }
+}